@@ -0,0 +1,64 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Loads the generated files into the service through its bulk import endpoint.
+ * <p>
+ * The files must be in the service's import directory, which is the case when
+ * the generator's output points there and both run on the same machine.
+ */
+public final class BulkLoader {
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(2);
+
+    private final ServiceClient client;
+    private final LoadTestOptions options;
+    private final PrintStream out;
+
+    /**
+     * Constructs the loader.
+     *
+     * @param client client of the service
+     * @param options admin credentials
+     * @param out where progress is printed
+     */
+    public BulkLoader(ServiceClient client, LoadTestOptions options, PrintStream out) {
+        this.client = client;
+        this.options = options;
+        this.out = out;
+    }
+
+    /**
+     * Imports the views, then the payments.
+     *
+     * @throws InterruptedException if interrupted while waiting for an import
+     * @throws IllegalStateException if an import fails
+     */
+    public void load() throws InterruptedException {
+        String token = client.login(options.adminUsername(), options.adminPassword()).join();
+        load(token, SyntheticDataGenerator.VIEWS_FILE, "VIEWS");
+        load(token, SyntheticDataGenerator.PAYMENTS_FILE, "PAYMENTS");
+    }
+
+    private void load(String token, String file, String type) throws InterruptedException {
+        UUID id = client.startImport(token, file, type).join();
+        while (true) {
+            Thread.sleep(POLL_INTERVAL.toMillis());
+            JsonNode progress = client.getImport(token, id).join();
+            String status = progress.path("status").asText();
+            out.printf("%s: %s, %,d rows, %,.0f rows/s, %,d of %,d bytes read%n", file, status,
+                    progress.path("rowsImported").asLong(), progress.path("rowsPerSecond").asDouble(),
+                    progress.path("bytesRead").asLong(), progress.path("totalBytes").asLong());
+            if ("COMPLETED".equals(status)) {
+                return;
+            }
+            if (!"RUNNING".equals(status)) {
+                throw new IllegalStateException("Import of " + file + " failed: " + progress.path("error").asText());
+            }
+        }
+    }
+}
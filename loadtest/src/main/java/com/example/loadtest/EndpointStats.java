@@ -0,0 +1,83 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and errors of one endpoint, recorded concurrently by all virtual users.
+ * <p>
+ * Latencies are kept in microseconds with three significant digits, up to an hour.
+ */
+public final class EndpointStats {
+    private static final long HIGHEST_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs empty statistics.
+     *
+     * @param name the endpoint, such as {@code POST /api/reports}
+     */
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records a successful call.
+     *
+     * @param nanos how long the call took
+     */
+    public void success(long nanos) {
+        latencies.recordValue(Math.min(HIGHEST_MICROS, Math.max(0, nanos / 1_000)));
+    }
+
+    /**
+     * Records a failed call.
+     *
+     * @param reason the HTTP status or the kind of failure
+     */
+    public void error(String reason) {
+        errors.computeIfAbsent(reason, key -> new LongAdder()).increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the recorded latencies of successful calls, in microseconds.
+     *
+     * @return the histogram
+     */
+    public Histogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Returns the number of failed calls per reason.
+     *
+     * @return the counts, sorted by reason
+     */
+    public Map<String, Long> getErrors() {
+        Map<String, Long> counts = new TreeMap<>();
+        errors.forEach((reason, count) -> counts.put(reason, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Returns the number of failed calls.
+     *
+     * @return the count
+     */
+    public long getErrorCount() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Prints throughput, latency percentiles and errors per endpoint.
+ */
+public final class LoadReport {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private LoadReport() {
+    }
+
+    /**
+     * Prints the report.
+     *
+     * @param stats statistics of every endpoint
+     * @param elapsed how long the load ran, for throughput
+     * @param out destination
+     */
+    public static void print(Collection<EndpointStats> stats, Duration elapsed, PrintStream out) {
+        double seconds = Math.max(1e-9, elapsed.toNanos() / 1e9);
+        out.printf("%-24s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointStats endpoint : stats.stream().sorted(Comparator.comparing(EndpointStats::getName)).toList()) {
+            Histogram latencies = endpoint.getLatencies();
+            long count = latencies.getTotalCount();
+            out.printf("%-24s %9d %7d %9.1f", endpoint.getName(), count, endpoint.getErrorCount(), count / seconds);
+            for (double percentile : PERCENTILES) {
+                out.printf(" %9.1f", latencies.getValueAtPercentile(percentile) / 1000.0);
+            }
+            out.printf(" %9.1f%n", latencies.getMaxValue() / 1000.0);
+        }
+        for (EndpointStats endpoint : stats) {
+            endpoint.getErrors().forEach((reason, count) ->
+                    out.printf("%s: %d x %s%n", endpoint.getName(), count, reason));
+        }
+    }
+}
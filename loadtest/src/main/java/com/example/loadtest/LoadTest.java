@@ -0,0 +1,59 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Entry point of the load test.
+ * <p>
+ * Usage: {@code LoadTest <generate|load|run|all> [--name=value ...]}, see
+ * {@link LoadTestOptions} for the options.
+ * <ul>
+ *   <li>{@code generate} writes synthetic views and payments to the output directory</li>
+ *   <li>{@code load} imports them through the service's bulk import</li>
+ *   <li>{@code run} drives the report workflows and prints their statistics</li>
+ *   <li>{@code all} does the three in order</li>
+ * </ul>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0 || !Arrays.asList("generate", "load", "run", "all").contains(args[0])) {
+            System.err.println("Usage: LoadTest <generate|load|run|all> [--name=value ...]");
+            System.exit(2);
+        }
+        String command = args[0];
+        LoadTestOptions options = LoadTestOptions.parse(Arrays.copyOfRange(args, 1, args.length));
+
+        if (command.equals("generate") || command.equals("all")) {
+            long start = System.nanoTime();
+            SyntheticDataGenerator.Summary summary = new SyntheticDataGenerator(options).generate();
+            System.out.printf("Generated %,d views and %,d payments in %s in %d s%n", summary.views(),
+                    summary.payments(), options.output(), Duration.ofNanos(System.nanoTime() - start).toSeconds());
+        }
+        if (command.equals("generate")) {
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        try {
+            ServiceClient client = new ServiceClient(options.baseUrl(), executor);
+            if (command.equals("load") || command.equals("all")) {
+                new BulkLoader(client, options, System.out).load();
+            }
+            if (command.equals("run") || command.equals("all")) {
+                ServiceClient workflowClient = new ServiceClient(options.baseUrl(), executor);
+                Duration elapsed = new WorkflowDriver(workflowClient, options, executor).run();
+                LoadReport.print(workflowClient.allStats(), elapsed, System.out);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command-line options of the load test, given as {@code --name=value}.
+ * <p>
+ * Every option has a default suited to a local instance started with the
+ * default users.
+ */
+public final class LoadTestOptions {
+    private final Map<String, String> values;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    /**
+     * Parses options.
+     *
+     * @param args arguments of the form {@code --name=value}
+     * @return the options
+     * @throws IllegalArgumentException if an argument is not of that form
+     */
+    public static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    /** Base URL of the service under test. */
+    public String baseUrl() {
+        return string("base-url", "http://localhost:8080");
+    }
+
+    /** Username of the USER account that creates reports. */
+    public String username() {
+        return string("username", "user");
+    }
+
+    /** Password of the USER account. */
+    public String password() {
+        return string("password", "password");
+    }
+
+    /** Username of the ADMIN account that starts imports. */
+    public String adminUsername() {
+        return string("admin-username", "admin");
+    }
+
+    /** Password of the ADMIN account. */
+    public String adminPassword() {
+        return string("admin-password", "admin");
+    }
+
+    /** Directory the generated files are written to; the service's import directory. */
+    public Path output() {
+        return Path.of(string("output", "data/import"));
+    }
+
+    /** Number of distinct products. */
+    public int products() {
+        return Integer.parseInt(string("products", "1000"));
+    }
+
+    /** Number of distinct layouts. */
+    public int layouts() {
+        return Integer.parseInt(string("layouts", "5"));
+    }
+
+    /** First day of generated history. */
+    public LocalDate start() {
+        return LocalDate.parse(string("start", "2024-01-01"));
+    }
+
+    /** Number of days of generated history. */
+    public int days() {
+        return Integer.parseInt(string("days", "90"));
+    }
+
+    /** Total number of generated views. */
+    public long views() {
+        return Long.parseLong(string("views", "1000000").replace("_", ""));
+    }
+
+    /** Average share of views followed by a payment. */
+    public double conversion() {
+        return Double.parseDouble(string("conversion", "0.03"));
+    }
+
+    /** Exponent of the Zipf distribution of product popularity; 0 is uniform. */
+    public double skew() {
+        return Double.parseDouble(string("skew", "1.1"));
+    }
+
+    /** Seed of the generator, so that data sets can be reproduced. */
+    public long seed() {
+        return Long.parseLong(string("seed", "42"));
+    }
+
+    /** Number of concurrent virtual users. */
+    public int concurrency() {
+        return Integer.parseInt(string("concurrency", "50"));
+    }
+
+    /** How long the workflows are driven. */
+    public Duration duration() {
+        return Duration.parse(string("duration", "PT1M"));
+    }
+
+    /** Delay between two polls of a pending report. */
+    public Duration pollInterval() {
+        return Duration.parse(string("poll-interval", "PT0.2S"));
+    }
+
+    /** How long a report is polled before the workflow gives up. */
+    public Duration pollTimeout() {
+        return Duration.parse(string("poll-timeout", "PT1M"));
+    }
+
+    /** Maximum length in days of the ranges of the created reports. */
+    public int rangeDays() {
+        return Integer.parseInt(string("range-days", "30"));
+    }
+
+    private String string(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Asynchronous client of the report service endpoints exercised by the load test.
+ * <p>
+ * Every call is timed from the moment it is sent until its response body has
+ * been received, and recorded in the {@link EndpointStats} of its endpoint.
+ * Calls answered with an unexpected status complete exceptionally with an
+ * {@link UnexpectedStatusException}.
+ */
+public final class ServiceClient {
+    static final String LOGIN = "POST /api/auth/login";
+    static final String CREATE_REPORT = "POST /api/reports";
+    static final String GET_REPORT = "GET /api/reports/{id}";
+    static final String START_IMPORT = "POST /admin/imports";
+    static final String GET_IMPORT = "GET /admin/imports/{id}";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the client.
+     *
+     * @param baseUrl base URL of the service
+     * @param executor executor running response handlers
+     */
+    public ServiceClient(String baseUrl, ExecutorService executor) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.http = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Logs in.
+     *
+     * @param username the username
+     * @param password the password
+     * @return the bearer token
+     */
+    public CompletableFuture<String> login(String username, String password) {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("username", username)
+                .put("password", password);
+        return send(LOGIN, post("/api/auth/login", null, body), 200)
+                .thenApply(response -> json(response).path("token").asText());
+    }
+
+    /**
+     * Creates a report.
+     *
+     * @param token bearer token of a USER
+     * @param productId the product
+     * @param layoutId the layout
+     * @param startDate start of the range
+     * @param endDate end of the range
+     * @return the report id
+     */
+    public CompletableFuture<UUID> createReport(String token, String productId, String layoutId,
+                                                LocalDateTime startDate, LocalDateTime endDate) {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("productId", productId)
+                .put("layoutId", layoutId)
+                .put("startDate", startDate.toString())
+                .put("endDate", endDate.toString());
+        return send(CREATE_REPORT, post("/api/reports", token, body), 200)
+                .thenApply(response -> UUID.fromString(json(response).path("reportId").asText()));
+    }
+
+    /**
+     * Fetches a report.
+     *
+     * @param token bearer token
+     * @param id the report
+     * @return true if the report is completed, false if it is still pending
+     */
+    public CompletableFuture<Boolean> isReportReady(String token, UUID id) {
+        return send(GET_REPORT, get("/api/reports/" + id, token), 200, 404)
+                .thenApply(response -> response.statusCode() == 200);
+    }
+
+    /**
+     * Starts a bulk import of a file in the service's import directory.
+     *
+     * @param token bearer token of an ADMIN
+     * @param path the file, relative to the import directory
+     * @param type {@code VIEWS} or {@code PAYMENTS}
+     * @return the import id
+     */
+    public CompletableFuture<UUID> startImport(String token, String path, String type) {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("path", path)
+                .put("type", type);
+        return send(START_IMPORT, post("/admin/imports", token, body), 202)
+                .thenApply(response -> UUID.fromString(json(response).path("id").asText()));
+    }
+
+    /**
+     * Fetches the progress of an import.
+     *
+     * @param token bearer token of an ADMIN
+     * @param id the import
+     * @return the progress document
+     */
+    public CompletableFuture<JsonNode> getImport(String token, UUID id) {
+        return send(GET_IMPORT, get("/admin/imports/" + id, token), 200).thenApply(this::json);
+    }
+
+    /**
+     * Returns the statistics of an endpoint.
+     *
+     * @param endpoint the endpoint name
+     * @return its statistics, created empty on first use
+     */
+    public EndpointStats stats(String endpoint) {
+        return stats.computeIfAbsent(endpoint, EndpointStats::new);
+    }
+
+    /**
+     * Returns the statistics of every endpoint called so far.
+     *
+     * @return the statistics
+     */
+    public Collection<EndpointStats> allStats() {
+        return stats.values();
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(String endpoint, HttpRequest request, int... expected) {
+        EndpointStats endpointStats = stats(endpoint);
+        long start = System.nanoTime();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, failure) -> {
+                    long elapsed = System.nanoTime() - start;
+                    if (failure != null) {
+                        Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                        endpointStats.error(cause.getClass().getSimpleName());
+                        throw new CompletionException(cause);
+                    }
+                    for (int status : expected) {
+                        if (response.statusCode() == status) {
+                            endpointStats.success(elapsed);
+                            return response;
+                        }
+                    }
+                    endpointStats.error("HTTP " + response.statusCode());
+                    throw new UnexpectedStatusException(endpoint, response.statusCode());
+                });
+    }
+
+    private HttpRequest post(String path, String token, JsonNode body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private JsonNode json(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Thrown when a call is answered with a status the workflow does not expect.
+     */
+    public static final class UnexpectedStatusException extends RuntimeException {
+        public UnexpectedStatusException(String endpoint, int status) {
+            super(endpoint + " answered " + status);
+        }
+    }
+}
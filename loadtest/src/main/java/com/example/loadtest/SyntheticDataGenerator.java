@@ -0,0 +1,182 @@
+package com.example.loadtest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Generates gzipped CSV files of synthetic views and payments in the format
+ * read by the service's bulk import.
+ * <p>
+ * The data follows the shapes that matter for report performance:
+ * <ul>
+ *   <li>Product popularity is Zipf-distributed, see {@link ZipfSampler}</li>
+ *   <li>Traffic follows a diurnal curve with an evening peak, and weekends are busier</li>
+ *   <li>Each product has its own conversion rate around the configured average,
+ *       and mostly uses one preferred layout</li>
+ *   <li>Within each hour, events are written in timestamp order, as they would
+ *       have been ingested</li>
+ * </ul>
+ * The same options and seed always produce the same files.
+ */
+public final class SyntheticDataGenerator {
+
+    /** File name of the generated views. */
+    public static final String VIEWS_FILE = "views.csv.gz";
+
+    /** File name of the generated payments. */
+    public static final String PAYMENTS_FILE = "payments.csv.gz";
+
+    /** Relative traffic per hour of the day. */
+    static final double[] HOURLY_WEIGHTS = {
+            0.6, 0.4, 0.3, 0.2, 0.2, 0.3, 0.5, 0.8, 1.0, 1.1, 1.2, 1.3,
+            1.3, 1.2, 1.2, 1.2, 1.3, 1.4, 1.6, 1.8, 1.9, 1.7, 1.3, 0.9};
+
+    private static final double WEEKEND_FACTOR = 1.2;
+    private static final double PREFERRED_LAYOUT_SHARE = 0.7;
+    private static final long HOUR_MILLIS = 3_600_000;
+    private static final long MAX_PAYMENT_DELAY_MILLIS = 20 * 60_000;
+    private static final String HEADER = "product_id,layout_id,timestamp\n";
+
+    private final LoadTestOptions options;
+
+    /**
+     * Constructs the generator.
+     *
+     * @param options the scale and shape of the data
+     */
+    public SyntheticDataGenerator(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Formats the identifier of a product.
+     *
+     * @param rank the product's popularity rank, 0 being the most popular
+     * @return the identifier
+     */
+    public static String productId(int rank) {
+        return String.format("product-%05d", rank);
+    }
+
+    /**
+     * Formats the identifier of a layout.
+     *
+     * @param index the layout index
+     * @return the identifier
+     */
+    public static String layoutId(int index) {
+        return "layout-" + index;
+    }
+
+    /**
+     * Writes {@value #VIEWS_FILE} and {@value #PAYMENTS_FILE} to the output directory.
+     *
+     * @return the number of views and payments written
+     * @throws IOException if writing fails
+     */
+    public Summary generate() throws IOException {
+        SplittableRandom random = new SplittableRandom(options.seed());
+        int products = options.products();
+        int layouts = options.layouts();
+        ZipfSampler popularity = new ZipfSampler(products, options.skew());
+        double[] conversion = new double[products];
+        int[] preferredLayout = new int[products];
+        for (int p = 0; p < products; p++) {
+            // Log-normal spread around the average, so a few products convert much better
+            double factor = Math.exp(0.5 * random.nextGaussian() - 0.125);
+            conversion[p] = Math.min(1, options.conversion() * factor);
+            preferredLayout[p] = random.nextInt(layouts);
+        }
+
+        LocalDate start = options.start();
+        int days = options.days();
+        double totalWeight = 0;
+        for (int d = 0; d < days; d++) {
+            totalWeight += dayFactor(start.plusDays(d)) * Arrays.stream(HOURLY_WEIGHTS).sum();
+        }
+
+        Files.createDirectories(options.output());
+        long viewCount = 0;
+        long paymentCount = 0;
+        double carry = 0;
+        try (Writer views = open(options.output().resolve(VIEWS_FILE));
+             Writer payments = open(options.output().resolve(PAYMENTS_FILE))) {
+            for (int d = 0; d < days; d++) {
+                LocalDate day = start.plusDays(d);
+                for (int hour = 0; hour < 24; hour++) {
+                    double expected = options.views() * dayFactor(day) * HOURLY_WEIGHTS[hour] / totalWeight + carry;
+                    int count = (int) expected;
+                    carry = expected - count;
+                    LocalDateTime hourStart = day.atTime(hour, 0);
+                    long[] offsets = new long[count];
+                    for (int i = 0; i < count; i++) {
+                        offsets[i] = random.nextLong(HOUR_MILLIS);
+                    }
+                    Arrays.sort(offsets);
+                    List<LocalDateTime> paymentTimes = new ArrayList<>();
+                    List<String> paymentKeys = new ArrayList<>();
+                    for (long offset : offsets) {
+                        int product = popularity.sample(random);
+                        int layout = random.nextDouble() < PREFERRED_LAYOUT_SHARE
+                                ? preferredLayout[product]
+                                : random.nextInt(layouts);
+                        String key = productId(product) + ',' + layoutId(layout) + ',';
+                        LocalDateTime timestamp = hourStart.plusNanos(offset * 1_000_000);
+                        views.write(key);
+                        views.write(timestamp.toString());
+                        views.write('\n');
+                        viewCount++;
+                        if (random.nextDouble() < conversion[product]) {
+                            paymentTimes.add(timestamp.plusNanos(random.nextLong(MAX_PAYMENT_DELAY_MILLIS) * 1_000_000));
+                            paymentKeys.add(key);
+                        }
+                    }
+                    Integer[] order = new Integer[paymentTimes.size()];
+                    Arrays.setAll(order, i -> i);
+                    Arrays.sort(order, (a, b) -> paymentTimes.get(a).compareTo(paymentTimes.get(b)));
+                    for (int i : order) {
+                        payments.write(paymentKeys.get(i));
+                        payments.write(paymentTimes.get(i).toString());
+                        payments.write('\n');
+                    }
+                    paymentCount += order.length;
+                }
+            }
+        }
+        return new Summary(viewCount, paymentCount);
+    }
+
+    private static double dayFactor(LocalDate day) {
+        DayOfWeek dayOfWeek = day.getDayOfWeek();
+        return dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY ? WEEKEND_FACTOR : 1;
+    }
+
+    private static Writer open(Path file) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file), 64 * 1024), StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(HEADER);
+        return writer;
+    }
+
+    /**
+     * Number of events written.
+     *
+     * @param views views written
+     * @param payments payments written
+     */
+    public record Summary(long views, long payments) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.loadtest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drives the login, create report and poll workflow from many concurrent
+ * virtual users.
+ * <p>
+ * Each virtual user runs workflows back to back until the configured duration
+ * has elapsed, so the load is closed: a slower service receives fewer requests.
+ * Workflow latencies, from login until the report is completed, are recorded
+ * under {@value #WORKFLOW}. Reports ask for random ranges of the generated
+ * history, with products drawn with the same skew as the generated data.
+ */
+public final class WorkflowDriver {
+
+    /** Name under which end-to-end workflow latencies are recorded. */
+    public static final String WORKFLOW = "workflow";
+
+    private final ServiceClient client;
+    private final LoadTestOptions options;
+    private final ZipfSampler popularity;
+    private final Executor executor;
+
+    /**
+     * Constructs the driver.
+     *
+     * @param client client recording the calls
+     * @param options concurrency, duration and report ranges
+     * @param executor executor continuing the workflows
+     */
+    public WorkflowDriver(ServiceClient client, LoadTestOptions options, Executor executor) {
+        this.client = client;
+        this.options = options;
+        this.popularity = new ZipfSampler(options.products(), options.skew());
+        this.executor = executor;
+    }
+
+    /**
+     * Runs the workflows and waits for the last one to finish.
+     *
+     * @return how long the workflows ran
+     */
+    public Duration run() {
+        long start = System.nanoTime();
+        long deadline = start + options.duration().toNanos();
+        List<CompletableFuture<Void>> users = new ArrayList<>();
+        for (int i = 0; i < options.concurrency(); i++) {
+            users.add(loop(deadline));
+        }
+        CompletableFuture.allOf(users.toArray(CompletableFuture[]::new)).join();
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    private CompletableFuture<Void> loop(long deadline) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return workflow()
+                .handle((ignored, failure) -> failure == null)
+                .thenComposeAsync(succeeded -> succeeded ? loop(deadline) : pause().thenCompose(v -> loop(deadline)),
+                        executor);
+    }
+
+    private CompletableFuture<Void> workflow() {
+        long start = System.nanoTime();
+        EndpointStats stats = client.stats(WORKFLOW);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String productId = SyntheticDataGenerator.productId(popularity.sample(random));
+        String layoutId = SyntheticDataGenerator.layoutId(random.nextInt(options.layouts()));
+        int rangeDays = 1 + random.nextInt(Math.max(1, Math.min(options.rangeDays(), options.days())));
+        LocalDateTime startDate = options.start().atStartOfDay()
+                .plusDays(random.nextInt(Math.max(1, options.days() - rangeDays + 1)));
+        LocalDateTime endDate = startDate.plusDays(rangeDays).minusNanos(1_000);
+
+        return client.login(options.username(), options.password())
+                .thenCompose(token -> client.createReport(token, productId, layoutId, startDate, endDate)
+                        .thenCompose(id -> poll(token, id, System.nanoTime() + options.pollTimeout().toNanos())))
+                .whenComplete((ignored, failure) -> {
+                    if (failure == null) {
+                        stats.success(System.nanoTime() - start);
+                    } else {
+                        Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+                        stats.error(cause instanceof TimeoutException ? "poll timeout" : cause.getClass().getSimpleName());
+                    }
+                });
+    }
+
+    private CompletableFuture<Void> poll(String token, UUID id, long deadline) {
+        return client.isReportReady(token, id).thenCompose(ready -> {
+            if (ready) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (System.nanoTime() >= deadline) {
+                return CompletableFuture.failedFuture(new TimeoutException("Report " + id + " is not ready"));
+            }
+            return pause().thenCompose(v -> poll(token, id, deadline));
+        });
+    }
+
+    private CompletableFuture<Void> pause() {
+        return CompletableFuture.runAsync(() -> { },
+                CompletableFuture.delayedExecutor(options.pollInterval().toNanos(), TimeUnit.NANOSECONDS, executor));
+    }
+}
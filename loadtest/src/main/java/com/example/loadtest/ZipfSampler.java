@@ -0,0 +1,45 @@
+package com.example.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Samples ranks from a Zipf distribution, where rank {@code k} (zero-based) is
+ * drawn with a probability proportional to {@code 1 / (k + 1)^skew}.
+ * <p>
+ * Used for product popularity, so that a few products receive most of the
+ * traffic as they do in production.
+ */
+public final class ZipfSampler {
+    private final double[] cumulative;
+
+    /**
+     * Constructs the sampler.
+     *
+     * @param size number of ranks
+     * @param skew exponent of the distribution; 0 is uniform
+     */
+    public ZipfSampler(int size, double skew) {
+        if (size < 1) {
+            throw new IllegalArgumentException("At least one rank is required");
+        }
+        cumulative = new double[size];
+        double total = 0;
+        for (int k = 0; k < size; k++) {
+            total += 1 / Math.pow(k + 1, skew);
+            cumulative[k] = total;
+        }
+    }
+
+    /**
+     * Draws a rank.
+     *
+     * @param random source of randomness
+     * @return a rank between 0 and {@code size - 1}
+     */
+    public int sample(RandomGenerator random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int position = Arrays.binarySearch(cumulative, target);
+        return Math.min(position >= 0 ? position : -position - 1, cumulative.length - 1);
+    }
+}
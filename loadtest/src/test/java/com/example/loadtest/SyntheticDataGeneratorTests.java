@@ -0,0 +1,93 @@
+package com.example.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link SyntheticDataGenerator}.
+ * Verifies:
+ * <ul>
+ *   <li>Exactly the requested number of views is written, in timestamp order</li>
+ *   <li>Popular products and evening hours receive more views</li>
+ *   <li>Payments follow the configured conversion rate</li>
+ *   <li>The same seed produces the same files</li>
+ * </ul>
+ */
+class SyntheticDataGeneratorTests {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void generate_ShouldFollowPopularityAndDiurnalShape() throws IOException {
+        SyntheticDataGenerator.Summary summary = new SyntheticDataGenerator(options(directory)).generate();
+
+        List<String[]> views = read(directory.resolve(SyntheticDataGenerator.VIEWS_FILE));
+        assertEquals(20_000, summary.views());
+        assertEquals(20_000, views.size());
+        long[] byProduct = new long[50];
+        long[] byHour = new long[24];
+        LocalDateTime previous = LocalDateTime.MIN;
+        for (String[] view : views) {
+            LocalDateTime timestamp = LocalDateTime.parse(view[2]);
+            assertTrue(!timestamp.isBefore(previous), "views are in timestamp order");
+            previous = timestamp;
+            byProduct[Integer.parseInt(view[0].substring("product-".length()))]++;
+            byHour[timestamp.getHour()]++;
+        }
+        assertTrue(byProduct[0] > 5 * byProduct[49], Arrays.toString(byProduct));
+        assertTrue(byHour[20] > 4 * byHour[4], Arrays.toString(byHour));
+
+        List<String[]> payments = read(directory.resolve(SyntheticDataGenerator.PAYMENTS_FILE));
+        assertEquals(summary.payments(), payments.size());
+        assertTrue(payments.size() > 300 && payments.size() < 1_000, "payments: " + payments.size());
+    }
+
+    @Test
+    void generate_ShouldBeReproducible() throws IOException {
+        Path first = Files.createDirectory(directory.resolve("first"));
+        Path second = Files.createDirectory(directory.resolve("second"));
+
+        new SyntheticDataGenerator(options(first)).generate();
+        new SyntheticDataGenerator(options(second)).generate();
+
+        assertArrayEquals(Files.readAllBytes(first.resolve(SyntheticDataGenerator.VIEWS_FILE)),
+                Files.readAllBytes(second.resolve(SyntheticDataGenerator.VIEWS_FILE)));
+        assertArrayEquals(Files.readAllBytes(first.resolve(SyntheticDataGenerator.PAYMENTS_FILE)),
+                Files.readAllBytes(second.resolve(SyntheticDataGenerator.PAYMENTS_FILE)));
+    }
+
+    private static LoadTestOptions options(Path output) {
+        return LoadTestOptions.parse("--output=" + output, "--products=50", "--layouts=3", "--days=14",
+                "--views=20000", "--conversion=0.03", "--skew=1.1", "--seed=7");
+    }
+
+    private static List<String[]> read(Path file) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            assertEquals("product_id,layout_id,timestamp", reader.readLine());
+            String line;
+            while ((line = reader.readLine()) != null) {
+                records.add(line.split(","));
+            }
+        }
+        return records;
+    }
+}
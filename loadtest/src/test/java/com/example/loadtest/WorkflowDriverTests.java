@@ -0,0 +1,109 @@
+package com.example.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link WorkflowDriver} against a stub of the service.
+ * <p>
+ * The stub completes each report on its third poll.
+ * Verifies:
+ * <ul>
+ *   <li>Every workflow logs in, creates a report and polls it until it is ready</li>
+ *   <li>Pending polls are not counted as errors, unexpected statuses are</li>
+ * </ul>
+ */
+class WorkflowDriverTests {
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private final Map<String, AtomicInteger> polls = new ConcurrentHashMap<>();
+    private volatile int createStatus = 200;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/auth/login", exchange -> respond(exchange, 200, "{\"token\":\"t\"}"));
+        server.createContext("/api/reports", exchange -> {
+            if (exchange.getRequestMethod().equals("POST")) {
+                respond(exchange, createStatus, "{\"reportId\":\"" + UUID.randomUUID() + "\"}");
+                return;
+            }
+            String id = exchange.getRequestURI().getPath().substring("/api/reports/".length());
+            int poll = polls.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet();
+            respond(exchange, poll < 3 ? 404 : 200, "{}");
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void run_ShouldRecordEveryStepOfEachWorkflow() {
+        ServiceClient client = client();
+
+        new WorkflowDriver(client, options(), executor).run();
+
+        long workflows = client.stats(WorkflowDriver.WORKFLOW).getLatencies().getTotalCount();
+        assertTrue(workflows > 0);
+        assertEquals(0, client.stats(WorkflowDriver.WORKFLOW).getErrorCount());
+        assertEquals(workflows, client.stats(ServiceClient.LOGIN).getLatencies().getTotalCount());
+        assertEquals(workflows, client.stats(ServiceClient.CREATE_REPORT).getLatencies().getTotalCount());
+        assertEquals(3 * workflows, client.stats(ServiceClient.GET_REPORT).getLatencies().getTotalCount());
+        assertEquals(0, client.stats(ServiceClient.GET_REPORT).getErrorCount());
+    }
+
+    @Test
+    void run_ShouldCountRejectedRequestsAsErrors() {
+        createStatus = 429;
+        ServiceClient client = client();
+
+        new WorkflowDriver(client, options(), executor).run();
+
+        EndpointStats create = client.stats(ServiceClient.CREATE_REPORT);
+        assertTrue(create.getErrorCount() > 0);
+        assertEquals(Map.of("HTTP 429", create.getErrorCount()), create.getErrors());
+        assertEquals(0, client.stats(WorkflowDriver.WORKFLOW).getLatencies().getTotalCount());
+        assertEquals(create.getErrorCount(), client.stats(WorkflowDriver.WORKFLOW).getErrorCount());
+    }
+
+    private ServiceClient client() {
+        return new ServiceClient("http://127.0.0.1:" + server.getAddress().getPort(), executor);
+    }
+
+    private static LoadTestOptions options() {
+        return LoadTestOptions.parse("--concurrency=4", "--duration=PT0.5S", "--poll-interval=PT0.01S",
+                "--products=10", "--days=30", "--range-days=7");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getRequestBody().readAllBytes();
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,58 @@
+package org.reportservice.notification.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of how report completion events become user notifications.
+ * <p>
+ * Bound from the {@code notification.*} namespace.
+ */
+@ConfigurationProperties(prefix = "notification")
+public class NotificationProperties {
+
+    /**
+     * How long a notified report is remembered, so that redelivered or repeated
+     * completion events for it are dropped.
+     */
+    private Duration dedupeWindow = Duration.ofHours(1);
+
+    /**
+     * Maximum number of reports remembered per half of the memory; each costs at
+     * most 32 bytes. When more reports complete within the window, the oldest are
+     * forgotten early.
+     */
+    private int dedupeCapacity = 100_000;
+
+    /**
+     * How long the first completion event of a report is held before the user is
+     * notified. Further events for the report within this time are merged into
+     * the one notification. Zero notifies immediately.
+     */
+    private Duration coalesceWindow = Duration.ofSeconds(2);
+
+    public Duration getDedupeWindow() {
+        return dedupeWindow;
+    }
+
+    public void setDedupeWindow(Duration dedupeWindow) {
+        this.dedupeWindow = dedupeWindow;
+    }
+
+    public int getDedupeCapacity() {
+        return dedupeCapacity;
+    }
+
+    public void setDedupeCapacity(int dedupeCapacity) {
+        this.dedupeCapacity = dedupeCapacity;
+    }
+
+    public Duration getCoalesceWindow() {
+        return coalesceWindow;
+    }
+
+    public void setCoalesceWindow(Duration coalesceWindow) {
+        this.coalesceWindow = coalesceWindow;
+    }
+}
@@ -4,10 +4,14 @@ import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.ContainerCustomizer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@EnableConfigurationProperties({NotificationProperties.class, WebhookProperties.class})
 public class RabbitMQConfig {
     @Bean
     public DirectExchange reportExchange() {
@@ -23,4 +27,24 @@ public class RabbitMQConfig {
     public Binding binding(Queue reportQueue, DirectExchange reportExchange) {
         return BindingBuilder.bind(reportQueue).to(reportExchange).with("notification.routing.key");
     }
-}
\ No newline at end of file
+
+    @Bean
+    public Queue webhookQueue() {
+        return new Queue("webhook.queue");
+    }
+
+    @Bean
+    public Binding webhookBinding(Queue webhookQueue, DirectExchange reportExchange) {
+        return BindingBuilder.bind(webhookQueue).to(reportExchange).with("webhook.routing.key");
+    }
+
+    /**
+     * Observes every message the listeners handle. The trace context the report
+     * service put in the message headers is restored first, so the handling joins
+     * the trace of the report.
+     */
+    @Bean
+    public ContainerCustomizer<SimpleMessageListenerContainer> observedListeners() {
+        return container -> container.setObservationEnabled(true);
+    }
+}
@@ -0,0 +1,169 @@
+package org.reportservice.notification.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration of the delivery of computed reports to their callback URLs.
+ * <p>
+ * Bound from the {@code notification.webhook.*} namespace.
+ */
+@ConfigurationProperties(prefix = "notification.webhook")
+public class WebhookProperties {
+
+    /**
+     * Maximum number of requests in flight to one host; further deliveries to it
+     * wait in its queue, so a slow receiver cannot take over the connection pool.
+     */
+    private int maxConcurrencyPerHost = 4;
+
+    /**
+     * Maximum number of deliveries waiting for one host. A delivery that finds the
+     * queue full is dead-lettered.
+     */
+    private int maxQueuedPerHost = 10_000;
+
+    /**
+     * Attempts made before a delivery is dead-lettered, counting the first one.
+     */
+    private int maxAttempts = 6;
+
+    /**
+     * Delay before the first retry. It doubles with every further attempt, with
+     * up to half of it taken off at random so that retries to a recovering host
+     * are spread out.
+     */
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    /**
+     * Upper bound of the delay between two attempts, including one asked for by
+     * the receiver through {@code Retry-After}.
+     */
+    private Duration maxBackoff = Duration.ofMinutes(5);
+
+    /**
+     * Time allowed to open a connection to a receiver.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Time allowed for a receiver to answer once the request is sent.
+     */
+    private Duration requestTimeout = Duration.ofSeconds(10);
+
+    /**
+     * File the deliveries that could not be made are appended to, one JSON object per line.
+     */
+    private Path deadLetterFile = Path.of("data", "webhook-dead-letters.jsonl");
+
+    /**
+     * Hosts callbacks may be delivered to. An entry starting with a dot also
+     * allows every subdomain. Empty allows any host that resolves to public
+     * addresses only.
+     */
+    private List<String> allowedHosts = new ArrayList<>();
+
+    /**
+     * Whether callbacks may reach loopback, link-local, site-local and other
+     * non-public addresses. Only meant for receivers on a development machine.
+     */
+    private boolean allowPrivateAddresses = false;
+
+    /**
+     * Secret the payloads are signed with, sent as an HMAC-SHA256 in the
+     * {@code X-Webhook-Signature} header. Unset sends payloads unsigned.
+     */
+    private String signingSecret;
+
+    public int getMaxConcurrencyPerHost() {
+        return maxConcurrencyPerHost;
+    }
+
+    public void setMaxConcurrencyPerHost(int maxConcurrencyPerHost) {
+        this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+    }
+
+    public int getMaxQueuedPerHost() {
+        return maxQueuedPerHost;
+    }
+
+    public void setMaxQueuedPerHost(int maxQueuedPerHost) {
+        this.maxQueuedPerHost = maxQueuedPerHost;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public void setRequestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    public Path getDeadLetterFile() {
+        return deadLetterFile;
+    }
+
+    public void setDeadLetterFile(Path deadLetterFile) {
+        this.deadLetterFile = deadLetterFile;
+    }
+
+    public List<String> getAllowedHosts() {
+        return allowedHosts;
+    }
+
+    public void setAllowedHosts(List<String> allowedHosts) {
+        this.allowedHosts = allowedHosts;
+    }
+
+    public boolean isAllowPrivateAddresses() {
+        return allowPrivateAddresses;
+    }
+
+    public void setAllowPrivateAddresses(boolean allowPrivateAddresses) {
+        this.allowPrivateAddresses = allowPrivateAddresses;
+    }
+
+    public String getSigningSecret() {
+        return signingSecret;
+    }
+
+    public void setSigningSecret(String signingSecret) {
+        this.signingSecret = signingSecret;
+    }
+}
@@ -1,19 +1,166 @@
 package org.reportservice.notification.consumers;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.reportservice.notification.configs.NotificationProperties;
+import org.reportservice.notification.dedupe.RecentIds;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notifies users of completed reports.
+ * <p>
+ * Delivery is at least once, so the same completion can arrive several times.
+ * A completion is identified by the report and the version it was computed at,
+ * so a report recomputed after an update is notified again. The first event of
+ * a completion is held for the coalescing window and further events for it
+ * within that time are merged into it. When the window closes the
+ * user is notified once and the report is remembered for the de-duplication
+ * window, during which any further event for it is dropped. Both structures are
+ * bounded: pending reports only span the short coalescing window, and notified
+ * reports are kept in {@link RecentIds}.
+ *
+ * <p>Events are acknowledged when received, so a pending notification is lost if
+ * the service stops within its coalescing window.
+ */
+@Slf4j
 @Service
 public class RabbitMQConsumer {
+    private static final String REPORT_COMPLETED = "REPORT_COMPLETED:";
+
+    private final long coalesceNanos;
+    private final RecentIds notified;
+    private final Map<UUID, Completion> pending = new LinkedHashMap<>();
+    private final Counter sent;
+    private final Counter duplicates;
+    private final Counter coalesced;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RabbitMQConsumer(NotificationProperties properties, MeterRegistry registry) {
+        this.coalesceNanos = properties.getCoalesceWindow().toNanos();
+        this.notified = new RecentIds(properties.getDedupeWindow(), properties.getDedupeCapacity(), System.nanoTime());
+        this.sent = Counter.builder("notification.sent")
+                .description("Report completion notifications sent to users")
+                .register(registry);
+        this.duplicates = Counter.builder("notification.events.dropped")
+                .description("Completion events dropped because the user was already notified or is about to be")
+                .tag("reason", "duplicate")
+                .register(registry);
+        this.coalesced = Counter.builder("notification.events.dropped")
+                .description("Completion events dropped because the user was already notified or is about to be")
+                .tag("reason", "coalesced")
+                .register(registry);
+        if (coalesceNanos > 0) {
+            long tick = Math.max(TimeUnit.MILLISECONDS.toNanos(10), coalesceNanos / 4);
+            flusher.scheduleWithFixedDelay(this::flushDue, tick, tick, TimeUnit.NANOSECONDS);
+        }
+    }
+
     @RabbitListener(queues = "notification.queue")
     public void handleReportCompleted(String message) {
-        if (message.startsWith("REPORT_COMPLETED:")) {
-            String reportId = message.split(":")[1];
-            sendUserNotification(reportId);
+        if (!message.startsWith(REPORT_COMPLETED)) {
+            return;
+        }
+        UUID reportId;
+        long version;
+        try {
+            String body = message.substring(REPORT_COMPLETED.length());
+            int separator = body.indexOf(':');
+            reportId = UUID.fromString(separator < 0 ? body : body.substring(0, separator));
+            version = separator < 0 ? 0 : Long.parseLong(body.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            log.warn("Некорректное сообщение: {}", message);
+            return;
+        }
+        UUID key = completionKey(reportId, version);
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (notified.contains(key, now)) {
+                duplicates.increment();
+                return;
+            }
+            if (pending.containsKey(key)) {
+                coalesced.increment();
+                return;
+            }
+            if (coalesceNanos > 0) {
+                pending.put(key, new Completion(reportId, now));
+                return;
+            }
+            notified.add(key, now);
+        }
+        notifyUser(reportId);
+    }
+
+    /**
+     * Derives the de-duplication key of a completion from its report and version.
+     * <p>
+     * The version is mixed into the low half of the report id, so version 0, sent
+     * by producers that predate versions, keeps the report id itself.
+     *
+     * @param reportId the report
+     * @param version the version the report was computed at
+     * @return the key
+     */
+    private static UUID completionKey(UUID reportId, long version) {
+        return new UUID(reportId.getMostSignificantBits(),
+                reportId.getLeastSignificantBits() ^ (version * 0x9E3779B97F4A7C15L));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdownNow();
+    }
+
+    private void flushDue() {
+        List<UUID> due = new ArrayList<>();
+        long now = System.nanoTime();
+        synchronized (this) {
+            Iterator<Map.Entry<UUID, Completion>> oldestFirst = pending.entrySet().iterator();
+            while (oldestFirst.hasNext()) {
+                Map.Entry<UUID, Completion> entry = oldestFirst.next();
+                if (now - entry.getValue().receivedAt() < coalesceNanos) {
+                    break;
+                }
+                oldestFirst.remove();
+                notified.add(entry.getKey(), now);
+                due.add(entry.getValue().reportId());
+            }
         }
+        for (UUID reportId : due) {
+            try {
+                notifyUser(reportId);
+            } catch (RuntimeException e) {
+                log.warn("Не удалось отправить уведомление: {}", reportId, e);
+            }
+        }
+    }
+
+    private void notifyUser(UUID reportId) {
+        sendUserNotification(reportId.toString());
+        sent.increment();
     }
 
     private void sendUserNotification(String reportId) {
         System.out.println("[INFO] Получен отчет: " + reportId);
     }
+
+    private record Completion(UUID reportId, long receivedAt) {
+    }
 }
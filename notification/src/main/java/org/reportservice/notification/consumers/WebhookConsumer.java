@@ -0,0 +1,55 @@
+package org.reportservice.notification.consumers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.reportservice.notification.webhook.WebhookDispatcher;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+
+/**
+ * Hands computed reports with a callback URL to the {@link WebhookDispatcher}.
+ * <p>
+ * Each message is a JSON object with the {@code callbackUrl} and the
+ * {@code result}; the result is POSTed unchanged.
+ */
+@Slf4j
+@Service
+public class WebhookConsumer {
+    private final WebhookDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+
+    public WebhookConsumer(WebhookDispatcher dispatcher, ObjectMapper objectMapper) {
+        this.dispatcher = dispatcher;
+        this.objectMapper = objectMapper;
+    }
+
+    @RabbitListener(queues = "webhook.queue")
+    public void handleReportResult(String message) {
+        JsonNode callbackUrl;
+        JsonNode result;
+        try {
+            JsonNode root = objectMapper.readTree(message);
+            callbackUrl = root.path("callbackUrl");
+            result = root.path("result");
+        } catch (JsonProcessingException e) {
+            log.warn("Некорректное сообщение: {}", message);
+            return;
+        }
+        if (!callbackUrl.isTextual() || !result.isObject()) {
+            log.warn("Некорректное сообщение: {}", message);
+            return;
+        }
+        URI url;
+        try {
+            url = URI.create(callbackUrl.asText());
+        } catch (IllegalArgumentException e) {
+            log.warn("Некорректный адрес вебхука: {}", callbackUrl.asText());
+            return;
+        }
+        dispatcher.submit(url, result.toString());
+    }
+}
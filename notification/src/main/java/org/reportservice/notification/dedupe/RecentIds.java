@@ -0,0 +1,92 @@
+package org.reportservice.notification.dedupe;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Remembers the ids seen within a time window, in bounded memory.
+ * <p>
+ * Ids are kept in two generations of {@link UuidSet}s. New ids go into the
+ * current generation, and an id counts as seen if either generation holds it.
+ * When the current generation is older than the window, or full, it becomes
+ * the previous one and the old previous generation is dropped. An id is
+ * therefore remembered for at least the window unless more than {@code capacity}
+ * ids arrive within it. Memory is fixed at two sets of {@code capacity} entries.
+ *
+ * <p>Not thread-safe.
+ */
+public final class RecentIds {
+    private final long windowNanos;
+    private final int capacity;
+    private UuidSet current;
+    private UuidSet previous;
+    private long currentSince;
+    private long currentNewest;
+
+    /**
+     * Creates an empty window.
+     *
+     * @param window how long ids are remembered at least
+     * @param capacity maximum number of ids per generation
+     * @param now the current {@link System#nanoTime()}
+     */
+    public RecentIds(Duration window, int capacity, long now) {
+        this.windowNanos = window.toNanos();
+        this.capacity = capacity;
+        this.current = new UuidSet(capacity);
+        this.previous = new UuidSet(capacity);
+        this.currentSince = now;
+        this.currentNewest = now;
+    }
+
+    /**
+     * Checks whether an id has been seen within the window.
+     *
+     * @param id the id
+     * @param now the current {@link System#nanoTime()}
+     * @return true if it was added within the window
+     */
+    public boolean contains(UUID id, long now) {
+        rotateIfExpired(now);
+        return current.contains(id) || previous.contains(id);
+    }
+
+    /**
+     * Records an id.
+     *
+     * @param id the id
+     * @param now the current {@link System#nanoTime()}
+     * @return true if the id had not been seen within the window
+     */
+    public boolean add(UUID id, long now) {
+        if (contains(id, now)) {
+            return false;
+        }
+        if (current.isFull()) {
+            rotate(now);
+        }
+        current.add(id);
+        currentNewest = now;
+        return true;
+    }
+
+    private void rotateIfExpired(long now) {
+        if (now - currentSince < windowNanos) {
+            return;
+        }
+        if (now - currentNewest >= windowNanos) {
+            // Every id of both generations is older than the window
+            previous = new UuidSet(capacity);
+            current = new UuidSet(capacity);
+            currentSince = now;
+        } else {
+            rotate(now);
+        }
+    }
+
+    private void rotate(long now) {
+        previous = current;
+        current = new UuidSet(capacity);
+        currentSince = now;
+    }
+}
@@ -0,0 +1,129 @@
+package org.reportservice.notification.dedupe;
+
+import java.util.UUID;
+
+/**
+ * Fixed-capacity hash set of UUIDs stored as pairs of longs.
+ * <p>
+ * Uses open addressing with linear probing in a single {@code long[]}, so an
+ * entry costs 32 bytes at most and no object per entry is allocated. The table
+ * is kept at most half full. Entries cannot be removed; the set is discarded as
+ * a whole instead.
+ *
+ * <p>Not thread-safe.
+ */
+public final class UuidSet {
+    private final long[] table;
+    private final int mask;
+    private final int capacity;
+    private boolean containsNil;
+    private int size;
+
+    /**
+     * Creates an empty set.
+     *
+     * @param capacity maximum number of entries
+     */
+    public UuidSet(int capacity) {
+        if (capacity < 1 || capacity > 1 << 28) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^28");
+        }
+        int slots = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+        this.table = new long[2 * slots];
+        this.mask = slots - 1;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds an id.
+     *
+     * @param id the id
+     * @return true if it was added, false if it was already present
+     * @throws IllegalStateException if the set is full and the id is absent
+     */
+    public boolean add(UUID id) {
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        if (high == 0 && low == 0) {
+            if (containsNil) {
+                return false;
+            }
+            checkCapacity();
+            containsNil = true;
+            size++;
+            return true;
+        }
+        int slot = slot(high, low);
+        while (true) {
+            long storedHigh = table[2 * slot];
+            long storedLow = table[2 * slot + 1];
+            if (storedHigh == 0 && storedLow == 0) {
+                checkCapacity();
+                table[2 * slot] = high;
+                table[2 * slot + 1] = low;
+                size++;
+                return true;
+            }
+            if (storedHigh == high && storedLow == low) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Checks whether an id is present.
+     *
+     * @param id the id
+     * @return true if it has been added
+     */
+    public boolean contains(UUID id) {
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        if (high == 0 && low == 0) {
+            return containsNil;
+        }
+        int slot = slot(high, low);
+        while (true) {
+            long storedHigh = table[2 * slot];
+            long storedLow = table[2 * slot + 1];
+            if (storedHigh == 0 && storedLow == 0) {
+                return false;
+            }
+            if (storedHigh == high && storedLow == low) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether another id can be added.
+     *
+     * @return true if the set holds its capacity
+     */
+    public boolean isFull() {
+        return size >= capacity;
+    }
+
+    private void checkCapacity() {
+        if (isFull()) {
+            throw new IllegalStateException("Set is full");
+        }
+    }
+
+    private int slot(long high, long low) {
+        // Random UUIDs are already well mixed; the multiplication spreads other ids
+        long hash = (high ^ low) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+}
@@ -0,0 +1,17 @@
+package org.reportservice.notification.webhook;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A webhook delivery that was given up.
+ *
+ * @param id the delivery's identifier, sent to the receiver as {@code X-Webhook-Id}
+ * @param url the callback URL
+ * @param payload the JSON body that was to be POSTed
+ * @param attempts the number of requests made
+ * @param reason why the last attempt failed or why none was made
+ * @param failedAt when the delivery was given up
+ */
+public record DeadLetter(UUID id, String url, String payload, int attempts, String reason, Instant failedAt) {
+}
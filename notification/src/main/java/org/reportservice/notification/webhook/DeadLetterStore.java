@@ -0,0 +1,24 @@
+package org.reportservice.notification.webhook;
+
+import java.util.List;
+
+/**
+ * Keeps the webhook deliveries that could not be made, so that they can be
+ * inspected and replayed.
+ */
+public interface DeadLetterStore {
+
+    /**
+     * Stores a delivery that was given up.
+     *
+     * @param deadLetter the delivery
+     */
+    void store(DeadLetter deadLetter);
+
+    /**
+     * Lists the stored deliveries, oldest first.
+     *
+     * @return the deliveries
+     */
+    List<DeadLetter> list();
+}
@@ -0,0 +1,61 @@
+package org.reportservice.notification.webhook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reportservice.notification.configs.WebhookProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link DeadLetterStore} that appends each delivery to a file as one line of JSON.
+ */
+@Component
+public class FileDeadLetterStore implements DeadLetterStore {
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileDeadLetterStore(WebhookProperties properties, ObjectMapper objectMapper) {
+        this.file = properties.getDeadLetterFile();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void store(DeadLetter deadLetter) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            String line = objectMapper.writeValueAsString(deadLetter) + "\n";
+            Files.writeString(file, line, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized List<DeadLetter> list() {
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        try {
+            List<DeadLetter> deadLetters = new ArrayList<>();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    deadLetters.add(objectMapper.readValue(line, DeadLetter.class));
+                }
+            }
+            return deadLetters;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + file, e);
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package org.reportservice.notification.webhook;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.reportservice.notification.configs.WebhookProperties;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POSTs computed reports to their callback URLs.
+ * <p>
+ * Requests are sent with one shared non-blocking {@link HttpClient}, which keeps
+ * connections to each receiver open between deliveries. Each destination host
+ * has its own lane that allows a bounded number of requests in flight and queues
+ * the rest, so a slow or failing receiver only holds back its own deliveries.
+ *
+ * <p>A delivery succeeds on any 2xx answer. Connection failures, timeouts,
+ * {@code 408}, {@code 425}, {@code 429} and 5xx answers are retried after an
+ * exponentially growing, jittered delay, or after the receiver's
+ * {@code Retry-After} if that is longer. Other answers, including redirects,
+ * which are not followed, and running out of attempts send the delivery to the
+ * {@link DeadLetterStore}.
+ *
+ * <p>Delivery is at least once: every attempt of a delivery carries the same
+ * {@code X-Webhook-Id} header for receivers to de-duplicate on. Deliveries still
+ * queued or waiting for a retry when the service stops are dead-lettered.
+ *
+ * <p>Callback URLs come from clients, so they are not trusted. A host outside
+ * {@link WebhookProperties#getAllowedHosts()} is refused, and before every
+ * attempt the host is resolved and refused if any of its addresses is loopback,
+ * link-local, site-local, unique-local, multicast or the wildcard address. When a
+ * signing secret is configured, each attempt carries an {@code X-Webhook-Timestamp}
+ * header and an {@code X-Webhook-Signature} of {@code sha256=} followed by the hex
+ * HMAC-SHA256 of the timestamp, a dot and the payload.
+ */
+@Slf4j
+@Service
+public class WebhookDispatcher {
+    private final WebhookProperties properties;
+    private final DeadLetterStore deadLetters;
+    private final HttpClient client;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final Set<Delivery> waiting = ConcurrentHashMap.newKeySet();
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final ScheduledExecutorService retries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "webhook-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean stopped;
+
+    public WebhookDispatcher(WebhookProperties properties, DeadLetterStore deadLetters, MeterRegistry registry) {
+        this.properties = properties;
+        this.deadLetters = deadLetters;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(properties.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        this.delivered = outcome(registry, "delivered");
+        this.retried = outcome(registry, "retried");
+        this.deadLettered = outcome(registry, "dead_lettered");
+    }
+
+    /**
+     * Queues a JSON payload for delivery to a callback URL.
+     *
+     * @param url the callback URL
+     * @param payload the JSON body to POST
+     */
+    public void submit(URI url, String payload) {
+        Delivery delivery = new Delivery(UUID.randomUUID(), url, payload);
+        if (stopped) {
+            deadLetter(delivery, "service stopping");
+            return;
+        }
+        if (!("http".equalsIgnoreCase(url.getScheme()) || "https".equalsIgnoreCase(url.getScheme()))
+                || url.getHost() == null) {
+            deadLetter(delivery, "not an http or https URL with a host");
+            return;
+        }
+        if (!isAllowedHost(url.getHost())) {
+            deadLetter(delivery, "host not allowed");
+            return;
+        }
+        lane(url).offer(delivery);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stopped = true;
+        retries.shutdownNow();
+        for (Delivery delivery : waiting) {
+            if (waiting.remove(delivery)) {
+                deadLetter(delivery, "service stopped");
+            }
+        }
+        for (Lane lane : lanes.values()) {
+            lane.drainQueued().forEach(delivery -> deadLetter(delivery, "service stopped"));
+        }
+    }
+
+    private Lane lane(URI url) {
+        String host = url.getHost().toLowerCase(Locale.ROOT) + ":" + url.getPort();
+        return lanes.computeIfAbsent(host, key -> new Lane());
+    }
+
+    private void send(Lane lane, Delivery delivery) {
+        delivery.attempts++;
+        CompletableFuture<HttpResponse<Void>> response;
+        try {
+            if (!properties.isAllowPrivateAddresses() && !isPublic(InetAddress.getAllByName(delivery.url.getHost()))) {
+                lane.release();
+                deadLetter(delivery, "host resolves to a non-public address");
+                return;
+            }
+            HttpRequest.Builder request = HttpRequest.newBuilder(delivery.url)
+                    .timeout(properties.getRequestTimeout())
+                    .header("Content-Type", "application/json")
+                    .header("X-Webhook-Id", delivery.id.toString())
+                    .header("X-Webhook-Attempt", Integer.toString(delivery.attempts))
+                    .POST(HttpRequest.BodyPublishers.ofString(delivery.payload));
+            String secret = properties.getSigningSecret();
+            if (secret != null && !secret.isEmpty()) {
+                String timestamp = Long.toString(Instant.now().getEpochSecond());
+                request.header("X-Webhook-Timestamp", timestamp)
+                        .header("X-Webhook-Signature", "sha256=" + sign(secret, timestamp + "." + delivery.payload));
+            }
+            response = client.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding());
+        } catch (IOException | RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((answer, error) -> {
+            lane.release();
+            completed(delivery, answer, error);
+        });
+    }
+
+    private void completed(Delivery delivery, HttpResponse<Void> answer, Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error == null && answer.statusCode() / 100 == 2) {
+            delivered.increment();
+            return;
+        }
+        String failure = error != null ? error.toString() : "HTTP " + answer.statusCode();
+        boolean retryable = error != null ? error instanceof IOException : isRetryable(answer.statusCode());
+        if (!retryable || delivery.attempts >= properties.getMaxAttempts() || stopped) {
+            deadLetter(delivery, failure);
+            return;
+        }
+        retried.increment();
+        waiting.add(delivery);
+        try {
+            retries.schedule(() -> {
+                if (waiting.remove(delivery)) {
+                    lane(delivery.url).offer(delivery);
+                }
+            }, backoffMillis(delivery.attempts, answer), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            if (waiting.remove(delivery)) {
+                deadLetter(delivery, failure);
+            }
+        }
+    }
+
+    private boolean isAllowedHost(String host) {
+        List<String> allowed = properties.getAllowedHosts();
+        if (allowed == null || allowed.isEmpty()) {
+            return true;
+        }
+        String normalized = host.toLowerCase(Locale.ROOT);
+        for (String entry : allowed) {
+            String pattern = entry.toLowerCase(Locale.ROOT);
+            if (pattern.startsWith(".") ? normalized.endsWith(pattern) || normalized.equals(pattern.substring(1))
+                    : normalized.equals(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPublic(InetAddress[] addresses) {
+        for (InetAddress address : addresses) {
+            if (address.isLoopbackAddress() || address.isLinkLocalAddress() || address.isSiteLocalAddress()
+                    || address.isAnyLocalAddress() || address.isMulticastAddress()
+                    || (address instanceof Inet6Address && (address.getAddress()[0] & 0xFE) == 0xFC)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String sign(String secret, String content) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 408 || status == 425 || status == 429 || status >= 500;
+    }
+
+    /**
+     * Picks the delay before the next attempt.
+     *
+     * @param attempts the number of attempts made so far
+     * @param answer the last answer, or null if none was received
+     * @return the delay in milliseconds
+     */
+    private long backoffMillis(int attempts, HttpResponse<Void> answer) {
+        long max = properties.getMaxBackoff().toMillis();
+        long base = Math.min(max, properties.getInitialBackoff().toMillis() << Math.min(attempts - 1, 30));
+        long delay = base - ThreadLocalRandom.current().nextLong(base / 2 + 1);
+        if (answer != null) {
+            long asked = answer.headers().firstValue("Retry-After").map(WebhookDispatcher::seconds).orElse(0L);
+            delay = Math.max(delay, Math.min(max, TimeUnit.SECONDS.toMillis(asked)));
+        }
+        return delay;
+    }
+
+    private static long seconds(String retryAfter) {
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void deadLetter(Delivery delivery, String reason) {
+        try {
+            deadLetters.store(new DeadLetter(delivery.id, delivery.url.toString(), delivery.payload,
+                    delivery.attempts, reason, Instant.now()));
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сохранить недоставленный вебхук: {}", delivery.id, e);
+        }
+        deadLettered.increment();
+    }
+
+    private static Counter outcome(MeterRegistry registry, String outcome) {
+        return Counter.builder("notification.webhook.deliveries")
+                .description("Webhook delivery attempts by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * One payload on its way to one URL. Handed between threads only through the
+     * lanes' locks and the retry executor.
+     */
+    private static final class Delivery {
+        private final UUID id;
+        private final URI url;
+        private final String payload;
+        private int attempts;
+
+        private Delivery(UUID id, URI url, String payload) {
+            this.id = id;
+            this.url = url;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * The deliveries to one host: those in flight, bounded, and those queued behind them.
+     */
+    private final class Lane {
+        private final Deque<Delivery> queued = new ArrayDeque<>();
+        private int inFlight;
+
+        void offer(Delivery delivery) {
+            boolean full;
+            synchronized (this) {
+                full = queued.size() >= properties.getMaxQueuedPerHost();
+                if (!full) {
+                    queued.add(delivery);
+                }
+            }
+            if (full) {
+                deadLetter(delivery, "too many deliveries queued for host");
+                return;
+            }
+            startReady();
+        }
+
+        void release() {
+            synchronized (this) {
+                inFlight--;
+            }
+            startReady();
+        }
+
+        synchronized List<Delivery> drainQueued() {
+            List<Delivery> drained = new ArrayList<>(queued);
+            queued.clear();
+            return drained;
+        }
+
+        private void startReady() {
+            List<Delivery> ready = new ArrayList<>();
+            synchronized (this) {
+                while (inFlight < properties.getMaxConcurrencyPerHost() && !queued.isEmpty()) {
+                    inFlight++;
+                    ready.add(queued.poll());
+                }
+            }
+            for (Delivery delivery : ready) {
+                send(this, delivery);
+            }
+        }
+    }
+}
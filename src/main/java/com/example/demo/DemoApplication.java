@@ -2,6 +2,8 @@ package com.example.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main entry point for the Spring Boot application.
@@ -14,6 +16,11 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  *   <li>Embedded server configuration</li>
  * </ul>
  *
+ * <p>{@link ConfigurationPropertiesScan} registers the feature-specific
+ * {@code @ConfigurationProperties} classes from the {@code config} package.
+ * {@link EnableScheduling} drives the periodic background jobs such as the
+ * report workers.
+ *
  * <p>The application can be run either:
  * <ul>
  *   <li>As a standalone Java application</li>
@@ -24,6 +31,8 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @see SpringBootApplication
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class DemoApplication {
 
     /**
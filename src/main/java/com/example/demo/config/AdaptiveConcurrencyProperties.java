@@ -0,0 +1,48 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for adaptive concurrency limits of the report lanes.
+ * <p>
+ * Bound from the {@code report.concurrency.*} namespace. Each lane starts at half
+ * its configured concurrency and adapts between one and that maximum.
+ *
+ * @see com.example.demo.service.AdaptiveLimiter
+ * @see ReportLaneProperties
+ */
+@Data
+@ConfigurationProperties(prefix = "report.concurrency")
+public class AdaptiveConcurrencyProperties {
+
+    /**
+     * Whether lane limits adapt; when disabled each lane runs at its full concurrency.
+     */
+    private boolean adaptive = true;
+
+    /**
+     * Factor applied to the limit when latency degrades or the database reports overload.
+     */
+    private double backoffRatio = 0.8;
+
+    /**
+     * Latency above this multiple of the lane's baseline counts as degraded.
+     */
+    private double latencyTolerance = 2.0;
+
+    /**
+     * Fraction by which the baseline moves toward each slower sample.
+     * <p>
+     * Keeps the baseline from sticking to a single lucky minimum when the data grows.
+     */
+    private double baselineDrift = 0.01;
+
+    /**
+     * Fixed cost of computing a report, expressed in events scanned.
+     * <p>
+     * Latency samples are divided by the report's estimated event count plus this,
+     * so that reports of different sizes in the same lane can be compared.
+     */
+    private long overheadEvents = 10_000;
+}
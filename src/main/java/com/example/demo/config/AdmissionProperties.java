@@ -0,0 +1,29 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for admission control of report computations.
+ * <p>
+ * Bound from the {@code report.admission.*} namespace.
+ *
+ * @see com.example.demo.service.ComputationAdmission
+ */
+@Data
+@ConfigurationProperties(prefix = "report.admission")
+public class AdmissionProperties {
+
+    /**
+     * Maximum number of computations running or queued on this node before new
+     * reports are rejected.
+     */
+    private int maxInFlight = 64;
+
+    /**
+     * Delay suggested to rejected clients in the {@code Retry-After} header.
+     */
+    private Duration retryAfter = Duration.ofSeconds(5);
+}
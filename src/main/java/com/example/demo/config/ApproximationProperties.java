@@ -0,0 +1,42 @@
+package com.example.demo.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for approximate report computation.
+ * <p>
+ * Bound from the {@code report.approximate.*} namespace. Approximate reports
+ * split their range into fixed-size time buckets and count only a stratified
+ * sample of them.
+ *
+ * @see com.example.demo.service.SamplingEstimator
+ */
+@Data
+@Validated
+@ConfigurationProperties(prefix = "report.approximate")
+public class ApproximationProperties {
+
+    /**
+     * Length of a single sampling bucket.
+     */
+    private Duration bucket = Duration.ofHours(1);
+
+    /**
+     * Number of buckets counted per report.
+     * <p>
+     * Ranges with no more full buckets than this are counted exactly. At least two
+     * buckets are needed to estimate the variance between them.
+     */
+    @Min(2)
+    private int sampleSize = 200;
+
+    /**
+     * Confidence level of the reported conversion ratio interval.
+     */
+    private double confidenceLevel = 0.95;
+}
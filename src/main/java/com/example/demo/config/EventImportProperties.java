@@ -0,0 +1,40 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration properties for bulk imports of historical events.
+ * <p>
+ * Bound from the {@code report.import.*} namespace.
+ *
+ * @see com.example.demo.service.EventImportService
+ */
+@Data
+@ConfigurationProperties(prefix = "report.import")
+public class EventImportProperties {
+
+    /**
+     * Directory holding the files that may be imported. Import requests name
+     * files relative to it and cannot reach outside it.
+     */
+    private Path directory = Path.of("data", "import");
+
+    /**
+     * Number of records per chunk. A chunk is parsed by one worker and written
+     * in one transaction, and it is the unit of work skipped on resumption.
+     */
+    private int chunkSize = 10_000;
+
+    /**
+     * Number of chunks parsed and written concurrently per import.
+     */
+    private int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Number of rows sent to the database per JDBC batch.
+     */
+    private int batchSize = 1_000;
+}
@@ -0,0 +1,47 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for the in-memory event index.
+ * <p>
+ * Bound from the {@code analytics.index.*} namespace. The index keeps sorted
+ * timestamp columns for selected {@code (productId, layoutId)} pairs so that
+ * range counts can be answered without touching the database.
+ *
+ * @see com.example.demo.service.EventIndex
+ */
+@Data
+@ConfigurationProperties(prefix = "analytics.index")
+public class EventIndexProperties {
+
+    /**
+     * Whether the in-memory index is consulted before falling back to SQL.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Upper bound for the memory held by all timestamp columns.
+     * <p>
+     * When a newly loaded key pushes the index over budget, the least
+     * recently queried keys are evicted first.
+     */
+    private DataSize memoryBudget = DataSize.ofMegabytes(256);
+
+    /**
+     * Keys loaded at application startup, each in {@code productId:layoutId} form.
+     */
+    private List<String> preload = new ArrayList<>();
+
+    /**
+     * Number of index misses after which a key is loaded in the background.
+     * <p>
+     * A value of zero disables automatic admission; only preloaded keys are indexed.
+     */
+    private int admitAfterMisses = 3;
+}
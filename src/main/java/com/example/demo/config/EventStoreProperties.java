@@ -0,0 +1,57 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration properties for the storage of view and payment events.
+ * <p>
+ * Bound from the {@code report.event-store.*} namespace.
+ *
+ * @see com.example.demo.service.EventStore
+ */
+@Data
+@ConfigurationProperties(prefix = "report.event-store")
+public class EventStoreProperties {
+
+    /**
+     * Where events are stored.
+     */
+    private Backend backend = Backend.JPA;
+
+    /**
+     * Root directory of the segment files of the {@link Backend#SEGMENTED} backend.
+     */
+    private Path directory = Path.of("data", "events");
+
+    /**
+     * Number of events per block of a segment's sparse time index. Smaller blocks
+     * skip more precisely at the cost of more index memory.
+     */
+    private int indexInterval = 256;
+
+    /**
+     * Maximum number of segments whose index is held in memory. When more are in
+     * use, the least recently used segment is closed; it is rebuilt from its file
+     * by one scan when it is used again.
+     */
+    private int maxOpenSegments = 10_000;
+
+    /**
+     * Storage backends for events.
+     */
+    public enum Backend {
+        /**
+         * Events are rows of the {@code view} and {@code payment} tables.
+         */
+        JPA,
+
+        /**
+         * Events are appended to per-day segment files on local disk. Counts are
+         * served from this node's files only, and raw event export is not available.
+         */
+        SEGMENTED
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * {@link SpanExporter} that appends finished spans to a local file as JSON lines.
+ * <p>
+ * A stand-in for an OTLP collector on machines without one: each line holds a
+ * span's trace and parent identifiers, name, kind, start and end in epoch
+ * nanoseconds, status and attributes. Spans arrive in batches from the SDK's
+ * batch processor, off the request threads.
+ */
+public class FileSpanExporter implements SpanExporter {
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructs an exporter appending to the given file.
+     *
+     * @param file the file to append to; created with its directories if missing
+     * @param objectMapper mapper used to write each span
+     */
+    public FileSpanExporter(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE)) {
+                for (SpanData span : spans) {
+                    writer.write(objectMapper.writeValueAsString(toJson(span)));
+                    writer.newLine();
+                }
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private ObjectNode toJson(SpanData span) {
+        ObjectNode json = objectMapper.createObjectNode();
+        json.put("traceId", span.getTraceId());
+        json.put("spanId", span.getSpanId());
+        if (SpanId.isValid(span.getParentSpanId())) {
+            json.put("parentSpanId", span.getParentSpanId());
+        }
+        json.put("name", span.getName());
+        json.put("kind", span.getKind().name());
+        json.put("startEpochNanos", span.getStartEpochNanos());
+        json.put("endEpochNanos", span.getEndEpochNanos());
+        json.put("status", span.getStatus().getStatusCode().name());
+        ObjectNode attributes = json.putObject("attributes");
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), String.valueOf(value)));
+        return json;
+    }
+}
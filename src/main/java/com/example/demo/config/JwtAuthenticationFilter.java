@@ -2,6 +2,8 @@ package com.example.demo.config;
 
 import com.example.demo.repository.UserRepository;
 import com.example.demo.utils.JwtUtils;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,6 +24,8 @@ import java.io.IOException;
  * validates them, and sets up the Spring Security context if the token is valid.
  *
  * <p>Extends {@link OncePerRequestFilter} to ensure a single execution per request.
+ * Validating a token and loading its user is observed as {@code report.auth.jwt},
+ * so traces show the time spent authenticating.
  *
  * @see OncePerRequestFilter
  * @see JwtUtils
@@ -31,16 +35,20 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtUtils jwtUtils;
     private final UserRepository userRepository;
+    private final ObservationRegistry observationRegistry;
 
     /**
      * Constructs a new JwtAuthenticationFilter with the required dependencies.
      *
      * @param jwtUtils Utility class for JWT operations
      * @param userRepository Repository for user data access
+     * @param observationRegistry Registry the token validation is observed in
      */
-    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserRepository userRepository) {
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserRepository userRepository,
+                                   ObservationRegistry observationRegistry) {
         this.jwtUtils = jwtUtils;
         this.userRepository = userRepository;
+        this.observationRegistry = observationRegistry;
     }
 
     /**
@@ -67,13 +75,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
         final String authorizationHeader = request.getHeader("Authorization");
-        String username = null;
-        String jwt = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            username = jwtUtils.extractUsername(jwt);
+            String jwt = authorizationHeader.substring(7);
+            Observation.createNotStarted("report.auth.jwt", observationRegistry)
+                    .observe(() -> authenticate(request, jwt));
         }
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(HttpServletRequest request, String jwt) {
+        String username = jwtUtils.extractUsername(jwt);
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             var userDetails = userRepository.findByUsername(username)
@@ -90,6 +102,5 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         }
-        filterChain.doFilter(request, response);
     }
 }
\ No newline at end of file
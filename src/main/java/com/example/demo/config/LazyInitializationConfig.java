@@ -0,0 +1,48 @@
+package com.example.demo.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Keeps selected beans eager when {@code spring.main.lazy-initialization} is enabled.
+ * <p>
+ * Lazy initialization shortens startup, but some beans must still be created
+ * while the context starts:
+ * <ul>
+ *   <li>Flyway and the entity manager factory, so migrations run and schema
+ *       validation fails the deployment instead of the first request</li>
+ *   <li>Beans with {@link Scheduled} methods, which are only registered with the
+ *       scheduler once the bean exists</li>
+ * </ul>
+ *
+ * <p>Has no effect while lazy initialization is disabled.
+ *
+ * @see LazyInitializationExcludeFilter
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    /**
+     * Creates the filter that excludes the beans listed above from lazy initialization.
+     *
+     * @return the exclude filter
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeans() {
+        LazyInitializationExcludeFilter infrastructure = LazyInitializationExcludeFilter.forBeanTypes(
+                FlywayMigrationInitializer.class, AbstractEntityManagerFactoryBean.class);
+        return (beanName, beanDefinition, beanType) ->
+                infrastructure.isExcluded(beanName, beanDefinition, beanType) || hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ? Boolean.TRUE : null).isEmpty();
+    }
+}
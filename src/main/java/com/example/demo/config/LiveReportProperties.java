@@ -0,0 +1,29 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for live reports, whose counts follow new events.
+ * <p>
+ * Bound from the {@code report.live.*} namespace.
+ *
+ * @see com.example.demo.service.LiveReportRegistry
+ */
+@Data
+@ConfigurationProperties(prefix = "report.live")
+public class LiveReportProperties {
+
+    /**
+     * Whether live reports are maintained; when disabled they are computed once like any other report.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How often in-memory counts are written to the database and pushed to subscribers.
+     * Also bounds how long other nodes take to start counting a new live report.
+     */
+    private Duration flushInterval = Duration.ofSeconds(5);
+}
@@ -0,0 +1,45 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for parallel computation of long report ranges.
+ * <p>
+ * Bound from the {@code report.parallel.*} namespace. Every sub-range query
+ * borrows its own database connection, so {@link #maxParallelism} should stay
+ * well below the connection pool size to leave room for concurrent reports.
+ *
+ * @see com.example.demo.service.ParallelRangeCounter
+ */
+@Data
+@ConfigurationProperties(prefix = "report.parallel")
+public class ParallelComputationProperties {
+
+    /**
+     * Ranges longer than this are split; shorter ones are counted in one query.
+     */
+    private Duration splitThreshold = Duration.ofDays(14);
+
+    /**
+     * Alignment of sub-range boundaries; every sub-range spans a whole number of these.
+     */
+    private Duration splitGranularity = Duration.ofDays(1);
+
+    /**
+     * Upper bound on the number of sub-ranges per report.
+     * <p>
+     * Each sub-range costs a round trip, so adjacent aligned units are grouped
+     * until the range is cut into at most this many pieces.
+     */
+    private int maxSubRanges = 16;
+
+    /**
+     * Maximum number of sub-ranges counted concurrently.
+     * <p>
+     * A value of one disables splitting.
+     */
+    private int maxParallelism = 4;
+}
@@ -0,0 +1,68 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for pre-computation of popular reports.
+ * <p>
+ * Bound from the {@code report.precompute.*} namespace.
+ *
+ * @see com.example.demo.service.ReportPrecomputer
+ * @see com.example.demo.service.ReportPopularityTracker
+ */
+@Data
+@ConfigurationProperties(prefix = "report.precompute")
+public class PrecomputeProperties {
+
+    /**
+     * Whether popular reports are pre-computed and served from the cache.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Cron expression of the off-peak pre-computation run.
+     */
+    private String cron = "0 0 5 * * *";
+
+    /**
+     * Number of most requested windows computed per run.
+     */
+    private int topWindows = 50;
+
+    /**
+     * Minimum number of recent requests before a window is worth pre-computing.
+     */
+    private int minRequests = 3;
+
+    /**
+     * How far back report requests are replayed to rebuild popularity after a restart.
+     */
+    private Duration history = Duration.ofDays(7);
+
+    /**
+     * How long a pre-computed result is served.
+     */
+    private Duration ttl = Duration.ofHours(36);
+
+    /**
+     * Maximum number of pre-computed results kept in memory.
+     */
+    private int maxEntries = 10_000;
+
+    /**
+     * How long a window must have been over before its result is cached.
+     * <p>
+     * Only events ingested more than this after their timestamp can fall into a
+     * cached window, and only those are broadcast to the other nodes. Must exceed
+     * the usual ingestion delay plus the clock skew between nodes.
+     */
+    private Duration settleTime = Duration.ofMinutes(5);
+
+    /**
+     * Delay between broadcasts of the ranges touched by late events.
+     */
+    private Duration invalidationInterval = Duration.ofSeconds(1);
+}
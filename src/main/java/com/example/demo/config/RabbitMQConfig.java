@@ -1,8 +1,10 @@
 package com.example.demo.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,4 +25,22 @@ public class RabbitMQConfig {
     public Binding binding(Queue reportQueue, DirectExchange reportExchange) {
         return BindingBuilder.bind(reportQueue).to(reportExchange).with("report.routing.key");
     }
+
+    @Bean
+    public FanoutExchange cacheInvalidationExchange() {
+        return new FanoutExchange("report.cache.invalidation");
+    }
+
+    /**
+     * Queue of this node for cache invalidations, deleted when the node disconnects.
+     */
+    @Bean
+    public Queue cacheInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding cacheInvalidationBinding(Queue cacheInvalidationQueue, FanoutExchange cacheInvalidationExchange) {
+        return BindingBuilder.bind(cacheInvalidationQueue).to(cacheInvalidationExchange);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.example.demo.config;
+
+import com.example.demo.service.RateLimitDecision;
+import com.example.demo.service.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * A Spring Security filter that rate limits report creation per principal.
+ * <p>
+ * Runs after {@link JwtAuthenticationFilter}, so requests are keyed by the
+ * authenticated username; unauthenticated requests are keyed by client address.
+ * When a principal's bucket is empty the request is answered with
+ * {@code 429 Too Many Requests} and a {@code Retry-After} header in seconds,
+ * without reaching the controller.
+ *
+ * @see RateLimiter
+ * @see RateLimitProperties
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+
+    /**
+     * Constructs a new RateLimitFilter.
+     *
+     * @param rateLimiter the limiter holding the token buckets
+     * @param properties rate limit configuration
+     */
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+    }
+
+    /**
+     * Limits only {@code POST /api/reports}.
+     *
+     * @param request the incoming HTTP request
+     * @return true if the request is not a report creation
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled()
+                || !HttpMethod.POST.matches(request.getMethod())
+                || !"/api/reports".equals(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimitDecision decision = rateLimiter.tryAcquire(key(request));
+        if (!decision.allowed()) {
+            long seconds = Math.max(1, (decision.retryAfter().toMillis() + 999) / 1000);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static String key(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return "user:" + authentication.getName();
+        }
+        return "addr:" + request.getRemoteAddr();
+    }
+}
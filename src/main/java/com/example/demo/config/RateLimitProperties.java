@@ -0,0 +1,54 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for per-user rate limiting of report creation.
+ * <p>
+ * Bound from the {@code report.rate-limit.*} namespace. Each principal gets a
+ * token bucket that refills at {@link #permitsPerMinute} and holds at most
+ * {@link #burst} tokens.
+ *
+ * @see RateLimitFilter
+ * @see com.example.demo.service.RateLimiter
+ */
+@Data
+@ConfigurationProperties(prefix = "report.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Whether report creation is rate limited.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Sustained number of reports a principal may create per minute.
+     */
+    private int permitsPerMinute = 30;
+
+    /**
+     * Number of reports a principal may create in a burst after being idle.
+     */
+    private int burst = 10;
+
+    /**
+     * Where bucket state is kept.
+     */
+    private Mode mode = Mode.LOCAL;
+
+    /**
+     * Storage for token bucket state.
+     */
+    public enum Mode {
+        /**
+         * Buckets live in this node's memory; each node enforces the limit on its own.
+         */
+        LOCAL,
+
+        /**
+         * Buckets live in the {@code rate_limit_bucket} table and are shared by all nodes.
+         */
+        DATABASE
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for Flight Recorder recordings started through the
+ * admin API.
+ * <p>
+ * Bound from the {@code report.recording.*} namespace. Each value is a default
+ * that a start request may override.
+ *
+ * @see com.example.demo.service.RecordingService
+ */
+@Data
+@ConfigurationProperties(prefix = "report.recording")
+public class RecordingProperties {
+
+    /**
+     * Name of the JDK's predefined settings: {@code default}, with about 1% overhead,
+     * or {@code profile}, which also samples allocations and lock contention in more
+     * detail at about 2%.
+     */
+    private String settings = "profile";
+
+    /**
+     * How long recorded data is kept while a recording runs; older data is dropped.
+     */
+    private Duration maxAge = Duration.ofHours(1);
+
+    /**
+     * How much recorded data is kept on disk while a recording runs.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(256);
+}
@@ -0,0 +1,46 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for cost-based report lanes.
+ * <p>
+ * Bound from the {@code report.lanes.*} namespace. Every report is classified by
+ * its estimated number of scanned events and computed in the lane for its class,
+ * each with its own concurrency limit.
+ *
+ * @see com.example.demo.service.ReportCostEstimator
+ * @see com.example.demo.service.ReportLaneDispatcher
+ */
+@Data
+@ConfigurationProperties(prefix = "report.lanes")
+public class ReportLaneProperties {
+
+    /**
+     * Reports estimated to scan at most this many events go to the fast lane.
+     */
+    private long fastMaxEvents = 1_000_000;
+
+    /**
+     * Number of reports computed concurrently in the fast lane.
+     */
+    private int fastConcurrency = 8;
+
+    /**
+     * Number of reports computed concurrently in the bulk lane.
+     */
+    private int bulkConcurrency = 2;
+
+    /**
+     * Length of the recent window whose view count gives a key's event density.
+     */
+    private Duration densityWindow = Duration.ofDays(7);
+
+    /**
+     * How long a measured density is reused before it is counted again.
+     */
+    private Duration densityTtl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,72 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the database-backed report workers.
+ * <p>
+ * Bound from the {@code report.worker.*} namespace. When enabled, new reports are
+ * left {@code PENDING} and computed by workers that claim them from the
+ * {@code report_request} table, so any number of nodes can share the load
+ * without a broker.
+ *
+ * @see com.example.demo.service.ReportWorker
+ * @see com.example.demo.service.ReportJobQueue
+ */
+@Data
+@ConfigurationProperties(prefix = "report.worker")
+public class ReportWorkerProperties {
+
+    /**
+     * Whether reports are computed by workers instead of inline on creation.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Identifier written to claimed rows; defaults to the JVM's {@code pid@host}.
+     */
+    private String nodeId;
+
+    /**
+     * Maximum number of claimed reports in progress on this node.
+     * <p>
+     * Concurrency within that limit is governed by the report lanes.
+     */
+    private int poolSize = 4;
+
+    /**
+     * Maximum number of reports claimed in one round trip.
+     */
+    private int batchSize = 16;
+
+    /**
+     * Delay between polls for pending reports.
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * How long a claim stays valid without a heartbeat.
+     * <p>
+     * Reports held by a node that stops heartbeating become claimable again
+     * once their lease expires.
+     */
+    private Duration lease = Duration.ofMinutes(1);
+
+    /**
+     * Delay between lease renewals for reports in progress; must be well below {@link #lease}.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * Number of claims after which a report that has not completed is marked failed.
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * How long shutdown waits for reports in progress before releasing their leases; must be below {@link #lease}.
+     */
+    private Duration shutdownGracePeriod = Duration.ofSeconds(30);
+}
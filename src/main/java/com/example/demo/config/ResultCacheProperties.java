@@ -0,0 +1,34 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the in-memory cache of completed report results.
+ * <p>
+ * Bound from the {@code report.result-cache.*} namespace.
+ *
+ * @see com.example.demo.service.ReportResultCache
+ */
+@Data
+@ConfigurationProperties(prefix = "report.result-cache")
+public class ResultCacheProperties {
+
+    /**
+     * Whether completed results are served from memory.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a result is kept in memory. Entries are checked against the
+     * report's version on every read, so this only bounds memory use.
+     */
+    private Duration ttl = Duration.ofMinutes(1);
+
+    /**
+     * Maximum number of results kept in memory.
+     */
+    private int maxEntries = 10_000;
+}
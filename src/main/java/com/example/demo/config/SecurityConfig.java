@@ -39,16 +39,21 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final UserRepository userRepository;
 
     /**
      * Constructs a new SecurityConfig with required dependencies.
      *
      * @param jwtAuthFilter the JWT authentication filter
+     * @param rateLimitFilter the per-principal rate limiting filter
      * @param userRepository the user repository for user data access
      */
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter, UserRepository userRepository) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter,
+                          RateLimitFilter rateLimitFilter,
+                          UserRepository userRepository) {
         this.jwtAuthFilter = jwtAuthFilter;
+        this.rateLimitFilter = rateLimitFilter;
         this.userRepository = userRepository;
     }
 
@@ -60,13 +65,15 @@ public class SecurityConfig {
      *   <li>Disabling CSRF protection (for API using JWT)</li>
      *   <li>Setting up endpoint authorization rules:
      *     <ul>
-     *       <li>Public access to login endpoint</li>
+     *       <li>Public access to login and health endpoints</li>
+     *       <li>Admin-only access to the other actuator endpoints</li>
      *       <li>Role-based access to specific endpoints</li>
      *       <li>Authenticated access for all other requests</li>
      *     </ul>
      *   </li>
      *   <li>Setting stateless session policy</li>
      *   <li>Adding JWT authentication filter</li>
+     *   <li>Adding rate limiting after authentication, so limits apply per principal</li>
      * </ul>
      *
      * @param http the HttpSecurity to configure
@@ -84,15 +91,18 @@ public class SecurityConfig {
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
                                 "/swagger-resources/**",
-                                "/webjars/**"
+                                "/webjars/**",
+                                "/actuator/health"
                         ).permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/api/reports/**").hasAnyRole("USER", "ADMIN")
                         .requestMatchers("/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
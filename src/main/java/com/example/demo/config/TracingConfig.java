@@ -0,0 +1,27 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the span exporters that Spring Boot does not configure itself.
+ * <p>
+ * Spans come from Micrometer observations: HTTP requests, the security filter
+ * chain, the {@code @Observed} services, AMQP publishing and listening, and the
+ * phases of a report's computation. Spring Boot bridges them to OpenTelemetry,
+ * samples them by {@code management.tracing.sampling.probability}, and hands
+ * them to every {@link SpanExporter} bean, including its OTLP exporter when
+ * {@code management.otlp.tracing.endpoint} is set.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "report.tracing", name = "file")
+    public SpanExporter fileSpanExporter(TracingProperties properties, ObjectMapper objectMapper) {
+        return new FileSpanExporter(properties.getFile(), objectMapper);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration properties for the export of trace spans.
+ * <p>
+ * Bound from the {@code report.tracing.*} namespace. Sampling and the OTLP
+ * exporter are configured through Spring Boot's {@code management.tracing.*}
+ * and {@code management.otlp.tracing.*} properties.
+ *
+ * @see FileSpanExporter
+ */
+@Data
+@ConfigurationProperties(prefix = "report.tracing")
+public class TracingProperties {
+
+    /**
+     * File finished spans are appended to, one JSON object per line. Unset
+     * disables the file export.
+     */
+    private Path file;
+}
@@ -0,0 +1,29 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.TooManyRequestsException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Translates service-level exceptions into HTTP responses for all REST controllers.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    /**
+     * Answers overload rejections with {@code 429 Too Many Requests}.
+     *
+     * @param e the rejection
+     * @return an empty response carrying {@code Retry-After} in seconds
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Void> handleTooManyRequests(TooManyRequestsException e) {
+        long seconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.EventDto;
+import com.example.demo.service.EventIngestionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for ingesting analytics events.
+ *
+ * <p>Accepts view and payment events from tracking clients. Every event is
+ * persisted and forwarded to the in-memory event index.
+ *
+ * @see EventIngestionService
+ */
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+@Tag(name = "Events", description = "Event ingestion API")
+public class EventController {
+
+    private final EventIngestionService eventIngestionService;
+
+    @Operation(
+            summary = "Record view",
+            description = "Records a product view event",
+            responses = @ApiResponse(responseCode = "200", description = "View recorded")
+    )
+    @PostMapping("/views")
+    public ResponseEntity<?> recordView(@RequestBody EventDto event) {
+        eventIngestionService.recordView(event);
+        return ResponseEntity.ok().build();
+    }
+
+    @Operation(
+            summary = "Record payment",
+            description = "Records a payment event",
+            responses = @ApiResponse(responseCode = "200", description = "Payment recorded")
+    )
+    @PostMapping("/payments")
+    public ResponseEntity<?> recordPayment(@RequestBody EventDto event) {
+        eventIngestionService.recordPayment(event);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.EventImportDto;
+import com.example.demo.dto.EventImportRequestDto;
+import com.example.demo.entity.EventImport;
+import com.example.demo.service.EventImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * REST controller for bulk imports of historical events (ADMIN role required).
+ *
+ * <p>Imports run in the background; their progress is polled by id.
+ *
+ * @see EventImportService
+ */
+@RestController
+@RequestMapping("/admin/imports")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Event imports", description = "Bulk import of historical events")
+public class EventImportController {
+
+    private final EventImportService importService;
+
+    @Operation(
+            summary = "Start import",
+            description = "Starts importing a CSV file, optionally gzipped, from the import directory",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Import started"),
+                    @ApiResponse(responseCode = "400", description = "Missing type or no such file"),
+                    @ApiResponse(responseCode = "501", description = "Events are not stored in the database")
+            }
+    )
+    @PostMapping
+    public ResponseEntity<EventImportDto> startImport(@RequestBody EventImportRequestDto request) {
+        EventImport eventImport = translate(() -> importService.start(request.getPath(), request.getType()));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(progress(eventImport.getId()));
+    }
+
+    @Operation(
+            summary = "Resume import",
+            description = "Resumes a failed import, skipping the chunks it has already written",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Import resumed"),
+                    @ApiResponse(responseCode = "404", description = "Import not found"),
+                    @ApiResponse(responseCode = "409", description = "Import completed or still running")
+            }
+    )
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<EventImportDto> resumeImport(@PathVariable UUID id) {
+        translate(() -> importService.resume(id))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Import not found"));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(progress(id));
+    }
+
+    @Operation(
+            summary = "Get import",
+            description = "Reports the progress and throughput of an import",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Import progress"),
+                    @ApiResponse(responseCode = "404", description = "Import not found")
+            }
+    )
+    @GetMapping("/{id}")
+    public ResponseEntity<EventImportDto> getImport(@PathVariable UUID id) {
+        return ResponseEntity.ok(progress(id));
+    }
+
+    private EventImportDto progress(UUID id) {
+        return importService.getImport(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Import not found"));
+    }
+
+    private static <T> T translate(Supplier<T> action) {
+        try {
+            return action.get();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        } catch (UnsupportedOperationException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.RecordingDto;
+import com.example.demo.dto.RecordingRequestDto;
+import com.example.demo.service.RecordingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * REST controller for Java Flight Recorder recordings of this node (ADMIN role required).
+ *
+ * <p>A recording is started, dumped as a {@code .jfr} file while it runs or after
+ * it is stopped, and closed to release its data.
+ *
+ * @see RecordingService
+ */
+@RestController
+@RequestMapping("/admin/recordings")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Recordings", description = "Java Flight Recorder recordings")
+public class RecordingController {
+
+    private final RecordingService recordingService;
+
+    @Operation(
+            summary = "Start recording",
+            description = "Starts a Flight Recorder recording with the default or profile settings",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Recording started"),
+                    @ApiResponse(responseCode = "400", description = "Unknown settings")
+            }
+    )
+    @PostMapping
+    public ResponseEntity<RecordingDto> startRecording(@RequestBody(required = false) RecordingRequestDto request) {
+        try {
+            RecordingDto recording = recordingService.start(request != null ? request : new RecordingRequestDto());
+            return ResponseEntity.status(HttpStatus.CREATED).body(recording);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @Operation(
+            summary = "List recordings",
+            description = "Lists the recordings of this node that are not closed"
+    )
+    @GetMapping
+    public ResponseEntity<List<RecordingDto>> listRecordings() {
+        return ResponseEntity.ok(recordingService.list());
+    }
+
+    @Operation(
+            summary = "Get recording",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Recording state"),
+                    @ApiResponse(responseCode = "404", description = "Recording not found")
+            }
+    )
+    @GetMapping("/{id}")
+    public ResponseEntity<RecordingDto> getRecording(@PathVariable long id) {
+        return ResponseEntity.ok(recordingService.get(id).orElseThrow(RecordingController::notFound));
+    }
+
+    @Operation(
+            summary = "Stop recording",
+            description = "Stops a running recording; its data can still be dumped",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Recording stopped"),
+                    @ApiResponse(responseCode = "404", description = "Recording not found"),
+                    @ApiResponse(responseCode = "409", description = "Recording not running")
+            }
+    )
+    @PostMapping("/{id}/stop")
+    public ResponseEntity<RecordingDto> stopRecording(@PathVariable long id) {
+        try {
+            return ResponseEntity.ok(recordingService.stop(id).orElseThrow(RecordingController::notFound));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @Operation(
+            summary = "Dump recording",
+            description = "Downloads the data of a running or stopped recording as a .jfr file",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Recording data"),
+                    @ApiResponse(responseCode = "404", description = "Recording not found"),
+                    @ApiResponse(responseCode = "409", description = "Recording not started")
+            }
+    )
+    @GetMapping("/{id}/dump")
+    public ResponseEntity<StreamingResponseBody> dumpRecording(@PathVariable long id) throws IOException {
+        Path file;
+        try {
+            file = recordingService.dump(id).orElseThrow(RecordingController::notFound);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("recording-" + id + ".jfr").build().toString())
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Close recording",
+            description = "Stops a recording if needed and releases its data",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Recording closed"),
+                    @ApiResponse(responseCode = "404", description = "Recording not found")
+            }
+    )
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> closeRecording(@PathVariable long id) {
+        if (!recordingService.close(id)) {
+            throw notFound();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private static ResponseStatusException notFound() {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Recording not found");
+    }
+}
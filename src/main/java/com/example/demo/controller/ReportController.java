@@ -1,25 +1,58 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.EventType;
+import com.example.demo.dto.ExportFormat;
+import com.example.demo.dto.ReportBatchDto;
+import com.example.demo.dto.ReportBatchRequestDto;
+import com.example.demo.dto.ReportCursor;
 import com.example.demo.dto.ReportIdResponse;
+import com.example.demo.dto.ReportListFilter;
+import com.example.demo.dto.ReportPageDto;
 import com.example.demo.dto.ReportRequestDto;
 import com.example.demo.dto.ReportResultDto;
 import com.example.demo.dto.ReportUpdateDto;
 import com.example.demo.entity.ReportRequest;
 import com.example.demo.entity.ReportResult;
+import com.example.demo.entity.ReportStatus;
 import com.example.demo.mapper.ReportMapper;
+import com.example.demo.service.EventExportService;
 import com.example.demo.service.ReportService;
+import io.micrometer.observation.annotation.Observed;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST controller for managing report operations.
@@ -29,7 +62,10 @@ import java.util.UUID;
  * <p>Supported operations include:
  * <ul>
  *   <li>Creating new reports (USER role required)</li>
- *   <li>Retrieving existing reports (USER or ADMIN role required)</li>
+ *   <li>Retrieving existing reports, singly or in bulk (USER or ADMIN role required)</li>
+ *   <li>Listing reports page by page (ADMIN role required)</li>
+ *   <li>Exporting the raw events behind a report (USER or ADMIN role required)</li>
+ *   <li>Subscribing to the updates of live reports (USER or ADMIN role required)</li>
  *   <li>Admin-specific operations (ADMIN role required)</li>
  * </ul>
  *
@@ -40,14 +76,23 @@ import java.util.UUID;
 @RestController
 @RequestMapping("/api/reports")
 @RequiredArgsConstructor
+@Observed(name = "report.controller")
 @Tag(name = "Reports", description = "Report API")
 public class ReportController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_CALLBACK_URL_LENGTH = 2048;
+
     private final ReportService reportService;
     private final ReportMapper reportMapper;
+    private final EventExportService eventExportService;
 
     /**
      * Creates a new report based on the provided request.
+     * <p>
+     * An optional {@code callbackUrl}, an absolute {@code http} or {@code https}
+     * URL, receives the report's result as a POST once it is computed.
      *
      * <p>Requires USER role authentication.
      *
@@ -67,7 +112,7 @@ public class ReportController {
                             content = @Content(schema = @Schema(example = "Report ID: d3d94468-2d6a-4d2a-95a3-6ad246b8c5a0"))),
                     @ApiResponse(
                             responseCode = "400",
-                            description = "Invalid request data",
+                            description = "Invalid request data or callback URL",
                             content = @Content),
                     @ApiResponse(
                             responseCode = "403",
@@ -77,17 +122,89 @@ public class ReportController {
     @PostMapping
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<ReportIdResponse> createReport(@RequestBody ReportRequestDto requestDto) {
+        if (requestDto.getCallbackUrl() != null && !isCallbackUrl(requestDto.getCallbackUrl())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "callbackUrl must be an absolute http or https URL of a public host, at most "
+                            + MAX_CALLBACK_URL_LENGTH + " characters long");
+        }
         UUID reportId = reportService.createReport(requestDto);
         return ResponseEntity.ok(new ReportIdResponse(reportId));
     }
 
+    /**
+     * Lists reports newest first using keyset pagination.
+     * <p>
+     * Pass the {@code nextCursor} of a page as {@code cursor} to fetch the following
+     * page; a null {@code nextCursor} marks the last page.
+     *
+     * <p>Requires ADMIN role authentication.
+     *
+     * @param status optional status filter
+     * @param productId optional product filter
+     * @param from optional lower bound; only reports ending at or after it are listed
+     * @param to optional upper bound; only reports starting at or before it are listed
+     * @param cursor opaque position from the previous page
+     * @param limit page size, at most {@value #MAX_PAGE_SIZE}
+     * @return ResponseEntity containing the page of report summaries
+     */
+    @Operation(
+            summary = "List reports",
+            description = "Returns a page of report summaries, newest first (ADMIN only)",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Page returned",
+                            content = @Content(schema = @Schema(implementation = ReportPageDto.class))),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid cursor or page size",
+                            content = @Content),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Access denied",
+                            content = @Content)
+            })
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReportPageDto> listReports(
+            @RequestParam(required = false) ReportStatus status,
+            @RequestParam(required = false) String productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        ReportCursor after;
+        try {
+            after = (cursor == null) ? null : ReportCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        ReportListFilter filter = new ReportListFilter();
+        filter.setStatus(status);
+        filter.setProductId(productId);
+        filter.setFrom(from);
+        filter.setTo(to);
+        return ResponseEntity.ok(reportService.listReports(filter, after, limit));
+    }
+
     /**
      * Retrieves a report by its unique identifier.
+     * <p>
+     * Completed reports carry a strong ETag derived from the report's version. When
+     * {@code If-None-Match} matches it, 304 is returned from the version alone,
+     * without loading or serializing the result. Clients may store the response but
+     * must revalidate it before reuse.
      *
      * <p>Requires either USER or ADMIN role authentication.
      *
      * @param id the UUID of the report to retrieve
-     * @return ResponseEntity containing the report if found, or 404 if not found
+     * @param webRequest the current request, used to evaluate {@code If-None-Match}
+     * @return ResponseEntity containing the report if found, 304 if the client's copy
+     *         is current, or 404 if not found
      *
      * @see PreAuthorize
      */
@@ -99,6 +216,10 @@ public class ReportController {
                             responseCode = "200",
                             description = "Report found",
                             content = @Content(schema = @Schema(implementation = ReportResult.class))),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Report unchanged since the ETag in If-None-Match",
+                            content = @Content),
                     @ApiResponse(
                             responseCode = "404",
                             description = "Report not found",
@@ -110,13 +231,252 @@ public class ReportController {
             })
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<ReportResultDto> getReport(@PathVariable UUID id) {
-        return reportService.getReport(id)
+    public ResponseEntity<ReportResultDto> getReport(@PathVariable UUID id, WebRequest webRequest) {
+        Optional<Long> version = reportService.getCompletedReportVersion(id);
+        Optional<String> etag = version.map(ReportController::reportETag);
+        CacheControl revalidate = CacheControl.noCache().cachePrivate();
+        if (etag.isPresent() && webRequest.checkNotModified(etag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag.get())
+                    .cacheControl(revalidate)
+                    .build();
+        }
+        return reportService.getReport(id, version.orElse(null))
                 .map(reportMapper::toDto)
-                .map(ResponseEntity::ok)
+                .map(dto -> etag
+                        .map(tag -> ResponseEntity.ok().eTag(tag).cacheControl(revalidate).body(dto))
+                        .orElseGet(() -> ResponseEntity.ok(dto)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Retrieves many reports in one round-trip.
+     * <p>
+     * IDs without a result, because the report does not exist or is not completed
+     * yet, are listed under {@code missing}. Duplicate IDs are returned once.
+     *
+     * <p>Requires either USER or ADMIN role authentication.
+     *
+     * @param batchDto the IDs to fetch, at most {@value #MAX_BATCH_SIZE}
+     * @return ResponseEntity containing the found results and the missing IDs
+     *
+     * @see ReportService#getReports(java.util.Collection)
+     */
+    @Operation(
+            summary = "Get reports by IDs",
+            description = "Returns the generated reports among the given IDs and lists the ones not available",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Reports looked up",
+                            content = @Content(schema = @Schema(implementation = ReportBatchDto.class))),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "No IDs, too many IDs or a null ID",
+                            content = @Content),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Access denied",
+                            content = @Content)
+            })
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<ReportBatchDto> getReports(@RequestBody ReportBatchRequestDto batchDto) {
+        List<UUID> ids = batchDto.getIds();
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_BATCH_SIZE || ids.contains(null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "ids must hold between 1 and " + MAX_BATCH_SIZE + " non-null entries");
+        }
+        Map<UUID, ReportResult> results = reportService.getReports(ids);
+        List<ReportResultDto> found = results.values().stream().map(reportMapper::toDto).toList();
+        List<UUID> missing = ids.stream().distinct().filter(id -> !results.containsKey(id)).toList();
+        return ResponseEntity.ok(new ReportBatchDto(found, missing));
+    }
+
+    /**
+     * Checks that a callback URL can be delivered to.
+     * <p>
+     * Hosts given as {@code localhost} or as an address that is loopback,
+     * link-local, site-local, unique-local, multicast or the wildcard address are
+     * refused. Host names are not resolved here; the notification service checks
+     * the addresses they resolve to before every delivery.
+     *
+     * @param url the URL given by the client
+     * @return whether it is an absolute http or https URL with a public host
+     */
+    static boolean isCallbackUrl(String url) {
+        if (url.length() > MAX_CALLBACK_URL_LENGTH) {
+            return false;
+        }
+        try {
+            URI uri = new URI(url);
+            return ("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()))
+                    && uri.getHost() != null && isPublicHost(uri.getHost());
+        } catch (URISyntaxException e) {
+            return false;
+        }
+    }
+
+    private static boolean isPublicHost(String host) {
+        String name = host.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".")) {
+            name = name.substring(0, name.length() - 1);
+        }
+        if (name.equals("localhost") || name.endsWith(".localhost")) {
+            return false;
+        }
+        if (!name.startsWith("[") && !name.matches("[0-9.]+")) {
+            return true;
+        }
+        try {
+            // Literal addresses only, so no name lookup takes place
+            InetAddress address = InetAddress.getByName(name);
+            return !(address.isLoopbackAddress() || address.isLinkLocalAddress() || address.isSiteLocalAddress()
+                    || address.isAnyLocalAddress() || address.isMulticastAddress()
+                    || (address instanceof Inet6Address && (address.getAddress()[0] & 0xFE) == 0xFC));
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Builds the strong ETag of a completed report.
+     *
+     * @param version the report's optimistic-locking version
+     * @return the quoted entity tag
+     */
+    static String reportETag(long version) {
+        return "\"v" + version + "\"";
+    }
+
+    /**
+     * Streams the raw view or payment events that fall within a report's range.
+     * <p>
+     * The body is written directly to the response as it is read from the database,
+     * so memory use does not depend on the row count. It is always served as a
+     * gzip file named {@code <id>-<type>.<csv|ndjson>.gz} with the
+     * {@code application/gzip} type and no {@code Content-Encoding}, so clients
+     * save it compressed instead of decoding it on the fly.
+     *
+     * <p>Requires either USER or ADMIN role authentication.
+     *
+     * @param id the UUID of the report whose events to export
+     * @param type the kind of events to export
+     * @param format the output format
+     * @return ResponseEntity streaming the events, or 404 if the report does not exist
+     *
+     * @see EventExportService
+     */
+    @Operation(
+            summary = "Export report events",
+            description = "Streams the raw events behind a report as gzip-compressed CSV or NDJSON",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Events streamed"),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Report not found",
+                            content = @Content),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Access denied",
+                            content = @Content),
+                    @ApiResponse(
+                            responseCode = "501",
+                            description = "Events are not kept in the database",
+                            content = @Content)
+            })
+    @GetMapping("/{id}/events")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportEvents(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "VIEWS") EventType type,
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return reportService.getReportRequest(id)
+                .map(request -> {
+                    if (!eventExportService.isAvailable()) {
+                        throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED,
+                                "Event export is not available with this event store");
+                    }
+                    StreamingResponseBody body = out -> {
+                        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024)) {
+                            eventExportService.export(request, type, format, gzip);
+                        }
+                    };
+                    String filename = id + "-" + type.name().toLowerCase() + "." + format.getExtension() + ".gz";
+                    return ResponseEntity.ok()
+                            .contentType(MediaType.parseMediaType("application/gzip"))
+                            .header(HttpHeaders.CONTENT_DISPOSITION,
+                                    ContentDisposition.attachment().filename(filename).build().toString())
+                            .body(body);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Streams the latest counts of a live report as server-sent events.
+     * <p>
+     * The current result is sent at once if available, followed by a {@code report}
+     * event whenever the counts change. The stream completes when the report's range
+     * has ended or the report is changed or deleted.
+     *
+     * <p>Requires either USER or ADMIN role authentication.
+     *
+     * @param id the UUID of the live report
+     * @return ResponseEntity with the event stream, or 404 if no such live report exists
+     *
+     * @see com.example.demo.service.LiveReportRegistry
+     */
+    @Operation(
+            summary = "Subscribe to live report",
+            description = "Streams the counts of a live report as server-sent events while its range is open",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Event stream opened"),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Live report not found",
+                            content = @Content),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Access denied",
+                            content = @Content)
+            })
+    @GetMapping(value = "/{id}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<SseEmitter> subscribeLiveReport(@PathVariable UUID id) {
+        if (reportService.getReportRequest(id).filter(ReportRequest::isLive).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = new SseEmitter();
+        Runnable unsubscribe = reportService.subscribeToLiveReport(id, update -> {
+            try {
+                if (update.estimate() != null) {
+                    emitter.send(SseEmitter.event().name("report").data(reportMapper.toDto(id, update.estimate())));
+                }
+                if (update.closed()) {
+                    emitter.complete();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        try {
+            Optional<ReportResult> current = reportService.getReport(id);
+            if (current.isPresent()) {
+                emitter.send(SseEmitter.event().name("report").data(reportMapper.toDto(current.get())));
+            }
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
     @Operation(
             summary = "Update report",
             description = "Updates a report (ADMIN only)",
@@ -0,0 +1,12 @@
+package com.example.demo.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class EventDto {
+    private String productId;
+    private String layoutId;
+    private LocalDateTime timestamp;
+}
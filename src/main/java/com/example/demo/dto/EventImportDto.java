@@ -0,0 +1,48 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.ImportStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of a bulk event import.
+ */
+@Data
+public class EventImportDto {
+    private UUID id;
+    private String path;
+    private EventType type;
+    private ImportStatus status;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+
+    /**
+     * Events written so far, including those written before a resumption.
+     */
+    private long rowsImported;
+
+    /**
+     * Chunks written so far, including those written before a resumption.
+     */
+    private long chunksCompleted;
+
+    /**
+     * Bytes of the file read so far by the current run; 0 when the import is
+     * not running on the answering node.
+     */
+    private long bytesRead;
+
+    /**
+     * Size of the file in bytes, compressed if it is gzipped.
+     */
+    private long totalBytes;
+
+    /**
+     * Events written per second by the current run, or 0 when it is not running
+     * on the answering node.
+     */
+    private double rowsPerSecond;
+}
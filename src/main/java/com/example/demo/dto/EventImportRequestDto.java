@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+import lombok.Data;
+
+/**
+ * Request to import historical events from a CSV file.
+ */
+@Data
+public class EventImportRequestDto {
+
+    /**
+     * The file to import, relative to the import directory. Files starting with
+     * the gzip magic number are decompressed on the fly.
+     */
+    private String path;
+
+    /**
+     * The kind of events the file holds.
+     */
+    private EventType type;
+}
@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+/**
+ * Kinds of raw events that can be exported for a report.
+ */
+public enum EventType {
+    /**
+     * Product view events.
+     */
+    VIEWS,
+
+    /**
+     * Payment events.
+     */
+    PAYMENTS
+}
@@ -0,0 +1,26 @@
+package com.example.demo.dto;
+
+/**
+ * Output formats supported by the raw event export.
+ */
+public enum ExportFormat {
+    /**
+     * Comma-separated values with a header row.
+     */
+    CSV("csv"),
+
+    /**
+     * Newline-delimited JSON, one object per event.
+     */
+    NDJSON("ndjson");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
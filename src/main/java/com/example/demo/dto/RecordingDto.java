@@ -0,0 +1,31 @@
+package com.example.demo.dto;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * State of a Flight Recorder recording in this JVM.
+ */
+@Data
+public class RecordingDto {
+    private long id;
+    private String name;
+
+    /**
+     * One of {@code NEW}, {@code DELAYED}, {@code RUNNING}, {@code STOPPED} or {@code CLOSED}.
+     */
+    private String state;
+
+    private Instant startTime;
+    private Instant stopTime;
+    private Duration duration;
+    private Duration maxAge;
+    private long maxSize;
+
+    /**
+     * Bytes recorded so far.
+     */
+    private long size;
+}
@@ -0,0 +1,30 @@
+package com.example.demo.dto;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Request to start a Flight Recorder recording. Every field is optional.
+ */
+@Data
+public class RecordingRequestDto {
+    private String name;
+
+    /**
+     * Name of the JDK's predefined settings, {@code default} or {@code profile}.
+     */
+    private String settings;
+
+    /**
+     * How long the recording runs before it stops by itself; unset runs until stopped.
+     */
+    private Duration duration;
+
+    private Duration maxAge;
+
+    /**
+     * Bytes of recorded data kept on disk.
+     */
+    private Long maxSize;
+}
@@ -0,0 +1,11 @@
+package com.example.demo.dto;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class ReportBatchRequestDto {
+    private List<UUID> ids;
+}
@@ -0,0 +1,46 @@
+package com.example.demo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a report listing, used for keyset pagination.
+ * <p>
+ * Identifies the last row of a page by its sort key {@code (createdAt, id)}.
+ * It is handed to clients as an opaque URL-safe token.
+ *
+ * @param createdAt creation time of the last row returned
+ * @param id identifier of the last row returned
+ */
+public record ReportCursor(LocalDateTime createdAt, UUID id) {
+
+    /**
+     * Encodes the cursor as an opaque token.
+     *
+     * @return the URL-safe token
+     */
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the token
+     * @return the cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static ReportCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new ReportCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.ReportStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters for listing report requests.
+ * <p>
+ * Unset fields do not restrict the result. {@code from} and {@code to} select
+ * reports whose range overlaps {@code [from, to]}.
+ */
+@Data
+public class ReportListFilter {
+    private ReportStatus status;
+    private String productId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+}
@@ -0,0 +1,13 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ReportPageDto {
+    private List<ReportSummaryDto> items;
+    private String nextCursor;
+}
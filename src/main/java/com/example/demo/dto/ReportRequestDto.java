@@ -10,4 +10,7 @@ public class ReportRequestDto {
     private String layoutId;
     private LocalDateTime startDate;
     private LocalDateTime endDate;
+    private Boolean approximate;
+    private Boolean live;
+    private String callbackUrl;
 }
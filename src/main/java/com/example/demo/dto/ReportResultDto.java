@@ -9,4 +9,8 @@ public class ReportResultDto {
     private UUID requestId;
     private Double conversionRatio;
     private Integer paymentCount;
+    private Boolean approximate;
+    private Double conversionRatioLower;
+    private Double conversionRatioUpper;
+    private Double confidenceLevel;
 }
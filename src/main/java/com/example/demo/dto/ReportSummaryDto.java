@@ -0,0 +1,22 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.ReportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportSummaryDto {
+    private UUID id;
+    private String productId;
+    private String layoutId;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private ReportStatus status;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,12 @@
+package com.example.demo.dto;
+
+import java.util.UUID;
+
+/**
+ * Optimistic-locking version of a report, read without loading the report.
+ *
+ * @param id the report identifier
+ * @param version the report's current version
+ */
+public record ReportVersion(UUID id, Long version) {
+}
@@ -0,0 +1,73 @@
+package com.example.demo.entity;
+
+import com.example.demo.dto.EventType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A bulk import of historical events from a CSV file.
+ * <p>
+ * The file is cut into chunks of {@link #chunkSize} records. Each chunk is
+ * committed together with an {@link EventImportChunk} marker, so the markers
+ * tell exactly which records are already in the event tables when an import
+ * is resumed after a failure.
+ *
+ * @see com.example.demo.service.EventImportService
+ */
+@Entity
+@Table(name = "event_import")
+@Getter
+@Setter
+@NoArgsConstructor
+public class EventImport {
+
+    /**
+     * The import identifier.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(columnDefinition = "uuid", updatable = false)
+    private UUID id;
+
+    /**
+     * The imported file, relative to the import directory.
+     */
+    private String path;
+
+    /**
+     * The kind of events the file holds.
+     */
+    private EventType type;
+
+    /**
+     * Number of records per chunk. Fixed for the lifetime of the import so that
+     * chunk numbers stay valid across resumptions.
+     */
+    private int chunkSize;
+
+    /**
+     * Current state of the import.
+     */
+    private ImportStatus status = ImportStatus.RUNNING;
+
+    /**
+     * The error that stopped the import, if it failed.
+     */
+    @Column(length = 1000)
+    private String error;
+
+    /**
+     * When the import was first started.
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * When the import last completed or failed.
+     */
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,56 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Marks a chunk of an {@link EventImport} as written.
+ * <p>
+ * The marker is inserted in the same transaction as the chunk's events, so it
+ * exists if and only if those events do.
+ */
+@Entity
+@Table(name = "event_import_chunk")
+@IdClass(EventImportChunk.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class EventImportChunk {
+
+    /**
+     * The import the chunk belongs to.
+     */
+    @Id
+    @Column(columnDefinition = "uuid")
+    private UUID importId;
+
+    /**
+     * Zero-based position of the chunk in the file.
+     */
+    @Id
+    private long chunkIndex;
+
+    /**
+     * Number of events written for the chunk.
+     */
+    @Column(name = "row_count")
+    private int rows;
+
+    /**
+     * Composite primary key of a chunk marker.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID importId;
+        private long chunkIndex;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.entity;
+
+/**
+ * Lifecycle states of an {@link EventImport}.
+ */
+public enum ImportStatus {
+    /**
+     * The file is being read and its chunks written.
+     */
+    RUNNING,
+
+    /**
+     * Every record of the file has been imported.
+     */
+    COMPLETED,
+
+    /**
+     * The import stopped on an error. Chunks committed before the error are kept,
+     * and resuming the import writes only the remaining ones.
+     */
+    FAILED
+}
@@ -18,8 +18,8 @@ import java.time.LocalDateTime;
  * <p>Each payment record contains:
  * <ul>
  *   <li>Automatically generated unique identifier</li>
- *   <li>Product reference</li>
- *   <li>Layout reference</li>
+ *   <li>Product key</li>
+ *   <li>Layout key</li>
  *   <li>Timestamp of when the payment was processed</li>
  * </ul>
  *
@@ -44,18 +44,18 @@ public class Payment {
     private Long id;
 
     /**
-     * The identifier of the purchased product.
+     * The dictionary key of the purchased product.
      * <p>
-     * References a product in the product catalog.
+     * Resolved to the product identifier through the {@link Product} dictionary.
      */
-    private String productId;
+    private Integer productKey;
 
     /**
-     * The identifier of the product layout used.
+     * The dictionary key of the layout.
      * <p>
-     * References a specific layout configuration of the product.
+     * Resolved to the layout identifier through the {@link Layout} dictionary.
      */
-    private String layoutId;
+    private Integer layoutKey;
 
     /**
      * The date and time when the payment was processed.
@@ -0,0 +1,35 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Dictionary entry that maps a product identifier to a compact integer key.
+ * <p>
+ * View and payment rows store the key instead of the identifier string, which
+ * keeps event rows and their indexes small and turns filters into integer
+ * comparisons. Entries are created on first use and never change.
+ *
+ * @see com.example.demo.service.DimensionDictionary
+ */
+@Entity
+@Table(name = "product")
+@Getter
+@Setter
+@NoArgsConstructor
+public class Product {
+
+    /**
+     * The surrogate key referenced by events.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    /**
+     * The product identifier as sent by clients; unique.
+     */
+    private String name;
+}
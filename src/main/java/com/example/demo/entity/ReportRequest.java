@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.GenericGenerator;
 
 import java.time.LocalDateTime;
@@ -19,6 +20,7 @@ import java.util.UUID;
  *   <li>Optimistic locking support</li>
  *   <li>Default status initialization</li>
  *   <li>Time-bound report parameters</li>
+ *   <li>Creation timestamp used as the stable listing sort key</li>
  * </ul>
  *
  * @see Entity
@@ -82,10 +84,38 @@ public class ReportRequest {
      * Current processing status of the report request.
      * <p>
      * Initialized to {@link ReportStatus#PENDING} by default.
-     * Tracks the lifecycle of report generation process.
+     * Tracks the lifecycle of report generation process. Stored as the
+     * ordinal in a SMALLINT column, which the pending-report index and
+     * {@link com.example.demo.repository.ReportRequestRepository#lockClaimable}
+     * rely on; new statuses must be appended to the enum.
      */
+    @Enumerated(EnumType.ORDINAL)
     private ReportStatus status = ReportStatus.PENDING;
 
+    /**
+     * Whether the report may be computed from a sample of the range.
+     * <p>
+     * Approximate reports trade exactness for a bounded scan cost and carry
+     * a confidence interval for the conversion ratio in their result.
+     */
+    private boolean approximate;
+
+    /**
+     * Whether the report's counts follow new events until its range ends.
+     * <p>
+     * Live reports are always exact; see
+     * {@link com.example.demo.service.LiveReportRegistry}.
+     */
+    private boolean live;
+
+    /**
+     * URL the report's result is POSTed to once it is computed.
+     * <p>
+     * Null when the client polls for the result instead.
+     */
+    @Column(length = 2048)
+    private String callbackUrl;
+
     /**
      * Version field for optimistic locking.
      * <p>
@@ -96,4 +126,40 @@ public class ReportRequest {
      */
     @Version
     private Long version;
-}
\ No newline at end of file
+
+    /**
+     * The date/time when the report request was created.
+     * <p>
+     * Set once on insert. Together with {@link #id} it forms the stable sort
+     * key used for keyset pagination of report listings.
+     *
+     * @see CreationTimestamp
+     */
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Identifier of the worker node currently holding this report.
+     * <p>
+     * Null while the report is unclaimed.
+     */
+    private String leaseOwner;
+
+    /**
+     * The date/time until which {@link #leaseOwner}'s claim is valid.
+     * <p>
+     * Renewed by heartbeats while the report is being computed; once it passes,
+     * other workers may claim the report again.
+     */
+    private LocalDateTime leaseExpiresAt;
+
+    /**
+     * Number of times report workers have claimed this report.
+     * <p>
+     * Once it reaches {@code report.worker.max-attempts} without the report being
+     * completed, the report is marked {@link ReportStatus#FAILED} instead of
+     * being claimed again.
+     */
+    private int attempts;
+}
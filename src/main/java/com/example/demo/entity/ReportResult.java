@@ -52,4 +52,41 @@ public class ReportResult {
      * that were included in the report's analysis period.
      */
     private Integer paymentCount;
+
+    /**
+     * The total count of views in the analysis period.
+     * <p>
+     * Kept alongside {@link #paymentCount} so the result can be adjusted when the
+     * report's range changes. Null for results computed before it was recorded.
+     */
+    private Long viewCount;
+
+    /**
+     * Whether the metrics were estimated from a sample.
+     * <p>
+     * When true, {@link #paymentCount} is a scaled estimate and the interval
+     * bounds describe the uncertainty of {@link #conversionRatio}.
+     */
+    private Boolean approximate;
+
+    /**
+     * The lower bound of the conversion ratio confidence interval.
+     * <p>
+     * Only set for approximate results.
+     */
+    private Double conversionRatioLower;
+
+    /**
+     * The upper bound of the conversion ratio confidence interval.
+     * <p>
+     * Only set for approximate results.
+     */
+    private Double conversionRatioUpper;
+
+    /**
+     * The confidence level of the conversion ratio interval, e.g. 0.95.
+     * <p>
+     * Only set for approximate results.
+     */
+    private Double confidenceLevel;
 }
\ No newline at end of file
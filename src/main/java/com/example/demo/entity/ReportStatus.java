@@ -7,9 +7,11 @@ package com.example.demo.entity;
  * <ul>
  *   <li>{@link #PENDING} - Initial state when report is queued for processing</li>
  *   <li>{@link #COMPLETED} - Final state when report generation is finished</li>
+ *   <li>{@link #FAILED} - Final state when report generation gave up after repeated attempts</li>
  * </ul>
  *
  * <p>Used primarily by the {@link ReportRequest} entity to track report status.
+ * Statuses are stored by ordinal, so new ones are appended at the end.
  */
 public enum ReportStatus {
     /**
@@ -26,5 +28,14 @@ public enum ReportStatus {
      * Indicates all processing is complete and results are available
      * in the associated {@link ReportResult}.
      */
-    COMPLETED
+    COMPLETED,
+
+    /**
+     * Report workers claimed the report the maximum number of times without
+     * completing it.
+     * <p>
+     * The report is no longer claimed; updating it queues it again with a
+     * fresh attempt count.
+     */
+    FAILED
 }
\ No newline at end of file
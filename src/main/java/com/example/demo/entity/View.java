@@ -19,8 +19,8 @@ import java.time.LocalDateTime;
  * <p>Each view record contains:
  * <ul>
  *   <li>Automatically generated unique identifier</li>
- *   <li>Product identification</li>
- *   <li>Layout configuration reference</li>
+ *   <li>Product key</li>
+ *   <li>Layout key</li>
  *   <li>Precise event timestamp</li>
  * </ul>
  *
@@ -46,20 +46,18 @@ public class View {
     private Long id;
 
     /**
-     * The identifier of the viewed product.
+     * The dictionary key of the viewed product.
      * <p>
-     * References a specific product in the product catalog.
-     * Used to aggregate view statistics by product.
+     * Resolved to the product identifier through the {@link Product} dictionary.
      */
-    private String productId;
+    private Integer productKey;
 
     /**
-     * The identifier of the viewed layout configuration.
+     * The dictionary key of the layout.
      * <p>
-     * Specifies which product layout variant was viewed.
-     * Enables layout-specific performance analysis.
+     * Resolved to the layout identifier through the {@link Layout} dictionary.
      */
-    private String layoutId;
+    private Integer layoutKey;
 
     /**
      * The exact date and time when the view occurred.
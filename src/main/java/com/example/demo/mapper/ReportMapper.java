@@ -4,8 +4,11 @@ import com.example.demo.dto.ReportRequestDto;
 import com.example.demo.dto.ReportResultDto;
 import com.example.demo.entity.ReportRequest;
 import com.example.demo.entity.ReportResult;
+import com.example.demo.service.RatioEstimate;
 import org.springframework.stereotype.Component;
 
+import java.util.UUID;
+
 @Component
 public class ReportMapper {
 
@@ -15,6 +18,9 @@ public class ReportMapper {
         entity.setLayoutId(dto.getLayoutId());
         entity.setStartDate(dto.getStartDate());
         entity.setEndDate(dto.getEndDate());
+        entity.setLive(Boolean.TRUE.equals(dto.getLive()));
+        entity.setApproximate(!entity.isLive() && Boolean.TRUE.equals(dto.getApproximate()));
+        entity.setCallbackUrl(dto.getCallbackUrl());
         return entity;
     }
 
@@ -23,6 +29,19 @@ public class ReportMapper {
         dto.setRequestId(entity.getRequestId());
         dto.setConversionRatio(entity.getConversionRatio());
         dto.setPaymentCount(entity.getPaymentCount());
+        dto.setApproximate(entity.getApproximate());
+        dto.setConversionRatioLower(entity.getConversionRatioLower());
+        dto.setConversionRatioUpper(entity.getConversionRatioUpper());
+        dto.setConfidenceLevel(entity.getConfidenceLevel());
+        return dto;
+    }
+
+    public ReportResultDto toDto(UUID requestId, RatioEstimate estimate) {
+        ReportResultDto dto = new ReportResultDto();
+        dto.setRequestId(requestId);
+        dto.setConversionRatio(estimate.conversionRatio());
+        dto.setPaymentCount(Math.toIntExact(estimate.paymentCount()));
+        dto.setApproximate(!estimate.exact());
         return dto;
     }
 }
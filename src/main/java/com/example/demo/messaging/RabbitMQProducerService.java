@@ -1,5 +1,10 @@
 package com.example.demo.messaging;
 
+import com.example.demo.dto.ReportResultDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -10,13 +15,25 @@ import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
+@Observed(name = "report.messaging")
 public class RabbitMQProducerService {
     private final RabbitTemplate rabbitTemplate;
     private final DirectExchange reportExchange;
+    private final ObjectMapper objectMapper;
 
-    
-    public void sendReportCompletedNotification(UUID reportId) {
-        String message = "REPORT_COMPLETED:" + reportId;
+
+    /**
+     * Tells the notification service that a report has been computed.
+     * <p>
+     * The message is {@code REPORT_COMPLETED:<reportId>:<version>}. The version
+     * is the one the report had when it was computed, so a report recomputed
+     * after an update is notified again instead of being taken for a duplicate.
+     *
+     * @param reportId the report
+     * @param version the report's optimistic-locking version when it was computed
+     */
+    public void sendReportCompletedNotification(UUID reportId, long version) {
+        String message = "REPORT_COMPLETED:" + reportId + ":" + version;
         rabbitTemplate.convertAndSend(
                 reportExchange.getName(),
                 "notification.routing.key",
@@ -24,4 +41,28 @@ public class RabbitMQProducerService {
         );
         System.out.println("Sent notification for report: " + reportId);
     }
-}
\ No newline at end of file
+
+    /**
+     * Hands a computed report to the notification service for delivery to its webhook.
+     * <p>
+     * The message is a JSON object holding the {@code callbackUrl} and the
+     * {@code result}, which is POSTed to the URL as it is.
+     *
+     * @param callbackUrl the report's callback URL
+     * @param result the computed report
+     */
+    public void sendReportResult(String callbackUrl, ReportResultDto result) {
+        ObjectNode message = objectMapper.createObjectNode();
+        message.put("callbackUrl", callbackUrl);
+        message.set("result", objectMapper.valueToTree(result));
+        try {
+            rabbitTemplate.convertAndSend(
+                    reportExchange.getName(),
+                    "webhook.routing.key",
+                    objectMapper.writeValueAsString(message)
+            );
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize result of report " + result.getRequestId(), e);
+        }
+    }
+}
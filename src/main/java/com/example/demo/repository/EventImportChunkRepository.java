@@ -0,0 +1,43 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.EventImportChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for {@link EventImportChunk} markers.
+ *
+ * @see com.example.demo.service.EventImportService
+ */
+public interface EventImportChunkRepository extends JpaRepository<EventImportChunk, EventImportChunk.Key> {
+
+    /**
+     * Lists the chunks of an import that have been written.
+     *
+     * @param importId the import
+     * @return the zero-based chunk positions, in no particular order
+     */
+    @Query("select c.chunkIndex from EventImportChunk c where c.importId = :importId")
+    List<Long> findChunkIndexes(@Param("importId") UUID importId);
+
+    /**
+     * Counts the chunks of an import that have been written.
+     *
+     * @param importId the import
+     * @return the number of chunk markers
+     */
+    long countByImportId(UUID importId);
+
+    /**
+     * Counts the events written by an import.
+     *
+     * @param importId the import
+     * @return the total number of events in its written chunks
+     */
+    @Query("select coalesce(sum(c.rows), 0) from EventImportChunk c where c.importId = :importId")
+    long sumRows(@Param("importId") UUID importId);
+}
@@ -0,0 +1,14 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.EventImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+/**
+ * Repository interface for {@link EventImport} entities.
+ *
+ * @see com.example.demo.service.EventImportService
+ */
+public interface EventImportRepository extends JpaRepository<EventImport, UUID> {
+}
@@ -0,0 +1,22 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Layout;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for {@link Layout} dictionary entries.
+ *
+ * @see com.example.demo.service.DimensionDictionary
+ */
+public interface LayoutRepository extends JpaRepository<Layout, Integer> {
+
+    /**
+     * Finds the dictionary entry of a layout identifier.
+     *
+     * @param name the layout identifier
+     * @return the entry, or empty if the identifier has not been seen yet
+     */
+    Optional<Layout> findByName(String name);
+}
@@ -1,10 +1,19 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Payment;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Repository interface for {@link Payment} entity operations.
@@ -28,17 +37,69 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
      * Returns a list of payments that match the given product ID, layout ID,
      * and fall within the specified time period (inclusive of boundaries).
      *
-     * @param productId the ID of the product to filter by
-     * @param layoutId the ID of the layout to filter by
+     * @param productKey the product dictionary key to filter by
+     * @param layoutKey the layout dictionary key to filter by
      * @param startDate the start of the date range (inclusive)
      * @param endDate the end of the date range (inclusive)
      * @return list of matching payments, empty list if none found
      *
      * @see Payment
      */
-    List<Payment> findByProductIdAndLayoutIdAndTimestampBetween(
-            String productId,
-            String layoutId,
+    List<Payment> findByProductKeyAndLayoutKeyAndTimestampBetween(
+            Integer productKey,
+            Integer layoutKey,
+            LocalDateTime startDate,
+            LocalDateTime endDate);
+
+    /**
+     * Counts payments for a specific product and layout within a date range.
+     * <p>
+     * Equivalent to the size of {@link #findByProductKeyAndLayoutKeyAndTimestampBetween}
+     * but evaluated by the database without materializing any entities.
+     *
+     * @param productKey the product dictionary key to filter by
+     * @param layoutKey the layout dictionary key to filter by
+     * @param startDate the start of the date range (inclusive)
+     * @param endDate the end of the date range (inclusive)
+     * @return number of matching payment records
+     */
+    long countByProductKeyAndLayoutKeyAndTimestampBetween(
+            Integer productKey,
+            Integer layoutKey,
             LocalDateTime startDate,
             LocalDateTime endDate);
-}
\ No newline at end of file
+
+    /**
+     * Streams every payment timestamp recorded for a product and layout.
+     * <p>
+     * Used to build in-memory indexes. The identifiers are resolved to dictionary
+     * keys by the database. The result is unordered and fetched in
+     * batches through a server-side cursor; it must be consumed inside a
+     * transaction and closed afterwards.
+     *
+     * @param productId the product identifier to filter by
+     * @param layoutId the layout identifier to filter by
+     * @return stream of timestamps
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "10000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p.timestamp from Payment p, Product product, Layout layout "
+            + "where p.productKey = product.id and p.layoutKey = layout.id "
+            + "and product.name = :productId and layout.name = :layoutId")
+    Stream<LocalDateTime> streamTimestamps(@Param("productId") String productId,
+                                           @Param("layoutId") String layoutId);
+
+    /**
+     * Returns which of the given payments exist.
+     * <p>
+     * Used to tell the payments an in-memory index has already loaded from those
+     * recorded after its load started.
+     *
+     * @param ids the payment identifiers to look up
+     * @return the identifiers of the payments that exist, in no particular order
+     */
+    @Query("select p.id from Payment p where p.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,22 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Product;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for {@link Product} dictionary entries.
+ *
+ * @see com.example.demo.service.DimensionDictionary
+ */
+public interface ProductRepository extends JpaRepository<Product, Integer> {
+
+    /**
+     * Finds the dictionary entry of a product identifier.
+     *
+     * @param name the product identifier
+     * @return the entry, or empty if the identifier has not been seen yet
+     */
+    Optional<Product> findByName(String name);
+}
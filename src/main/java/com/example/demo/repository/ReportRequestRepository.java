@@ -1,8 +1,17 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.ReportVersion;
 import com.example.demo.entity.ReportRequest;
+import com.example.demo.entity.ReportStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -15,11 +24,133 @@ import java.util.UUID;
  * <ul>
  *   <li>Standard create/read/update/delete operations</li>
  *   <li>Built-in query methods from {@link JpaRepository}</li>
- *   <li>Custom query methods can be added as needed</li>
+ *   <li>Keyset-paginated listing through {@link ReportRequestRepositoryCustom}</li>
+ *   <li>Claiming and leasing of pending reports by workers</li>
+ *   <li>Replay of recent requests to rebuild report popularity</li>
+ *   <li>Version lookups for conditional requests</li>
+ *   <li>Discovery of open live reports</li>
  * </ul>
  *
  * @see JpaRepository
  * @see ReportRequest
+ * @see ReportRequestRepositoryCustom
  */
-public interface ReportRequestRepository extends JpaRepository<ReportRequest, UUID> {
+public interface ReportRequestRepository extends JpaRepository<ReportRequest, UUID>, ReportRequestRepositoryCustom {
+
+    /**
+     * Reads only the optimistic-locking version of a report in the given status.
+     * <p>
+     * Live reports are excluded, since their results change without a new version.
+     *
+     * @param id the report identifier
+     * @param status the required status
+     * @return the version, or empty if no such non-live report exists in that status
+     */
+    @Query("select r.version from ReportRequest r where r.id = :id and r.status = :status and r.live = false")
+    Optional<Long> findVersionByIdAndStatus(@Param("id") UUID id, @Param("status") ReportStatus status);
+
+    /**
+     * Reads only the versions of the completed, non-live reports among the given IDs.
+     *
+     * @param ids the report identifiers
+     * @return the versions of the reports that are completed; others are absent
+     */
+    @Query("select new com.example.demo.dto.ReportVersion(r.id, r.version) from ReportRequest r "
+            + "where r.id in :ids and r.status = com.example.demo.entity.ReportStatus.COMPLETED and r.live = false")
+    List<ReportVersion> findCompletedVersions(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Finds the completed live reports whose range has not ended yet.
+     *
+     * @param now the current time
+     * @return the open live reports
+     */
+    @Query("select r from ReportRequest r where r.live = true "
+            + "and r.status = com.example.demo.entity.ReportStatus.COMPLETED and r.endDate >= :now")
+    List<ReportRequest> findOpenLiveReports(@Param("now") LocalDateTime now);
+
+    /**
+     * Finds the most recent report requests created after a point in time.
+     *
+     * @param createdAt exclusive lower bound of the creation time
+     * @return up to 10,000 requests, newest first
+     */
+    List<ReportRequest> findTop10000ByCreatedAtAfterOrderByCreatedAtDesc(LocalDateTime createdAt);
+
+    /**
+     * Locks up to {@code limit} claimable reports, oldest first.
+     * <p>
+     * A report is claimable while it is {@code PENDING} and not held
+     * under a valid lease. Rows locked by other transactions are skipped rather
+     * than waited for, so concurrent workers never block each other. Must be called
+     * within a transaction that also records the claim.
+     * <p>
+     * {@code status = 0} is PENDING's ordinal written as a literal, so that it
+     * matches the predicate of the partial index created in V4.
+     *
+     * @param now the current time, used to detect expired leases
+     * @param limit maximum number of reports to lock
+     * @return the locked reports
+     */
+    @Query(value = "SELECT * FROM report_request "
+            + "WHERE status = 0 AND (lease_expires_at IS NULL OR lease_expires_at < :now) "
+            + "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ReportRequest> lockClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Grants a lease on the given reports and counts it as an attempt.
+     *
+     * @param ids the reports to lease
+     * @param owner the worker node taking the lease
+     * @param expiresAt the new lease expiry
+     * @return number of reports updated
+     */
+    @Modifying
+    @Query("update ReportRequest r set r.leaseOwner = :owner, r.leaseExpiresAt = :expiresAt, "
+            + "r.attempts = r.attempts + 1 where r.id in :ids")
+    int lease(@Param("ids") Collection<UUID> ids, @Param("owner") String owner,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Renews the leases a worker node still holds.
+     * <p>
+     * Reports whose lease has passed to another node are left untouched.
+     *
+     * @param ids the reports in progress on the node
+     * @param owner the worker node
+     * @param expiresAt the new lease expiry
+     * @return number of leases renewed
+     */
+    @Modifying
+    @Query("update ReportRequest r set r.leaseExpiresAt = :expiresAt "
+            + "where r.id in :ids and r.leaseOwner = :owner")
+    int renewLeases(@Param("ids") Collection<UUID> ids, @Param("owner") String owner,
+                    @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Gives up the leases a worker node holds so the reports can be claimed at once.
+     * <p>
+     * The released claims were not failures of the reports, so they are not
+     * counted as attempts.
+     *
+     * @param ids the reports to release
+     * @param owner the worker node
+     * @return number of leases released
+     */
+    @Modifying
+    @Query("update ReportRequest r set r.leaseOwner = null, r.leaseExpiresAt = null, "
+            + "r.attempts = case when r.attempts > 0 then r.attempts - 1 else 0 end "
+            + "where r.id in :ids and r.leaseOwner = :owner")
+    int releaseLeases(@Param("ids") Collection<UUID> ids, @Param("owner") String owner);
+
+    /**
+     * Marks reports as failed and clears their leases so they are no longer claimed.
+     *
+     * @param ids the reports that ran out of attempts
+     * @return number of reports updated
+     */
+    @Modifying
+    @Query("update ReportRequest r set r.status = com.example.demo.entity.ReportStatus.FAILED, "
+            + "r.leaseOwner = null, r.leaseExpiresAt = null where r.id in :ids")
+    int markFailed(@Param("ids") Collection<UUID> ids);
 }
\ No newline at end of file
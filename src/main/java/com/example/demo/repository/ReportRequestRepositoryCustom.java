@@ -0,0 +1,32 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.ReportCursor;
+import com.example.demo.dto.ReportListFilter;
+import com.example.demo.dto.ReportSummaryDto;
+
+import java.util.List;
+
+/**
+ * Custom query methods for {@link ReportRequestRepository}.
+ * <p>
+ * Holds queries whose predicates depend on which filters are present and that
+ * therefore cannot be expressed as derived or {@code @Query} methods.
+ *
+ * @see ReportRequestRepositoryImpl
+ */
+public interface ReportRequestRepositoryCustom {
+
+    /**
+     * Lists report summaries in descending {@code (createdAt, id)} order.
+     * <p>
+     * Uses keyset pagination: the page starts strictly after {@code after}, so the
+     * cost of a page does not grow with its depth. Rows are projected directly
+     * into {@link ReportSummaryDto} without loading entities.
+     *
+     * @param filter optional filters, unset fields are ignored
+     * @param after position of the last row of the previous page, or null for the first page
+     * @param limit maximum number of rows to return
+     * @return the matching summaries
+     */
+    List<ReportSummaryDto> findSummaries(ReportListFilter filter, ReportCursor after, int limit);
+}
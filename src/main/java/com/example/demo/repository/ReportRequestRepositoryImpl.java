@@ -0,0 +1,73 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.ReportCursor;
+import com.example.demo.dto.ReportListFilter;
+import com.example.demo.dto.ReportSummaryDto;
+import com.example.demo.entity.ReportRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Criteria API implementation of {@link ReportRequestRepositoryCustom}.
+ * <p>
+ * Only the filters that are actually set become predicates, so the database
+ * sees a query shape that matches one of the listing indexes instead of a
+ * catch-all {@code :param IS NULL OR ...} condition.
+ */
+class ReportRequestRepositoryImpl implements ReportRequestRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ReportSummaryDto> findSummaries(ReportListFilter filter, ReportCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ReportSummaryDto> query = cb.createQuery(ReportSummaryDto.class);
+        Root<ReportRequest> report = query.from(ReportRequest.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(report.get("status"), filter.getStatus()));
+        }
+        if (filter.getProductId() != null) {
+            predicates.add(cb.equal(report.get("productId"), filter.getProductId()));
+        }
+        if (filter.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(report.<LocalDateTime>get("endDate"), filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(report.<LocalDateTime>get("startDate"), filter.getTo()));
+        }
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(report.<LocalDateTime>get("createdAt"), after.createdAt()),
+                    cb.and(
+                            cb.equal(report.get("createdAt"), after.createdAt()),
+                            cb.lessThan(report.<UUID>get("id"), after.id()))));
+        }
+
+        query.select(cb.construct(ReportSummaryDto.class,
+                        report.get("id"),
+                        report.get("productId"),
+                        report.get("layoutId"),
+                        report.get("startDate"),
+                        report.get("endDate"),
+                        report.get("status"),
+                        report.get("createdAt")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(report.get("createdAt")), cb.desc(report.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -2,7 +2,12 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.ReportResult;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,6 +21,8 @@ import java.util.UUID;
  * <ul>
  *   <li>Standard JPA repository operations</li>
  *   <li>Custom query method to find results by associated request ID</li>
+ *   <li>Bulk lookup of results for many requests in one query</li>
+ *   <li>Atomic increments of live report counts</li>
  *   <li>Optional return type for safe handling of missing results</li>
  * </ul>
  *
@@ -41,5 +48,33 @@ public interface ReportResultRepository extends JpaRepository<ReportResult, UUID
      */
     Optional<ReportResult> findByRequestId(UUID requestId);
 
+    /**
+     * Finds the report results of several requests with a single {@code IN} query.
+     *
+     * @param requestIds the UUIDs of the associated report requests
+     * @return the results that exist, in no particular order
+     */
+    List<ReportResult> findByRequestIdIn(Collection<UUID> requestIds);
+
+    /**
+     * Adds counted events to a stored result and recomputes its conversion ratio.
+     * <p>
+     * The increment happens in the database, so concurrent updates from several
+     * nodes are never lost.
+     *
+     * @param requestId the UUID of the associated report request
+     * @param views number of views to add
+     * @param payments number of payments to add
+     * @return number of results updated, 0 if the result does not exist yet
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update ReportResult r set "
+            + "r.conversionRatio = case when coalesce(r.viewCount, 0) + :views = 0 then 0.0 "
+            + "else (r.paymentCount + :payments) * 1.0 / (coalesce(r.viewCount, 0) + :views) end, "
+            + "r.viewCount = coalesce(r.viewCount, 0) + :views, "
+            + "r.paymentCount = r.paymentCount + :payments "
+            + "where r.requestId = :requestId")
+    int addCounts(@Param("requestId") UUID requestId, @Param("views") long views, @Param("payments") int payments);
+
     void deleteByRequestId(UUID requestId);
 }
\ No newline at end of file
@@ -1,10 +1,19 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.View;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Repository interface for {@link View} entity operations.
@@ -35,17 +44,69 @@ public interface ViewRepository extends JpaRepository<View, Long> {
      *   <li>Generating time-based usage reports</li>
      * </ul>
      *
-     * @param productId the product identifier to filter by
-     * @param layoutId the specific layout variant to filter by
+     * @param productKey the product dictionary key to filter by
+     * @param layoutKey the layout dictionary key to filter by
      * @param startDate the start of the date range (inclusive)
      * @param endDate the end of the date range (inclusive)
      * @return list of matching view records, empty list if none found
      *
      * @throws IllegalArgumentException if any date parameter is null
      */
-    List<View> findByProductIdAndLayoutIdAndTimestampBetween(
-            String productId,
-            String layoutId,
+    List<View> findByProductKeyAndLayoutKeyAndTimestampBetween(
+            Integer productKey,
+            Integer layoutKey,
+            LocalDateTime startDate,
+            LocalDateTime endDate);
+
+    /**
+     * Counts views for a specific product and layout within a date range.
+     * <p>
+     * Equivalent to the size of {@link #findByProductKeyAndLayoutKeyAndTimestampBetween}
+     * but evaluated by the database without materializing any entities.
+     *
+     * @param productKey the product dictionary key to filter by
+     * @param layoutKey the layout dictionary key to filter by
+     * @param startDate the start of the date range (inclusive)
+     * @param endDate the end of the date range (inclusive)
+     * @return number of matching view records
+     */
+    long countByProductKeyAndLayoutKeyAndTimestampBetween(
+            Integer productKey,
+            Integer layoutKey,
             LocalDateTime startDate,
             LocalDateTime endDate);
-}
\ No newline at end of file
+
+    /**
+     * Streams every view timestamp recorded for a product and layout.
+     * <p>
+     * Used to build in-memory indexes. The identifiers are resolved to dictionary
+     * keys by the database. The result is unordered and fetched in
+     * batches through a server-side cursor; it must be consumed inside a
+     * transaction and closed afterwards.
+     *
+     * @param productId the product identifier to filter by
+     * @param layoutId the layout identifier to filter by
+     * @return stream of timestamps
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "10000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select v.timestamp from View v, Product product, Layout layout "
+            + "where v.productKey = product.id and v.layoutKey = layout.id "
+            + "and product.name = :productId and layout.name = :layoutId")
+    Stream<LocalDateTime> streamTimestamps(@Param("productId") String productId,
+                                           @Param("layoutId") String layoutId);
+
+    /**
+     * Returns which of the given views exist.
+     * <p>
+     * Used to tell the views an in-memory index has already loaded from those
+     * recorded after its load started.
+     *
+     * @param ids the view identifiers to look up
+     * @return the identifiers of the views that exist, in no particular order
+     */
+    @Query("select v.id from View v where v.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+}
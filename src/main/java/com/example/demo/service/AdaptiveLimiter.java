@@ -0,0 +1,259 @@
+package com.example.demo.service;
+
+import com.example.demo.config.AdaptiveConcurrencyProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Concurrency limit that adapts to observed latency with additive increase and
+ * multiplicative decrease (AIMD).
+ * <p>
+ * Every completed task is a latency sample. Tasks within a lane still differ in
+ * size by orders of magnitude, so each sample is the task's latency divided by its
+ * estimated event count plus {@code overheadEvents}: the time spent per event. The
+ * limiter keeps a baseline of that: the lowest sample seen, drifting slowly toward
+ * slower samples. Each outcome adjusts the limit:
+ * <ul>
+ *   <li>Latency above {@code latencyTolerance} times the baseline multiplies the limit by {@code backoffRatio}</li>
+ *   <li>A transient database failure, such as a query timeout or an exhausted connection pool, also backs off</li>
+ *   <li>Otherwise, if the limit was nearly used, it grows by {@code 1 / limit}, about one per round of tasks</li>
+ * </ul>
+ * Other failures, such as a missing report, say nothing about load and are ignored.
+ *
+ * <p>Callers wait until the number of running tasks drops below the current limit.
+ * The limit, the number of running tasks and the wait time are published as
+ * Micrometer meters tagged with the limiter name.
+ */
+public class AdaptiveLimiter {
+    private final AdaptiveConcurrencyProperties properties;
+    private final int minLimit;
+    private final int maxLimit;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Timer waitTimer;
+    private final Timer.Builder durationTimer;
+    private final MeterRegistry registry;
+    private final String name;
+
+    private double limit;
+    private int inFlight;
+    private double baselineNanosPerEvent;
+
+    /**
+     * Creates a limiter and registers its meters.
+     *
+     * @param name name used as the {@code lane} tag of the meters
+     * @param maxLimit the largest allowed limit
+     * @param properties adaptation configuration
+     * @param registry registry receiving the meters
+     */
+    public AdaptiveLimiter(String name, int maxLimit, AdaptiveConcurrencyProperties properties, MeterRegistry registry) {
+        this.name = name;
+        this.properties = properties;
+        this.minLimit = 1;
+        this.maxLimit = Math.max(1, maxLimit);
+        this.limit = properties.isAdaptive() ? Math.max(minLimit, this.maxLimit / 2.0) : this.maxLimit;
+        this.registry = registry;
+        Gauge.builder("report.concurrency.limit", this, AdaptiveLimiter::getLimit)
+                .description("Current concurrency limit of the report lane")
+                .tag("lane", name)
+                .register(registry);
+        Gauge.builder("report.concurrency.in_flight", this, AdaptiveLimiter::getInFlight)
+                .description("Reports currently computed in the lane")
+                .tag("lane", name)
+                .register(registry);
+        this.waitTimer = Timer.builder("report.concurrency.wait")
+                .description("Time reports waited for a slot in the lane")
+                .tag("lane", name)
+                .register(registry);
+        this.durationTimer = Timer.builder("report.computation")
+                .description("Duration of report computations")
+                .tag("lane", name);
+    }
+
+    /**
+     * Runs a task of unknown size once a slot is available and feeds its outcome into the limit.
+     *
+     * @param task the task to run
+     * @param <T> the task result type
+     * @return the task result
+     * @throws RuntimeException any exception thrown by the task
+     */
+    public <T> T execute(Supplier<T> task) {
+        return execute(task, 0);
+    }
+
+    /**
+     * Runs a task once a slot is available and feeds its outcome into the limit.
+     *
+     * @param task the task to run
+     * @param estimatedEvents number of events the task is expected to scan
+     * @param <T> the task result type
+     * @return the task result
+     * @throws RuntimeException any exception thrown by the task
+     */
+    public <T> T execute(Supplier<T> task, long estimatedEvents) {
+        acquire();
+        return run(task, estimatedEvents);
+    }
+
+    /**
+     * Runs a task only if a slot is available right now.
+     * <p>
+     * For callers that must not wait, such as request threads holding a database
+     * connection.
+     *
+     * @param task the task to run; must not return null
+     * @param estimatedEvents number of events the task is expected to scan
+     * @param <T> the task result type
+     * @return the task result, or empty if no slot was free
+     * @throws RuntimeException any exception thrown by the task
+     */
+    public <T> Optional<T> tryExecute(Supplier<T> task, long estimatedEvents) {
+        if (!tryAcquire()) {
+            return Optional.empty();
+        }
+        return Optional.of(run(task, estimatedEvents));
+    }
+
+    private <T> T run(Supplier<T> task, long estimatedEvents) {
+        long started = System.nanoTime();
+        try {
+            T result = task.get();
+            long elapsed = System.nanoTime() - started;
+            durationTimer.tag("outcome", "success").register(registry).record(elapsed, TimeUnit.NANOSECONDS);
+            onSuccess((double) elapsed / Math.max(1, Math.max(0, estimatedEvents) + properties.getOverheadEvents()));
+            return result;
+        } catch (RuntimeException e) {
+            durationTimer.tag("outcome", "failure").register(registry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (isOverload(e)) {
+                onOverload();
+            }
+            throw e;
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Returns the current limit, rounded down to whole tasks.
+     *
+     * @return the limit
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of tasks currently running.
+     *
+     * @return the running task count
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire() {
+        long waitStarted = System.nanoTime();
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                available.awaitUninterruptibly();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+        waitTimer.record(System.nanoTime() - waitStarted, TimeUnit.NANOSECONDS);
+    }
+
+    private boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (inFlight >= (int) limit) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSuccess(double nanosPerEvent) {
+        if (!properties.isAdaptive()) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (baselineNanosPerEvent == 0 || nanosPerEvent < baselineNanosPerEvent) {
+                baselineNanosPerEvent = nanosPerEvent;
+            } else {
+                baselineNanosPerEvent += (nanosPerEvent - baselineNanosPerEvent) * properties.getBaselineDrift();
+            }
+            if (nanosPerEvent > baselineNanosPerEvent * properties.getLatencyTolerance()) {
+                backOff();
+            } else if (inFlight + 1 >= (int) limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+                available.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onOverload() {
+        if (!properties.isAdaptive()) {
+            return;
+        }
+        lock.lock();
+        try {
+            backOff();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void backOff() {
+        limit = Math.max(minLimit, limit * properties.getBackoffRatio());
+    }
+
+    private static boolean isOverload(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException || cause instanceof CannotCreateTransactionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
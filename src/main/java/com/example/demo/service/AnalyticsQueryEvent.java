@@ -0,0 +1,67 @@
+package com.example.demo.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flight Recorder event spanning one {@link AnalyticsService} query.
+ * <p>
+ * Queries are frequent, since long ranges are counted as many sub-ranges, so
+ * only those taking at least the threshold are recorded by default.
+ */
+@Name("com.example.demo.AnalyticsQuery")
+@Label("Analytics Query")
+@Category({"Report Service", "Analytics"})
+@Description("Count or read of view or payment events for one product, layout and range")
+@StackTrace(false)
+@Threshold("10 ms")
+final class AnalyticsQueryEvent extends Event {
+
+    @Label("Query")
+    String query;
+
+    @Label("Product ID")
+    String productId;
+
+    @Label("Layout ID")
+    String layoutId;
+
+    @Label("Range Length")
+    @Timespan(Timespan.SECONDS)
+    long rangeLength;
+
+    @Label("Rows")
+    @Description("Events counted or read")
+    long rows;
+
+    /**
+     * Ends the event and, if it is to be recorded, fills it in and commits it.
+     *
+     * @param query the name of the query
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param startDate the start of the range
+     * @param endDate the end of the range
+     * @param rows the number of events counted or read
+     */
+    void complete(String query, String productId, String layoutId,
+                  LocalDateTime startDate, LocalDateTime endDate, long rows) {
+        end();
+        if (shouldCommit()) {
+            this.query = query;
+            this.productId = productId;
+            this.layoutId = layoutId;
+            this.rangeLength = ReportComputationEvent.seconds(startDate, endDate);
+            this.rows = rows;
+            commit();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.example.demo.entity.Payment;
 import com.example.demo.entity.View;
 import com.example.demo.repository.PaymentRepository;
 import com.example.demo.repository.ViewRepository;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -25,15 +26,25 @@ import java.util.List;
  *   <li>Serving as an abstraction layer for analytical operations</li>
  * </ul>
  *
+ * <p>Counts are delegated to the configured {@link EventStore}. Event records are
+ * read from the relational tables and are only available with the JPA backend.
+ * Every query is observed, so a traced report shows its view and payment scans
+ * as separate spans, and slow queries are recorded as {@link AnalyticsQueryEvent}s
+ * in a running Flight Recorder recording.
+ *
  * @see Service
  * @see View
  * @see Payment
+ * @see EventStore
  */
 @Service
 @RequiredArgsConstructor
+@Observed(name = "report.analytics")
 public class AnalyticsService {
     private final ViewRepository viewRepository;
     private final PaymentRepository paymentRepository;
+    private final DimensionDictionary dictionary;
+    private final EventStore eventStore;
 
     /**
      * Retrieves view records for a specific product and layout within a date range.
@@ -54,8 +65,14 @@ public class AnalyticsService {
      */
     public List<View> getViews(String productId, String layoutId,
                                LocalDateTime startDate, LocalDateTime endDate) {
-        return viewRepository.findByProductIdAndLayoutIdAndTimestampBetween(
-                productId, layoutId, startDate, endDate);
+        AnalyticsQueryEvent event = new AnalyticsQueryEvent();
+        event.begin();
+        List<View> views = dictionary.findKeys(productId, layoutId)
+                .map(keys -> viewRepository.findByProductKeyAndLayoutKeyAndTimestampBetween(
+                        keys.product(), keys.layout(), startDate, endDate))
+                .orElse(List.of());
+        event.complete("getViews", productId, layoutId, startDate, endDate, views.size());
+        return views;
     }
 
     /**
@@ -77,7 +94,53 @@ public class AnalyticsService {
      */
     public List<Payment> getPayments(String productId, String layoutId,
                                      LocalDateTime startDate, LocalDateTime endDate) {
-        return paymentRepository.findByProductIdAndLayoutIdAndTimestampBetween(
-                productId, layoutId, startDate, endDate);
+        AnalyticsQueryEvent event = new AnalyticsQueryEvent();
+        event.begin();
+        List<Payment> payments = dictionary.findKeys(productId, layoutId)
+                .map(keys -> paymentRepository.findByProductKeyAndLayoutKeyAndTimestampBetween(
+                        keys.product(), keys.layout(), startDate, endDate))
+                .orElse(List.of());
+        event.complete("getPayments", productId, layoutId, startDate, endDate, payments.size());
+        return payments;
+    }
+
+    /**
+     * Counts view records for a specific product and layout within a date range.
+     * <p>
+     * Served by the configured {@link EventStore}.
+     *
+     * @param productId the product identifier to filter by
+     * @param layoutId the layout variant to filter by
+     * @param startDate the start of the date range (inclusive)
+     * @param endDate the end of the date range (inclusive)
+     * @return number of matching view records
+     */
+    public long countViews(String productId, String layoutId,
+                           LocalDateTime startDate, LocalDateTime endDate) {
+        AnalyticsQueryEvent event = new AnalyticsQueryEvent();
+        event.begin();
+        long count = eventStore.countViews(productId, layoutId, startDate, endDate);
+        event.complete("countViews", productId, layoutId, startDate, endDate, count);
+        return count;
+    }
+
+    /**
+     * Counts payment records for a specific product and layout within a date range.
+     * <p>
+     * Served by the configured {@link EventStore}.
+     *
+     * @param productId the product identifier to filter by
+     * @param layoutId the layout variant to filter by
+     * @param startDate the start of the date range (inclusive)
+     * @param endDate the end of the date range (inclusive)
+     * @return number of matching payment records
+     */
+    public long countPayments(String productId, String layoutId,
+                              LocalDateTime startDate, LocalDateTime endDate) {
+        AnalyticsQueryEvent event = new AnalyticsQueryEvent();
+        event.begin();
+        long count = eventStore.countPayments(productId, layoutId, startDate, endDate);
+        event.complete("countPayments", productId, layoutId, startDate, endDate, count);
+        return count;
     }
-}
\ No newline at end of file
+}
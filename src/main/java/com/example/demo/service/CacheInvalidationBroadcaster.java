@@ -0,0 +1,125 @@
+package com.example.demo.service;
+
+import com.example.demo.config.PrecomputeProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drops pre-computed report ranges on every node when late events arrive.
+ * <p>
+ * {@link PrecomputedReportCache} only stores ranges that had been over for the
+ * settle time, so only events ingested later than that after their timestamp can
+ * fall into a cached range. Their timestamps are merged per product and layout
+ * and published on the {@code report.cache.invalidation} fanout exchange once per
+ * {@code report.precompute.invalidation-interval}. Each node, this one included,
+ * receives the ranges on its own queue and invalidates its cache. A bulk import of
+ * old events therefore costs one message per product, layout and interval.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationBroadcaster {
+    private final RabbitTemplate rabbitTemplate;
+    private final FanoutExchange cacheInvalidationExchange;
+    private final PrecomputedReportCache cache;
+    private final PrecomputeProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Key, Range> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Records an ingested event, queueing its timestamp for broadcast if it is late.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param timestamp the event timestamp
+     */
+    public void record(String productId, String layoutId, LocalDateTime timestamp) {
+        if (!properties.isEnabled()
+                || !timestamp.isBefore(LocalDateTime.now().minus(properties.getSettleTime()))) {
+            return;
+        }
+        pending.merge(new Key(productId, layoutId), new Range(timestamp, timestamp), Range::union);
+    }
+
+    /**
+     * Publishes the ranges recorded since the last flush.
+     * <p>
+     * A range that cannot be published is merged back and retried on the next flush.
+     */
+    @Scheduled(fixedDelayString = "${report.precompute.invalidation-interval:1s}")
+    public void flush() {
+        for (Key key : List.copyOf(pending.keySet())) {
+            Range range = pending.remove(key);
+            if (range == null) {
+                continue;
+            }
+            ObjectNode message = objectMapper.createObjectNode();
+            message.put("productId", key.productId());
+            message.put("layoutId", key.layoutId());
+            message.put("from", range.from().toString());
+            message.put("to", range.to().toString());
+            try {
+                rabbitTemplate.convertAndSend(cacheInvalidationExchange.getName(), "",
+                        objectMapper.writeValueAsString(message));
+            } catch (JsonProcessingException | AmqpException e) {
+                pending.merge(key, range, Range::union);
+                log.warn("Cannot broadcast cache invalidation, retrying on next flush: {}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Invalidates the cached ranges overlapping a broadcast range.
+     * <p>
+     * A malformed message is logged and dropped; requeueing it would block the
+     * queue of this node.
+     *
+     * @param message the JSON range published by {@link #flush()}
+     */
+    @RabbitListener(queues = "#{cacheInvalidationQueue.name}")
+    public void onInvalidation(String message) {
+        try {
+            JsonNode range = objectMapper.readTree(message);
+            cache.invalidate(text(range, "productId"), text(range, "layoutId"),
+                    LocalDateTime.parse(text(range, "from")),
+                    LocalDateTime.parse(text(range, "to")));
+        } catch (JsonProcessingException | IllegalArgumentException | DateTimeParseException e) {
+            log.warn("Dropping malformed cache invalidation {}: {}", message, e.getMessage());
+        }
+    }
+
+    private static String text(JsonNode range, String field) {
+        JsonNode value = range.path(field);
+        if (!value.isTextual()) {
+            throw new IllegalArgumentException("Missing " + field);
+        }
+        return value.asText();
+    }
+
+    private record Key(String productId, String layoutId) {
+    }
+
+    private record Range(LocalDateTime from, LocalDateTime to) {
+        Range union(Range other) {
+            return new Range(from.isBefore(other.from) ? from : other.from, to.isAfter(other.to) ? to : other.to);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.service;
+
+import com.example.demo.config.AdmissionProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks report computations on this node and admits new ones up to a global limit.
+ * <p>
+ * Every computation started inline or in a report lane is counted from submission
+ * to completion. New reports are rejected with a {@link TooManyRequestsException}
+ * while the count is at {@link AdmissionProperties#getMaxInFlight()}, so overload
+ * turns into fast {@code 429} responses instead of piling up threads and
+ * connections. The check is deliberately lock-free; concurrent admissions may
+ * overshoot the limit by a few computations.
+ */
+@Component
+public class ComputationAdmission {
+    private final AdmissionProperties properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Constructs the admission control.
+     *
+     * @param properties admission configuration
+     */
+    public ComputationAdmission(AdmissionProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Rejects a new report if the node is at its computation limit.
+     *
+     * @throws TooManyRequestsException if the limit is reached
+     */
+    public void admit() {
+        if (inFlight.get() >= properties.getMaxInFlight()) {
+            throw new TooManyRequestsException("Too many reports in progress", properties.getRetryAfter());
+        }
+    }
+
+    /**
+     * Records the start of a computation.
+     */
+    public void started() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records the end of a computation, successful or not.
+     */
+    public void finished() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Returns the number of computations running or queued on this node.
+     *
+     * @return the in-flight count
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.service;
+
+import com.example.demo.config.RateLimitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cluster-wide {@link RateLimiter} backed by the {@code rate_limit_bucket} table.
+ * <p>
+ * Each check is a single PostgreSQL upsert that advances the bucket's TAT only if
+ * the request fits, so the decision is atomic across nodes without explicit
+ * locking. A second query reads the TAT only for rejected requests, to compute
+ * {@code Retry-After}. TATs are stored as epoch microseconds, so node clocks
+ * should be kept in sync.
+ */
+@Component
+@ConditionalOnProperty(prefix = "report.rate-limit", name = "mode", havingValue = "database")
+public class DatabaseRateLimiter implements RateLimiter {
+
+    private static final String ACQUIRE = """
+            INSERT INTO rate_limit_bucket (bucket_key, tat_micros) VALUES (:key, :now + :interval)
+            ON CONFLICT (bucket_key) DO UPDATE
+                SET tat_micros = GREATEST(rate_limit_bucket.tat_micros, :now) + :interval
+                WHERE GREATEST(rate_limit_bucket.tat_micros, :now) + :interval - :now <= :tolerance
+            """;
+    private static final String READ = "SELECT tat_micros FROM rate_limit_bucket WHERE bucket_key = :key";
+    private static final String PURGE = "DELETE FROM rate_limit_bucket WHERE tat_micros < :now";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final long intervalMicros;
+    private final long toleranceMicros;
+
+    /**
+     * Constructs the limiter from the configured rate and burst.
+     *
+     * @param jdbcTemplate template used to access the bucket table
+     * @param properties rate limit configuration
+     */
+    public DatabaseRateLimiter(NamedParameterJdbcTemplate jdbcTemplate, RateLimitProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.intervalMicros = TimeUnit.MINUTES.toMicros(1) / Math.max(1, properties.getPermitsPerMinute());
+        this.toleranceMicros = intervalMicros * Math.max(1, properties.getBurst());
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key) {
+        long now = nowMicros();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("key", key)
+                .addValue("now", now)
+                .addValue("interval", intervalMicros)
+                .addValue("tolerance", toleranceMicros);
+        if (jdbcTemplate.update(ACQUIRE, params) > 0) {
+            return RateLimitDecision.allow();
+        }
+        List<Long> tat = jdbcTemplate.queryForList(READ, params, Long.class);
+        long wait = tat.isEmpty() ? intervalMicros : Math.max(tat.get(0), now) + intervalMicros - now - toleranceMicros;
+        return RateLimitDecision.reject(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(Math.max(1, wait))));
+    }
+
+    /**
+     * Deletes buckets that are full again and therefore equivalent to a missing row.
+     */
+    @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.MINUTES)
+    public void purge() {
+        jdbcTemplate.update(PURGE, new MapSqlParameterSource("now", nowMicros()));
+    }
+
+    private static long nowMicros() {
+        return TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Layout;
+import com.example.demo.entity.Product;
+import com.example.demo.repository.LayoutRepository;
+import com.example.demo.repository.ProductRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Translates product and layout identifiers to the integer keys stored on events, and back.
+ * <p>
+ * Both directions are cached in memory. Dictionary entries never change once
+ * created, so cached keys stay valid forever and every node can cache them
+ * independently. Only known keys are cached: looking up an identifier that has
+ * not been seen yet goes to the database each time.
+ *
+ * <p>Keys are created on first ingestion. When two nodes create the same entry
+ * concurrently, the unique constraint rejects one insert and that node reads
+ * the key written by the other.
+ *
+ * @see Product
+ * @see Layout
+ */
+@Component
+public class DimensionDictionary {
+    private final Dimension products;
+    private final Dimension layouts;
+
+    /**
+     * Constructs the dictionary.
+     *
+     * @param productRepository repository of product entries
+     * @param layoutRepository repository of layout entries
+     * @param transactionManager transaction manager used to create entries
+     */
+    public DimensionDictionary(ProductRepository productRepository,
+                               LayoutRepository layoutRepository,
+                               PlatformTransactionManager transactionManager) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.products = new Dimension(transaction,
+                name -> productRepository.findByName(name).map(Product::getId),
+                name -> {
+                    Product product = new Product();
+                    product.setName(name);
+                    return productRepository.saveAndFlush(product).getId();
+                },
+                key -> productRepository.findById(key).map(Product::getName));
+        this.layouts = new Dimension(transaction,
+                name -> layoutRepository.findByName(name).map(Layout::getId),
+                name -> {
+                    Layout layout = new Layout();
+                    layout.setName(name);
+                    return layoutRepository.saveAndFlush(layout).getId();
+                },
+                key -> layoutRepository.findById(key).map(Layout::getName));
+    }
+
+    /**
+     * Returns the key of a product, creating it if the product has not been seen yet.
+     *
+     * @param productId the product identifier, may be null
+     * @return the key, or null for a null identifier
+     */
+    public Integer productKey(String productId) {
+        return products.key(productId);
+    }
+
+    /**
+     * Looks up the key of a product without creating it.
+     *
+     * @param productId the product identifier
+     * @return the key, or empty if no event has been recorded for the product
+     */
+    public Optional<Integer> findProductKey(String productId) {
+        return products.find(productId);
+    }
+
+    /**
+     * Returns the product identifier of a key.
+     *
+     * @param key the product key, may be null
+     * @return the identifier, or null for a null or unknown key
+     */
+    public String productId(Integer key) {
+        return products.name(key);
+    }
+
+    /**
+     * Returns the key of a layout, creating it if the layout has not been seen yet.
+     *
+     * @param layoutId the layout identifier, may be null
+     * @return the key, or null for a null identifier
+     */
+    public Integer layoutKey(String layoutId) {
+        return layouts.key(layoutId);
+    }
+
+    /**
+     * Looks up the key of a layout without creating it.
+     *
+     * @param layoutId the layout identifier
+     * @return the key, or empty if no event has been recorded for the layout
+     */
+    public Optional<Integer> findLayoutKey(String layoutId) {
+        return layouts.find(layoutId);
+    }
+
+    /**
+     * Returns the layout identifier of a key.
+     *
+     * @param key the layout key, may be null
+     * @return the identifier, or null for a null or unknown key
+     */
+    public String layoutId(Integer key) {
+        return layouts.name(key);
+    }
+
+    /**
+     * Looks up the keys of a product/layout pair without creating them.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @return both keys, or empty if either identifier has no recorded events
+     */
+    public Optional<Keys> findKeys(String productId, String layoutId) {
+        return findProductKey(productId).flatMap(product ->
+                findLayoutKey(layoutId).map(layout -> new Keys(product, layout)));
+    }
+
+    /**
+     * Dictionary keys of a product/layout pair.
+     *
+     * @param product the product key
+     * @param layout the layout key
+     */
+    public record Keys(int product, int layout) {
+    }
+
+    private static final class Dimension {
+        private final Map<String, Integer> keys = new ConcurrentHashMap<>();
+        private final Map<Integer, String> names = new ConcurrentHashMap<>();
+        private final TransactionTemplate transaction;
+        private final Function<String, Optional<Integer>> lookup;
+        private final Function<String, Integer> insert;
+        private final Function<Integer, Optional<String>> reverseLookup;
+
+        private Dimension(TransactionTemplate transaction,
+                          Function<String, Optional<Integer>> lookup,
+                          Function<String, Integer> insert,
+                          Function<Integer, Optional<String>> reverseLookup) {
+            this.transaction = transaction;
+            this.lookup = lookup;
+            this.insert = insert;
+            this.reverseLookup = reverseLookup;
+        }
+
+        private Optional<Integer> find(String name) {
+            if (name == null) {
+                return Optional.empty();
+            }
+            Integer cached = keys.get(name);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+            Optional<Integer> stored = lookup.apply(name);
+            stored.ifPresent(key -> remember(name, key));
+            return stored;
+        }
+
+        private Integer key(String name) {
+            if (name == null) {
+                return null;
+            }
+            Optional<Integer> known = find(name);
+            if (known.isPresent()) {
+                return known.get();
+            }
+            Integer key;
+            try {
+                key = transaction.execute(status -> insert.apply(name));
+            } catch (DataIntegrityViolationException e) {
+                key = lookup.apply(name).orElseThrow(() -> e);
+            }
+            remember(name, key);
+            return key;
+        }
+
+        private String name(Integer key) {
+            if (key == null) {
+                return null;
+            }
+            String cached = names.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            Optional<String> stored = reverseLookup.apply(key);
+            stored.ifPresent(name -> remember(name, key));
+            return stored.orElse(null);
+        }
+
+        private void remember(String name, Integer key) {
+            keys.put(name, key);
+            names.put(key, name);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.demo.service;
+
+import com.example.demo.config.EventStoreProperties;
+import com.example.demo.dto.EventType;
+import com.example.demo.dto.ExportFormat;
+import com.example.demo.entity.ReportRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Service for exporting the raw events behind a report.
+ * <p>
+ * Rows are read through a Hibernate {@link StatelessSession} with a forward-only
+ * cursor and written straight to the caller's stream, so no persistence context
+ * accumulates and memory use stays constant regardless of the number of rows.
+ * The session runs in its own read-only transaction, which PostgreSQL requires
+ * for the JDBC fetch size to take effect.
+ *
+ * <p>Events are filtered by their dictionary keys and the keys are translated
+ * back to identifiers through the cached {@link DimensionDictionary}.
+ *
+ * @see EventType
+ * @see ExportFormat
+ */
+@Service
+@RequiredArgsConstructor
+public class EventExportService {
+
+    private static final int FETCH_SIZE = 5_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,product_id,layout_id,timestamp\n";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectMapper objectMapper;
+    private final DimensionDictionary dictionary;
+    private final EventStoreProperties eventStoreProperties;
+
+    /**
+     * Checks whether raw events can be exported, which requires them to be stored
+     * in the relational tables.
+     *
+     * @return true if the JPA event store is in use
+     */
+    public boolean isAvailable() {
+        return eventStoreProperties.getBackend() == EventStoreProperties.Backend.JPA;
+    }
+
+    /**
+     * Writes every event of the given type that falls within the report's range.
+     * <p>
+     * The stream is flushed but not closed.
+     *
+     * @param request the report whose product, layout and range select the events
+     * @param type the kind of events to export
+     * @param format the output format
+     * @param out the destination stream
+     * @throws IOException if writing to the destination fails
+     * @throws UnsupportedOperationException if the export is not {@linkplain #isAvailable() available}
+     */
+    public void export(ReportRequest request, EventType type, ExportFormat format, OutputStream out)
+            throws IOException {
+        if (!isAvailable()) {
+            throw new UnsupportedOperationException("Raw event export requires the JPA event store");
+        }
+        String entity = (type == EventType.VIEWS) ? "View" : "Payment";
+        Optional<DimensionDictionary.Keys> keys = dictionary.findKeys(request.getProductId(), request.getLayoutId());
+        if (keys.isEmpty()) {
+            if (format == ExportFormat.CSV) {
+                writeCsvHeader(out);
+            }
+            return;
+        }
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try (ScrollableResults<Object[]> rows = session.createSelectionQuery(
+                            "select e.id, e.productKey, e.layoutKey, e.timestamp from " + entity + " e "
+                                    + "where e.productKey = :productKey and e.layoutKey = :layoutKey "
+                                    + "and e.timestamp between :startDate and :endDate", Object[].class)
+                    .setParameter("productKey", keys.get().product())
+                    .setParameter("layoutKey", keys.get().layout())
+                    .setParameter("startDate", request.getStartDate())
+                    .setParameter("endDate", request.getEndDate())
+                    .setFetchSize(FETCH_SIZE)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                if (format == ExportFormat.CSV) {
+                    writeCsv(rows, out);
+                } else {
+                    writeNdjson(rows, out);
+                }
+            } finally {
+                transaction.rollback();
+            }
+        }
+    }
+
+    private void writeCsv(ScrollableResults<Object[]> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(CSV_HEADER);
+        while (rows.next()) {
+            Object[] row = rows.get();
+            writer.write(String.valueOf(row[0]));
+            writer.write(',');
+            writer.write(csvField(dictionary.productId((Integer) row[1])));
+            writer.write(',');
+            writer.write(csvField(dictionary.layoutId((Integer) row[2])));
+            writer.write(',');
+            writer.write(String.valueOf(row[3]));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private void writeCsvHeader(OutputStream out) throws IOException {
+        out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private void writeNdjson(ScrollableResults<Object[]> rows, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            boolean empty = true;
+            while (rows.next()) {
+                Object[] row = rows.get();
+                generator.writeStartObject();
+                generator.writeNumberField("id", (Long) row[0]);
+                generator.writeStringField("productId", dictionary.productId((Integer) row[1]));
+                generator.writeStringField("layoutId", dictionary.layoutId((Integer) row[2]));
+                generator.writeStringField("timestamp", String.valueOf(row[3]));
+                generator.writeEndObject();
+                empty = false;
+            }
+            if (!empty) {
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    /**
+     * Quotes a CSV field when it contains a delimiter, quote or line break.
+     *
+     * @param value the raw field value, may be null
+     * @return the escaped field
+     */
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
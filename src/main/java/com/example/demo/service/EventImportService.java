@@ -0,0 +1,611 @@
+package com.example.demo.service;
+
+import com.example.demo.config.EventImportProperties;
+import com.example.demo.config.EventStoreProperties;
+import com.example.demo.dto.EventImportDto;
+import com.example.demo.dto.EventType;
+import com.example.demo.entity.EventImport;
+import com.example.demo.entity.EventImportChunk;
+import com.example.demo.entity.ImportStatus;
+import com.example.demo.entity.Payment;
+import com.example.demo.entity.View;
+import com.example.demo.repository.EventImportChunkRepository;
+import com.example.demo.repository.EventImportRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Service for bulk imports of historical view and payment events from CSV files.
+ * <p>
+ * Files are read from the import directory through a {@link FileChannel}, and
+ * gzipped files are decompressed on the fly. The first record names the columns;
+ * {@code product_id}, {@code layout_id} and {@code timestamp} are required and
+ * any others, such as the {@code id} written by {@link EventExportService}, are
+ * ignored. Fields may be quoted as in RFC 4180.
+ *
+ * <p>A single reader thread cuts the file into chunks of records, which are
+ * parsed and written concurrently by a pool of workers. Each chunk is written
+ * through a Hibernate {@link StatelessSession} in JDBC batches and committed
+ * together with its {@link EventImportChunk} marker. A failed import keeps the
+ * chunks it has committed; resuming it reads the file again and skips every
+ * chunk that has a marker, so each record is written exactly once. Markers also
+ * keep two nodes that resume the same import from writing a chunk twice: the
+ * second insert of a marker fails and rolls back its events.
+ *
+ * <p>Imported events are propagated to the in-memory structures like ingested
+ * ones, a chunk's events of each product and layout at once. Results of reports
+ * completed before the import are not recomputed.
+ *
+ * @see EventImport
+ */
+@Slf4j
+@Service
+public class EventImportService {
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+
+    private final EventImportRepository importRepository;
+    private final EventImportChunkRepository chunkRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DimensionDictionary dictionary;
+    private final EventIngestionService ingestionService;
+    private final EventImportProperties properties;
+    private final EventStoreProperties eventStoreProperties;
+    private final Counter viewRows;
+    private final Counter paymentRows;
+    private final Timer chunkTimer;
+    private final Map<UUID, Progress> running = new ConcurrentHashMap<>();
+    private final Object lifecycle = new Object();
+    private final ExecutorService coordinators = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "event-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs the service.
+     *
+     * @param importRepository repository of imports
+     * @param chunkRepository repository of written chunk markers
+     * @param entityManagerFactory factory of the stateless sessions that write events
+     * @param dictionary dictionary translating identifiers to keys
+     * @param ingestionService service propagating written events to the in-memory structures
+     * @param properties import configuration
+     * @param eventStoreProperties event storage configuration
+     * @param registry registry of the import throughput metrics
+     */
+    public EventImportService(EventImportRepository importRepository,
+                              EventImportChunkRepository chunkRepository,
+                              EntityManagerFactory entityManagerFactory,
+                              DimensionDictionary dictionary,
+                              EventIngestionService ingestionService,
+                              EventImportProperties properties,
+                              EventStoreProperties eventStoreProperties,
+                              MeterRegistry registry) {
+        this.importRepository = importRepository;
+        this.chunkRepository = chunkRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.dictionary = dictionary;
+        this.ingestionService = ingestionService;
+        this.properties = properties;
+        this.eventStoreProperties = eventStoreProperties;
+        this.viewRows = Counter.builder("report.import.rows")
+                .description("Events written by bulk imports")
+                .tag("type", "views")
+                .register(registry);
+        this.paymentRows = Counter.builder("report.import.rows")
+                .description("Events written by bulk imports")
+                .tag("type", "payments")
+                .register(registry);
+        this.chunkTimer = Timer.builder("report.import.chunk")
+                .description("Time to parse and write one chunk of an import")
+                .register(registry);
+    }
+
+    /**
+     * Checks whether events can be imported, which requires them to be stored in
+     * the relational tables.
+     *
+     * @return true if the JPA event store is in use
+     */
+    public boolean isAvailable() {
+        return eventStoreProperties.getBackend() == EventStoreProperties.Backend.JPA;
+    }
+
+    /**
+     * Starts importing a file in the background.
+     *
+     * @param path the file, relative to the import directory
+     * @param type the kind of events the file holds
+     * @return the new import
+     * @throws IllegalArgumentException if the path is missing, leaves the import directory or is not a file
+     * @throws UnsupportedOperationException if imports are not {@linkplain #isAvailable() available}
+     */
+    public EventImport start(String path, EventType type) {
+        if (!isAvailable()) {
+            throw new UnsupportedOperationException("Event import requires the JPA event store");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Event type is required");
+        }
+        Path file = resolve(path);
+        EventImport eventImport = new EventImport();
+        eventImport.setPath(path);
+        eventImport.setType(type);
+        eventImport.setChunkSize(properties.getChunkSize());
+        eventImport.setCreatedAt(LocalDateTime.now());
+        eventImport = importRepository.save(eventImport);
+        launch(eventImport, file);
+        return eventImport;
+    }
+
+    /**
+     * Resumes an import that failed or was interrupted by a shutdown, skipping
+     * the chunks it has already written.
+     *
+     * @param id the import
+     * @return the resumed import, or empty if there is no such import
+     * @throws IllegalStateException if the import has completed or is running on this node
+     * @throws IllegalArgumentException if the file is no longer available
+     * @throws UnsupportedOperationException if imports are not {@linkplain #isAvailable() available}
+     */
+    public Optional<EventImport> resume(UUID id) {
+        if (!isAvailable()) {
+            throw new UnsupportedOperationException("Event import requires the JPA event store");
+        }
+        synchronized (lifecycle) {
+            Optional<EventImport> found = importRepository.findById(id);
+            if (found.isEmpty()) {
+                return found;
+            }
+            EventImport eventImport = found.get();
+            if (eventImport.getStatus() == ImportStatus.COMPLETED || running.containsKey(id)) {
+                throw new IllegalStateException("Import " + id + " is " + eventImport.getStatus().name().toLowerCase());
+            }
+            Path file = resolve(eventImport.getPath());
+            eventImport.setStatus(ImportStatus.RUNNING);
+            eventImport.setError(null);
+            eventImport.setFinishedAt(null);
+            eventImport = importRepository.save(eventImport);
+            launch(eventImport, file);
+            return Optional.of(eventImport);
+        }
+    }
+
+    /**
+     * Reports the progress of an import.
+     * <p>
+     * Counts of an import running on this node are live; otherwise they are read
+     * from its chunk markers.
+     *
+     * @param id the import
+     * @return the progress, or empty if there is no such import
+     */
+    public Optional<EventImportDto> getImport(UUID id) {
+        return importRepository.findById(id).map(eventImport -> {
+            EventImportDto dto = new EventImportDto();
+            dto.setId(eventImport.getId());
+            dto.setPath(eventImport.getPath());
+            dto.setType(eventImport.getType());
+            dto.setStatus(eventImport.getStatus());
+            dto.setError(eventImport.getError());
+            dto.setCreatedAt(eventImport.getCreatedAt());
+            dto.setFinishedAt(eventImport.getFinishedAt());
+            Progress progress = running.get(id);
+            if (progress != null) {
+                dto.setRowsImported(progress.rows.get());
+                dto.setChunksCompleted(progress.chunks.get());
+                dto.setBytesRead(progress.bytesRead);
+                dto.setTotalBytes(progress.totalBytes);
+                dto.setRowsPerSecond(progress.rowsPerSecond());
+            } else {
+                dto.setRowsImported(chunkRepository.sumRows(id));
+                dto.setChunksCompleted(chunkRepository.countByImportId(id));
+                dto.setTotalBytes(size(eventImport.getPath()));
+            }
+            return dto;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinators.shutdownNow();
+    }
+
+    private Path resolve(String path) {
+        if (path == null || path.isBlank()) {
+            throw new IllegalArgumentException("Import path is required");
+        }
+        Path directory = properties.getDirectory().toAbsolutePath().normalize();
+        Path file = directory.resolve(path).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No file " + path + " in the import directory");
+        }
+        return file;
+    }
+
+    private long size(String path) {
+        try {
+            return Files.size(resolve(path));
+        } catch (IOException | IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    private void launch(EventImport eventImport, Path file) {
+        Progress progress;
+        try {
+            progress = new Progress(Files.size(file), chunkRepository.sumRows(eventImport.getId()));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read " + eventImport.getPath(), e);
+        }
+        if (running.putIfAbsent(eventImport.getId(), progress) != null) {
+            throw new IllegalStateException("Import " + eventImport.getId() + " is running");
+        }
+        try {
+            coordinators.execute(() -> run(eventImport, file, progress));
+        } catch (RuntimeException e) {
+            running.remove(eventImport.getId());
+            throw e;
+        }
+    }
+
+    private void run(EventImport eventImport, Path file, Progress progress) {
+        UUID id = eventImport.getId();
+        Set<Long> written = new HashSet<>(chunkRepository.findChunkIndexes(id));
+        progress.chunks.set(written.size());
+        int chunkSize = eventImport.getChunkSize();
+        int parallelism = Math.max(1, properties.getParallelism());
+        Semaphore slots = new Semaphore(2 * parallelism);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "event-import-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Importing {} from {}, {} chunks already written", eventImport.getType(), file, written.size());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             BufferedReader reader = open(channel)) {
+            Columns columns = Columns.of(readRecord(reader));
+            long index = 0;
+            List<String> records = new ArrayList<>(chunkSize);
+            String record;
+            while (failure.get() == null && (record = readRecord(reader)) != null) {
+                if (record.isEmpty()) {
+                    continue;
+                }
+                records.add(record);
+                if (records.size() == chunkSize) {
+                    progress.bytesRead = channel.position();
+                    dispatch(eventImport, columns, index++, records, written, workers, slots, failure, progress);
+                    records = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!records.isEmpty() && failure.get() == null) {
+                dispatch(eventImport, columns, index, records, written, workers, slots, failure, progress);
+            }
+            progress.bytesRead = channel.position();
+        } catch (IOException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } catch (InterruptedException e) {
+            failure.compareAndSet(null, e);
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdown();
+            try {
+                workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                workers.shutdownNow();
+                failure.compareAndSet(null, e);
+                Thread.currentThread().interrupt();
+            }
+        }
+        finish(eventImport, failure.get(), progress);
+    }
+
+    private void dispatch(EventImport eventImport, Columns columns, long index, List<String> records,
+                          Set<Long> written, ExecutorService workers, Semaphore slots,
+                          AtomicReference<Exception> failure, Progress progress) throws InterruptedException {
+        if (written.contains(index)) {
+            return;
+        }
+        slots.acquire();
+        workers.execute(() -> {
+            try {
+                if (failure.get() == null) {
+                    chunkTimer.record(() -> writeChunk(eventImport, columns, index, records, progress));
+                }
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                slots.release();
+            }
+        });
+    }
+
+    private void writeChunk(EventImport eventImport, Columns columns, long index, List<String> records,
+                            Progress progress) {
+        long firstRecord = index * eventImport.getChunkSize() + 1;
+        List<ImportedEvent> events = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            events.add(parse(records.get(i), columns, firstRecord + i));
+        }
+
+        long[] ids = new long[events.size()];
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(properties.getBatchSize());
+            Transaction transaction = session.beginTransaction();
+            try {
+                for (int i = 0; i < events.size(); i++) {
+                    ids[i] = ((Number) session.insert(toEntity(eventImport.getType(), events.get(i)))).longValue();
+                }
+                EventImportChunk marker = new EventImportChunk();
+                marker.setImportId(eventImport.getId());
+                marker.setChunkIndex(index);
+                marker.setRows(events.size());
+                session.insert(marker);
+                transaction.commit();
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        }
+
+        Map<Series, List<Integer>> bySeries = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            ImportedEvent event = events.get(i);
+            bySeries.computeIfAbsent(new Series(event.productId(), event.layoutId()), key -> new ArrayList<>())
+                    .add(i);
+        }
+        bySeries.forEach((series, positions) -> {
+            long[] seriesIds = new long[positions.size()];
+            List<LocalDateTime> timestamps = new ArrayList<>(positions.size());
+            for (int i = 0; i < positions.size(); i++) {
+                seriesIds[i] = ids[positions.get(i)];
+                timestamps.add(events.get(positions.get(i)).timestamp());
+            }
+            if (eventImport.getType() == EventType.VIEWS) {
+                ingestionService.viewsStored(series.productId(), series.layoutId(), seriesIds, timestamps);
+            } else {
+                ingestionService.paymentsStored(series.productId(), series.layoutId(), seriesIds, timestamps);
+            }
+        });
+        (eventImport.getType() == EventType.VIEWS ? viewRows : paymentRows).increment(events.size());
+        progress.rows.addAndGet(events.size());
+        progress.chunks.incrementAndGet();
+    }
+
+    private ImportedEvent parse(String record, Columns columns, long number) {
+        List<String> fields = fields(record);
+        try {
+            String productId = columns.field(fields, columns.productId());
+            String layoutId = columns.field(fields, columns.layoutId());
+            if (productId.isEmpty() || layoutId.isEmpty()) {
+                throw new IllegalArgumentException("Product and layout identifiers are required");
+            }
+            LocalDateTime timestamp = LocalDateTime.parse(columns.field(fields, columns.timestamp()).trim());
+            return new ImportedEvent(productId, dictionary.productKey(productId),
+                    layoutId, dictionary.layoutKey(layoutId), timestamp);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Record " + number + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Object toEntity(EventType type, ImportedEvent event) {
+        if (type == EventType.VIEWS) {
+            View view = new View();
+            view.setProductKey(event.productKey());
+            view.setLayoutKey(event.layoutKey());
+            view.setTimestamp(event.timestamp());
+            return view;
+        }
+        Payment payment = new Payment();
+        payment.setProductKey(event.productKey());
+        payment.setLayoutKey(event.layoutKey());
+        payment.setTimestamp(event.timestamp());
+        return payment;
+    }
+
+    private void finish(EventImport eventImport, Exception failure, Progress progress) {
+        eventImport.setFinishedAt(LocalDateTime.now());
+        if (failure == null) {
+            eventImport.setStatus(ImportStatus.COMPLETED);
+            log.info("Imported {} {} from {} at {} rows/s", progress.rows.get(),
+                    eventImport.getType(), eventImport.getPath(), Math.round(progress.rowsPerSecond()));
+        } else {
+            eventImport.setStatus(ImportStatus.FAILED);
+            String message = String.valueOf(failure.getMessage());
+            eventImport.setError(message.length() > 1000 ? message.substring(0, 1000) : message);
+            log.warn("Import {} of {} failed after {} rows", eventImport.getId(), eventImport.getPath(),
+                    progress.rows.get(), failure);
+        }
+        // Resumption checks the status and the running imports together
+        synchronized (lifecycle) {
+            try {
+                importRepository.save(eventImport);
+            } finally {
+                running.remove(eventImport.getId());
+            }
+        }
+    }
+
+    private static BufferedReader open(FileChannel channel) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(2);
+        channel.read(magic, 0);
+        InputStream in = Channels.newInputStream(channel);
+        if (magic.position() == 2 && (magic.get(0) & 0xff) == 0x1f && (magic.get(1) & 0xff) == 0x8b) {
+            in = new GZIPInputStream(in, 64 * 1024);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+    }
+
+    /**
+     * Reads one CSV record, which spans several lines when a quoted field holds
+     * a line break.
+     *
+     * @param reader the source
+     * @return the record without its terminator, or null at the end of the input
+     * @throws IOException if reading fails
+     */
+    static String readRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null || line.indexOf('"') < 0) {
+            return line;
+        }
+        StringBuilder record = new StringBuilder(line);
+        while (hasOpenQuote(record)) {
+            String next = reader.readLine();
+            if (next == null) {
+                throw new IllegalArgumentException("Unterminated quoted field at the end of the file");
+            }
+            record.append('\n').append(next);
+        }
+        return record.toString();
+    }
+
+    private static boolean hasOpenQuote(CharSequence record) {
+        int quotes = 0;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return (quotes & 1) == 1;
+    }
+
+    /**
+     * Splits a CSV record into its fields, unquoting quoted ones.
+     *
+     * @param record the record
+     * @return the fields
+     */
+    static List<String> fields(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record ImportedEvent(String productId, Integer productKey,
+                                 String layoutId, Integer layoutKey,
+                                 LocalDateTime timestamp) {
+    }
+
+    private record Series(String productId, String layoutId) {
+    }
+
+    /**
+     * Positions of the required columns, taken from the header record.
+     */
+    private record Columns(int productId, int layoutId, int timestamp) {
+
+        static Columns of(String header) {
+            if (header == null) {
+                throw new IllegalArgumentException("The file is empty");
+            }
+            List<String> names = fields(header.startsWith("\uFEFF") ? header.substring(1) : header)
+                    .stream().map(String::trim).toList();
+            return new Columns(position(names, "product_id"), position(names, "layout_id"),
+                    position(names, "timestamp"));
+        }
+
+        private static int position(List<String> names, String name) {
+            int position = names.indexOf(name);
+            if (position < 0) {
+                throw new IllegalArgumentException("Missing column " + name);
+            }
+            return position;
+        }
+
+        String field(List<String> fields, int position) {
+            if (position >= fields.size()) {
+                throw new IllegalArgumentException("Expected at least " + (position + 1) + " fields");
+            }
+            return fields.get(position);
+        }
+    }
+
+    /**
+     * Live progress of an import running on this node.
+     */
+    private static final class Progress {
+        private final long totalBytes;
+        private final long rowsBefore;
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong rows;
+        private final AtomicLong chunks = new AtomicLong();
+        private volatile long bytesRead;
+
+        Progress(long totalBytes, long rowsBefore) {
+            this.totalBytes = totalBytes;
+            this.rowsBefore = rowsBefore;
+            this.rows = new AtomicLong(rowsBefore);
+        }
+
+        double rowsPerSecond() {
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            return seconds > 0 ? (rows.get() - rowsBefore) / seconds : 0;
+        }
+    }
+}
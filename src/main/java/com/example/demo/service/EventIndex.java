@@ -0,0 +1,497 @@
+package com.example.demo.service;
+
+import com.example.demo.config.EventIndexProperties;
+import com.example.demo.repository.PaymentRepository;
+import com.example.demo.repository.ViewRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * In-memory columnar index of view and payment timestamps.
+ * <p>
+ * For each indexed {@code (productId, layoutId)} pair the index keeps two sorted
+ * {@link TimestampColumn}s, so a range count costs two binary searches instead of
+ * a table scan. It is an optional engine in front of the SQL path used by
+ * {@link AnalyticsService}: every count method returns an empty result on a miss
+ * and the caller falls back to the repositories.
+ *
+ * <p>Keys enter the index in two ways:
+ * <ul>
+ *   <li>Preloaded at startup from {@link EventIndexProperties#getPreload()}</li>
+ *   <li>Admitted in the background after repeated misses</li>
+ * </ul>
+ *
+ * <p>The total footprint is bounded by {@link EventIndexProperties#getMemoryBudget()};
+ * when it is exceeded the least recently queried keys are evicted.
+ *
+ * @see TimestampColumn
+ * @see EventIndexProperties
+ */
+@Slf4j
+@Component
+public class EventIndex {
+
+    private static final int MAX_TRACKED_MISSES = 10_000;
+    private static final int ID_BATCH_SIZE = 1_000;
+
+    private final ViewRepository viewRepository;
+    private final PaymentRepository paymentRepository;
+    private final EventIndexProperties properties;
+    private final TransactionTemplate snapshotTransaction;
+
+    private final Map<EventKey, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<EventKey, Pending> loading = new ConcurrentHashMap<>();
+    private final Map<EventKey, AtomicInteger> misses = new ConcurrentHashMap<>();
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-index-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs the index with its data sources and configuration.
+     *
+     * @param viewRepository repository used to load view timestamps
+     * @param paymentRepository repository used to load payment timestamps
+     * @param properties index configuration
+     * @param transactionManager transaction manager for the streaming loads
+     */
+    public EventIndex(ViewRepository viewRepository,
+                      PaymentRepository paymentRepository,
+                      EventIndexProperties properties,
+                      PlatformTransactionManager transactionManager) {
+        this.viewRepository = viewRepository;
+        this.paymentRepository = paymentRepository;
+        this.properties = properties;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Counts indexed views within {@code [startDate, endDate]}.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param startDate the start of the range (inclusive)
+     * @param endDate the end of the range (inclusive)
+     * @return the count, or empty if the key is not indexed
+     */
+    public OptionalLong countViews(String productId, String layoutId,
+                                   LocalDateTime startDate, LocalDateTime endDate) {
+        Entry entry = lookup(new EventKey(productId, layoutId));
+        return entry == null ? OptionalLong.empty() : OptionalLong.of(
+                entry.views.count(TimestampColumn.toMicros(startDate), TimestampColumn.toMicros(endDate)));
+    }
+
+    /**
+     * Counts indexed payments within {@code [startDate, endDate]}.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param startDate the start of the range (inclusive)
+     * @param endDate the end of the range (inclusive)
+     * @return the count, or empty if the key is not indexed
+     */
+    public OptionalLong countPayments(String productId, String layoutId,
+                                      LocalDateTime startDate, LocalDateTime endDate) {
+        Entry entry = lookup(new EventKey(productId, layoutId));
+        return entry == null ? OptionalLong.empty() : OptionalLong.of(
+                entry.payments.count(TimestampColumn.toMicros(startDate), TimestampColumn.toMicros(endDate)));
+    }
+
+    /**
+     * Appends a newly ingested view to the index if its key is indexed.
+     * <p>
+     * Must be called after the view has been committed to the database.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param id the row id of the view, or {@code -1} if it is not stored in the view table
+     * @param timestamp the view timestamp
+     */
+    public void recordView(String productId, String layoutId, long id, LocalDateTime timestamp) {
+        record(new EventKey(productId, layoutId), id, timestamp, true);
+    }
+
+    /**
+     * Appends a newly ingested payment to the index if its key is indexed.
+     * <p>
+     * Must be called after the payment has been committed to the database.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param id the row id of the payment, or {@code -1} if it is not stored in the payment table
+     * @param timestamp the payment timestamp
+     */
+    public void recordPayment(String productId, String layoutId, long id, LocalDateTime timestamp) {
+        record(new EventKey(productId, layoutId), id, timestamp, false);
+    }
+
+    /**
+     * Merges a batch of newly stored views into the index if their key is indexed.
+     * <p>
+     * Must be called after the views have been committed to the database. The
+     * batch is sorted and merged in one pass, which keeps bulk imports of old
+     * events linear in the size of the column.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param ids the row ids of the views
+     * @param timestamps the view timestamps in the order of {@code ids}, otherwise in any order
+     * @throws IllegalArgumentException if the numbers of ids and timestamps differ
+     */
+    public void recordViews(String productId, String layoutId, long[] ids, List<LocalDateTime> timestamps) {
+        record(new EventKey(productId, layoutId), ids, timestamps, true);
+    }
+
+    /**
+     * Merges a batch of newly stored payments into the index if their key is indexed.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param ids the row ids of the payments
+     * @param timestamps the payment timestamps in the order of {@code ids}, otherwise in any order
+     * @throws IllegalArgumentException if the numbers of ids and timestamps differ
+     * @see #recordViews(String, String, long[], List)
+     */
+    public void recordPayments(String productId, String layoutId, long[] ids, List<LocalDateTime> timestamps) {
+        record(new EventKey(productId, layoutId), ids, timestamps, false);
+    }
+
+    /**
+     * Loads the configured keys once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (String spec : properties.getPreload()) {
+            int separator = spec.indexOf(':');
+            if (separator <= 0 || separator == spec.length() - 1) {
+                log.warn("Ignoring malformed event index key '{}', expected productId:layoutId", spec);
+                continue;
+            }
+            load(new EventKey(spec.substring(0, separator), spec.substring(separator + 1)));
+        }
+    }
+
+    /**
+     * Returns the memory currently held by all indexed columns.
+     *
+     * @return footprint in bytes
+     */
+    public long usedBytes() {
+        return entries.values().stream().mapToLong(Entry::sizeInBytes).sum();
+    }
+
+    /**
+     * Checks whether a key is currently served from memory.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @return true if the key is indexed
+     */
+    public boolean isIndexed(String productId, String layoutId) {
+        return entries.containsKey(new EventKey(productId, layoutId));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loader.shutdownNow();
+    }
+
+    /**
+     * Loads all timestamps for a key from the database and publishes the entry.
+     * <p>
+     * Both columns are read from one repeatable-read snapshot. Events recorded
+     * while the load is running are buffered with their row ids; those the
+     * snapshot already holds are dropped, because they were committed before it
+     * was taken, and the rest are merged before the loaded entry becomes visible.
+     *
+     * @param key the key to load
+     */
+    void load(EventKey key) {
+        Pending pending = new Pending();
+        if (entries.containsKey(key) || loading.putIfAbsent(key, pending) != null) {
+            return;
+        }
+        try {
+            Entry loaded = snapshotTransaction.execute(status -> publish(key, pending, new Entry(
+                    collect(viewRepository.streamTimestamps(key.productId(), key.layoutId())),
+                    collect(paymentRepository.streamTimestamps(key.productId(), key.layoutId())))));
+            log.info("Indexed {}:{} ({} bytes)", key.productId(), key.layoutId(), loaded.sizeInBytes());
+            enforceBudget(key);
+        } catch (RuntimeException e) {
+            loading.remove(key);
+            log.warn("Failed to index {}:{}", key.productId(), key.layoutId(), e);
+        }
+    }
+
+    /**
+     * Merges the pending events the snapshot does not hold and publishes the entry.
+     * <p>
+     * Must run inside the snapshot transaction. The ids are looked up outside the
+     * lock, so it repeats until no event arrived during the previous lookup.
+     */
+    private Entry publish(EventKey key, Pending pending, Entry snapshot) {
+        while (true) {
+            int views;
+            int payments;
+            List<Long> viewIds;
+            List<Long> paymentIds;
+            synchronized (pending) {
+                viewIds = pending.views.unchecked();
+                paymentIds = pending.payments.unchecked();
+                if (viewIds.isEmpty() && paymentIds.isEmpty()) {
+                    pending.views.mergeInto(snapshot.views);
+                    pending.payments.mergeInto(snapshot.payments);
+                    entries.put(key, snapshot);
+                    loading.remove(key);
+                    return snapshot;
+                }
+                views = pending.views.size;
+                payments = pending.payments.size;
+            }
+            Set<Long> loadedViews = existing(viewRepository::findExistingIds, viewIds);
+            Set<Long> loadedPayments = existing(paymentRepository::findExistingIds, paymentIds);
+            synchronized (pending) {
+                pending.views.drop(views, loadedViews);
+                pending.payments.drop(payments, loadedPayments);
+            }
+        }
+    }
+
+    private Entry lookup(EventKey key) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.lastAccess = System.nanoTime();
+            return entry;
+        }
+        registerMiss(key);
+        return null;
+    }
+
+    private void registerMiss(EventKey key) {
+        int threshold = properties.getAdmitAfterMisses();
+        if (threshold <= 0 || loading.containsKey(key)) {
+            return;
+        }
+        if (misses.size() > MAX_TRACKED_MISSES) {
+            misses.clear();
+        }
+        if (misses.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet() >= threshold) {
+            misses.remove(key);
+            loader.execute(() -> load(key));
+        }
+    }
+
+    private void record(EventKey key, long id, LocalDateTime timestamp, boolean view) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long micros = TimestampColumn.toMicros(timestamp);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            Pending pending = loading.get(key);
+            if (pending == null) {
+                return;
+            }
+            synchronized (pending) {
+                entry = entries.get(key);
+                if (entry == null) {
+                    (view ? pending.views : pending.payments).add(id, micros);
+                    return;
+                }
+            }
+        }
+        if ((view ? entry.views : entry.payments).add(micros) > 0) {
+            enforceBudget(key);
+        }
+    }
+
+    private void record(EventKey key, long[] ids, List<LocalDateTime> timestamps, boolean view) {
+        if (ids.length != timestamps.size()) {
+            throw new IllegalArgumentException("Got " + ids.length + " ids for " + timestamps.size() + " timestamps");
+        }
+        if (!properties.isEnabled() || timestamps.isEmpty()
+                || (!entries.containsKey(key) && !loading.containsKey(key))) {
+            return;
+        }
+        long[] micros = new long[timestamps.size()];
+        int size = 0;
+        for (LocalDateTime timestamp : timestamps) {
+            micros[size++] = TimestampColumn.toMicros(timestamp);
+        }
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            Pending pending = loading.get(key);
+            if (pending == null) {
+                return;
+            }
+            synchronized (pending) {
+                entry = entries.get(key);
+                if (entry == null) {
+                    PendingEvents events = view ? pending.views : pending.payments;
+                    for (int i = 0; i < size; i++) {
+                        events.add(ids[i], micros[i]);
+                    }
+                    return;
+                }
+            }
+        }
+        Arrays.sort(micros);
+        if ((view ? entry.views : entry.payments).addAll(micros, size) > 0) {
+            enforceBudget(key);
+        }
+    }
+
+    private void enforceBudget(EventKey justLoaded) {
+        long budget = properties.getMemoryBudget().toBytes();
+        long used = usedBytes();
+        while (used > budget) {
+            EventKey coldest = null;
+            long coldestAccess = Long.MAX_VALUE;
+            for (Map.Entry<EventKey, Entry> candidate : entries.entrySet()) {
+                if (!candidate.getKey().equals(justLoaded) && candidate.getValue().lastAccess < coldestAccess) {
+                    coldest = candidate.getKey();
+                    coldestAccess = candidate.getValue().lastAccess;
+                }
+            }
+            EventKey victim = coldest != null ? coldest : justLoaded;
+            Entry removed = entries.remove(victim);
+            if (removed == null) {
+                break;
+            }
+            used -= removed.sizeInBytes();
+            log.info("Evicted {}:{} from event index", victim.productId(), victim.layoutId());
+        }
+    }
+
+    private static Set<Long> existing(Function<Collection<Long>, List<Long>> query, List<Long> ids) {
+        Set<Long> found = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            found.addAll(query.apply(ids.subList(from, Math.min(ids.size(), from + ID_BATCH_SIZE))));
+        }
+        return found;
+    }
+
+    private static TimestampColumn collect(Stream<LocalDateTime> timestamps) {
+        try (timestamps) {
+            long[] buffer = new long[1024];
+            int size = 0;
+            for (Iterator<LocalDateTime> it = timestamps.iterator(); it.hasNext(); ) {
+                if (size == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, size * 2);
+                }
+                buffer[size++] = TimestampColumn.toMicros(it.next());
+            }
+            return TimestampColumn.of(Arrays.copyOf(buffer, size), size);
+        }
+    }
+
+    /**
+     * Identifies an indexed product/layout pair.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     */
+    record EventKey(String productId, String layoutId) {
+    }
+
+    private static final class Entry {
+        private final TimestampColumn views;
+        private final TimestampColumn payments;
+        private volatile long lastAccess = System.nanoTime();
+
+        private Entry(TimestampColumn views, TimestampColumn payments) {
+            this.views = views;
+            this.payments = payments;
+        }
+
+        private long sizeInBytes() {
+            return views.sizeInBytes() + payments.sizeInBytes();
+        }
+    }
+
+    private static final class Pending {
+        private final PendingEvents views = new PendingEvents();
+        private final PendingEvents payments = new PendingEvents();
+    }
+
+    /**
+     * Events of one kind recorded while their key is loading. Those before
+     * {@code checked} have been looked up in the snapshot and were not in it.
+     */
+    private static final class PendingEvents {
+        private long[] ids = new long[16];
+        private long[] micros = new long[16];
+        private int size;
+        private int checked;
+
+        private void add(long id, long timestamp) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                micros = Arrays.copyOf(micros, size * 2);
+            }
+            ids[size] = id;
+            micros[size++] = timestamp;
+        }
+
+        private List<Long> unchecked() {
+            List<Long> unchecked = new ArrayList<>();
+            for (int i = checked; i < size; i++) {
+                if (ids[i] >= 0) {
+                    unchecked.add(ids[i]);
+                }
+            }
+            return unchecked;
+        }
+
+        private void drop(int upTo, Set<Long> loaded) {
+            int kept = checked;
+            for (int i = checked; i < size; i++) {
+                if (i < upTo && loaded.contains(ids[i])) {
+                    continue;
+                }
+                ids[kept] = ids[i];
+                micros[kept++] = micros[i];
+            }
+            checked = upTo - (size - kept);
+            size = kept;
+        }
+
+        private void mergeInto(TimestampColumn column) {
+            long[] sorted = Arrays.copyOf(micros, size);
+            Arrays.sort(sorted);
+            column.addAll(sorted, size);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.EventDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service for recording incoming view and payment events.
+ * <p>
+ * Persists each event in the configured {@link EventStore} and, once it is
+ * stored, propagates it to the in-memory structures that answer reports
+ * without touching the store.
+ *
+ * @see EventIndex
+ * @see PrecomputedReportCache
+ * @see CacheInvalidationBroadcaster
+ * @see LiveReportRegistry
+ */
+@Service
+@RequiredArgsConstructor
+public class EventIngestionService {
+    private final EventStore eventStore;
+    private final EventIndex eventIndex;
+    private final PrecomputedReportCache precomputedCache;
+    private final CacheInvalidationBroadcaster invalidationBroadcaster;
+    private final LiveReportRegistry liveReports;
+
+    /**
+     * Records a view event.
+     * <p>
+     * A missing timestamp defaults to the current time.
+     *
+     * @param event the view to record
+     */
+    public void recordView(EventDto event) {
+        LocalDateTime timestamp = event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now();
+        long id = eventStore.recordView(event.getProductId(), event.getLayoutId(), timestamp);
+        viewStored(event.getProductId(), event.getLayoutId(), id, timestamp);
+    }
+
+    /**
+     * Records a payment event.
+     * <p>
+     * A missing timestamp defaults to the current time.
+     *
+     * @param event the payment to record
+     */
+    public void recordPayment(EventDto event) {
+        LocalDateTime timestamp = event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now();
+        long id = eventStore.recordPayment(event.getProductId(), event.getLayoutId(), timestamp);
+        paymentStored(event.getProductId(), event.getLayoutId(), id, timestamp);
+    }
+
+    /**
+     * Propagates a view that has been stored to the in-memory structures.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param id the row id of the view, or {@code -1} if the store assigns none
+     * @param timestamp when the view occurred
+     */
+    void viewStored(String productId, String layoutId, long id, LocalDateTime timestamp) {
+        eventIndex.recordView(productId, layoutId, id, timestamp);
+        precomputedCache.invalidate(productId, layoutId, timestamp);
+        invalidationBroadcaster.record(productId, layoutId, timestamp);
+        liveReports.recordView(productId, layoutId, timestamp);
+    }
+
+    /**
+     * Propagates a payment that has been stored to the in-memory structures.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param id the row id of the payment, or {@code -1} if the store assigns none
+     * @param timestamp when the payment occurred
+     */
+    void paymentStored(String productId, String layoutId, long id, LocalDateTime timestamp) {
+        eventIndex.recordPayment(productId, layoutId, id, timestamp);
+        precomputedCache.invalidate(productId, layoutId, timestamp);
+        invalidationBroadcaster.record(productId, layoutId, timestamp);
+        liveReports.recordPayment(productId, layoutId, timestamp);
+    }
+
+    /**
+     * Propagates a batch of stored views of one product and layout to the
+     * in-memory structures, merging them into the event index at once.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param ids the row ids of the views
+     * @param timestamps when the views occurred, in the order of {@code ids}
+     */
+    void viewsStored(String productId, String layoutId, long[] ids, List<LocalDateTime> timestamps) {
+        eventIndex.recordViews(productId, layoutId, ids, timestamps);
+        for (LocalDateTime timestamp : timestamps) {
+            precomputedCache.invalidate(productId, layoutId, timestamp);
+            invalidationBroadcaster.record(productId, layoutId, timestamp);
+            liveReports.recordView(productId, layoutId, timestamp);
+        }
+    }
+
+    /**
+     * Propagates a batch of stored payments of one product and layout to the
+     * in-memory structures, merging them into the event index at once.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param ids the row ids of the payments
+     * @param timestamps when the payments occurred, in the order of {@code ids}
+     */
+    void paymentsStored(String productId, String layoutId, long[] ids, List<LocalDateTime> timestamps) {
+        eventIndex.recordPayments(productId, layoutId, ids, timestamps);
+        for (LocalDateTime timestamp : timestamps) {
+            precomputedCache.invalidate(productId, layoutId, timestamp);
+            invalidationBroadcaster.record(productId, layoutId, timestamp);
+            liveReports.recordPayment(productId, layoutId, timestamp);
+        }
+    }
+}
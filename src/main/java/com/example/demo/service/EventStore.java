@@ -0,0 +1,60 @@
+package com.example.demo.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Storage backend for view and payment events.
+ * <p>
+ * Implementations persist ingested events and answer the range counts that
+ * reports are computed from. Ranges are inclusive at both ends. Counts for a
+ * product or layout without any recorded event are zero.
+ *
+ * @see JpaEventStore
+ * @see SegmentedEventStore
+ */
+public interface EventStore {
+
+    /**
+     * Persists a view event.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param timestamp the event time
+     * @return the row id of the stored view, or {@code -1} if the store does not
+     *         keep events in the tables the {@link EventIndex} is loaded from
+     */
+    long recordView(String productId, String layoutId, LocalDateTime timestamp);
+
+    /**
+     * Persists a payment event.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param timestamp the event time
+     * @return the row id of the stored payment, or {@code -1} if the store does not
+     *         keep events in the tables the {@link EventIndex} is loaded from
+     */
+    long recordPayment(String productId, String layoutId, LocalDateTime timestamp);
+
+    /**
+     * Counts the views of a product and layout within a range.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param startDate the start of the range (inclusive)
+     * @param endDate the end of the range (inclusive)
+     * @return number of matching views
+     */
+    long countViews(String productId, String layoutId, LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Counts the payments of a product and layout within a range.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param startDate the start of the range (inclusive)
+     * @param endDate the end of the range (inclusive)
+     * @return number of matching payments
+     */
+    long countPayments(String productId, String layoutId, LocalDateTime startDate, LocalDateTime endDate);
+}
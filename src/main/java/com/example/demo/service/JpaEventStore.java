@@ -0,0 +1,74 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Payment;
+import com.example.demo.entity.View;
+import com.example.demo.repository.PaymentRepository;
+import com.example.demo.repository.ViewRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.OptionalLong;
+
+/**
+ * {@link EventStore} that keeps events as rows of the {@code view} and {@code payment} tables.
+ * <p>
+ * Counts are answered from the {@link EventIndex} when the requested
+ * product/layout pair is held in memory, and by the database otherwise.
+ * Identifiers are translated to dictionary keys before a query is sent; an
+ * identifier without a key has no events and is answered without a query.
+ *
+ * @see DimensionDictionary
+ */
+@Component
+@ConditionalOnProperty(prefix = "report.event-store", name = "backend", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaEventStore implements EventStore {
+    private final ViewRepository viewRepository;
+    private final PaymentRepository paymentRepository;
+    private final EventIndex eventIndex;
+    private final DimensionDictionary dictionary;
+
+    @Override
+    public long recordView(String productId, String layoutId, LocalDateTime timestamp) {
+        View view = new View();
+        view.setProductKey(dictionary.productKey(productId));
+        view.setLayoutKey(dictionary.layoutKey(layoutId));
+        view.setTimestamp(timestamp);
+        return viewRepository.save(view).getId();
+    }
+
+    @Override
+    public long recordPayment(String productId, String layoutId, LocalDateTime timestamp) {
+        Payment payment = new Payment();
+        payment.setProductKey(dictionary.productKey(productId));
+        payment.setLayoutKey(dictionary.layoutKey(layoutId));
+        payment.setTimestamp(timestamp);
+        return paymentRepository.save(payment).getId();
+    }
+
+    @Override
+    public long countViews(String productId, String layoutId, LocalDateTime startDate, LocalDateTime endDate) {
+        OptionalLong indexed = eventIndex.countViews(productId, layoutId, startDate, endDate);
+        if (indexed.isPresent()) {
+            return indexed.getAsLong();
+        }
+        return dictionary.findKeys(productId, layoutId)
+                .map(keys -> viewRepository.countByProductKeyAndLayoutKeyAndTimestampBetween(
+                        keys.product(), keys.layout(), startDate, endDate))
+                .orElse(0L);
+    }
+
+    @Override
+    public long countPayments(String productId, String layoutId, LocalDateTime startDate, LocalDateTime endDate) {
+        OptionalLong indexed = eventIndex.countPayments(productId, layoutId, startDate, endDate);
+        if (indexed.isPresent()) {
+            return indexed.getAsLong();
+        }
+        return dictionary.findKeys(productId, layoutId)
+                .map(keys -> paymentRepository.countByProductKeyAndLayoutKeyAndTimestampBetween(
+                        keys.product(), keys.layout(), startDate, endDate))
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,321 @@
+package com.example.demo.service;
+
+import com.example.demo.config.LiveReportProperties;
+import com.example.demo.entity.ReportRequest;
+import com.example.demo.entity.ReportResult;
+import com.example.demo.repository.ReportRequestRepository;
+import com.example.demo.repository.ReportResultRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Maintains the counts of live reports as new events arrive.
+ * <p>
+ * A live report is computed once up to the moment it starts being tracked; from
+ * then on every ingested event inside its range increments a {@link LongAdder}
+ * on this node, so recording an event never contends on a lock and reading the
+ * latest counts needs no scan.
+ *
+ * <p>Each flush adds the counts gathered since the previous flush to the stored
+ * result with a single atomic update and reads the totals back, which then
+ * include the events counted by every other node. Subscribers are notified of
+ * the new totals. Nodes discover live reports created elsewhere, or before a
+ * restart, on their next flush and count their own events from then on.
+ *
+ * <p>A report stops being tracked one flush interval after its range has ended.
+ *
+ * @see LiveReportProperties
+ * @see LiveReportUpdate
+ */
+@Slf4j
+@Component
+public class LiveReportRegistry {
+    private final ReportRequestRepository requestRepository;
+    private final ReportResultRepository resultRepository;
+    private final LiveReportProperties properties;
+    private final TransactionTemplate transaction;
+
+    private final Map<UUID, LiveCounter> counters = new ConcurrentHashMap<>();
+    private final Map<SeriesKey, List<LiveCounter>> bySeries = new ConcurrentHashMap<>();
+    private final Map<UUID, List<Consumer<LiveReportUpdate>>> subscribers = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the registry.
+     *
+     * @param requestRepository repository used to discover live reports
+     * @param resultRepository repository the counts are flushed to
+     * @param properties live report configuration
+     * @param transactionManager transaction manager for the flushes
+     */
+    public LiveReportRegistry(ReportRequestRepository requestRepository,
+                              ReportResultRepository resultRepository,
+                              LiveReportProperties properties,
+                              PlatformTransactionManager transactionManager) {
+        this.requestRepository = requestRepository;
+        this.resultRepository = resultRepository;
+        this.properties = properties;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Starts counting the events of a live report on this node.
+     * <p>
+     * Events from {@code countFrom} to the end of the report's range are counted;
+     * earlier events are expected to be part of the stored result. A counter left
+     * by an earlier computation of the report that counts from another instant is
+     * replaced together with its pending counts, since the new result covers them.
+     *
+     * @param request the live report
+     * @param countFrom the first event timestamp to count
+     */
+    public void track(ReportRequest request, LocalDateTime countFrom) {
+        register(request, countFrom, true);
+    }
+
+    /**
+     * Stops counting a live report whose computation was rolled back.
+     * <p>
+     * Subscribers are kept, as the report will be computed again. A counter
+     * registered since by a newer computation is left alone.
+     *
+     * @param reportId the report
+     * @param countFrom the instant the rolled back computation counted from
+     */
+    public void discard(UUID reportId, LocalDateTime countFrom) {
+        LiveCounter counter = counters.get(reportId);
+        if (counter != null && counter.from.equals(countFrom) && counters.remove(reportId, counter)) {
+            removeFromSeries(counter);
+        }
+    }
+
+    /**
+     * Stops tracking a report and ends its subscriptions.
+     *
+     * @param reportId the report
+     */
+    public void untrack(UUID reportId) {
+        LiveCounter counter = counters.remove(reportId);
+        if (counter != null) {
+            removeFromSeries(counter);
+        }
+        publish(new LiveReportUpdate(reportId, counter == null ? null : counter.current(), true));
+    }
+
+    /**
+     * Counts a newly ingested view towards the live reports it falls into.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param timestamp the view timestamp
+     */
+    public void recordView(String productId, String layoutId, LocalDateTime timestamp) {
+        record(productId, layoutId, timestamp, true);
+    }
+
+    /**
+     * Counts a newly ingested payment towards the live reports it falls into.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param timestamp the payment timestamp
+     */
+    public void recordPayment(String productId, String layoutId, LocalDateTime timestamp) {
+        record(productId, layoutId, timestamp, false);
+    }
+
+    /**
+     * Returns the latest counts of a live report.
+     *
+     * @param reportId the report
+     * @return the counts, or empty if the report is not tracked on this node or has
+     *         not been flushed yet
+     */
+    public Optional<RatioEstimate> current(UUID reportId) {
+        LiveCounter counter = counters.get(reportId);
+        return counter == null ? Optional.empty() : Optional.ofNullable(counter.current());
+    }
+
+    /**
+     * Checks whether a report is tracked on this node.
+     *
+     * @param reportId the report
+     * @return true if the report is tracked
+     */
+    public boolean isTracked(UUID reportId) {
+        return counters.containsKey(reportId);
+    }
+
+    /**
+     * Registers a listener for the updates of a live report.
+     * <p>
+     * A listener that throws is removed.
+     *
+     * @param reportId the report
+     * @param listener receives an update after every flush that changed the counts
+     * @return an action that removes the listener
+     */
+    public Runnable subscribe(UUID reportId, Consumer<LiveReportUpdate> listener) {
+        subscribers.computeIfAbsent(reportId, key -> new CopyOnWriteArrayList<>()).add(listener);
+        return () -> subscribers.computeIfPresent(reportId, (key, list) -> {
+            list.remove(listener);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    /**
+     * Discovers open live reports, writes the pending counts and notifies subscribers.
+     */
+    @Scheduled(fixedDelayString = "${report.live.flush-interval:5s}")
+    public void flush() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            requestRepository.findOpenLiveReports(now).forEach(request -> register(request, now, false));
+        } catch (RuntimeException e) {
+            log.warn("Failed to discover live reports", e);
+        }
+        for (LiveCounter counter : counters.values()) {
+            try {
+                flush(counter, now);
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush live report {}", counter.reportId, e);
+            }
+        }
+    }
+
+    private void flush(LiveCounter counter, LocalDateTime now) {
+        long views = counter.views.sumThenReset();
+        long payments = counter.payments.sumThenReset();
+        boolean pending = views != 0 || payments != 0;
+        Flushed flushed;
+        try {
+            flushed = transaction.execute(status -> new Flushed(
+                    pending ? resultRepository.addCounts(counter.reportId, views, Math.toIntExact(payments)) : 0,
+                    resultRepository.findByRequestId(counter.reportId)));
+        } catch (RuntimeException e) {
+            counter.views.add(views);
+            counter.payments.add(payments);
+            throw e;
+        }
+        if (flushed.updated() == 0) {
+            counter.views.add(views);
+            counter.payments.add(payments);
+        }
+        if (flushed.stored().isEmpty()) {
+            if (!requestRepository.existsById(counter.reportId)) {
+                untrack(counter.reportId);
+            }
+            return;
+        }
+
+        ReportResult stored = flushed.stored().get();
+        Totals totals = new Totals(stored.getViewCount() == null ? 0 : stored.getViewCount(),
+                stored.getPaymentCount() == null ? 0 : stored.getPaymentCount());
+        boolean changed = !totals.equals(counter.totals);
+        counter.totals = totals;
+        if (counter.end.plus(properties.getFlushInterval()).isBefore(now)) {
+            untrack(counter.reportId);
+        } else if (changed) {
+            publish(new LiveReportUpdate(counter.reportId, counter.current(), false));
+        }
+    }
+
+    private void register(ReportRequest request, LocalDateTime countFrom, boolean replace) {
+        if (!properties.isEnabled() || request.getEndDate().isBefore(countFrom)) {
+            return;
+        }
+        LiveCounter counter = new LiveCounter(request.getId(),
+                new SeriesKey(request.getProductId(), request.getLayoutId()), countFrom, request.getEndDate());
+        LiveCounter previous = counters.putIfAbsent(counter.reportId, counter);
+        if (previous != null) {
+            if (!replace || previous.from.equals(countFrom) || !counters.replace(counter.reportId, previous, counter)) {
+                return;
+            }
+            removeFromSeries(previous);
+        }
+        bySeries.computeIfAbsent(counter.series, key -> new CopyOnWriteArrayList<>()).add(counter);
+    }
+
+    private void removeFromSeries(LiveCounter counter) {
+        bySeries.computeIfPresent(counter.series, (key, list) -> {
+            list.remove(counter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private void record(String productId, String layoutId, LocalDateTime timestamp, boolean view) {
+        List<LiveCounter> live = bySeries.get(new SeriesKey(productId, layoutId));
+        if (live == null) {
+            return;
+        }
+        for (LiveCounter counter : live) {
+            if (!timestamp.isBefore(counter.from) && !timestamp.isAfter(counter.end)) {
+                (view ? counter.views : counter.payments).increment();
+            }
+        }
+    }
+
+    private void publish(LiveReportUpdate update) {
+        List<Consumer<LiveReportUpdate>> listeners = update.closed()
+                ? subscribers.remove(update.reportId())
+                : subscribers.get(update.reportId());
+        if (listeners == null) {
+            return;
+        }
+        for (Consumer<LiveReportUpdate> listener : listeners) {
+            try {
+                listener.accept(update);
+            } catch (RuntimeException e) {
+                listeners.remove(listener);
+                log.debug("Dropped subscriber of live report {}", update.reportId(), e);
+            }
+        }
+    }
+
+    private record SeriesKey(String productId, String layoutId) {
+    }
+
+    private record Totals(long views, long payments) {
+    }
+
+    private record Flushed(int updated, Optional<ReportResult> stored) {
+    }
+
+    private static final class LiveCounter {
+        private final UUID reportId;
+        private final SeriesKey series;
+        private final LocalDateTime from;
+        private final LocalDateTime end;
+        private final LongAdder views = new LongAdder();
+        private final LongAdder payments = new LongAdder();
+        private volatile Totals totals;
+
+        private LiveCounter(UUID reportId, SeriesKey series, LocalDateTime from, LocalDateTime end) {
+            this.reportId = reportId;
+            this.series = series;
+            this.from = from;
+            this.end = end;
+        }
+
+        private RatioEstimate current() {
+            Totals stored = totals;
+            return stored == null ? null
+                    : RatioEstimate.exact(stored.views() + views.sum(), stored.payments() + payments.sum());
+        }
+    }
+}
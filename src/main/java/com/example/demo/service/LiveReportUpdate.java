@@ -0,0 +1,16 @@
+package com.example.demo.service;
+
+import java.util.UUID;
+
+/**
+ * The latest counts of a live report, pushed to subscribers after each flush.
+ *
+ * @param reportId the live report
+ * @param estimate the exact counts so far, or null if the report stopped being tracked
+ *                 before its counts were loaded
+ * @param closed whether no further updates follow, because the report's range has
+ *               ended or the report was changed or deleted
+ * @see LiveReportRegistry
+ */
+public record LiveReportUpdate(UUID reportId, RatioEstimate estimate, boolean closed) {
+}
@@ -0,0 +1,73 @@
+package com.example.demo.service;
+
+import com.example.demo.config.RateLimitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory {@link RateLimiter} for a single node.
+ * <p>
+ * Each bucket is one {@link AtomicLong} holding its TAT in {@link System#nanoTime()}
+ * units and is updated with a compare-and-set loop, so concurrent requests never
+ * block on a lock. Buckets that are full again are purged periodically; a request
+ * racing with the purge of its bucket is counted against a fresh bucket.
+ */
+@Component
+@ConditionalOnProperty(prefix = "report.rate-limit", name = "mode", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimiter implements RateLimiter {
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long intervalNanos;
+    private final long toleranceNanos;
+
+    /**
+     * Constructs the limiter from the configured rate and burst.
+     *
+     * @param properties rate limit configuration
+     */
+    public LocalRateLimiter(RateLimitProperties properties) {
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, properties.getPermitsPerMinute());
+        this.toleranceNanos = intervalNanos * Math.max(1, properties.getBurst());
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key) {
+        AtomicLong tat = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = System.nanoTime();
+            long current = tat.get();
+            long next = (current == Long.MIN_VALUE || current - now < 0 ? now : current) + intervalNanos;
+            long wait = next - now - toleranceNanos;
+            if (wait > 0) {
+                return RateLimitDecision.reject(Duration.ofNanos(wait));
+            }
+            if (tat.compareAndSet(current, next)) {
+                return RateLimitDecision.allow();
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that are full again and therefore equivalent to a fresh bucket.
+     */
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void purge() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(tat -> tat.get() - now < 0);
+    }
+
+    /**
+     * Returns the number of buckets currently held in memory.
+     *
+     * @return the bucket count
+     */
+    public int size() {
+        return buckets.size();
+    }
+}
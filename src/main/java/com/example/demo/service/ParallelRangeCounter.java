@@ -0,0 +1,164 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ParallelComputationProperties;
+import com.example.demo.utils.TimeRange;
+import com.example.demo.utils.TimeRanges;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts views and payments over long ranges by splitting them into sub-ranges.
+ * <p>
+ * Ranges longer than {@link ParallelComputationProperties#getSplitThreshold()} are
+ * cut into at most {@link ParallelComputationProperties#getMaxSubRanges()} sub-ranges
+ * aligned to {@link ParallelComputationProperties#getSplitGranularity()} and counted
+ * on a dedicated fork-join pool. Each sub-range query runs on a pool
+ * thread outside the caller's transaction and therefore on its own connection,
+ * so the database can scan the sub-ranges concurrently. Partial counts are summed
+ * as the tasks join.
+ *
+ * <p>The pool is bounded by {@link ParallelComputationProperties#getMaxParallelism()}
+ * and shared by all reports, which caps the connections taken by range splitting
+ * no matter how many reports are computed at once.
+ *
+ * <p>Sub-ranges are counted within the caller's current observation, so their
+ * queries join the trace of the report being computed.
+ *
+ * @see TimeRanges#split(LocalDateTime, LocalDateTime, Duration)
+ * @see ParallelComputationProperties
+ */
+@Component
+public class ParallelRangeCounter {
+    private final AnalyticsService analyticsService;
+    private final ParallelComputationProperties properties;
+    private final ObservationRegistry observationRegistry;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs the counter and its fork-join pool.
+     *
+     * @param analyticsService service used to count each sub-range
+     * @param properties split and parallelism configuration
+     * @param observationRegistry registry whose current observation the sub-range counts run in
+     */
+    public ParallelRangeCounter(AnalyticsService analyticsService, ParallelComputationProperties properties,
+                                ObservationRegistry observationRegistry) {
+        this.analyticsService = analyticsService;
+        this.properties = properties;
+        this.observationRegistry = observationRegistry;
+        this.pool = new ForkJoinPool(Math.max(1, properties.getMaxParallelism()), forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("report-range-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Counts views and payments within {@code [startDate, endDate]}.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param startDate the start of the range (inclusive)
+     * @param endDate the end of the range (inclusive)
+     * @return the exact counts and conversion ratio
+     */
+    public RatioEstimate count(String productId, String layoutId,
+                               LocalDateTime startDate, LocalDateTime endDate) {
+        if (properties.getMaxParallelism() <= 1
+                || Duration.between(startDate, endDate).compareTo(properties.getSplitThreshold()) <= 0) {
+            return RatioEstimate.exact(
+                    analyticsService.countViews(productId, layoutId, startDate, endDate),
+                    analyticsService.countPayments(productId, layoutId, startDate, endDate));
+        }
+        List<TimeRange> ranges = coalesce(
+                TimeRanges.split(startDate, endDate, properties.getSplitGranularity()), properties.getMaxSubRanges());
+        Observation parent = observationRegistry.getCurrentObservation();
+        long[] totals = pool.invoke(new CountTask(productId, layoutId, ranges, 0, ranges.size(), parent));
+        return RatioEstimate.exact(totals[0], totals[1]);
+    }
+
+    /**
+     * Merges runs of adjacent sub-ranges so that no more than {@code limit} remain.
+     *
+     * @param ranges contiguous sub-ranges in chronological order
+     * @param limit maximum number of sub-ranges to return
+     * @return the merged sub-ranges
+     */
+    private static List<TimeRange> coalesce(List<TimeRange> ranges, int limit) {
+        int size = ranges.size();
+        if (size <= limit || limit < 1) {
+            return ranges;
+        }
+        int perGroup = (size + limit - 1) / limit;
+        List<TimeRange> merged = new ArrayList<>((size + perGroup - 1) / perGroup);
+        for (int first = 0; first < size; first += perGroup) {
+            int last = Math.min(first + perGroup, size) - 1;
+            merged.add(new TimeRange(ranges.get(first).start(), ranges.get(last).end()));
+        }
+        return merged;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Counts a slice of the sub-ranges, halving it until a single sub-range remains.
+     * <p>
+     * Produces {@code {views, payments}}.
+     */
+    private final class CountTask extends RecursiveTask<long[]> {
+        private final String productId;
+        private final String layoutId;
+        private final List<TimeRange> ranges;
+        private final int from;
+        private final int to;
+        private final Observation parent;
+
+        private CountTask(String productId, String layoutId, List<TimeRange> ranges, int from, int to,
+                          Observation parent) {
+            this.productId = productId;
+            this.layoutId = layoutId;
+            this.ranges = ranges;
+            this.from = from;
+            this.to = to;
+            this.parent = parent;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from == 1) {
+                if (parent == null) {
+                    return countSubRange();
+                }
+                try (Observation.Scope scope = parent.openScope()) {
+                    return countSubRange();
+                }
+            }
+            int middle = (from + to) >>> 1;
+            CountTask left = new CountTask(productId, layoutId, ranges, from, middle, parent);
+            left.fork();
+            long[] right = new CountTask(productId, layoutId, ranges, middle, to, parent).compute();
+            long[] partial = left.join();
+            return new long[]{partial[0] + right[0], partial[1] + right[1]};
+        }
+
+        private long[] countSubRange() {
+            TimeRange range = ranges.get(from);
+            return new long[]{
+                    analyticsService.countViews(productId, layoutId, range.start(), range.end()),
+                    analyticsService.countPayments(productId, layoutId, range.start(), range.end())};
+        }
+    }
+}
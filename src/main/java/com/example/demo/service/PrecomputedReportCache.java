@@ -0,0 +1,139 @@
+package com.example.demo.service;
+
+import com.example.demo.config.PrecomputeProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exact counts of pre-computed report ranges.
+ * <p>
+ * Only ranges that had been over for at least {@link PrecomputeProperties#getSettleTime()}
+ * when they were computed are stored, so new events cannot change them. The
+ * exception is an event ingested late with an old timestamp.
+ * {@link #invalidate(String, String, LocalDateTime)} drops every cached range it
+ * falls into on this node, and {@link CacheInvalidationBroadcaster} does the same
+ * on every other node. Entries expire after {@link PrecomputeProperties#getTtl()}.
+ *
+ * @see ReportPrecomputer
+ */
+@Component
+public class PrecomputedReportCache {
+    private final PrecomputeProperties properties;
+    private final Map<RangeKey, Entry> entries = new ConcurrentHashMap<>();
+    private volatile LocalDateTime latestEnd = LocalDateTime.MIN;
+
+    /**
+     * Constructs the cache.
+     *
+     * @param properties pre-computation configuration
+     */
+    public PrecomputedReportCache(PrecomputeProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Looks up the counts of a range.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param startDate the start of the range
+     * @param endDate the end of the range
+     * @return the cached counts, or empty on a miss
+     */
+    public Optional<RatioEstimate> get(String productId, String layoutId,
+                                       LocalDateTime startDate, LocalDateTime endDate) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        RangeKey key = new RangeKey(productId, layoutId, startDate, endDate);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.expiresAt().isBefore(LocalDateTime.now())) {
+            entries.remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.estimate());
+    }
+
+    /**
+     * Stores the counts of a fully elapsed range.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param startDate the start of the range
+     * @param endDate the end of the range, which must be at least the settle time in the past
+     * @param estimate the exact counts
+     * @return true if the entry was stored
+     */
+    public boolean put(String productId, String layoutId,
+                       LocalDateTime startDate, LocalDateTime endDate, RatioEstimate estimate) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!endDate.isBefore(now.minus(properties.getSettleTime())) || !estimate.exact()) {
+            return false;
+        }
+        if (entries.size() >= properties.getMaxEntries()) {
+            entries.values().removeIf(entry -> entry.expiresAt().isBefore(now));
+            if (entries.size() >= properties.getMaxEntries()) {
+                return false;
+            }
+        }
+        entries.put(new RangeKey(productId, layoutId, startDate, endDate),
+                new Entry(estimate, now.plus(properties.getTtl())));
+        if (endDate.isAfter(latestEnd)) {
+            latestEnd = endDate;
+        }
+        return true;
+    }
+
+    /**
+     * Drops cached ranges that contain a newly ingested event.
+     * <p>
+     * Events newer than every cached range, which is the normal case, return at once.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param timestamp the event timestamp
+     */
+    public void invalidate(String productId, String layoutId, LocalDateTime timestamp) {
+        invalidate(productId, layoutId, timestamp, timestamp);
+    }
+
+    /**
+     * Drops cached ranges that overlap the timestamps of newly ingested events.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param from the earliest event timestamp
+     * @param to the latest event timestamp
+     */
+    public void invalidate(String productId, String layoutId, LocalDateTime from, LocalDateTime to) {
+        if (from.isAfter(latestEnd)) {
+            return;
+        }
+        entries.keySet().removeIf(key -> key.productId().equals(productId)
+                && key.layoutId().equals(layoutId)
+                && !to.isBefore(key.startDate())
+                && !from.isAfter(key.endDate()));
+    }
+
+    /**
+     * Returns the number of cached ranges.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private record RangeKey(String productId, String layoutId, LocalDateTime startDate, LocalDateTime endDate) {
+    }
+
+    private record Entry(RatioEstimate estimate, LocalDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.service;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a {@link RateLimiter} check.
+ *
+ * @param allowed whether the request may proceed
+ * @param retryAfter how long until the request would be allowed; zero when allowed
+ */
+public record RateLimitDecision(boolean allowed, Duration retryAfter) {
+
+    private static final RateLimitDecision ALLOWED = new RateLimitDecision(true, Duration.ZERO);
+
+    /**
+     * Returns the decision for an allowed request.
+     *
+     * @return the allowed decision
+     */
+    public static RateLimitDecision allow() {
+        return ALLOWED;
+    }
+
+    /**
+     * Creates the decision for a rejected request.
+     *
+     * @param retryAfter how long until a token becomes available
+     * @return the rejected decision
+     */
+    public static RateLimitDecision reject(Duration retryAfter) {
+        return new RateLimitDecision(false, retryAfter);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.service;
+
+/**
+ * Token bucket rate limiter keyed by an arbitrary string, typically the principal name.
+ * <p>
+ * Implementations use the generic cell rate algorithm: a bucket is represented by
+ * its theoretical arrival time (TAT), the instant at which it would be full again.
+ * A request is allowed if advancing the TAT by one emission interval keeps it
+ * within {@code burst} intervals of the current time. This is equivalent to a
+ * token bucket but needs a single number per key.
+ *
+ * @see LocalRateLimiter
+ * @see DatabaseRateLimiter
+ */
+public interface RateLimiter {
+
+    /**
+     * Takes one token from the bucket of the given key if available.
+     *
+     * @param key the bucket key
+     * @return whether the request is allowed and, if not, when to retry
+     */
+    RateLimitDecision tryAcquire(String key);
+}
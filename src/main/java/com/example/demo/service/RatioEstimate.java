@@ -0,0 +1,35 @@
+package com.example.demo.service;
+
+/**
+ * Estimated view and payment totals for a report range.
+ * <p>
+ * Exact computations produce a degenerate interval whose bounds equal the ratio.
+ *
+ * @param viewCount estimated number of views
+ * @param paymentCount estimated number of payments
+ * @param conversionRatio estimated payments per view
+ * @param lowerBound lower bound of the confidence interval for the ratio
+ * @param upperBound upper bound of the confidence interval for the ratio
+ * @param confidenceLevel confidence level of the interval, {@code 1} for exact results
+ * @param exact whether the counts were computed without sampling
+ */
+public record RatioEstimate(long viewCount,
+                            long paymentCount,
+                            double conversionRatio,
+                            double lowerBound,
+                            double upperBound,
+                            double confidenceLevel,
+                            boolean exact) {
+
+    /**
+     * Creates an estimate from exact counts.
+     *
+     * @param viewCount the number of views
+     * @param paymentCount the number of payments
+     * @return the exact estimate
+     */
+    public static RatioEstimate exact(long viewCount, long paymentCount) {
+        double ratio = (viewCount == 0) ? 0 : (double) paymentCount / viewCount;
+        return new RatioEstimate(viewCount, paymentCount, ratio, ratio, ratio, 1, true);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.demo.service;
+
+import com.example.demo.config.RecordingProperties;
+import com.example.demo.dto.RecordingDto;
+import com.example.demo.dto.RecordingRequestDto;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Starts, stops and dumps Java Flight Recorder recordings of this JVM.
+ * <p>
+ * Recordings are looked up in the {@link FlightRecorder} itself rather than kept
+ * here. This also makes recordings started with {@code -XX:StartFlightRecording}
+ * available. Besides the JVM's own events, recordings include
+ * {@link ReportComputationEvent} and {@link AnalyticsQueryEvent}. This lets GC
+ * pauses and lock contention be lined up with the reports computed at the time.
+ *
+ * @see RecordingProperties
+ */
+@Service
+@RequiredArgsConstructor
+public class RecordingService {
+    private final RecordingProperties properties;
+
+    /**
+     * Starts a recording.
+     *
+     * @param request the recording's name, settings and limits; unset fields take the configured defaults
+     * @return the started recording
+     * @throws IllegalArgumentException if the settings are not a predefined configuration
+     */
+    public RecordingDto start(RecordingRequestDto request) {
+        String settings = request.getSettings() != null ? request.getSettings() : properties.getSettings();
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown recording settings: " + settings);
+        }
+        Recording recording = new Recording(configuration);
+        recording.setName(request.getName() != null ? request.getName() : "report-service");
+        recording.setToDisk(true);
+        recording.setMaxAge(request.getMaxAge() != null ? request.getMaxAge() : properties.getMaxAge());
+        recording.setMaxSize(request.getMaxSize() != null ? request.getMaxSize() : properties.getMaxSize().toBytes());
+        if (request.getDuration() != null) {
+            recording.setDuration(request.getDuration());
+        }
+        recording.start();
+        return toDto(recording);
+    }
+
+    /**
+     * Lists the recordings of this JVM that are not closed.
+     *
+     * @return the recordings
+     */
+    public List<RecordingDto> list() {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream().map(RecordingService::toDto).toList();
+    }
+
+    /**
+     * Looks up a recording.
+     *
+     * @param id the recording's identifier
+     * @return the recording, if it exists and is not closed
+     */
+    public Optional<RecordingDto> get(long id) {
+        return find(id).map(RecordingService::toDto);
+    }
+
+    /**
+     * Stops a running recording. Its data can still be dumped until it is closed.
+     *
+     * @param id the recording's identifier
+     * @return the stopped recording, or empty if it does not exist
+     * @throws IllegalStateException if the recording is not running
+     */
+    public Optional<RecordingDto> stop(long id) {
+        return find(id).map(recording -> {
+            if (recording.getState() != RecordingState.RUNNING) {
+                throw new IllegalStateException("Recording " + id + " is " + recording.getState());
+            }
+            recording.stop();
+            return toDto(recording);
+        });
+    }
+
+    /**
+     * Writes the data of a running or stopped recording to a temporary file.
+     * <p>
+     * A running recording keeps running. The caller deletes the file.
+     *
+     * @param id the recording's identifier
+     * @return the {@code .jfr} file, or empty if the recording does not exist
+     * @throws IllegalStateException if the recording has not started
+     * @throws IOException if the file cannot be written
+     */
+    public Optional<Path> dump(long id) throws IOException {
+        Optional<Recording> found = find(id);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        Recording recording = found.get();
+        if (recording.getState() != RecordingState.RUNNING && recording.getState() != RecordingState.STOPPED) {
+            throw new IllegalStateException("Recording " + id + " is " + recording.getState());
+        }
+        Path file = Files.createTempFile("recording-" + id + "-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return Optional.of(file);
+    }
+
+    /**
+     * Closes a recording, stopping it if needed and releasing its data.
+     *
+     * @param id the recording's identifier
+     * @return whether the recording existed
+     */
+    public boolean close(long id) {
+        Optional<Recording> found = find(id);
+        found.ifPresent(Recording::close);
+        return found.isPresent();
+    }
+
+    private static Optional<Recording> find(long id) {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getId() == id)
+                .findFirst();
+    }
+
+    private static RecordingDto toDto(Recording recording) {
+        RecordingDto dto = new RecordingDto();
+        dto.setId(recording.getId());
+        dto.setName(recording.getName());
+        dto.setState(recording.getState().name());
+        dto.setStartTime(recording.getStartTime());
+        dto.setStopTime(recording.getStopTime());
+        dto.setDuration(recording.getDuration());
+        dto.setMaxAge(recording.getMaxAge());
+        dto.setMaxSize(recording.getMaxSize());
+        dto.setSize(recording.getSize());
+        return dto;
+    }
+}
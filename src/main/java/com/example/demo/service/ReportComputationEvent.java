@@ -0,0 +1,78 @@
+package com.example.demo.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Flight Recorder event spanning the computation of one report.
+ * <p>
+ * Emitted by {@link ReportService#calculateAndSaveReportResult} with the time
+ * spent in each phase, so that GC pauses and lock contention in a recording can
+ * be attributed to a specific heavy report. Fields are only filled in when the
+ * event is committed to a running recording.
+ */
+@Name("com.example.demo.ReportComputation")
+@Label("Report Computation")
+@Category({"Report Service", "Reports"})
+@Description("Computation of a report's counts and conversion ratio")
+@StackTrace(false)
+final class ReportComputationEvent extends Event {
+
+    @Label("Report ID")
+    String reportId;
+
+    @Label("Product ID")
+    String productId;
+
+    @Label("Layout ID")
+    String layoutId;
+
+    @Label("Range Length")
+    @Timespan(Timespan.SECONDS)
+    long rangeLength;
+
+    @Label("Approximate")
+    boolean approximate;
+
+    @Label("Live")
+    boolean live;
+
+    @Label("Views")
+    @Description("Views counted, or estimated for an approximate report")
+    long viewCount;
+
+    @Label("Payments")
+    @Description("Payments counted, or estimated for an approximate report")
+    long paymentCount;
+
+    @Label("Count Duration")
+    @Timespan
+    long countDuration;
+
+    @Label("Save Duration")
+    @Timespan
+    long saveDuration;
+
+    @Label("Publish Duration")
+    @Timespan
+    long publishDuration;
+
+    /**
+     * Returns the length of a range in seconds for the {@code rangeLength} fields.
+     *
+     * @param startDate the start of the range, may be null
+     * @param endDate the end of the range, may be null
+     * @return the length, or 0 if either end is missing
+     */
+    static long seconds(LocalDateTime startDate, LocalDateTime endDate) {
+        return startDate == null || endDate == null ? 0 : Duration.between(startDate, endDate).toSeconds();
+    }
+}
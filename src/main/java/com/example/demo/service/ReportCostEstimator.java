@@ -0,0 +1,110 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ApproximationProperties;
+import com.example.demo.config.ReportLaneProperties;
+import com.example.demo.entity.ReportRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estimates how many events a report will scan and assigns it a {@link ReportLane}.
+ * <p>
+ * The estimate is the scanned range length multiplied by the product/layout's
+ * event density around its end. Report ends are grouped into periods as long as
+ * the {@link ReportLaneProperties#getDensityWindow()}; the density of a period is
+ * the number of views in the window before its end (or before now, for the
+ * current period) and is cached per key and period for
+ * {@link ReportLaneProperties#getDensityTtl()}. Approximate reports only scan
+ * their sampled buckets, so their range is capped accordingly.
+ *
+ * @see ReportLaneProperties
+ */
+@Component
+@RequiredArgsConstructor
+public class ReportCostEstimator {
+
+    private static final int MAX_CACHED_DENSITIES = 10_000;
+
+    private final AnalyticsService analyticsService;
+    private final ReportLaneProperties properties;
+    private final ApproximationProperties approximationProperties;
+
+    private final Map<DensityKey, Density> densities = new ConcurrentHashMap<>();
+
+    /**
+     * Chooses the lane for a report.
+     *
+     * @param request the report to classify
+     * @return {@link ReportLane#FAST} if the estimate is within the fast lane limit
+     */
+    public ReportLane classify(ReportRequest request) {
+        return classify(estimateEvents(request));
+    }
+
+    /**
+     * Chooses the lane for an already estimated report.
+     *
+     * @param estimatedEvents the report's estimated event count
+     * @return {@link ReportLane#FAST} if the estimate is within the fast lane limit
+     */
+    public ReportLane classify(long estimatedEvents) {
+        return estimatedEvents <= properties.getFastMaxEvents() ? ReportLane.FAST : ReportLane.BULK;
+    }
+
+    /**
+     * Estimates the number of events a report will scan.
+     *
+     * @param request the report to estimate
+     * @return the estimated event count
+     */
+    public long estimateEvents(ReportRequest request) {
+        Duration range = Duration.between(request.getStartDate(), request.getEndDate());
+        if (range.isNegative()) {
+            return 0;
+        }
+        if (request.isApproximate()) {
+            Duration sampled = approximationProperties.getBucket()
+                    .multipliedBy(approximationProperties.getSampleSize() + 1L);
+            if (sampled.compareTo(range) < 0) {
+                range = sampled;
+            }
+        }
+        double perSecond = density(request.getProductId(), request.getLayoutId(), request.getEndDate());
+        return (long) Math.ceil(perSecond * range.getSeconds());
+    }
+
+    private double density(String productId, String layoutId, LocalDateTime endDate) {
+        LocalDateTime current = LocalDateTime.now();
+        Duration window = properties.getDensityWindow();
+        long windowSeconds = Math.max(1, window.getSeconds());
+        long period = Math.floorDiv(
+                (endDate.isAfter(current) ? current : endDate).toEpochSecond(ZoneOffset.UTC), windowSeconds);
+        DensityKey key = new DensityKey(productId, layoutId, period);
+        long now = System.nanoTime();
+        Density cached = densities.get(key);
+        if (cached != null && now - cached.measuredAt() < properties.getDensityTtl().toNanos()) {
+            return cached.perSecond();
+        }
+        LocalDateTime periodEnd = LocalDateTime.ofEpochSecond((period + 1) * windowSeconds, 0, ZoneOffset.UTC);
+        LocalDateTime anchor = periodEnd.isAfter(current) ? current : periodEnd;
+        long views = analyticsService.countViews(productId, layoutId, anchor.minus(window), anchor);
+        double perSecond = (double) views / windowSeconds;
+        if (densities.size() > MAX_CACHED_DENSITIES) {
+            densities.clear();
+        }
+        densities.put(key, new Density(perSecond, now));
+        return perSecond;
+    }
+
+    private record DensityKey(String productId, String layoutId, long period) {
+    }
+
+    private record Density(double perSecond, long measuredAt) {
+    }
+}
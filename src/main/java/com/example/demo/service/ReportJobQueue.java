@@ -0,0 +1,92 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ReportRequest;
+import com.example.demo.entity.ReportStatus;
+import com.example.demo.repository.ReportRequestRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Job queue over the {@code report_request} table.
+ * <p>
+ * Pending reports are claimed in batches with {@code SELECT ... FOR UPDATE SKIP LOCKED}
+ * and marked with a lease in the same transaction, so concurrent workers on any
+ * number of nodes each receive a disjoint batch. A lease must be renewed while the
+ * report is computed; if its holder dies, the lease runs out and the report is
+ * claimed again by another worker.
+ *
+ * <p>Every claim counts as an attempt. A report that has used up its attempts
+ * without completing, because it fails or keeps taking its worker down, is
+ * marked {@link ReportStatus#FAILED} on its next claim instead of being handed
+ * out again.
+ *
+ * @see ReportWorker
+ * @see ReportRequestRepository#lockClaimable(LocalDateTime, int)
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportJobQueue {
+    private final ReportRequestRepository requestRepository;
+
+    /**
+     * Claims up to {@code limit} pending reports for a worker node.
+     * <p>
+     * Locked reports that already had {@code maxAttempts} claims are marked failed
+     * and left out, so fewer than {@code limit} reports may be returned even
+     * though more are pending.
+     *
+     * @param owner the worker node
+     * @param limit maximum number of reports to claim
+     * @param lease how long the claim stays valid without renewal
+     * @param maxAttempts number of claims after which a report is marked failed
+     * @return the claimed reports, oldest first
+     */
+    @Transactional
+    public List<ReportRequest> claim(String owner, int limit, Duration lease, int maxAttempts) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Boolean, List<ReportRequest>> exhausted = requestRepository.lockClaimable(now, limit).stream()
+                .collect(Collectors.partitioningBy(request -> request.getAttempts() >= maxAttempts));
+        if (!exhausted.get(true).isEmpty()) {
+            requestRepository.markFailed(exhausted.get(true).stream().map(ReportRequest::getId).toList());
+        }
+        List<ReportRequest> claimed = exhausted.get(false);
+        if (!claimed.isEmpty()) {
+            requestRepository.lease(claimed.stream().map(ReportRequest::getId).toList(), owner, now.plus(lease));
+        }
+        return claimed;
+    }
+
+    /**
+     * Extends the leases a worker node holds on reports in progress.
+     *
+     * @param ids the reports in progress
+     * @param owner the worker node
+     * @param lease how long the renewed claim stays valid
+     * @return number of leases renewed
+     */
+    @Transactional
+    public int renew(Collection<UUID> ids, String owner, Duration lease) {
+        return ids.isEmpty() ? 0 : requestRepository.renewLeases(ids, owner, LocalDateTime.now().plus(lease));
+    }
+
+    /**
+     * Releases leases so the reports can be claimed again without waiting for expiry.
+     *
+     * @param ids the reports to release
+     * @param owner the worker node
+     * @return number of leases released
+     */
+    @Transactional
+    public int release(Collection<UUID> ids, String owner) {
+        return ids.isEmpty() ? 0 : requestRepository.releaseLeases(ids, owner);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.service;
+
+/**
+ * Execution lanes for report computation, chosen by estimated cost.
+ *
+ * @see ReportCostEstimator
+ * @see ReportLaneDispatcher
+ */
+public enum ReportLane {
+    /**
+     * Cheap reports that should complete with low latency.
+     */
+    FAST,
+
+    /**
+     * Expensive reports computed in the background with limited concurrency.
+     */
+    BULK
+}
@@ -0,0 +1,129 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ReportLaneProperties;
+import com.example.demo.entity.ReportRequest;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Computes reports on per-lane thread pools.
+ * <p>
+ * Each {@link ReportLane} has its own fixed pool sized by {@link ReportLaneProperties},
+ * so a backlog of expensive reports only ever occupies the bulk lane while cheap
+ * reports keep flowing through the fast lane. Within that maximum, the lane's
+ * {@link AdaptiveLimiter} from {@link ReportLaneLimiters} lowers the number of
+ * concurrent computations when database latency degrades and raises it again as
+ * the database keeps up.
+ *
+ * <p>Reports reach the lanes from two paths:
+ * <ul>
+ *   <li>{@link ReportWorker} submits every claimed report with its estimated lane</li>
+ *   <li>Reports that {@link ReportService} does not compute on the request thread,
+ *       because they are too expensive or the fast lane has no free slot, are
+ *       announced with a {@link ReportQueuedEvent} and run in its lane once the
+ *       creating transaction has committed</li>
+ * </ul>
+ *
+ * @see ReportCostEstimator
+ */
+@Slf4j
+@Component
+public class ReportLaneDispatcher {
+    private final ReportService reportService;
+    private final ReportCostEstimator costEstimator;
+    private final ComputationAdmission admission;
+    private final ReportLaneLimiters limiters;
+    private final Map<ReportLane, ExecutorService> lanes = new EnumMap<>(ReportLane.class);
+
+    /**
+     * Constructs the dispatcher and one thread pool per lane.
+     *
+     * @param reportService service computing each report
+     * @param costEstimator estimator used to classify submitted reports
+     * @param admission tracker of in-flight computations
+     * @param limiters adaptive concurrency limits of the lanes
+     * @param properties lane configuration
+     */
+    public ReportLaneDispatcher(ReportService reportService,
+                                ReportCostEstimator costEstimator,
+                                ComputationAdmission admission,
+                                ReportLaneLimiters limiters,
+                                ReportLaneProperties properties) {
+        this.reportService = reportService;
+        this.costEstimator = costEstimator;
+        this.admission = admission;
+        this.limiters = limiters;
+        addLane(ReportLane.FAST, properties.getFastConcurrency());
+        addLane(ReportLane.BULK, properties.getBulkConcurrency());
+    }
+
+    /**
+     * Classifies a report and computes it in its lane.
+     *
+     * @param request the report to compute
+     * @return future completed with the report ID once the result is saved
+     */
+    public CompletableFuture<UUID> submit(ReportRequest request) {
+        long estimatedEvents = costEstimator.estimateEvents(request);
+        return submit(request.getId(), costEstimator.classify(estimatedEvents), estimatedEvents);
+    }
+
+    /**
+     * Computes a report in the given lane.
+     *
+     * @param reportId the report to compute
+     * @param lane the lane to run in
+     * @param estimatedEvents the report's estimated event count, which scales its latency sample
+     * @return future completed with the report ID once the result is saved
+     */
+    public CompletableFuture<UUID> submit(UUID reportId, ReportLane lane, long estimatedEvents) {
+        admission.started();
+        CompletableFuture<UUID> computation;
+        try {
+            AdaptiveLimiter limiter = limiters.get(lane);
+            computation = CompletableFuture.supplyAsync(
+                    () -> limiter.execute(() -> reportService.calculateAndSaveReportResult(reportId), estimatedEvents),
+                    lanes.get(lane));
+        } catch (RuntimeException e) {
+            computation = CompletableFuture.failedFuture(e);
+        }
+        return computation.whenComplete((id, failure) -> admission.finished());
+    }
+
+    /**
+     * Starts background computation of a report queued by {@link ReportService}.
+     *
+     * @param event the queued report
+     */
+    @TransactionalEventListener
+    public void onReportQueued(ReportQueuedEvent event) {
+        submit(event.reportId(), event.lane(), event.estimatedEvents()).whenComplete((id, failure) -> {
+            if (failure != null) {
+                log.error("Failed to compute report {} in {} lane", event.reportId(), event.lane(), failure);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lanes.values().forEach(ExecutorService::shutdown);
+    }
+
+    private void addLane(ReportLane lane, int concurrency) {
+        String name = lane.name().toLowerCase(Locale.ROOT);
+        AtomicInteger threads = new AtomicInteger();
+        lanes.put(lane, Executors.newFixedThreadPool(Math.max(1, concurrency),
+                runnable -> new Thread(runnable, "report-lane-" + name + "-" + threads.incrementAndGet())));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.service;
+
+import com.example.demo.config.AdaptiveConcurrencyProperties;
+import com.example.demo.config.ReportLaneProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The {@link AdaptiveLimiter} of each {@link ReportLane}.
+ * <p>
+ * Shared by the lane thread pools of {@link ReportLaneDispatcher} and by fast
+ * reports that {@link ReportService#createReport} computes on the request thread,
+ * so that one limit covers all computations in a lane.
+ */
+@Component
+public class ReportLaneLimiters {
+    private final Map<ReportLane, AdaptiveLimiter> limiters = new EnumMap<>(ReportLane.class);
+
+    /**
+     * Creates one limiter per lane, bounded by the lane's configured concurrency.
+     *
+     * @param properties lane configuration
+     * @param concurrencyProperties adaptive limit configuration
+     * @param meterRegistry registry receiving the limiter meters
+     */
+    public ReportLaneLimiters(ReportLaneProperties properties,
+                              AdaptiveConcurrencyProperties concurrencyProperties,
+                              MeterRegistry meterRegistry) {
+        add(ReportLane.FAST, properties.getFastConcurrency(), concurrencyProperties, meterRegistry);
+        add(ReportLane.BULK, properties.getBulkConcurrency(), concurrencyProperties, meterRegistry);
+    }
+
+    /**
+     * Returns the limiter of a lane.
+     *
+     * @param lane the lane
+     * @return the lane's limiter
+     */
+    public AdaptiveLimiter get(ReportLane lane) {
+        return limiters.get(lane);
+    }
+
+    private void add(ReportLane lane, int concurrency,
+                     AdaptiveConcurrencyProperties concurrencyProperties, MeterRegistry meterRegistry) {
+        String name = lane.name().toLowerCase(Locale.ROOT);
+        limiters.put(lane, new AdaptiveLimiter(name, concurrency, concurrencyProperties, meterRegistry));
+    }
+}
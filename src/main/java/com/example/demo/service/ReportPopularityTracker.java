@@ -0,0 +1,85 @@
+package com.example.demo.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts how often each {@code (productId, layoutId, window shape)} is requested.
+ * <p>
+ * Counts are halved by {@link #decay()} after every pre-computation run, so
+ * popularity reflects recent days and windows nobody asks for anymore fade out.
+ *
+ * @see WindowShape
+ * @see ReportPrecomputer
+ */
+@Component
+public class ReportPopularityTracker {
+
+    private static final int MAX_TRACKED_WINDOWS = 100_000;
+
+    private final Map<PopularWindow, AtomicLong> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Records a request for a range.
+     * <p>
+     * Ranges without a {@link WindowShape} are ignored.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param startDate the start of the range
+     * @param endDate the end of the range
+     * @param requestDay the day the range was requested
+     */
+    public void record(String productId, String layoutId,
+                       LocalDateTime startDate, LocalDateTime endDate, LocalDate requestDay) {
+        WindowShape.of(startDate, endDate, requestDay).ifPresent(shape -> {
+            if (counts.size() >= MAX_TRACKED_WINDOWS) {
+                return;
+            }
+            counts.computeIfAbsent(new PopularWindow(productId, layoutId, shape), k -> new AtomicLong())
+                    .incrementAndGet();
+        });
+    }
+
+    /**
+     * Returns the most requested windows.
+     *
+     * @param limit maximum number of windows to return
+     * @param minRequests minimum request count of a returned window
+     * @return the windows, most requested first
+     */
+    public List<PopularWindow> top(int limit, long minRequests) {
+        return counts.entrySet().stream()
+                .filter(entry -> entry.getValue().get() >= minRequests)
+                .sorted(Map.Entry.<PopularWindow, AtomicLong>comparingByValue(
+                        Comparator.comparingLong(AtomicLong::get)).reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Halves all counts and forgets windows that drop to zero.
+     */
+    public void decay() {
+        counts.values().forEach(count -> count.updateAndGet(value -> value / 2));
+        counts.values().removeIf(count -> count.get() == 0);
+    }
+
+    /**
+     * A requested window of a product/layout pair.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param shape the window shape
+     */
+    public record PopularWindow(String productId, String layoutId, WindowShape shape) {
+    }
+}
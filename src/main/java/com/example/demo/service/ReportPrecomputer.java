@@ -0,0 +1,142 @@
+package com.example.demo.service;
+
+import com.example.demo.config.PrecomputeProperties;
+import com.example.demo.entity.ReportRequest;
+import com.example.demo.repository.ReportRequestRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pre-computes the most requested report windows so that the first request of
+ * the day is served from {@link PrecomputedReportCache}.
+ * <p>
+ * Runs off-peak on {@link PrecomputeProperties#getCron()} and once in the
+ * background after startup. Because popularity is kept in memory, the startup run
+ * first replays the report requests of the last {@link PrecomputeProperties#getHistory()}
+ * into the {@link ReportPopularityTracker}. Only windows that have fully elapsed on
+ * the current day are computed; windows reaching into today or the future would go
+ * stale as events arrive.
+ *
+ * @see WindowShape
+ */
+@Slf4j
+@Component
+public class ReportPrecomputer {
+    private final ReportPopularityTracker popularityTracker;
+    private final PrecomputedReportCache cache;
+    private final ParallelRangeCounter rangeCounter;
+    private final ReportRequestRepository requestRepository;
+    private final PrecomputeProperties properties;
+    private final ExecutorService warmUpExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "report-precompute");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs the pre-computer.
+     *
+     * @param popularityTracker source of the most requested windows
+     * @param cache cache receiving the results
+     * @param rangeCounter counter used to compute each window
+     * @param requestRepository repository replayed to rebuild popularity at startup
+     * @param properties pre-computation configuration
+     */
+    public ReportPrecomputer(ReportPopularityTracker popularityTracker,
+                             PrecomputedReportCache cache,
+                             ParallelRangeCounter rangeCounter,
+                             ReportRequestRepository requestRepository,
+                             PrecomputeProperties properties) {
+        this.popularityTracker = popularityTracker;
+        this.cache = cache;
+        this.rangeCounter = rangeCounter;
+        this.requestRepository = requestRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * Rebuilds popularity from recent requests and warms the cache after startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        warmUpExecutor.execute(() -> {
+            try {
+                replayHistory();
+                precompute(LocalDate.now());
+            } catch (RuntimeException e) {
+                log.warn("Report cache warm-up failed", e);
+            }
+        });
+    }
+
+    /**
+     * Pre-computes popular windows off-peak, then lets popularity decay.
+     */
+    @Scheduled(cron = "${report.precompute.cron:0 0 5 * * *}")
+    public void scheduledRun() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        precompute(LocalDate.now());
+        popularityTracker.decay();
+    }
+
+    /**
+     * Computes the most requested windows as they fall on the given day.
+     * <p>
+     * Windows already cached or not yet elapsed are skipped; a failing window is
+     * logged and does not stop the run.
+     *
+     * @param day the day the windows are anchored to
+     * @return number of windows computed
+     */
+    public int precompute(LocalDate day) {
+        int computed = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (ReportPopularityTracker.PopularWindow window
+                : popularityTracker.top(properties.getTopWindows(), properties.getMinRequests())) {
+            LocalDateTime start = window.shape().startOn(day);
+            LocalDateTime end = window.shape().endOn(day);
+            if (!end.isBefore(now) || cache.get(window.productId(), window.layoutId(), start, end).isPresent()) {
+                continue;
+            }
+            try {
+                RatioEstimate estimate = rangeCounter.count(window.productId(), window.layoutId(), start, end);
+                if (cache.put(window.productId(), window.layoutId(), start, end, estimate)) {
+                    computed++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to pre-compute {}:{} {} - {}", window.productId(), window.layoutId(), start, end, e);
+            }
+        }
+        log.info("Pre-computed {} popular report windows for {}", computed, day);
+        return computed;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        warmUpExecutor.shutdownNow();
+    }
+
+    private void replayHistory() {
+        LocalDateTime since = LocalDateTime.now().minus(properties.getHistory());
+        for (ReportRequest request : requestRepository.findTop10000ByCreatedAtAfterOrderByCreatedAtDesc(since)) {
+            if (!request.isApproximate()) {
+                popularityTracker.record(request.getProductId(), request.getLayoutId(),
+                        request.getStartDate(), request.getEndDate(), request.getCreatedAt().toLocalDate());
+            }
+        }
+    }
+}
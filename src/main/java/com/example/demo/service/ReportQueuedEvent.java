@@ -0,0 +1,14 @@
+package com.example.demo.service;
+
+import java.util.UUID;
+
+/**
+ * Published when a report is left for background computation in a lane.
+ *
+ * @param reportId the queued report
+ * @param lane the lane to compute the report in
+ * @param estimatedEvents the report's estimated event count
+ * @see ReportLaneDispatcher
+ */
+public record ReportQueuedEvent(UUID reportId, ReportLane lane, long estimatedEvents) {
+}
@@ -0,0 +1,110 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ResultCacheProperties;
+import com.example.demo.entity.ReportResult;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived cache of completed report results keyed by report ID and version.
+ * <p>
+ * A completed report's result changes in place when the report is updated, on
+ * this node or any other, and the update bumps the report's optimistic-locking
+ * version. Each entry records the version it was loaded at, and a lookup only
+ * hits for the version the caller has just read from the database. An updated or
+ * deleted report therefore never matches its old entry on any node.
+ * {@link ResultCacheProperties#getTtl()} only bounds how long unused entries
+ * take up memory.
+ *
+ * @see ReportService
+ */
+@Component
+public class ReportResultCache {
+    private final ResultCacheProperties properties;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the cache.
+     *
+     * @param properties cache configuration
+     */
+    public ReportResultCache(ResultCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Returns whether results are cached at all.
+     *
+     * @return true if the cache is enabled
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Looks up the result of a report at a version.
+     * <p>
+     * An entry loaded at another version is dropped.
+     *
+     * @param requestId the report identifier
+     * @param version the report's current version, read before this call
+     * @return the cached result, or empty on a miss
+     */
+    public Optional<ReportResult> get(UUID requestId, long version) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        Entry entry = entries.get(requestId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.version() != version || entry.expiresAt().isBefore(LocalDateTime.now())) {
+            entries.remove(requestId, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.result());
+    }
+
+    /**
+     * Stores a completed result.
+     * <p>
+     * The version must have been read before the result was loaded, so that a
+     * concurrent update can only pair a newer result with an older version,
+     * which no later lookup asks for.
+     *
+     * @param result the result, detached from any persistence context
+     * @param version the report's version read before loading the result
+     * @return true if the entry was stored
+     */
+    public boolean put(ReportResult result, long version) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (entries.size() >= properties.getMaxEntries()) {
+            entries.values().removeIf(entry -> entry.expiresAt().isBefore(now));
+            if (entries.size() >= properties.getMaxEntries()) {
+                return false;
+            }
+        }
+        entries.put(result.getRequestId(), new Entry(result, version, now.plus(properties.getTtl())));
+        return true;
+    }
+
+    /**
+     * Drops the result of a report.
+     *
+     * @param requestId the report identifier
+     */
+    public void evict(UUID requestId) {
+        entries.remove(requestId);
+    }
+
+    private record Entry(ReportResult result, long version, LocalDateTime expiresAt) {
+    }
+}
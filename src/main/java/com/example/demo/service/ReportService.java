@@ -1,7 +1,13 @@
 package com.example.demo.service;
 
+import com.example.demo.config.ReportWorkerProperties;
+import com.example.demo.dto.ReportCursor;
+import com.example.demo.dto.ReportListFilter;
+import com.example.demo.dto.ReportPageDto;
 import com.example.demo.dto.ReportRequestDto;
+import com.example.demo.dto.ReportSummaryDto;
 import com.example.demo.dto.ReportUpdateDto;
+import com.example.demo.dto.ReportVersion;
 import com.example.demo.entity.ReportRequest;
 import com.example.demo.entity.ReportResult;
 import com.example.demo.entity.ReportStatus;
@@ -9,13 +15,31 @@ import com.example.demo.mapper.ReportMapper;
 import com.example.demo.messaging.RabbitMQProducerService;
 import com.example.demo.repository.ReportRequestRepository;
 import com.example.demo.repository.ReportResultRepository;
+import com.example.demo.utils.TimeRange;
+import com.example.demo.utils.TimeRanges;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.annotation.Observed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Service for managing report generation and processing.
@@ -30,49 +54,231 @@ import java.util.UUID;
  *   <li>Asynchronous report processing initiation</li>
  *   <li>Report result calculation and persistence</li>
  *   <li>Report status management</li>
- *   <li>Report data retrieval</li>
+ *   <li>Report data retrieval, singly or in bulk, through a short-lived result cache</li>
+ *   <li>Live reports whose counts follow new events</li>
+ *   <li>Keyset-paginated report listing</li>
  * </ul>
  *
+ * <p>Public methods are observed. The computation of a report is tagged with its
+ * ID and saving its result is observed on its own, so a trace separates the
+ * counting queries, the result save and the broker publish.
+ *
  * @see Service
  * @see Transactional
  */
 @Service
 @RequiredArgsConstructor
+@Observed(name = "report.service")
 public class ReportService {
+    private static final int BULK_FETCH_CHUNK_SIZE = 100;
+
     private final ReportRequestRepository requestRepository;
     private final ReportResultRepository resultRepository;
     private final RabbitMQProducerService rabbitMQProducerService;
-    private final AnalyticsService analyticsService;
+    private final ParallelRangeCounter parallelRangeCounter;
+    private final SamplingEstimator samplingEstimator;
     private final ReportMapper reportMapper;
+    private final ReportWorkerProperties workerProperties;
+    private final ReportCostEstimator costEstimator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ComputationAdmission admission;
+    private final ReportPopularityTracker popularityTracker;
+    private final PrecomputedReportCache precomputedCache;
+    private final ReportResultCache resultCache;
+    private final LiveReportRegistry liveReports;
+    private final ObservationRegistry observationRegistry;
+    private final ReportLaneLimiters laneLimiters;
 
     /**
      * Creates a new report request and initiates processing.
      * <p>
      * Persists the report request and sends a message to Kafka
-     * to trigger asynchronous report generation.
+     * to trigger asynchronous report generation. When report workers are
+     * enabled the request is left {@code PENDING} for a worker to claim.
+     * Otherwise cheap reports are computed immediately, within the fast lane's
+     * {@link AdaptiveLimiter}. Reports estimated for the {@link ReportLane#BULK}
+     * lane, and cheap reports for which the fast lane has no free slot, stay
+     * {@code PENDING} and are computed in their lane after this transaction
+     * commits. The request thread never waits for a slot, as it holds a
+     * database connection that the lanes may need.
      *
      * @param requestDto the report request containing parameters
      * @return UUID of the created report request
      * @throws IllegalArgumentException if the request is null
+     * @throws TooManyRequestsException if this node is at its computation limit
      */
     @Transactional
     public UUID createReport(ReportRequestDto requestDto) {
         ReportRequest reportRequest = reportMapper.toEntity(requestDto);
+        if (!reportRequest.isApproximate()) {
+            popularityTracker.record(reportRequest.getProductId(), reportRequest.getLayoutId(),
+                    reportRequest.getStartDate(), reportRequest.getEndDate(), LocalDate.now());
+        }
+        if (!workerProperties.isEnabled()) {
+            admission.admit();
+        }
         requestRepository.save(reportRequest);
-        return calculateAndSaveReportResult(reportRequest.getId());
+        if (workerProperties.isEnabled()) {
+            return reportRequest.getId();
+        }
+        UUID reportId = reportRequest.getId();
+        long estimatedEvents = costEstimator.estimateEvents(reportRequest);
+        if (costEstimator.classify(estimatedEvents) == ReportLane.BULK) {
+            eventPublisher.publishEvent(new ReportQueuedEvent(reportId, ReportLane.BULK, estimatedEvents));
+            return reportId;
+        }
+        admission.started();
+        try {
+            Optional<UUID> computed = laneLimiters.get(ReportLane.FAST)
+                    .tryExecute(() -> calculateAndSaveReportResult(reportId), estimatedEvents);
+            if (computed.isEmpty()) {
+                eventPublisher.publishEvent(new ReportQueuedEvent(reportId, ReportLane.FAST, estimatedEvents));
+            }
+            return reportId;
+        } finally {
+            admission.finished();
+        }
+    }
+
+    /**
+     * Retrieves a report request by its ID.
+     *
+     * @param id UUID of the report request
+     * @return Optional containing the report request if found
+     */
+    @Transactional
+    public Optional<ReportRequest> getReportRequest(UUID id) {
+        return requestRepository.findById(id);
+    }
+
+    /**
+     * Lists report requests, newest first, one page at a time.
+     * <p>
+     * One extra row is fetched to find out whether another page follows; if so,
+     * the returned page carries the cursor of its last row.
+     *
+     * @param filter optional filters for status, product and date range
+     * @param cursor position returned with the previous page, or null for the first page
+     * @param limit maximum number of reports per page
+     * @return the page of report summaries
+     */
+    @Transactional
+    public ReportPageDto listReports(ReportListFilter filter, ReportCursor cursor, int limit) {
+        List<ReportSummaryDto> rows = requestRepository.findSummaries(filter, cursor, limit + 1);
+        if (rows.size() <= limit) {
+            return new ReportPageDto(rows, null);
+        }
+        List<ReportSummaryDto> page = rows.subList(0, limit);
+        ReportSummaryDto last = page.get(limit - 1);
+        return new ReportPageDto(page, new ReportCursor(last.getCreatedAt(), last.getId()).encode());
     }
 
     /**
      * Retrieves a report result by its associated request ID.
      * <p>
-     * Returns the calculated report data if available.
+     * Returns the calculated report data if available. Live reports tracked on
+     * this node return their latest counts.
      *
      * @param id UUID of the report request
      * @return Optional containing the report result if found
      */
     @Transactional
     public Optional<ReportResult> getReport(UUID id) {
-        return resultRepository.findByRequestId(id);
+        return getReport(id, getCompletedReportVersion(id).orElse(null));
+    }
+
+    /**
+     * Retrieves a report result for a completed version read by the caller.
+     * <p>
+     * Cached results are only served for that version; see {@link ReportResultCache}.
+     *
+     * @param id UUID of the report request
+     * @param completedVersion the version from {@link #getCompletedReportVersion(UUID)},
+     *                         read before this call, or null if the report is not completed
+     * @return Optional containing the report result if found
+     */
+    @Transactional
+    public Optional<ReportResult> getReport(UUID id, Long completedVersion) {
+        Optional<RatioEstimate> live = liveReports.current(id);
+        if (live.isPresent()) {
+            return Optional.of(liveResult(id, live.get()));
+        }
+        if (completedVersion == null) {
+            return resultRepository.findByRequestId(id);
+        }
+        Optional<ReportResult> cached = resultCache.get(id, completedVersion);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        Optional<ReportResult> result = resultRepository.findByRequestId(id);
+        if (!liveReports.isTracked(id)) {
+            result.ifPresent(loaded -> resultCache.put(loaded, completedVersion));
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the results of several reports at once.
+     * <p>
+     * Live and cached results are used first; the rest are loaded with one {@code IN} query
+     * per chunk of {@value #BULK_FETCH_CHUNK_SIZE} IDs. Cached results are checked against
+     * the report versions, which are read with one {@code IN} query per chunk beforehand.
+     * Duplicate IDs are ignored.
+     *
+     * @param ids UUIDs of the report requests
+     * @return the results that exist, keyed by report ID in request order;
+     *         reports without a result are absent
+     */
+    @Transactional
+    public Map<UUID, ReportResult> getReports(Collection<UUID> ids) {
+        Map<UUID, ReportResult> found = new LinkedHashMap<>();
+        List<UUID> stored = new ArrayList<>();
+        for (UUID id : new LinkedHashSet<>(ids)) {
+            found.put(id, null);
+            liveReports.current(id).ifPresentOrElse(
+                    estimate -> found.put(id, liveResult(id, estimate)), () -> stored.add(id));
+        }
+        Map<UUID, Long> versions = new HashMap<>();
+        if (resultCache.isEnabled()) {
+            for (int from = 0; from < stored.size(); from += BULK_FETCH_CHUNK_SIZE) {
+                List<UUID> chunk = stored.subList(from, Math.min(from + BULK_FETCH_CHUNK_SIZE, stored.size()));
+                for (ReportVersion version : requestRepository.findCompletedVersions(chunk)) {
+                    versions.put(version.id(), version.version());
+                }
+            }
+        }
+        List<UUID> toLoad = new ArrayList<>();
+        for (UUID id : stored) {
+            Long version = versions.get(id);
+            Optional<ReportResult> cached = version != null ? resultCache.get(id, version) : Optional.empty();
+            cached.ifPresentOrElse(result -> found.put(id, result), () -> toLoad.add(id));
+        }
+        for (int from = 0; from < toLoad.size(); from += BULK_FETCH_CHUNK_SIZE) {
+            List<UUID> chunk = toLoad.subList(from, Math.min(from + BULK_FETCH_CHUNK_SIZE, toLoad.size()));
+            for (ReportResult result : resultRepository.findByRequestIdIn(chunk)) {
+                found.put(result.getRequestId(), result);
+                Long version = versions.get(result.getRequestId());
+                if (version != null && !liveReports.isTracked(result.getRequestId())) {
+                    resultCache.put(result, version);
+                }
+            }
+        }
+        found.values().removeIf(Objects::isNull);
+        return found;
+    }
+
+    /**
+     * Retrieves the version of a completed report without loading its result.
+     * <p>
+     * The version changes whenever the report is modified, so it identifies the
+     * current representation of the result for conditional requests.
+     *
+     * @param id UUID of the report request
+     * @return Optional containing the version if the report is completed
+     */
+    @Transactional
+    public Optional<Long> getCompletedReportVersion(UUID id) {
+        return requestRepository.findVersionByIdAndStatus(id, ReportStatus.COMPLETED);
     }
 
     /**
@@ -81,58 +287,141 @@ public class ReportService {
      * Performs the following operations:
      * <ol>
      *   <li>Retrieves the report request</li>
-     *   <li>Calculates view and payment metrics</li>
+     *   <li>Calculates view and payment metrics, exactly, splitting long ranges into
+     *       sub-ranges counted in parallel, or by sampling for approximate reports;
+     *       exact counts of popular windows come from the pre-computed cache</li>
      *   <li>Computes conversion ratio</li>
      *   <li>Saves the report results</li>
      *   <li>Updates the request status to COMPLETED</li>
+     *   <li>Announces the completion and, for a report with a callback URL,
+     *       hands the result to the notification service for webhook delivery</li>
      * </ol>
      *
+     * <p>A live report is counted up to now; later events are counted as they
+     * arrive by the {@link LiveReportRegistry}, which starts tracking it first.
+     *
+     * <p>The computation is recorded as a {@link ReportComputationEvent} when a
+     * Flight Recorder recording is running.
+     *
      * @param reportId UUID of the report to process
      * @throws RuntimeException if the report request is not found
      */
     @Transactional
     public UUID calculateAndSaveReportResult(UUID reportId) {
+        ReportComputationEvent event = new ReportComputationEvent();
+        event.begin();
         ReportRequest reportRequest = requestRepository.findById(reportId)
                 .orElseThrow(() -> new RuntimeException("Report request not found"));
+        Observation observation = observationRegistry.getCurrentObservation();
+        if (observation != null) {
+            observation.highCardinalityKeyValue("report.id", reportId.toString());
+        }
 
         String productId = reportRequest.getProductId();
         String layoutId = reportRequest.getLayoutId();
         LocalDateTime startDate = reportRequest.getStartDate();
-        LocalDateTime endDate = reportRequest.getEndDate();
+        LocalDateTime endDate = reportRequest.isLive() ? trackLive(reportRequest) : reportRequest.getEndDate();
 
-        int viewCount = analyticsService.getViews(productId, layoutId, startDate, endDate).size();
-        int paymentCount = analyticsService.getPayments(productId, layoutId, startDate, endDate).size();
-
-        double conversionRatio = (viewCount == 0) ? 0 : (double) paymentCount / viewCount;
+        long countStart = System.nanoTime();
+        RatioEstimate estimate = reportRequest.isApproximate()
+                ? samplingEstimator.estimate(productId, layoutId, startDate, endDate)
+                : precomputedCache.get(productId, layoutId, startDate, endDate)
+                        .orElseGet(() -> parallelRangeCounter.count(productId, layoutId, startDate, endDate));
+        long saveStart = System.nanoTime();
 
         ReportResult reportResult = new ReportResult();
         reportResult.setRequestId(reportId);
-        reportResult.setConversionRatio(conversionRatio);
-        reportResult.setPaymentCount(paymentCount);
+        applyEstimate(reportResult, estimate);
 
-        resultRepository.save(reportResult);
+        Observation.createNotStarted("report.result.save", observationRegistry).observe(() -> {
+            resultRepository.save(reportResult);
+            reportRequest.setStatus(ReportStatus.COMPLETED);
+            requestRepository.save(reportRequest);
+        });
+        long publishStart = System.nanoTime();
+        rabbitMQProducerService.sendReportCompletedNotification(reportId, reportRequest.getVersion());
+        if (reportRequest.getCallbackUrl() != null) {
+            rabbitMQProducerService.sendReportResult(reportRequest.getCallbackUrl(), reportMapper.toDto(reportResult));
+        }
+        long publishEnd = System.nanoTime();
 
-        reportRequest.setStatus(ReportStatus.COMPLETED);
-        requestRepository.save(reportRequest);
-        rabbitMQProducerService.sendReportCompletedNotification(reportId);
+        event.end();
+        if (event.shouldCommit()) {
+            event.reportId = reportId.toString();
+            event.productId = productId;
+            event.layoutId = layoutId;
+            event.rangeLength = ReportComputationEvent.seconds(startDate, endDate);
+            event.approximate = reportRequest.isApproximate();
+            event.live = reportRequest.isLive();
+            event.viewCount = estimate.viewCount();
+            event.paymentCount = estimate.paymentCount();
+            event.countDuration = saveStart - countStart;
+            event.saveDuration = publishStart - saveStart;
+            event.publishDuration = publishEnd - publishStart;
+            event.commit();
+        }
         return reportId;
     }
 
+    /**
+     * Changes the product, layout or date range of a report.
+     * <p>
+     * Pending reports are simply updated. A completed exact report whose product
+     * and layout stay the same and whose new range overlaps the old one is adjusted
+     * in place: only the sub-ranges added to or removed from the range are counted
+     * and merged into the stored view and payment counts. Any other completed report
+     * is reset to {@code PENDING} and computed again from scratch, as is every
+     * completed live report.
+     *
+     * <p>The incremental adjustment assumes that no events were ingested late into
+     * the removed sub-ranges since the report was computed.
+     *
+     * @param reportId UUID of the report to update
+     * @param updateDto the new report parameters
+     * @throws RuntimeException if the report is not found
+     */
     @Transactional
     public void updateReport(UUID reportId, ReportUpdateDto updateDto) {
         ReportRequest reportRequest = requestRepository.findById(reportId)
                 .orElseThrow(() -> new RuntimeException("Report not found"));
 
-        if (reportRequest.getStatus() != ReportStatus.PENDING) {
-            throw new RuntimeException("Cannot update completed report");
-        }
+        TimeRange oldRange = new TimeRange(reportRequest.getStartDate(), reportRequest.getEndDate());
+        TimeRange newRange = new TimeRange(updateDto.getStartDate(), updateDto.getEndDate());
+        boolean sameSeries = Objects.equals(reportRequest.getProductId(), updateDto.getProductId())
+                && Objects.equals(reportRequest.getLayoutId(), updateDto.getLayoutId());
 
         reportRequest.setProductId(updateDto.getProductId());
         reportRequest.setLayoutId(updateDto.getLayoutId());
         reportRequest.setStartDate(updateDto.getStartDate());
         reportRequest.setEndDate(updateDto.getEndDate());
 
+        if (reportRequest.getStatus() == ReportStatus.PENDING) {
+            requestRepository.save(reportRequest);
+            return;
+        }
+
+        resultCache.evict(reportId);
+        if (reportRequest.isLive()) {
+            liveReports.untrack(reportId);
+        }
+        Optional<ReportResult> previous = resultRepository.findByRequestId(reportId);
+        if (previous.isPresent() && sameSeries && newRange.overlaps(oldRange)
+                && !reportRequest.isLive() && isIncrementallyUpdatable(previous.get())) {
+            applyEstimate(previous.get(), recountDelta(previous.get(), reportRequest, oldRange, newRange));
+            resultRepository.save(previous.get());
+            requestRepository.save(reportRequest);
+            return;
+        }
+
+        previous.ifPresent(resultRepository::delete);
+        reportRequest.setStatus(ReportStatus.PENDING);
+        reportRequest.setAttempts(0);
         requestRepository.save(reportRequest);
+        if (!workerProperties.isEnabled()) {
+            long estimatedEvents = costEstimator.estimateEvents(reportRequest);
+            eventPublisher.publishEvent(
+                    new ReportQueuedEvent(reportId, costEstimator.classify(estimatedEvents), estimatedEvents));
+        }
     }
 
     @Transactional
@@ -142,5 +431,98 @@ public class ReportService {
 
         requestRepository.delete(reportRequest);
         resultRepository.deleteByRequestId(reportId);
+        resultCache.evict(reportId);
+        liveReports.untrack(reportId);
+    }
+
+    /**
+     * Subscribes to the updates of a live report.
+     *
+     * @param id UUID of the live report
+     * @param listener receives the latest counts after each change
+     * @return an action that ends the subscription
+     * @see LiveReportRegistry#subscribe(UUID, java.util.function.Consumer)
+     */
+    public Runnable subscribeToLiveReport(UUID id, Consumer<LiveReportUpdate> listener) {
+        return liveReports.subscribe(id, listener);
+    }
+
+    private static boolean isIncrementallyUpdatable(ReportResult result) {
+        return !Boolean.TRUE.equals(result.getApproximate())
+                && result.getViewCount() != null
+                && result.getPaymentCount() != null;
+    }
+
+    /**
+     * Adjusts stored exact counts to a new range by counting only the difference.
+     *
+     * @param previous the result computed for the old range
+     * @param reportRequest the report, already carrying the new range
+     * @param oldRange the range the stored counts cover
+     * @param newRange the range the counts should cover
+     * @return the exact counts for the new range
+     */
+    private RatioEstimate recountDelta(ReportResult previous, ReportRequest reportRequest,
+                                       TimeRange oldRange, TimeRange newRange) {
+        String productId = reportRequest.getProductId();
+        String layoutId = reportRequest.getLayoutId();
+        long views = previous.getViewCount();
+        long payments = previous.getPaymentCount();
+        for (TimeRange added : TimeRanges.subtract(newRange, oldRange)) {
+            RatioEstimate delta = parallelRangeCounter.count(productId, layoutId, added.start(), added.end());
+            views += delta.viewCount();
+            payments += delta.paymentCount();
+        }
+        for (TimeRange removed : TimeRanges.subtract(oldRange, newRange)) {
+            RatioEstimate delta = parallelRangeCounter.count(productId, layoutId, removed.start(), removed.end());
+            views -= delta.viewCount();
+            payments -= delta.paymentCount();
+        }
+        return RatioEstimate.exact(Math.max(0, views), Math.max(0, payments));
+    }
+
+    /**
+     * Starts tracking a live report and returns the end of the range left to count now.
+     * <p>
+     * If the surrounding transaction rolls back, tracking is discarded so that a
+     * retry, here or on another node, does not count the same events twice.
+     *
+     * @param reportRequest the live report
+     * @return the report's end, or the instant before tracking started if that is earlier
+     */
+    private LocalDateTime trackLive(ReportRequest reportRequest) {
+        LocalDateTime countFrom = LocalDateTime.now();
+        liveReports.track(reportRequest, countFrom);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            UUID reportId = reportRequest.getId();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        liveReports.discard(reportId, countFrom);
+                    }
+                }
+            });
+        }
+        return reportRequest.getEndDate().isAfter(countFrom)
+                ? TimeRanges.inclusiveEnd(countFrom)
+                : reportRequest.getEndDate();
+    }
+
+    private static ReportResult liveResult(UUID id, RatioEstimate estimate) {
+        ReportResult result = new ReportResult();
+        result.setRequestId(id);
+        applyEstimate(result, estimate);
+        return result;
+    }
+
+    private static void applyEstimate(ReportResult result, RatioEstimate estimate) {
+        result.setConversionRatio(estimate.conversionRatio());
+        result.setPaymentCount(Math.toIntExact(estimate.paymentCount()));
+        result.setViewCount(estimate.viewCount());
+        result.setApproximate(!estimate.exact());
+        result.setConversionRatioLower(estimate.exact() ? null : estimate.lowerBound());
+        result.setConversionRatioUpper(estimate.exact() ? null : estimate.upperBound());
+        result.setConfidenceLevel(estimate.exact() ? null : estimate.confidenceLevel());
     }
 }
\ No newline at end of file
@@ -0,0 +1,167 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ReportWorkerProperties;
+import com.example.demo.entity.ReportRequest;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Computes pending reports claimed from {@link ReportJobQueue}.
+ * <p>
+ * Active only when {@code report.worker.enabled} is set. Each poll claims as many
+ * reports as this node has free slots, up to the configured batch size, and hands
+ * them to the {@link ReportLaneDispatcher}, which computes each one in the lane
+ * matching its estimated cost. Leases of reports in progress are renewed on a
+ * separate schedule.
+ *
+ * <p>A report that fails keeps its lease until it expires, after which any node may
+ * retry it. This spaces out retries without extra bookkeeping. After
+ * {@code report.worker.max-attempts} claims the report is marked failed instead;
+ * see {@link ReportJobQueue}. If two nodes ever
+ * compute the same report, the optimistic lock on the request rejects the second
+ * result.
+ *
+ * <p>On shutdown the worker stops claiming and waits up to the configured grace
+ * period for the reports in progress. Only the leases of reports still unfinished
+ * after that are released, so another node can take them over at once.
+ *
+ * @see ReportWorkerProperties
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "report.worker", name = "enabled", havingValue = "true")
+public class ReportWorker {
+    private final ReportJobQueue jobQueue;
+    private final ReportLaneDispatcher dispatcher;
+    private final ReportWorkerProperties properties;
+    private final String nodeId;
+    private final Map<UUID, CompletableFuture<UUID>> inFlight = new ConcurrentHashMap<>();
+    private volatile boolean stopped;
+
+    /**
+     * Constructs the worker.
+     *
+     * @param jobQueue queue the reports are claimed from
+     * @param dispatcher lanes computing the claimed reports
+     * @param properties worker configuration
+     */
+    public ReportWorker(ReportJobQueue jobQueue, ReportLaneDispatcher dispatcher, ReportWorkerProperties properties) {
+        this.jobQueue = jobQueue;
+        this.dispatcher = dispatcher;
+        this.properties = properties;
+        this.nodeId = StringUtils.hasText(properties.getNodeId())
+                ? properties.getNodeId()
+                : ManagementFactory.getRuntimeMXBean().getName();
+    }
+
+    /**
+     * Claims pending reports for the free slots of this node and starts computing them.
+     */
+    @Scheduled(fixedDelayString = "${report.worker.poll-interval:1s}")
+    public synchronized void poll() {
+        int free = Math.min(properties.getBatchSize(), properties.getPoolSize() - inFlight.size());
+        if (free <= 0 || stopped) {
+            return;
+        }
+        List<ReportRequest> claimed;
+        try {
+            claimed = jobQueue.claim(nodeId, free, properties.getLease(), properties.getMaxAttempts());
+        } catch (RuntimeException e) {
+            log.warn("Failed to claim pending reports", e);
+            return;
+        }
+        for (ReportRequest request : claimed) {
+            UUID reportId = request.getId();
+            CompletableFuture<UUID> computation;
+            try {
+                computation = dispatcher.submit(request);
+            } catch (RuntimeException e) {
+                computation = CompletableFuture.failedFuture(e);
+            }
+            inFlight.put(reportId, computation);
+            computation.whenComplete((id, failure) -> {
+                if (failure != null) {
+                    log.error("Failed to compute report {}, it will be retried after its lease expires",
+                            reportId, failure);
+                }
+                inFlight.remove(reportId);
+            });
+        }
+    }
+
+    /**
+     * Renews the leases of all reports in progress on this node.
+     */
+    @Scheduled(fixedDelayString = "${report.worker.heartbeat-interval:15s}")
+    public void heartbeat() {
+        try {
+            jobQueue.renew(Set.copyOf(inFlight.keySet()), nodeId, properties.getLease());
+        } catch (RuntimeException e) {
+            log.warn("Failed to renew report leases", e);
+        }
+    }
+
+    /**
+     * Returns the identifier this node writes to claimed reports.
+     *
+     * @return the node identifier
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Stops claiming, waits for the reports in progress and releases the leases of
+     * those that did not finish within the grace period.
+     * <p>
+     * The leases are renewed first, as heartbeats may already have stopped with the
+     * scheduler; this keeps them valid while waiting as long as the grace period is
+     * shorter than the lease.
+     */
+    @PreDestroy
+    public void shutdown() {
+        synchronized (this) {
+            stopped = true;
+        }
+        if (inFlight.isEmpty()) {
+            return;
+        }
+        try {
+            jobQueue.renew(Set.copyOf(inFlight.keySet()), nodeId, properties.getLease());
+        } catch (RuntimeException e) {
+            log.warn("Failed to renew report leases before shutdown", e);
+        }
+        try {
+            CompletableFuture.allOf(inFlight.values().toArray(CompletableFuture[]::new))
+                    .get(properties.getShutdownGracePeriod().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Failed reports keep their lease; unfinished ones are released below
+        }
+        Set<UUID> unfinished = inFlight.entrySet().stream()
+                .filter(entry -> !entry.getValue().isDone())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        if (!unfinished.isEmpty()) {
+            log.info("Releasing {} reports still in progress at shutdown", unfinished.size());
+            jobQueue.release(unfinished, nodeId);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ApproximationProperties;
+import com.example.demo.utils.TimeRanges;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Estimates report counts by sampling time buckets instead of scanning the full range.
+ * <p>
+ * The range is cut into full buckets of {@link ApproximationProperties#getBucket()}
+ * plus a trailing partial bucket. The full buckets are divided into equally sized
+ * strata and one bucket is counted exactly from each stratum, which keeps the
+ * sample spread evenly over time. The trailing bucket is always counted exactly.
+ *
+ * <p>Totals are scaled up from the sample, and the conversion ratio is computed with
+ * a ratio estimator. Its variance is approximated by linearization under simple
+ * random sampling with finite population correction. This is conservative for the
+ * stratified design when traffic follows a trend.
+ *
+ * @see RatioEstimate
+ * @see ApproximationProperties
+ */
+@Component
+@RequiredArgsConstructor
+public class SamplingEstimator {
+    private final AnalyticsService analyticsService;
+    private final ApproximationProperties properties;
+
+    /**
+     * Estimates view and payment counts for a range.
+     * <p>
+     * Falls back to exact counting when the range holds no more full buckets than
+     * the configured sample size.
+     *
+     * @param productId the product identifier
+     * @param layoutId the layout identifier
+     * @param startDate the start of the range (inclusive)
+     * @param endDate the end of the range (inclusive)
+     * @return the estimate, flagged as exact when no sampling took place
+     */
+    public RatioEstimate estimate(String productId, String layoutId,
+                                  LocalDateTime startDate, LocalDateTime endDate) {
+        Duration bucket = properties.getBucket();
+        int sampleSize = properties.getSampleSize();
+        long fullBuckets = Duration.between(startDate, endDate).dividedBy(bucket);
+
+        if (fullBuckets <= sampleSize) {
+            return RatioEstimate.exact(
+                    analyticsService.countViews(productId, layoutId, startDate, endDate),
+                    analyticsService.countPayments(productId, layoutId, startDate, endDate));
+        }
+
+        long[] views = new long[sampleSize];
+        long[] payments = new long[sampleSize];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int stratum = 0; stratum < sampleSize; stratum++) {
+            long first = stratum * fullBuckets / sampleSize;
+            long last = (stratum + 1) * fullBuckets / sampleSize;
+            long index = random.nextLong(first, last);
+            LocalDateTime from = startDate.plus(bucket.multipliedBy(index));
+            LocalDateTime to = TimeRanges.inclusiveEnd(from.plus(bucket));
+            views[stratum] = analyticsService.countViews(productId, layoutId, from, to);
+            payments[stratum] = analyticsService.countPayments(productId, layoutId, from, to);
+        }
+
+        LocalDateTime tailStart = startDate.plus(bucket.multipliedBy(fullBuckets));
+        long tailViews = analyticsService.countViews(productId, layoutId, tailStart, endDate);
+        long tailPayments = analyticsService.countPayments(productId, layoutId, tailStart, endDate);
+
+        return fromSample(views, payments, fullBuckets, tailViews, tailPayments, properties.getConfidenceLevel());
+    }
+
+    /**
+     * Computes the ratio estimate and its confidence interval from bucket counts.
+     *
+     * @param views view counts of the sampled buckets
+     * @param payments payment counts of the sampled buckets, aligned with {@code views}
+     * @param populationBuckets total number of buckets the sample was drawn from
+     * @param exactViews views counted outside the sampled population
+     * @param exactPayments payments counted outside the sampled population
+     * @param confidenceLevel two-sided confidence level, e.g. {@code 0.95}
+     * @return the estimate
+     * @throws IllegalArgumentException if fewer than two buckets were sampled
+     */
+    public static RatioEstimate fromSample(long[] views, long[] payments, long populationBuckets,
+                                           long exactViews, long exactPayments, double confidenceLevel) {
+        int n = views.length;
+        if (n < 2 || payments.length != n) {
+            throw new IllegalArgumentException("At least two aligned bucket samples are required");
+        }
+
+        double viewSum = 0;
+        double paymentSum = 0;
+        for (int i = 0; i < n; i++) {
+            viewSum += views[i];
+            paymentSum += payments[i];
+        }
+        double scale = (double) populationBuckets / n;
+        double totalViews = viewSum * scale + exactViews;
+        double totalPayments = paymentSum * scale + exactPayments;
+        if (totalViews == 0) {
+            return new RatioEstimate(0, Math.round(totalPayments), 0, 0, 0, confidenceLevel, false);
+        }
+        double ratio = totalPayments / totalViews;
+
+        double squaredResiduals = 0;
+        for (int i = 0; i < n; i++) {
+            double residual = payments[i] - ratio * views[i];
+            squaredResiduals += residual * residual;
+        }
+        double residualVariance = squaredResiduals / (n - 1);
+        double finitePopulationCorrection = 1 - (double) n / populationBuckets;
+        double totalVariance = (double) populationBuckets * populationBuckets
+                * finitePopulationCorrection * residualVariance / n;
+        double standardError = Math.sqrt(totalVariance) / totalViews;
+        double margin = normalQuantile(1 - (1 - confidenceLevel) / 2) * standardError;
+
+        return new RatioEstimate(Math.round(totalViews), Math.round(totalPayments), ratio,
+                Math.max(0, ratio - margin), ratio + margin, confidenceLevel, false);
+    }
+
+    /**
+     * Inverse of the standard normal cumulative distribution function.
+     * <p>
+     * Uses Acklam's rational approximation (relative error below 1.2e-9).
+     *
+     * @param p probability in {@code (0, 1)}
+     * @return the quantile
+     */
+    static double normalQuantile(double p) {
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        final double low = 0.02425;
+
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - low) {
+            double q = Math.sqrt(-2 * Math.log(1 - p));
+            return -(((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+}
@@ -0,0 +1,470 @@
+package com.example.demo.service;
+
+import com.example.demo.config.EventStoreProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link EventStore} that appends events to compact segment files on local disk.
+ * <p>
+ * Every event type, day, product and layout has its own append-only segment
+ * file at {@code <directory>/<views|payments>/<day>/<productKey>-<layoutKey>.seg}.
+ * A segment holds the events' times of day in nanoseconds, each stored as the
+ * zigzag varint-encoded difference to the previous one. Events that arrive in
+ * time order therefore take one to three bytes each.
+ *
+ * <p>Segments are cut into blocks of {@link EventStoreProperties#getIndexInterval()}
+ * events. Each block starts over from an absolute value and is described by a
+ * sparse in-memory index entry holding its file offset and its earliest and
+ * latest time. A range count adds whole blocks that lie inside the range and
+ * skips blocks outside it, using only the index. It decodes only the blocks that
+ * straddle a range boundary, reading them from a read-only memory mapping of the
+ * file without copying. Days fully inside the range are counted from the index
+ * alone. Late events are allowed; they only widen the time span of their block.
+ *
+ * <p>The index of a segment is rebuilt by one scan when the segment is first
+ * used. A record truncated by a crash is cut off at that point. At most
+ * {@link EventStoreProperties#getMaxOpenSegments()} segments are held in memory;
+ * beyond that the least recently used one is closed. Segments of earlier days
+ * also drop their memory mapping when a new day starts, so that only days that
+ * are still queried stay mapped. Writes go to the operating system's page cache
+ * and are not forced to disk individually. A directory must be used by a single
+ * node; counts only cover events ingested by that node. A segment file is
+ * limited to 2 GB.
+ *
+ * @see EventStoreProperties
+ * @see DimensionDictionary
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "report.event-store", name = "backend", havingValue = "segmented")
+public class SegmentedEventStore implements EventStore {
+    private static final String VIEWS = "views";
+    private static final String PAYMENTS = "payments";
+
+    private final DimensionDictionary dictionary;
+    private final Path directory;
+    private final int indexInterval;
+    private final int maxOpenSegments;
+
+    private final Map<SegmentKey, Segment> segments = new ConcurrentHashMap<>();
+    private volatile LocalDate newestDay = LocalDate.MIN;
+
+    /**
+     * Constructs the store.
+     *
+     * @param dictionary dictionary that assigns the keys used in segment file names
+     * @param properties event store configuration
+     */
+    public SegmentedEventStore(DimensionDictionary dictionary, EventStoreProperties properties) {
+        this.dictionary = dictionary;
+        this.directory = properties.getDirectory();
+        this.indexInterval = Math.max(1, properties.getIndexInterval());
+        this.maxOpenSegments = Math.max(1, properties.getMaxOpenSegments());
+    }
+
+    @Override
+    public long recordView(String productId, String layoutId, LocalDateTime timestamp) {
+        append(VIEWS, productId, layoutId, timestamp);
+        return -1;
+    }
+
+    @Override
+    public long recordPayment(String productId, String layoutId, LocalDateTime timestamp) {
+        append(PAYMENTS, productId, layoutId, timestamp);
+        return -1;
+    }
+
+    @Override
+    public long countViews(String productId, String layoutId, LocalDateTime startDate, LocalDateTime endDate) {
+        return count(VIEWS, productId, layoutId, startDate, endDate);
+    }
+
+    @Override
+    public long countPayments(String productId, String layoutId, LocalDateTime startDate, LocalDateTime endDate) {
+        return count(PAYMENTS, productId, layoutId, startDate, endDate);
+    }
+
+    /**
+     * Returns the number of segments whose index is held in memory.
+     *
+     * @return the number of open segments
+     */
+    public int openSegments() {
+        return segments.size();
+    }
+
+    /**
+     * Closes the files that are open for appending.
+     */
+    @PreDestroy
+    public void close() {
+        segments.values().forEach(Segment::closeWriter);
+    }
+
+    private void append(String type, String productId, String layoutId, LocalDateTime timestamp) {
+        Integer productKey = dictionary.productKey(productId);
+        Integer layoutKey = dictionary.layoutKey(layoutId);
+        if (productKey == null || layoutKey == null) {
+            throw new IllegalArgumentException("Product and layout are required");
+        }
+        LocalDate day = timestamp.toLocalDate();
+        if (day.isAfter(newestDay)) {
+            rollOver(day);
+        }
+        SegmentKey key = new SegmentKey(type, day, productKey, layoutKey);
+        long nanos = timestamp.toLocalTime().toNanoOfDay();
+        try {
+            while (!segment(key, true).append(nanos)) {
+                // The segment was evicted; wait for it to leave the map and reopen it
+                Thread.onSpinWait();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to event segment", e);
+        }
+    }
+
+    private long count(String type, String productId, String layoutId,
+                       LocalDateTime startDate, LocalDateTime endDate) {
+        Optional<DimensionDictionary.Keys> keys = dictionary.findKeys(productId, layoutId);
+        if (keys.isEmpty() || endDate.isBefore(startDate)) {
+            return 0;
+        }
+        LocalDate firstDay = startDate.toLocalDate();
+        LocalDate lastDay = endDate.toLocalDate();
+        long total = 0;
+        try {
+            for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+                Segment segment = segment(new SegmentKey(type, day, keys.get().product(), keys.get().layout()), false);
+                if (segment != null) {
+                    total += segment.count(
+                            day.equals(firstDay) ? startDate.toLocalTime().toNanoOfDay() : 0,
+                            day.equals(lastDay) ? endDate.toLocalTime().toNanoOfDay() : LocalTime.MAX.toNanoOfDay());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read event segment", e);
+        }
+        return total;
+    }
+
+    private Segment segment(SegmentKey key, boolean create) throws IOException {
+        Segment segment = segments.get(key);
+        if (segment != null) {
+            segment.lastAccess = System.nanoTime();
+            return segment;
+        }
+        Path path = directory.resolve(key.type()).resolve(key.day().toString())
+                .resolve(key.product() + "-" + key.layout() + ".seg");
+        if (!create && !Files.exists(path)) {
+            return null;
+        }
+        try {
+            segment = segments.computeIfAbsent(key, ignored -> {
+                try {
+                    return Segment.open(path, indexInterval);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (segments.size() > maxOpenSegments) {
+            evict(key);
+        }
+        return segment;
+    }
+
+    /**
+     * Closes the least recently used segments until the limit is met.
+     * <p>
+     * An evicted segment refuses further appends before it leaves the map, so no
+     * append can be lost between the two. Its mapping is released to the garbage
+     * collector rather than unmapped, as a count may still be reading it.
+     *
+     * @param justOpened the segment that triggered the eviction, which is kept
+     */
+    private synchronized void evict(SegmentKey justOpened) {
+        while (segments.size() > maxOpenSegments) {
+            Map.Entry<SegmentKey, Segment> coldest = null;
+            for (Map.Entry<SegmentKey, Segment> candidate : segments.entrySet()) {
+                if (!candidate.getKey().equals(justOpened)
+                        && (coldest == null || candidate.getValue().lastAccess < coldest.getValue().lastAccess)) {
+                    coldest = candidate;
+                }
+            }
+            if (coldest == null) {
+                return;
+            }
+            coldest.getValue().evict();
+            segments.remove(coldest.getKey(), coldest.getValue());
+        }
+    }
+
+    /**
+     * Closes the writers of earlier days and drops their mappings once events of
+     * a new day arrive. Late events reopen the writer of their segment, and
+     * counts map the file again.
+     */
+    private synchronized void rollOver(LocalDate day) {
+        if (!day.isAfter(newestDay)) {
+            return;
+        }
+        newestDay = day;
+        segments.forEach((key, segment) -> {
+            if (key.day().isBefore(day)) {
+                segment.closeWriter();
+                segment.mapping = null;
+            }
+        });
+    }
+
+    private record SegmentKey(String type, LocalDate day, int product, int layout) {
+    }
+
+    private record Mapping(MappedByteBuffer buffer, long size) {
+    }
+
+    /**
+     * One segment file and its sparse block index.
+     * <p>
+     * Appends and index updates hold the segment's lock. Counts take a snapshot of
+     * the index under the lock and then read without it: entries of completed
+     * blocks never change and the file is only appended to.
+     */
+    private static final class Segment {
+        private static final long MAX_SIZE = Integer.MAX_VALUE;
+
+        private final Path path;
+        private final int interval;
+
+        private long[] offsets = new long[8];
+        private long[] minimums = new long[8];
+        private long[] maximums = new long[8];
+        private int blocks;
+        private long events;
+        private long size;
+        private long previous;
+        private FileChannel writer;
+        private boolean evicted;
+        private volatile Mapping mapping;
+        private volatile long lastAccess = System.nanoTime();
+
+        private Segment(Path path, int interval) {
+            this.path = path;
+            this.interval = interval;
+        }
+
+        /**
+         * Opens a segment, rebuilding its index from the file if it exists.
+         */
+        static Segment open(Path path, int interval) throws IOException {
+            Segment segment = new Segment(path, interval);
+            if (!Files.exists(path)) {
+                return segment;
+            }
+            long length = Files.size(path);
+            if (length > MAX_SIZE) {
+                throw new IOException("Event segment exceeds 2 GB: " + path);
+            }
+            if (length == 0) {
+                return segment;
+            }
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            }
+            int position = 0;
+            while (position < length) {
+                long encoded = 0;
+                int shift = 0;
+                int next = position;
+                byte b;
+                do {
+                    if (next >= length) {
+                        log.warn("Truncating incomplete record at offset {} of {}", position, path);
+                        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                            channel.truncate(position);
+                        }
+                        return segment;
+                    }
+                    b = buffer.get(next++);
+                    encoded |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                long base = (segment.events % interval == 0) ? 0 : segment.previous;
+                segment.accept(base + ((encoded >>> 1) ^ -(encoded & 1)), next - position);
+                position = next;
+            }
+            segment.mapping = new Mapping(buffer, length);
+            return segment;
+        }
+
+        /**
+         * Appends an event.
+         *
+         * @return false if the segment has been evicted and must be reopened
+         */
+        synchronized boolean append(long nanos) throws IOException {
+            if (evicted) {
+                return false;
+            }
+            long delta = (events % interval == 0) ? nanos : nanos - previous;
+            long encoded = (delta << 1) ^ (delta >> 63);
+            ByteBuffer record = ByteBuffer.allocate(10);
+            while ((encoded & ~0x7FL) != 0) {
+                record.put((byte) ((encoded & 0x7F) | 0x80));
+                encoded >>>= 7;
+            }
+            record.put((byte) encoded).flip();
+            if (size + record.remaining() > MAX_SIZE) {
+                throw new IOException("Event segment is full: " + path);
+            }
+            if (writer == null) {
+                Files.createDirectories(path.getParent());
+                writer = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            }
+            int length = record.remaining();
+            while (record.hasRemaining()) {
+                writer.write(record);
+            }
+            accept(nanos, length);
+            return true;
+        }
+
+        /**
+         * Updates the index for a record that has been written.
+         */
+        private void accept(long nanos, int length) {
+            if (events % interval == 0) {
+                if (blocks == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, blocks * 2);
+                    minimums = Arrays.copyOf(minimums, blocks * 2);
+                    maximums = Arrays.copyOf(maximums, blocks * 2);
+                }
+                offsets[blocks] = size;
+                minimums[blocks] = nanos;
+                maximums[blocks] = nanos;
+                blocks++;
+            } else {
+                int block = blocks - 1;
+                minimums[block] = Math.min(minimums[block], nanos);
+                maximums[block] = Math.max(maximums[block], nanos);
+            }
+            previous = nanos;
+            events++;
+            size += length;
+        }
+
+        long count(long from, long to) throws IOException {
+            long[] blockOffsets;
+            long[] blockMinimums;
+            long[] blockMaximums;
+            int blockCount;
+            long eventCount;
+            long fileSize;
+            synchronized (this) {
+                blockOffsets = offsets;
+                blockMinimums = minimums;
+                blockMaximums = maximums;
+                blockCount = blocks;
+                eventCount = events;
+                fileSize = size;
+            }
+            if (eventCount == 0 || from > to) {
+                return 0;
+            }
+
+            long completeBlocks = eventCount / interval;
+            MappedByteBuffer buffer = null;
+            long total = 0;
+            for (int block = 0; block < blockCount; block++) {
+                if (block < completeBlocks) {
+                    if (blockMinimums[block] > to || blockMaximums[block] < from) {
+                        continue;
+                    }
+                    if (blockMinimums[block] >= from && blockMaximums[block] <= to) {
+                        total += interval;
+                        continue;
+                    }
+                }
+                if (buffer == null) {
+                    buffer = map(fileSize);
+                }
+                long end = block + 1 < blockCount ? blockOffsets[block + 1] : fileSize;
+                total += countBlock(buffer, (int) blockOffsets[block], (int) end, from, to);
+            }
+            return total;
+        }
+
+        private static long countBlock(MappedByteBuffer buffer, int position, int end, long from, long to) {
+            long value = 0;
+            long matches = 0;
+            while (position < end) {
+                long encoded = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = buffer.get(position++);
+                    encoded |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                value += (encoded >>> 1) ^ -(encoded & 1);
+                if (value >= from && value <= to) {
+                    matches++;
+                }
+            }
+            return matches;
+        }
+
+        private MappedByteBuffer map(long fileSize) throws IOException {
+            Mapping current = mapping;
+            if (current != null && current.size() >= fileSize) {
+                return current.buffer();
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+                mapping = new Mapping(buffer, fileSize);
+                return buffer;
+            }
+        }
+
+        synchronized void evict() {
+            evicted = true;
+            closeWriter();
+            mapping = null;
+        }
+
+        synchronized void closeWriter() {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Failed to close event segment {}", path, e);
+            }
+            writer = null;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.demo.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Sorted, growable column of event timestamps backed by a primitive {@code long[]}.
+ * <p>
+ * Timestamps are stored as microseconds since the epoch (UTC), which matches the
+ * precision of the {@code TIMESTAMP} columns they are loaded from. Range counts are
+ * answered with two binary searches; appends are amortised O(1) for in-order events
+ * and fall back to an insertion for late arrivals. Batches, such as the events of
+ * an import chunk, are merged in a single pass rather than inserted one by one.
+ *
+ * <p>Instances are thread-safe; all access is guarded by the column's monitor.
+ *
+ * @see EventIndex
+ */
+final class TimestampColumn {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] values;
+    private int size;
+
+    private TimestampColumn(long[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * Creates a column from unsorted timestamps, taking ownership of the array.
+     *
+     * @param values timestamps in epoch microseconds
+     * @param size number of valid entries in {@code values}
+     * @return the sorted column
+     */
+    static TimestampColumn of(long[] values, int size) {
+        Arrays.sort(values, 0, size);
+        return new TimestampColumn(values, size);
+    }
+
+    /**
+     * Converts a timestamp to the column's epoch-microsecond representation.
+     *
+     * @param timestamp the timestamp to convert
+     * @return microseconds since 1970-01-01T00:00 UTC
+     */
+    static long toMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + timestamp.getNano() / 1_000;
+    }
+
+    /**
+     * Adds a timestamp, keeping the column sorted.
+     *
+     * @param micros the timestamp in epoch microseconds
+     * @return number of bytes the backing array grew by
+     */
+    synchronized long add(long micros) {
+        long grownBy = 0;
+        if (size == values.length) {
+            int capacity = Math.max(MIN_CAPACITY, values.length + (values.length >> 1));
+            grownBy = (long) (capacity - values.length) * Long.BYTES;
+            values = Arrays.copyOf(values, capacity);
+        }
+        if (size == 0 || values[size - 1] <= micros) {
+            values[size++] = micros;
+        } else {
+            int at = upperBound(micros);
+            System.arraycopy(values, at, values, at + 1, size - at);
+            values[at] = micros;
+            size++;
+        }
+        return grownBy;
+    }
+
+    /**
+     * Merges a sorted batch of timestamps, keeping the column sorted.
+     * <p>
+     * The merge runs from the back, so it only moves the entries later than the
+     * earliest timestamp of the batch.
+     *
+     * @param sorted timestamps in epoch microseconds, in ascending order
+     * @param count number of valid entries in {@code sorted}
+     * @return number of bytes the backing array grew by
+     */
+    synchronized long addAll(long[] sorted, int count) {
+        long grownBy = 0;
+        long[] target = values;
+        if (size + count > values.length) {
+            int capacity = Math.max(MIN_CAPACITY, Math.max(size + count, values.length + (values.length >> 1)));
+            grownBy = (long) (capacity - values.length) * Long.BYTES;
+            target = Arrays.copyOf(values, capacity);
+        }
+        int from = size - 1;
+        int batch = count - 1;
+        int to = size + count - 1;
+        while (batch >= 0) {
+            if (from >= 0 && target[from] > sorted[batch]) {
+                target[to--] = target[from--];
+            } else {
+                target[to--] = sorted[batch--];
+            }
+        }
+        values = target;
+        size += count;
+        return grownBy;
+    }
+
+    /**
+     * Counts timestamps within {@code [from, to]}, both bounds inclusive.
+     *
+     * @param from lower bound in epoch microseconds
+     * @param to upper bound in epoch microseconds
+     * @return the number of timestamps in range
+     */
+    synchronized long count(long from, long to) {
+        if (from > to) {
+            return 0;
+        }
+        return upperBound(to) - lowerBound(from);
+    }
+
+    /**
+     * Returns the heap footprint of the backing array.
+     *
+     * @return size of the backing array in bytes
+     */
+    synchronized long sizeInBytes() {
+        return (long) values.length * Long.BYTES;
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
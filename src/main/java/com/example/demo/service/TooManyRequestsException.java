@@ -0,0 +1,32 @@
+package com.example.demo.service;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is rejected to protect the service from overload.
+ * <p>
+ * Translated into {@code 429 Too Many Requests} with a {@code Retry-After} header.
+ */
+public class TooManyRequestsException extends RuntimeException {
+    private final Duration retryAfter;
+
+    /**
+     * Creates the exception.
+     *
+     * @param message description of the exhausted limit
+     * @param retryAfter delay after which the client may retry
+     */
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns the delay after which the client may retry.
+     *
+     * @return the retry delay
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * A report range expressed relative to the day it was requested.
+ * <p>
+ * "Yesterday" requested on any day is {@code (1, 1 day)}; "the last 7 days" is
+ * {@code (7, 7 days)}. Only ranges starting at midnight have a shape, since those
+ * are the ones dashboards request repeatedly.
+ *
+ * @param startOffsetDays days between the start of the range and the request day
+ * @param length the length of the range
+ */
+public record WindowShape(long startOffsetDays, Duration length) {
+
+    /**
+     * Derives the shape of a range requested on a given day.
+     *
+     * @param startDate the start of the range
+     * @param endDate the end of the range
+     * @param requestDay the day the range was requested
+     * @return the shape, or empty if the range does not start at midnight
+     */
+    public static Optional<WindowShape> of(LocalDateTime startDate, LocalDateTime endDate, LocalDate requestDay) {
+        if (!startDate.toLocalTime().equals(LocalTime.MIDNIGHT) || endDate.isBefore(startDate)) {
+            return Optional.empty();
+        }
+        return Optional.of(new WindowShape(
+                ChronoUnit.DAYS.between(startDate.toLocalDate(), requestDay),
+                Duration.between(startDate, endDate)));
+    }
+
+    /**
+     * Returns the start of this window when requested on the given day.
+     *
+     * @param day the request day
+     * @return the window start
+     */
+    public LocalDateTime startOn(LocalDate day) {
+        return day.minusDays(startOffsetDays).atStartOfDay();
+    }
+
+    /**
+     * Returns the end of this window when requested on the given day.
+     *
+     * @param day the request day
+     * @return the window end
+     */
+    public LocalDateTime endOn(LocalDate day) {
+        return startOn(day).plus(length);
+    }
+}
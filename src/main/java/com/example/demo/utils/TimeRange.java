@@ -0,0 +1,22 @@
+package com.example.demo.utils;
+
+import java.time.LocalDateTime;
+
+/**
+ * A time range with inclusive bounds on both ends.
+ *
+ * @param start the first instant of the range
+ * @param end the last instant of the range
+ */
+public record TimeRange(LocalDateTime start, LocalDateTime end) {
+
+    /**
+     * Checks whether the two ranges share at least one instant.
+     *
+     * @param other the other range
+     * @return true if the ranges overlap
+     */
+    public boolean overlaps(TimeRange other) {
+        return !start.isAfter(other.end) && !other.start.isAfter(end);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.utils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility methods for working with report time ranges.
+ * <p>
+ * Repository range queries use inclusive bounds on both ends, while sub-ranges
+ * produced by splitting or sampling are naturally half-open. Event timestamps are
+ * stored with microsecond precision, so the last instant before an exclusive bound
+ * is exactly one microsecond earlier.
+ */
+public final class TimeRanges {
+
+    private TimeRanges() {
+    }
+
+    /**
+     * Converts an exclusive upper bound into the equivalent inclusive bound.
+     *
+     * @param exclusiveEnd the first instant not covered by the range
+     * @return the last instant covered by the range
+     */
+    public static LocalDateTime inclusiveEnd(LocalDateTime exclusiveEnd) {
+        return exclusiveEnd.minus(1, ChronoUnit.MICROS);
+    }
+
+    /**
+     * Splits an inclusive range into consecutive sub-ranges aligned to a granularity.
+     * <p>
+     * Boundaries fall on multiples of {@code granularity} counted from the epoch, so a
+     * granularity of one day cuts at midnight. The first and last sub-ranges may be
+     * shorter than the granularity. Sub-ranges do not overlap and together cover
+     * exactly {@code [start, end]}.
+     *
+     * @param start the start of the range (inclusive)
+     * @param end the end of the range (inclusive)
+     * @param granularity the sub-range length, at least one second
+     * @return the sub-ranges in chronological order
+     * @throws IllegalArgumentException if the granularity is shorter than one second
+     */
+    public static List<TimeRange> split(LocalDateTime start, LocalDateTime end, Duration granularity) {
+        long step = granularity.getSeconds();
+        if (step < 1) {
+            throw new IllegalArgumentException("Granularity must be at least one second");
+        }
+        List<TimeRange> ranges = new ArrayList<>();
+        long epochSecond = start.toEpochSecond(ZoneOffset.UTC);
+        LocalDateTime boundary = LocalDateTime.ofEpochSecond(
+                Math.floorDiv(epochSecond, step) * step + step, 0, ZoneOffset.UTC);
+        LocalDateTime from = start;
+        while (!boundary.isAfter(end)) {
+            ranges.add(new TimeRange(from, inclusiveEnd(boundary)));
+            from = boundary;
+            boundary = boundary.plusSeconds(step);
+        }
+        if (!from.isAfter(end)) {
+            ranges.add(new TimeRange(from, end));
+        }
+        return ranges;
+    }
+
+    /**
+     * Returns the parts of one inclusive range that another range does not cover.
+     *
+     * @param range the range to subtract from
+     * @param removed the range to subtract
+     * @return zero, one or two ranges in chronological order
+     */
+    public static List<TimeRange> subtract(TimeRange range, TimeRange removed) {
+        if (removed.end().isBefore(range.start()) || removed.start().isAfter(range.end())) {
+            return List.of(range);
+        }
+        List<TimeRange> parts = new ArrayList<>(2);
+        if (range.start().isBefore(removed.start())) {
+            parts.add(new TimeRange(range.start(), inclusiveEnd(removed.start())));
+        }
+        if (range.end().isAfter(removed.end())) {
+            parts.add(new TimeRange(removed.end().plus(1, ChronoUnit.MICROS), range.end()));
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,47 @@
+-- Storage layout of the append-mostly event tables, selected by the
+-- eventTimestampIndex placeholder:
+--   btree  one composite B-tree on (product_key, layout_key, timestamp)
+--   brin   a BRIN index on timestamp plus a small B-tree on the dimension keys,
+--          combined by a bitmap AND. Relies on rows being inserted roughly in
+--          timestamp order, which holds for live ingestion.
+-- Flyway re-applies this script whenever a placeholder value changes.
+
+-- Events are never updated, so pages can be filled completely. Vacuum and
+-- analyze after a small share of inserts keeps the visibility map and the
+-- statistics of recent timestamps current; without updates or deletes the
+-- default thresholds are rarely reached on large tables.
+ALTER TABLE view SET (fillfactor = 100,
+    autovacuum_vacuum_insert_scale_factor = 0.02,
+    autovacuum_analyze_scale_factor = 0.02);
+ALTER TABLE payment SET (fillfactor = 100,
+    autovacuum_vacuum_insert_scale_factor = 0.02,
+    autovacuum_analyze_scale_factor = 0.02);
+
+DO $$
+BEGIN
+    IF '${eventTimestampIndex}' = 'brin' THEN
+        DROP INDEX IF EXISTS idx_view_product_key_layout_key_timestamp;
+        DROP INDEX IF EXISTS idx_payment_product_key_layout_key_timestamp;
+        -- Recreated so that a changed pages_per_range takes effect
+        DROP INDEX IF EXISTS idx_view_timestamp_brin;
+        DROP INDEX IF EXISTS idx_payment_timestamp_brin;
+        CREATE INDEX idx_view_timestamp_brin ON view USING brin (timestamp)
+            WITH (pages_per_range = ${brinPagesPerRange}, autosummarize = on);
+        CREATE INDEX idx_payment_timestamp_brin ON payment USING brin (timestamp)
+            WITH (pages_per_range = ${brinPagesPerRange}, autosummarize = on);
+        CREATE INDEX IF NOT EXISTS idx_view_product_key_layout_key ON view (product_key, layout_key);
+        CREATE INDEX IF NOT EXISTS idx_payment_product_key_layout_key ON payment (product_key, layout_key);
+    ELSIF '${eventTimestampIndex}' = 'btree' THEN
+        DROP INDEX IF EXISTS idx_view_timestamp_brin;
+        DROP INDEX IF EXISTS idx_payment_timestamp_brin;
+        DROP INDEX IF EXISTS idx_view_product_key_layout_key;
+        DROP INDEX IF EXISTS idx_payment_product_key_layout_key;
+        CREATE INDEX IF NOT EXISTS idx_view_product_key_layout_key_timestamp
+            ON view (product_key, layout_key, timestamp);
+        CREATE INDEX IF NOT EXISTS idx_payment_product_key_layout_key_timestamp
+            ON payment (product_key, layout_key, timestamp);
+    ELSE
+        RAISE EXCEPTION 'Unsupported eventTimestampIndex: %', '${eventTimestampIndex}';
+    END IF;
+END
+$$;
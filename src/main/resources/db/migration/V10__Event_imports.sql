@@ -0,0 +1,18 @@
+CREATE TABLE IF NOT EXISTS event_import (
+    id UUID PRIMARY KEY,
+    path VARCHAR(255),
+    type SMALLINT,
+    chunk_size INTEGER NOT NULL,
+    status SMALLINT,
+    error VARCHAR(1000),
+    created_at TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+-- One row per committed chunk, written in the same transaction as the chunk's events
+CREATE TABLE IF NOT EXISTS event_import_chunk (
+    import_id UUID NOT NULL REFERENCES event_import (id) ON DELETE CASCADE,
+    chunk_index BIGINT NOT NULL,
+    row_count INTEGER NOT NULL,
+    PRIMARY KEY (import_id, chunk_index)
+);
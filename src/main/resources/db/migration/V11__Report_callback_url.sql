@@ -0,0 +1 @@
+ALTER TABLE report_request ADD COLUMN IF NOT EXISTS callback_url VARCHAR(2048);
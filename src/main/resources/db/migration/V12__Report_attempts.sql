@@ -0,0 +1,7 @@
+-- Claims of a report by the workers; after report.worker.max-attempts the report
+-- is marked FAILED instead of being claimed again
+ALTER TABLE report_request ADD COLUMN IF NOT EXISTS attempts INTEGER NOT NULL DEFAULT 0;
+
+-- Schemas first created by ddl-auto=update limit status to the ordinals that
+-- existed then; FAILED is ordinal 2
+ALTER TABLE report_request DROP CONSTRAINT IF EXISTS report_request_status_check;
@@ -1,29 +1,32 @@
+-- Event ids come from the payment_seq and view_seq sequences created in V6
 CREATE TABLE payment (
-                         id BIGINT PRIMARY KEY AUTO_INCREMENT,
+                         id BIGINT PRIMARY KEY,
                          product_id VARCHAR(255),
                          layout_id VARCHAR(255),
                          timestamp TIMESTAMP
 );
 
 CREATE TABLE view (
-                      id BIGINT PRIMARY KEY AUTO_INCREMENT,
+                      id BIGINT PRIMARY KEY,
                       product_id VARCHAR(255),
                       layout_id VARCHAR(255),
                       timestamp TIMESTAMP
 );
 
+-- Status holds the ReportStatus ordinal; V4's partial index and the worker's
+-- claim query compare it with PENDING's ordinal 0
 CREATE TABLE report_request (
                                 id UUID PRIMARY KEY,
                                 product_id VARCHAR(255),
                                 layout_id VARCHAR(255),
                                 start_date TIMESTAMP,
                                 end_date TIMESTAMP,
-                                status VARCHAR(50),
+                                status SMALLINT,
                                 version BIGINT
 );
 
 CREATE TABLE report_result (
                                request_id UUID PRIMARY KEY,
-                               conversion_ratio DOUBLE,
+                               conversion_ratio DOUBLE PRECISION,
                                payment_count INT
-);
\ No newline at end of file
+);
@@ -0,0 +1,6 @@
+ALTER TABLE report_request ADD COLUMN IF NOT EXISTS approximate BOOLEAN NOT NULL DEFAULT FALSE;
+
+ALTER TABLE report_result ADD COLUMN IF NOT EXISTS approximate BOOLEAN;
+ALTER TABLE report_result ADD COLUMN IF NOT EXISTS conversion_ratio_lower DOUBLE PRECISION;
+ALTER TABLE report_result ADD COLUMN IF NOT EXISTS conversion_ratio_upper DOUBLE PRECISION;
+ALTER TABLE report_result ADD COLUMN IF NOT EXISTS confidence_level DOUBLE PRECISION;
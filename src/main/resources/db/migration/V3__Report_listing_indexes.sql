@@ -0,0 +1,13 @@
+ALTER TABLE report_request ADD COLUMN IF NOT EXISTS created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- Keyset pagination walks (created_at, id) in descending order; each filter gets
+-- an index with the same trailing sort key, so a page is read in index order and
+-- the scan stops at the limit without a sort. The scan is not index-only: the
+-- summary columns are fetched from the table for every row read, and the date
+-- range filters are checked on those rows.
+CREATE INDEX IF NOT EXISTS idx_report_request_created_at_id
+    ON report_request (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_report_request_status_created_at_id
+    ON report_request (status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_report_request_product_created_at_id
+    ON report_request (product_id, created_at DESC, id DESC);
@@ -0,0 +1,8 @@
+ALTER TABLE report_request ADD COLUMN IF NOT EXISTS lease_owner VARCHAR(255);
+ALTER TABLE report_request ADD COLUMN IF NOT EXISTS lease_expires_at TIMESTAMP;
+
+-- Workers claim pending reports oldest first. Status is stored as an ordinal and
+-- PENDING is 0, so the partial index only holds rows that are still queued.
+CREATE INDEX IF NOT EXISTS idx_report_request_pending_created_at
+    ON report_request (created_at)
+    WHERE status = 0;
@@ -0,0 +1,6 @@
+-- Shared token buckets for report.rate-limit.mode=database. Each row holds the
+-- bucket's theoretical arrival time in epoch microseconds.
+CREATE TABLE IF NOT EXISTS rate_limit_bucket (
+    bucket_key VARCHAR(255) PRIMARY KEY,
+    tat_micros BIGINT NOT NULL
+);
@@ -0,0 +1,12 @@
+-- Objects that were previously only created by ddl-auto=update. They must exist
+-- for the prod profile, where Hibernate validates the schema instead of changing it.
+CREATE TABLE IF NOT EXISTS allusers (
+    id BIGSERIAL PRIMARY KEY,
+    username VARCHAR(255),
+    password VARCHAR(255),
+    role VARCHAR(255)
+);
+
+-- Payment and View use the default sequence generator with an allocation size of 50
+CREATE SEQUENCE IF NOT EXISTS payment_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS view_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,3 @@
+-- Views are stored next to payments so a completed report can be adjusted
+-- incrementally when its range changes
+ALTER TABLE report_result ADD COLUMN IF NOT EXISTS view_count BIGINT;
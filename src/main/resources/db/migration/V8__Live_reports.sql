@@ -0,0 +1,5 @@
+ALTER TABLE report_request ADD COLUMN IF NOT EXISTS live BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Every node polls for open live reports on each flush
+CREATE INDEX IF NOT EXISTS idx_report_request_live_end_date
+    ON report_request (end_date) WHERE live;
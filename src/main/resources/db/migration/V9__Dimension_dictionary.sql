@@ -0,0 +1,47 @@
+-- Product and layout identifiers are stored once in dictionary tables; events
+-- reference them by a 4-byte key instead of repeating the strings on every row.
+CREATE TABLE IF NOT EXISTS product (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE
+);
+CREATE TABLE IF NOT EXISTS layout (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE
+);
+
+INSERT INTO product (name)
+SELECT product_id FROM view WHERE product_id IS NOT NULL
+UNION
+SELECT product_id FROM payment WHERE product_id IS NOT NULL
+ON CONFLICT (name) DO NOTHING;
+
+INSERT INTO layout (name)
+SELECT layout_id FROM view WHERE layout_id IS NOT NULL
+UNION
+SELECT layout_id FROM payment WHERE layout_id IS NOT NULL
+ON CONFLICT (name) DO NOTHING;
+
+ALTER TABLE view ADD COLUMN IF NOT EXISTS product_key INTEGER REFERENCES product (id);
+ALTER TABLE view ADD COLUMN IF NOT EXISTS layout_key INTEGER REFERENCES layout (id);
+ALTER TABLE payment ADD COLUMN IF NOT EXISTS product_key INTEGER REFERENCES product (id);
+ALTER TABLE payment ADD COLUMN IF NOT EXISTS layout_key INTEGER REFERENCES layout (id);
+
+-- Rewrites every event row once; on large tables run it in a maintenance window
+UPDATE view
+SET product_key = (SELECT id FROM product WHERE name = view.product_id),
+    layout_key = (SELECT id FROM layout WHERE name = view.layout_id);
+UPDATE payment
+SET product_key = (SELECT id FROM product WHERE name = payment.product_id),
+    layout_key = (SELECT id FROM layout WHERE name = payment.layout_id);
+
+-- Dropping the string columns also drops any index built on them
+ALTER TABLE view DROP COLUMN IF EXISTS product_id;
+ALTER TABLE view DROP COLUMN IF EXISTS layout_id;
+ALTER TABLE payment DROP COLUMN IF EXISTS product_id;
+ALTER TABLE payment DROP COLUMN IF EXISTS layout_id;
+
+-- Report counts filter on both keys and a timestamp range
+CREATE INDEX IF NOT EXISTS idx_view_product_key_layout_key_timestamp
+    ON view (product_key, layout_key, timestamp);
+CREATE INDEX IF NOT EXISTS idx_payment_product_key_layout_key_timestamp
+    ON payment (product_key, layout_key, timestamp);
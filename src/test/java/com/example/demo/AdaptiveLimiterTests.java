@@ -0,0 +1,146 @@
+package com.example.demo;
+
+import com.example.demo.config.AdaptiveConcurrencyProperties;
+import com.example.demo.service.AdaptiveLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link AdaptiveLimiter}.
+ * <p>
+ * Verifies:
+ * <ul>
+ *   <li>The limit grows toward its maximum while latency stays at the baseline under load</li>
+ *   <li>The limit shrinks when latency degrades and on transient database failures</li>
+ *   <li>Latency is compared per estimated event, so larger tasks do not count as degraded</li>
+ *   <li>Tasks that must not wait are refused while no slot is free</li>
+ *   <li>Unrelated failures leave the limit unchanged</li>
+ *   <li>Concurrency never exceeds the current limit</li>
+ *   <li>Limit and wait time are published as meters</li>
+ * </ul>
+ */
+public class AdaptiveLimiterTests {
+
+    private SimpleMeterRegistry registry;
+    private AdaptiveLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        limiter = new AdaptiveLimiter("fast", 8, new AdaptiveConcurrencyProperties(), registry);
+    }
+
+    @Test
+    void execute_ShouldGrowLimitUnderSteadyLoad() throws InterruptedException {
+        assertEquals(4, limiter.getLimit());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        runConcurrently(8, 40, () -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(5);
+            running.decrementAndGet();
+        });
+
+        assertTrue(limiter.getLimit() > 4, "limit " + limiter.getLimit());
+        assertTrue(peak.get() <= 8);
+        assertEquals(8 * 40, registry.get("report.concurrency.wait").tag("lane", "fast").timer().count());
+        assertEquals(limiter.getLimit(), registry.get("report.concurrency.limit").tag("lane", "fast").gauge().value());
+    }
+
+    @Test
+    void execute_ShouldBackOffWhenLatencyDegrades() {
+        for (int i = 0; i < 5; i++) {
+            limiter.execute(() -> sleep(5));
+        }
+        limiter.execute(() -> sleep(100));
+
+        assertTrue(limiter.getLimit() < 4, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void execute_ShouldBackOffOnlyOnTransientDatabaseFailures() {
+        assertThrows(IllegalStateException.class, () -> limiter.execute(() -> {
+            throw new IllegalStateException("Report request not found");
+        }));
+        assertEquals(4, limiter.getLimit());
+
+        assertThrows(QueryTimeoutException.class, () -> limiter.execute(() -> {
+            throw new QueryTimeoutException("canceling statement due to statement timeout");
+        }));
+        assertEquals(3, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void execute_ShouldCompareLatencyPerEstimatedEvent() {
+        for (int i = 0; i < 5; i++) {
+            limiter.execute(() -> sleep(5), 0);
+        }
+        limiter.execute(() -> sleep(100), 1_000_000);
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void tryExecute_ShouldRefuseWhileNoSlotIsFree() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(4);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            executor.execute(() -> limiter.execute(() -> {
+                running.countDown();
+                try {
+                    finish.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }));
+        }
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        assertEquals(Optional.empty(), limiter.tryExecute(() -> "computed", 0));
+
+        finish.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(Optional.of("computed"), limiter.tryExecute(() -> "computed", 0));
+    }
+
+    private void runConcurrently(int threads, int tasksPerThread, Runnable task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < tasksPerThread; i++) {
+                    limiter.execute(() -> {
+                        task.run();
+                        return null;
+                    });
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+    }
+
+    private static Object sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
@@ -5,19 +5,26 @@ import com.example.demo.entity.View;
 import com.example.demo.repository.PaymentRepository;
 import com.example.demo.repository.ViewRepository;
 import com.example.demo.service.AnalyticsService;
+import com.example.demo.service.DimensionDictionary;
+import com.example.demo.service.EventIndex;
+import com.example.demo.service.JpaEventStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -35,7 +42,6 @@ import static org.mockito.Mockito.when;
  *
  * @see ExtendWith
  * @see Mock
- * @see InjectMocks
  * @see Test
  */
 @ExtendWith(MockitoExtension.class)
@@ -47,7 +53,12 @@ public class AnalyticsServiceTests {
     @Mock
     private PaymentRepository paymentRepository;
 
-    @InjectMocks
+    @Mock
+    private EventIndex eventIndex;
+
+    @Mock
+    private DimensionDictionary dictionary;
+
     private AnalyticsService analyticsService;
 
     private LocalDateTime startDate;
@@ -56,7 +67,7 @@ public class AnalyticsServiceTests {
     /**
      * Sets up test data before each test execution.
      * <p>
-     * Initializes common test data:
+     * Initializes the service over the JPA event store and common test data:
      * <ul>
      *   <li>startDate - current date/time</li>
      *   <li>endDate - 1 day after startDate</li>
@@ -64,6 +75,8 @@ public class AnalyticsServiceTests {
      */
     @BeforeEach
     void setUp() {
+        analyticsService = new AnalyticsService(viewRepository, paymentRepository, dictionary,
+                new JpaEventStore(viewRepository, paymentRepository, eventIndex, dictionary));
         startDate = LocalDateTime.now();
         endDate = startDate.plusDays(1);
     }
@@ -81,11 +94,12 @@ public class AnalyticsServiceTests {
     @Test
     void getViews_ShouldReturnViews() {
         View view = new View();
-        view.setProductId("product1");
-        view.setLayoutId("layout1");
+        view.setProductKey(1);
+        view.setLayoutKey(2);
         view.setTimestamp(startDate);
 
-        when(viewRepository.findByProductIdAndLayoutIdAndTimestampBetween(anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+        when(dictionary.findKeys("product1", "layout1")).thenReturn(Optional.of(new DimensionDictionary.Keys(1, 2)));
+        when(viewRepository.findByProductKeyAndLayoutKeyAndTimestampBetween(eq(1), eq(2), any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(List.of(view));
 
         List<View> views = analyticsService.getViews("product1", "layout1", startDate, endDate);
@@ -107,11 +121,12 @@ public class AnalyticsServiceTests {
     @Test
     void getPayments_ShouldReturnPayments() {
         Payment payment = new Payment();
-        payment.setProductId("product1");
-        payment.setLayoutId("layout1");
+        payment.setProductKey(1);
+        payment.setLayoutKey(2);
         payment.setTimestamp(startDate);
 
-        when(paymentRepository.findByProductIdAndLayoutIdAndTimestampBetween(anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+        when(dictionary.findKeys("product1", "layout1")).thenReturn(Optional.of(new DimensionDictionary.Keys(1, 2)));
+        when(paymentRepository.findByProductKeyAndLayoutKeyAndTimestampBetween(eq(1), eq(2), any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(List.of(payment));
 
         List<Payment> payments = analyticsService.getPayments("product1", "layout1", startDate, endDate);
@@ -119,4 +134,40 @@ public class AnalyticsServiceTests {
         assertEquals(1, payments.size());
         assertEquals(payment, payments.get(0));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that view counts are served from the in-memory index when the key is indexed.
+     */
+    @Test
+    void countViews_ShouldUseIndexWhenAvailable() {
+        when(eventIndex.countViews("product1", "layout1", startDate, endDate)).thenReturn(OptionalLong.of(42));
+
+        assertEquals(42, analyticsService.countViews("product1", "layout1", startDate, endDate));
+        verify(viewRepository, never()).countByProductKeyAndLayoutKeyAndTimestampBetween(anyInt(), anyInt(), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    /**
+     * Tests that payment counts fall back to the database on an index miss.
+     */
+    @Test
+    void countPayments_ShouldFallBackToRepositoryOnIndexMiss() {
+        when(eventIndex.countPayments("product1", "layout1", startDate, endDate)).thenReturn(OptionalLong.empty());
+        when(dictionary.findKeys("product1", "layout1")).thenReturn(Optional.of(new DimensionDictionary.Keys(1, 2)));
+        when(paymentRepository.countByProductKeyAndLayoutKeyAndTimestampBetween(1, 2, startDate, endDate))
+                .thenReturn(7L);
+
+        assertEquals(7, analyticsService.countPayments("product1", "layout1", startDate, endDate));
+    }
+
+    /**
+     * Tests that a product without a dictionary key is counted as empty without querying events.
+     */
+    @Test
+    void countViews_ShouldSkipQueryForUnknownProduct() {
+        when(eventIndex.countViews("product9", "layout1", startDate, endDate)).thenReturn(OptionalLong.empty());
+        when(dictionary.findKeys("product9", "layout1")).thenReturn(Optional.empty());
+
+        assertEquals(0, analyticsService.countViews("product9", "layout1", startDate, endDate));
+        verify(viewRepository, never()).countByProductKeyAndLayoutKeyAndTimestampBetween(anyInt(), anyInt(), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.demo;
+
+import com.example.demo.config.PrecomputeProperties;
+import com.example.demo.service.CacheInvalidationBroadcaster;
+import com.example.demo.service.PrecomputedReportCache;
+import com.example.demo.service.RatioEstimate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.net.ConnectException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test class for {@link CacheInvalidationBroadcaster}.
+ * <p>
+ * Verifies:
+ * <ul>
+ *   <li>Late events are merged into one range per product and layout</li>
+ *   <li>Events within the settle time are not broadcast</li>
+ *   <li>Ranges that cannot be published are retried on the next flush</li>
+ *   <li>Received ranges invalidate the cached windows they overlap</li>
+ *   <li>Malformed messages are dropped without touching the cache</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+public class CacheInvalidationBroadcasterTests {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private PrecomputedReportCache cache;
+    private CacheInvalidationBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        PrecomputeProperties properties = new PrecomputeProperties();
+        cache = new PrecomputedReportCache(properties);
+        broadcaster = new CacheInvalidationBroadcaster(rabbitTemplate,
+                new FanoutExchange("report.cache.invalidation"), cache, properties, new ObjectMapper());
+    }
+
+    @Test
+    void flush_ShouldBroadcastOneRangePerKey() {
+        LocalDateTime day = TODAY.minusDays(3).atStartOfDay();
+        broadcaster.record("product1", "layout1", day.plusHours(5));
+        broadcaster.record("product1", "layout1", day.plusHours(1));
+        broadcaster.record("product1", "layout1", day.plusHours(9));
+        broadcaster.record("product1", "layout1", LocalDateTime.now());
+
+        broadcaster.flush();
+        broadcaster.flush();
+
+        ArgumentCaptor<Object> message = ArgumentCaptor.forClass(Object.class);
+        verify(rabbitTemplate, times(1)).convertAndSend(eq("report.cache.invalidation"), eq(""), message.capture());
+        String json = (String) message.getValue();
+        assertTrue(json.contains("\"from\":\"" + day.plusHours(1) + "\""));
+        assertTrue(json.contains("\"to\":\"" + day.plusHours(9) + "\""));
+    }
+
+    @Test
+    void flush_ShouldKeepRangeWhenBrokerIsUnavailable() {
+        broadcaster.record("product1", "layout1", TODAY.minusDays(3).atStartOfDay());
+        doThrow(new AmqpConnectException(new ConnectException("refused")))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class));
+
+        broadcaster.flush();
+        broadcaster.flush();
+
+        verify(rabbitTemplate, times(2)).convertAndSend(anyString(), anyString(), any(Object.class));
+    }
+
+    @Test
+    void record_ShouldIgnoreEventsWithinSettleTime() {
+        broadcaster.record("product1", "layout1", LocalDateTime.now().minusMinutes(1));
+
+        broadcaster.flush();
+
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(Object.class));
+    }
+
+    @Test
+    void onInvalidation_ShouldDropOverlappingWindows() {
+        LocalDateTime start = TODAY.minusDays(2).atStartOfDay();
+        LocalDateTime end = TODAY.minusDays(1).atStartOfDay().minusSeconds(1);
+        cache.put("product1", "layout1", start, end, RatioEstimate.exact(200, 10));
+        cache.put("product2", "layout1", start, end, RatioEstimate.exact(200, 10));
+
+        broadcaster.onInvalidation("{\"productId\":\"product1\",\"layoutId\":\"layout1\",\"from\":\""
+                + start.plusHours(1) + "\",\"to\":\"" + start.plusHours(2) + "\"}");
+
+        assertTrue(cache.get("product1", "layout1", start, end).isEmpty());
+        assertTrue(cache.get("product2", "layout1", start, end).isPresent());
+    }
+
+    @Test
+    void onInvalidation_ShouldDropMalformedMessages() {
+        LocalDateTime start = TODAY.minusDays(2).atStartOfDay();
+        LocalDateTime end = TODAY.minusDays(1).atStartOfDay().minusSeconds(1);
+        cache.put("product1", "layout1", start, end, RatioEstimate.exact(200, 10));
+
+        broadcaster.onInvalidation("not json");
+        broadcaster.onInvalidation("{\"productId\":\"product1\",\"layoutId\":\"layout1\"}");
+        broadcaster.onInvalidation("{\"productId\":\"product1\",\"layoutId\":\"layout1\","
+                + "\"from\":\"yesterday\",\"to\":\"" + end + "\"}");
+
+        assertTrue(cache.get("product1", "layout1", start, end).isPresent());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo;
+
+import com.example.demo.entity.Product;
+import com.example.demo.repository.LayoutRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.DimensionDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for {@link DimensionDictionary}.
+ * <p>
+ * Verifies:
+ * <ul>
+ *   <li>Known keys are looked up once and then served from memory in both directions</li>
+ *   <li>Unknown identifiers are created on first ingestion but not by lookups</li>
+ *   <li>A concurrent insert of the same identifier is resolved by reading the winner's key</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+public class DimensionDictionaryTests {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private LayoutRepository layoutRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DimensionDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new DimensionDictionary(productRepository, layoutRepository, transactionManager);
+    }
+
+    @Test
+    void productKey_ShouldCacheStoredKey() {
+        when(productRepository.findByName("product1")).thenReturn(Optional.of(product(7, "product1")));
+
+        assertEquals(7, dictionary.productKey("product1"));
+        assertEquals(7, dictionary.productKey("product1"));
+        assertEquals(Optional.of(7), dictionary.findProductKey("product1"));
+        assertEquals("product1", dictionary.productId(7));
+
+        verify(productRepository, times(1)).findByName("product1");
+        verify(productRepository, never()).findById(any());
+        verify(productRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void findProductKey_ShouldNotCreateUnknownProduct() {
+        when(productRepository.findByName("product1")).thenReturn(Optional.empty());
+
+        assertTrue(dictionary.findProductKey("product1").isEmpty());
+        assertNull(dictionary.productKey(null));
+        verify(productRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void productKey_ShouldCreateUnknownProduct() {
+        when(productRepository.findByName("product1")).thenReturn(Optional.empty());
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(product(3, "product1"));
+
+        assertEquals(3, dictionary.productKey("product1"));
+        assertEquals(Optional.of(3), dictionary.findProductKey("product1"));
+        verify(productRepository, times(1)).saveAndFlush(any(Product.class));
+    }
+
+    @Test
+    void productKey_ShouldReadKeyWrittenByConcurrentInsert() {
+        when(productRepository.findByName("product1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(product(5, "product1")));
+        when(productRepository.saveAndFlush(any(Product.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertEquals(5, dictionary.productKey("product1"));
+    }
+
+    private static Product product(int id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        return product;
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.demo;
+
+import com.example.demo.config.EventImportProperties;
+import com.example.demo.config.EventStoreProperties;
+import com.example.demo.dto.EventImportDto;
+import com.example.demo.dto.EventType;
+import com.example.demo.entity.EventImport;
+import com.example.demo.entity.ImportStatus;
+import com.example.demo.repository.EventImportChunkRepository;
+import com.example.demo.repository.EventImportRepository;
+import com.example.demo.repository.LayoutRepository;
+import com.example.demo.repository.PaymentRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.ViewRepository;
+import com.example.demo.service.DimensionDictionary;
+import com.example.demo.service.EventImportService;
+import com.example.demo.service.EventIngestionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for {@link EventImportService} on an embedded H2 database.
+ * <p>
+ * Imports commit from their own threads, so the tests run outside a transaction
+ * and empty the tables afterwards.
+ * Verifies:
+ * <ul>
+ *   <li>Gzipped files with quoted fields are imported in full</li>
+ *   <li>A failed import keeps its written chunks and resuming it writes each record once</li>
+ *   <li>Paths outside the import directory are rejected</li>
+ * </ul>
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EventImportServiceTests {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2023, 3, 1, 0, 0);
+
+    @TempDir
+    private Path directory;
+
+    @Autowired
+    private EventImportRepository importRepository;
+
+    @Autowired
+    private EventImportChunkRepository chunkRepository;
+
+    @Autowired
+    private ViewRepository viewRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private LayoutRepository layoutRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private DimensionDictionary dictionary;
+    private EventImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new DimensionDictionary(productRepository, layoutRepository, transactionManager);
+        EventImportProperties properties = new EventImportProperties();
+        properties.setDirectory(directory);
+        properties.setChunkSize(3);
+        properties.setParallelism(1);
+        properties.setBatchSize(2);
+        importService = new EventImportService(importRepository, chunkRepository, entityManagerFactory,
+                dictionary, mock(EventIngestionService.class), properties, new EventStoreProperties(),
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        chunkRepository.deleteAllInBatch();
+        importRepository.deleteAllInBatch();
+        viewRepository.deleteAllInBatch();
+        paymentRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void start_ShouldImportGzippedFileWithQuotedFields() throws Exception {
+        StringBuilder csv = new StringBuilder("id,product_id,layout_id,timestamp\n");
+        for (int i = 0; i < 9; i++) {
+            csv.append(i).append(",product1,layout1,").append(DAY.plusHours(i)).append('\n');
+        }
+        csv.append("9,\"product \"\"2\"\",\nnew\",layout1,").append(DAY).append('\n');
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(directory.resolve("views.csv.gz")))) {
+            out.write(csv.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        EventImportDto result = await(importService.start("views.csv.gz", EventType.VIEWS).getId());
+
+        assertEquals(ImportStatus.COMPLETED, result.getStatus());
+        assertEquals(10, result.getRowsImported());
+        assertEquals(4, result.getChunksCompleted());
+        int layout = dictionary.findLayoutKey("layout1").orElseThrow();
+        assertEquals(9, viewRepository.countByProductKeyAndLayoutKeyAndTimestampBetween(
+                dictionary.findProductKey("product1").orElseThrow(), layout, DAY, DAY.plusDays(1)));
+        assertEquals(1, viewRepository.countByProductKeyAndLayoutKeyAndTimestampBetween(
+                dictionary.findProductKey("product \"2\",\nnew").orElseThrow(), layout, DAY, DAY));
+    }
+
+    @Test
+    void resume_ShouldWriteEachRecordOnce() throws Exception {
+        Path file = directory.resolve("payments.csv");
+        Files.writeString(file, payments("not-a-time"));
+
+        EventImportDto failed = await(importService.start("payments.csv", EventType.PAYMENTS).getId());
+
+        assertEquals(ImportStatus.FAILED, failed.getStatus());
+        assertTrue(failed.getError().startsWith("Record 5:"), failed.getError());
+        assertEquals(3, failed.getRowsImported());
+        assertEquals(3, paymentRepository.count());
+
+        Files.writeString(file, payments(DAY.toString()));
+        EventImportDto resumed = await(importService.resume(failed.getId()).orElseThrow().getId());
+
+        assertEquals(ImportStatus.COMPLETED, resumed.getStatus());
+        assertEquals(8, resumed.getRowsImported());
+        assertEquals(3, resumed.getChunksCompleted());
+        assertEquals(8, paymentRepository.count());
+        assertThrows(IllegalStateException.class, () -> importService.resume(failed.getId()));
+    }
+
+    @Test
+    void start_ShouldRejectPathOutsideImportDirectory() throws IOException {
+        Files.writeString(directory.resolveSibling("outside.csv"), "product_id,layout_id,timestamp\n");
+
+        assertThrows(IllegalArgumentException.class, () -> importService.start("../outside.csv", EventType.VIEWS));
+        assertThrows(IllegalArgumentException.class, () -> importService.start("missing.csv", EventType.VIEWS));
+        assertEquals(0, importRepository.count());
+    }
+
+    private static String payments(String fifthTimestamp) {
+        StringBuilder csv = new StringBuilder("product_id,layout_id,timestamp\n");
+        for (int i = 1; i <= 8; i++) {
+            csv.append("product1,layout1,").append(i == 5 ? fifthTimestamp : DAY.plusMinutes(i).toString()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private EventImportDto await(UUID id) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        EventImportDto progress = importService.getImport(id).orElseThrow();
+        while (progress.getStatus() == ImportStatus.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            progress = importService.getImport(id).orElseThrow();
+        }
+        return progress;
+    }
+}
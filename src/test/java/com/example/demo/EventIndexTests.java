@@ -0,0 +1,144 @@
+package com.example.demo;
+
+import com.example.demo.config.EventIndexProperties;
+import com.example.demo.repository.PaymentRepository;
+import com.example.demo.repository.ViewRepository;
+import com.example.demo.service.EventIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for {@link EventIndex}.
+ * <p>
+ * Verifies range counting over preloaded keys, appends of newly ingested
+ * events one by one and in batches, events recorded during a load being
+ * counted once, misses for keys that are not indexed and eviction of cold keys
+ * once the memory budget is exceeded.
+ */
+@ExtendWith(MockitoExtension.class)
+public class EventIndexTests {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Mock
+    private ViewRepository viewRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EventIndexProperties properties;
+    private EventIndex eventIndex;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EventIndexProperties();
+        properties.setEnabled(true);
+        properties.setAdmitAfterMisses(0);
+        eventIndex = new EventIndex(viewRepository, paymentRepository, properties, transactionManager);
+    }
+
+    @Test
+    void countViews_ShouldCountInclusiveRange() {
+        properties.setPreload(List.of("product1:layout1"));
+        when(viewRepository.streamTimestamps("product1", "layout1"))
+                .thenReturn(Stream.of(DAY.plusHours(3), DAY, DAY.plusHours(1), DAY.plusHours(2)));
+        when(paymentRepository.streamTimestamps("product1", "layout1"))
+                .thenReturn(Stream.of(DAY.plusHours(1)));
+
+        eventIndex.preload();
+
+        assertEquals(OptionalLong.of(3), eventIndex.countViews("product1", "layout1", DAY, DAY.plusHours(2)));
+        assertEquals(OptionalLong.of(2), eventIndex.countViews("product1", "layout1", DAY.plusMinutes(1), DAY.plusHours(2)));
+        assertEquals(OptionalLong.of(0), eventIndex.countViews("product1", "layout1", DAY.plusHours(4), DAY.plusHours(5)));
+        assertEquals(OptionalLong.of(1), eventIndex.countPayments("product1", "layout1", DAY, DAY.plusDays(1)));
+    }
+
+    @Test
+    void recordView_ShouldAppendToIndexedKey() {
+        properties.setPreload(List.of("product1:layout1"));
+        when(viewRepository.streamTimestamps("product1", "layout1")).thenReturn(Stream.of(DAY.plusHours(5)));
+        when(paymentRepository.streamTimestamps("product1", "layout1")).thenReturn(Stream.empty());
+        eventIndex.preload();
+
+        eventIndex.recordView("product1", "layout1", 10, DAY.plusHours(6));
+        eventIndex.recordView("product1", "layout1", 11, DAY.plusHours(1));
+
+        assertEquals(OptionalLong.of(2), eventIndex.countViews("product1", "layout1", DAY, DAY.plusHours(5)));
+        assertEquals(OptionalLong.of(3), eventIndex.countViews("product1", "layout1", DAY, DAY.plusDays(1)));
+    }
+
+    @Test
+    void recordViews_ShouldMergeUnsortedBatch() {
+        properties.setPreload(List.of("product1:layout1"));
+        when(viewRepository.streamTimestamps("product1", "layout1"))
+                .thenReturn(Stream.of(DAY.plusHours(2), DAY.plusHours(4), DAY.plusHours(6)));
+        when(paymentRepository.streamTimestamps("product1", "layout1")).thenReturn(Stream.empty());
+        eventIndex.preload();
+
+        eventIndex.recordViews("product1", "layout1", new long[]{10, 11, 12, 13},
+                List.of(DAY.plusHours(7), DAY.plusHours(1), DAY.plusHours(4), DAY.plusHours(3)));
+        eventIndex.recordViews("product2", "layout1", new long[]{14}, List.of(DAY));
+
+        assertEquals(OptionalLong.of(1), eventIndex.countViews("product1", "layout1", DAY, DAY.plusHours(1)));
+        assertEquals(OptionalLong.of(4), eventIndex.countViews("product1", "layout1", DAY.plusHours(2), DAY.plusHours(4)));
+        assertEquals(OptionalLong.of(7), eventIndex.countViews("product1", "layout1", DAY, DAY.plusDays(1)));
+        assertFalse(eventIndex.isIndexed("product2", "layout1"));
+    }
+
+    @Test
+    void load_ShouldCountEventsRecordedDuringLoadOnce() {
+        properties.setPreload(List.of("product1:layout1"));
+        when(viewRepository.streamTimestamps("product1", "layout1")).thenAnswer(invocation -> {
+            // view 1 was committed before the snapshot, view 2 after it
+            eventIndex.recordView("product1", "layout1", 1, DAY);
+            eventIndex.recordView("product1", "layout1", 2, DAY.plusHours(1));
+            return Stream.of(DAY);
+        });
+        when(paymentRepository.streamTimestamps("product1", "layout1")).thenReturn(Stream.empty());
+        when(viewRepository.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L));
+
+        eventIndex.preload();
+
+        assertEquals(OptionalLong.of(1), eventIndex.countViews("product1", "layout1", DAY, DAY));
+        assertEquals(OptionalLong.of(2), eventIndex.countViews("product1", "layout1", DAY, DAY.plusDays(1)));
+    }
+
+    @Test
+    void countViews_ShouldReturnEmptyForUnindexedKey() {
+        assertTrue(eventIndex.countViews("product1", "layout1", DAY, DAY.plusDays(1)).isEmpty());
+        assertFalse(eventIndex.isIndexed("product1", "layout1"));
+    }
+
+    @Test
+    void preload_ShouldEvictColdKeysWhenOverBudget() {
+        properties.setMemoryBudget(DataSize.ofBytes(12_000));
+        properties.setPreload(List.of("product1:layout1", "product2:layout1"));
+        when(viewRepository.streamTimestamps(anyString(), anyString()))
+                .thenAnswer(invocation -> IntStream.range(0, 1000).mapToObj(DAY::plusSeconds));
+        when(paymentRepository.streamTimestamps(anyString(), anyString())).thenAnswer(invocation -> Stream.empty());
+
+        eventIndex.preload();
+
+        assertFalse(eventIndex.isIndexed("product1", "layout1"));
+        assertTrue(eventIndex.isIndexed("product2", "layout1"));
+        assertTrue(eventIndex.usedBytes() <= 12_000);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.demo;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark of the event table index layouts in {@code R__Event_table_storage.sql}.
+ * <p>
+ * For each layout, a throwaway schema gets a {@code view} table prepared by the
+ * migration script itself. Two years of time-ordered events for 50 products are
+ * then inserted, and the benchmark prints:
+ * <ul>
+ *   <li>The insert throughput with the indexes in place</li>
+ *   <li>The total size of the table's indexes</li>
+ *   <li>The median latency of the report count query for ranges from one day to two years</li>
+ * </ul>
+ * Counts of both layouts are checked to be identical.
+ *
+ * <p>Requires PostgreSQL and is excluded from the default build; run with
+ * {@code mvn test -Pbenchmark -Dbenchmark.postgres.url=jdbc:postgresql://localhost:5432/bench}
+ * and optionally {@code -Dbenchmark.postgres.user} and {@code -Dbenchmark.postgres.password}.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark.postgres.url", matches = ".+")
+public class EventStorageBenchmarkTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final int DAYS = 730;
+    private static final int PRODUCTS = 50;
+    private static final int VIEWS_PER_DAY = 5_000;
+    private static final int BATCH_SIZE = 5_000;
+    private static final int[] RANGE_DAYS = {1, 7, 30, 90, 365, 730};
+    private static final int REPETITIONS = 7;
+    private static final String[] LAYOUTS = {"btree", "brin"};
+
+    @Test
+    void compareIndexLayouts() throws Exception {
+        long[][] counts = new long[LAYOUTS.length][];
+        try (Connection connection = DriverManager.getConnection(System.getProperty("benchmark.postgres.url"),
+                System.getProperty("benchmark.postgres.user", "postgres"),
+                System.getProperty("benchmark.postgres.password", "postgres"))) {
+            for (int i = 0; i < LAYOUTS.length; i++) {
+                counts[i] = run(connection, LAYOUTS[i]);
+            }
+        }
+        for (int i = 1; i < LAYOUTS.length; i++) {
+            assertEquals(Arrays.toString(counts[0]), Arrays.toString(counts[i]));
+        }
+    }
+
+    private long[] run(Connection connection, String layout) throws SQLException, IOException {
+        String schema = "bench_event_storage_" + layout;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+            statement.execute("CREATE SCHEMA " + schema);
+            statement.execute("SET search_path TO " + schema);
+            statement.execute("CREATE TABLE view (id BIGINT PRIMARY KEY, product_key INTEGER, "
+                    + "layout_key INTEGER, timestamp TIMESTAMP)");
+            statement.execute("CREATE TABLE payment (id BIGINT PRIMARY KEY, product_key INTEGER, "
+                    + "layout_key INTEGER, timestamp TIMESTAMP)");
+            statement.execute(storageScript(layout));
+        }
+
+        try {
+            double rowsPerSecond = insertEvents(connection);
+            long indexBytes;
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE view");
+                try (ResultSet result = statement.executeQuery(
+                        "SELECT pg_indexes_size('view'::regclass)")) {
+                    result.next();
+                    indexBytes = result.getLong(1);
+                }
+            }
+
+            System.out.printf("%n%s: %,.0f inserts/s, indexes %,d kB%n", layout, rowsPerSecond, indexBytes / 1024);
+            System.out.printf("%10s %12s %14s%n", "range", "count", "latency [ms]");
+            long[] counts = new long[RANGE_DAYS.length];
+            try (PreparedStatement query = connection.prepareStatement("SELECT count(*) FROM view "
+                    + "WHERE product_key = ? AND layout_key = ? AND timestamp BETWEEN ? AND ?")) {
+                for (int i = 0; i < RANGE_DAYS.length; i++) {
+                    query.setInt(1, 7);
+                    query.setInt(2, 1);
+                    query.setTimestamp(3, Timestamp.valueOf(START.plusDays(100)));
+                    query.setTimestamp(4, Timestamp.valueOf(START.plusDays(100 + RANGE_DAYS[i]).minusNanos(1000)));
+                    counts[i] = count(query);
+                    System.out.printf("%9dd %12d %14.2f%n", RANGE_DAYS[i], counts[i], medianMillis(query));
+                }
+            }
+            return counts;
+        } finally {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET search_path TO public");
+                statement.execute("DROP SCHEMA " + schema + " CASCADE");
+            }
+        }
+    }
+
+    private static double insertEvents(Connection connection) throws SQLException {
+        Random random = new Random(7);
+        long rows = 0;
+        long started = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO view (id, product_key, layout_key, timestamp) VALUES (?, ?, ?, ?)")) {
+            long secondsPerView = 86_400L / VIEWS_PER_DAY;
+            for (long i = 0; i < (long) DAYS * VIEWS_PER_DAY; i++) {
+                insert.setLong(1, i + 1);
+                insert.setInt(2, 1 + random.nextInt(PRODUCTS));
+                insert.setInt(3, 1 + random.nextInt(2));
+                insert.setTimestamp(4, Timestamp.valueOf(START.plusSeconds(i * secondsPerView)));
+                insert.addBatch();
+                if (++rows % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        return rows / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private static String storageScript(String layout) throws IOException {
+        return new ClassPathResource("db/migration/R__Event_table_storage.sql")
+                .getContentAsString(StandardCharsets.UTF_8)
+                .replace("${eventTimestampIndex}", layout)
+                .replace("${brinPagesPerRange}", "32");
+    }
+
+    private static long count(PreparedStatement query) throws SQLException {
+        try (ResultSet result = query.executeQuery()) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static double medianMillis(PreparedStatement query) throws SQLException {
+        count(query);
+        double[] samples = new double[REPETITIONS];
+        for (int i = 0; i < REPETITIONS; i++) {
+            long started = System.nanoTime();
+            count(query);
+            samples[i] = (System.nanoTime() - started) / 1e6;
+        }
+        Arrays.sort(samples);
+        return samples[REPETITIONS / 2];
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo;
+
+import com.example.demo.service.EventStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Behavior every {@link EventStore} backend must share.
+ * <p>
+ * Each backend's test class extends this one and supplies an empty store.
+ * Verifies:
+ * <ul>
+ *   <li>Ranges are inclusive at both ends</li>
+ *   <li>Counts are separated by event type, product and layout</li>
+ *   <li>Unknown products and empty ranges count zero</li>
+ *   <li>Ranges spanning several days and events recorded out of order are counted</li>
+ *   <li>Counts match a brute-force count for random ranges</li>
+ * </ul>
+ */
+public abstract class EventStoreConformanceTests {
+
+    protected static final LocalDateTime DAY = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    /**
+     * Returns the store under test. It is empty at the start of every test.
+     *
+     * @return the store
+     */
+    protected abstract EventStore store();
+
+    @Test
+    void count_ShouldIncludeRangeBoundaries() {
+        store().recordView("product1", "layout1", DAY.plusHours(1));
+        store().recordView("product1", "layout1", DAY.plusHours(2));
+        store().recordView("product1", "layout1", DAY.plusHours(3));
+
+        assertEquals(3, store().countViews("product1", "layout1", DAY.plusHours(1), DAY.plusHours(3)));
+        assertEquals(1, store().countViews("product1", "layout1", DAY.plusHours(2), DAY.plusHours(2)));
+        assertEquals(1, store().countViews("product1", "layout1", DAY.plusHours(1).plusSeconds(1), DAY.plusHours(2)));
+        assertEquals(0, store().countViews("product1", "layout1", DAY.plusHours(4), DAY.plusHours(5)));
+        assertEquals(0, store().countViews("product1", "layout1", DAY.plusHours(3), DAY.plusHours(1)));
+    }
+
+    @Test
+    void count_ShouldSeparateTypesProductsAndLayouts() {
+        store().recordView("product1", "layout1", DAY.plusHours(1));
+        store().recordView("product1", "layout2", DAY.plusHours(1));
+        store().recordView("product2", "layout1", DAY.plusHours(1));
+        store().recordPayment("product1", "layout1", DAY.plusHours(1));
+        store().recordPayment("product1", "layout1", DAY.plusHours(2));
+
+        assertEquals(1, store().countViews("product1", "layout1", DAY, DAY.plusDays(1)));
+        assertEquals(2, store().countPayments("product1", "layout1", DAY, DAY.plusDays(1)));
+        assertEquals(1, store().countViews("product1", "layout2", DAY, DAY.plusDays(1)));
+        assertEquals(0, store().countPayments("product2", "layout1", DAY, DAY.plusDays(1)));
+    }
+
+    @Test
+    void count_ShouldBeZeroForUnknownProduct() {
+        store().recordView("product1", "layout1", DAY.plusHours(1));
+
+        assertEquals(0, store().countViews("product9", "layout1", DAY, DAY.plusDays(1)));
+        assertEquals(0, store().countPayments("product1", "layout9", DAY, DAY.plusDays(1)));
+    }
+
+    @Test
+    void count_ShouldSpanDaysAndIncludeLateEvents() {
+        store().recordView("product1", "layout1", DAY.minusSeconds(1));
+        store().recordView("product1", "layout1", DAY);
+        store().recordView("product1", "layout1", DAY.plusDays(2).plusHours(12));
+        store().recordView("product1", "layout1", DAY.plusDays(1).plusHours(6));
+        store().recordView("product1", "layout1", DAY.plusDays(3).minusNanos(1000));
+
+        assertEquals(5, store().countViews("product1", "layout1", DAY.minusDays(1), DAY.plusDays(4)));
+        assertEquals(4, store().countViews("product1", "layout1", DAY, DAY.plusDays(3)));
+        assertEquals(2, store().countViews("product1", "layout1", DAY.plusHours(1), DAY.plusDays(2).plusHours(12)));
+        assertEquals(2, store().countViews("product1", "layout1", DAY.minusSeconds(1), DAY.plusHours(1)));
+    }
+
+    @Test
+    void count_ShouldMatchBruteForceForRandomRanges() {
+        Random random = new Random(11);
+        List<LocalDateTime> views = new ArrayList<>();
+        List<LocalDateTime> payments = new ArrayList<>();
+        LocalDateTime clock = DAY;
+        for (int i = 0; i < 1500; i++) {
+            clock = clock.plusSeconds(random.nextInt(600));
+            LocalDateTime timestamp = random.nextInt(10) == 0 ? clock.minusSeconds(random.nextInt(20_000)) : clock;
+            views.add(timestamp);
+            store().recordView("product1", "layout1", timestamp);
+            if (random.nextInt(20) == 0) {
+                payments.add(timestamp);
+                store().recordPayment("product1", "layout1", timestamp);
+            }
+            if (random.nextInt(5) == 0) {
+                store().recordView("product2", "layout1", timestamp);
+            }
+        }
+
+        long spanSeconds = Duration.between(DAY.minusDays(1), clock.plusDays(1)).toSeconds();
+        for (int i = 0; i < 100; i++) {
+            LocalDateTime a = DAY.minusDays(1).plusSeconds(random.nextLong(spanSeconds));
+            LocalDateTime b = DAY.minusDays(1).plusSeconds(random.nextLong(spanSeconds));
+            LocalDateTime start = a.isBefore(b) ? a : b;
+            LocalDateTime end = a.isBefore(b) ? b : a;
+            assertEquals(bruteForce(views, start, end), store().countViews("product1", "layout1", start, end),
+                    "views in " + start + " .. " + end);
+            assertEquals(bruteForce(payments, start, end), store().countPayments("product1", "layout1", start, end),
+                    "payments in " + start + " .. " + end);
+        }
+    }
+
+    private static long bruteForce(List<LocalDateTime> events, LocalDateTime start, LocalDateTime end) {
+        return events.stream().filter(t -> !t.isBefore(start) && !t.isAfter(end)).count();
+    }
+}
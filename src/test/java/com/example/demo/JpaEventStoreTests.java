@@ -0,0 +1,65 @@
+package com.example.demo;
+
+import com.example.demo.config.EventIndexProperties;
+import com.example.demo.repository.LayoutRepository;
+import com.example.demo.repository.PaymentRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.ViewRepository;
+import com.example.demo.service.DimensionDictionary;
+import com.example.demo.service.EventIndex;
+import com.example.demo.service.EventStore;
+import com.example.demo.service.JpaEventStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Runs the {@link EventStoreConformanceTests} against {@link JpaEventStore} on an
+ * embedded H2 database.
+ * <p>
+ * Every event is committed as in production, and the event tables are emptied
+ * after each test.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+public class JpaEventStoreTests extends EventStoreConformanceTests {
+
+    @Autowired
+    private ViewRepository viewRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private LayoutRepository layoutRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JpaEventStore store;
+
+    @BeforeEach
+    void setUp() {
+        DimensionDictionary dictionary = new DimensionDictionary(productRepository, layoutRepository, transactionManager);
+        EventIndex eventIndex = new EventIndex(viewRepository, paymentRepository, new EventIndexProperties(), transactionManager);
+        store = new JpaEventStore(viewRepository, paymentRepository, eventIndex, dictionary);
+    }
+
+    @AfterEach
+    void tearDown() {
+        viewRepository.deleteAllInBatch();
+        paymentRepository.deleteAllInBatch();
+    }
+
+    @Override
+    protected EventStore store() {
+        return store;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.demo;
+
+import com.example.demo.config.LiveReportProperties;
+import com.example.demo.entity.ReportRequest;
+import com.example.demo.entity.ReportResult;
+import com.example.demo.repository.ReportRequestRepository;
+import com.example.demo.repository.ReportResultRepository;
+import com.example.demo.service.LiveReportRegistry;
+import com.example.demo.service.LiveReportUpdate;
+import com.example.demo.service.RatioEstimate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for {@link LiveReportRegistry}.
+ * <p>
+ * Verifies:
+ * <ul>
+ *   <li>Only events of the report's series and range are counted</li>
+ *   <li>Flushes add the pending counts to the stored result and read the totals back</li>
+ *   <li>Counts are kept for the next flush while the result does not exist yet</li>
+ *   <li>Subscribers receive changed totals and a final update when the range has ended</li>
+ *   <li>Tracking a report again from another instant drops the counts of the earlier computation</li>
+ *   <li>Discarding only removes the counter of the rolled back computation</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+public class LiveReportRegistryTests {
+
+    @Mock
+    private ReportRequestRepository requestRepository;
+
+    @Mock
+    private ReportResultRepository resultRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LiveReportRegistry registry;
+    private ReportRequest request;
+
+    @BeforeEach
+    void setUp() {
+        registry = new LiveReportRegistry(requestRepository, resultRepository, new LiveReportProperties(), transactionManager);
+        request = new ReportRequest();
+        request.setId(UUID.randomUUID());
+        request.setProductId("product1");
+        request.setLayoutId("layout1");
+        request.setLive(true);
+        request.setEndDate(LocalDateTime.now().plusDays(1));
+    }
+
+    @Test
+    void flush_ShouldAddCountedEventsToStoredResult() {
+        LocalDateTime countFrom = LocalDateTime.now().minusMinutes(1);
+        registry.track(request, countFrom);
+        registry.recordView("product1", "layout1", countFrom);
+        registry.recordView("product1", "layout1", countFrom.plusSeconds(1));
+        registry.recordPayment("product1", "layout1", countFrom.plusSeconds(2));
+        registry.recordView("product1", "layout1", countFrom.minusNanos(1000));
+        registry.recordView("product2", "layout1", countFrom.plusSeconds(1));
+        when(resultRepository.addCounts(request.getId(), 2, 1)).thenReturn(1);
+        when(resultRepository.findByRequestId(request.getId())).thenReturn(Optional.of(result(102, 11)));
+        List<LiveReportUpdate> updates = new ArrayList<>();
+        registry.subscribe(request.getId(), updates::add);
+
+        assertTrue(registry.current(request.getId()).isEmpty());
+        registry.flush();
+        registry.recordPayment("product1", "layout1", countFrom.plusSeconds(3));
+
+        assertEquals(Optional.of(RatioEstimate.exact(102, 12)), registry.current(request.getId()));
+        assertEquals(List.of(new LiveReportUpdate(request.getId(), RatioEstimate.exact(102, 11), false)), updates);
+    }
+
+    @Test
+    void flush_ShouldKeepCountsUntilResultExists() {
+        registry.track(request, LocalDateTime.now().minusMinutes(1));
+        registry.recordView("product1", "layout1", LocalDateTime.now());
+        when(resultRepository.addCounts(request.getId(), 1, 0)).thenReturn(0).thenReturn(1);
+        when(resultRepository.findByRequestId(request.getId()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(result(1, 0)));
+        when(requestRepository.existsById(request.getId())).thenReturn(true);
+
+        registry.flush();
+        assertTrue(registry.isTracked(request.getId()));
+        registry.flush();
+
+        verify(resultRepository, times(2)).addCounts(request.getId(), 1, 0);
+        assertEquals(Optional.of(RatioEstimate.exact(1, 0)), registry.current(request.getId()));
+    }
+
+    @Test
+    void flush_ShouldCloseReportAfterRangeEnds() {
+        request.setEndDate(LocalDateTime.now().minusMinutes(1));
+        registry.track(request, LocalDateTime.now().minusMinutes(2));
+        when(resultRepository.findByRequestId(request.getId())).thenReturn(Optional.of(result(5, 1)));
+        List<LiveReportUpdate> updates = new ArrayList<>();
+        registry.subscribe(request.getId(), updates::add);
+
+        registry.flush();
+
+        assertFalse(registry.isTracked(request.getId()));
+        assertEquals(List.of(new LiveReportUpdate(request.getId(), RatioEstimate.exact(5, 1), true)), updates);
+        verify(resultRepository, never()).addCounts(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void track_ShouldReplaceCounterOfEarlierComputation() {
+        LocalDateTime firstFrom = LocalDateTime.now().minusMinutes(2);
+        registry.track(request, firstFrom);
+        registry.recordView("product1", "layout1", firstFrom.plusSeconds(1));
+
+        registry.track(request, firstFrom.plusMinutes(1));
+        registry.recordView("product1", "layout1", firstFrom.plusSeconds(1));
+        registry.recordView("product1", "layout1", firstFrom.plusMinutes(1).plusSeconds(1));
+        when(resultRepository.addCounts(request.getId(), 1, 0)).thenReturn(1);
+        when(resultRepository.findByRequestId(request.getId())).thenReturn(Optional.of(result(10, 0)));
+
+        registry.flush();
+
+        verify(resultRepository).addCounts(request.getId(), 1, 0);
+    }
+
+    @Test
+    void discard_ShouldKeepCounterOfNewerComputation() {
+        LocalDateTime firstFrom = LocalDateTime.now().minusMinutes(2);
+        registry.track(request, firstFrom);
+        registry.track(request, firstFrom.plusMinutes(1));
+
+        registry.discard(request.getId(), firstFrom);
+        assertTrue(registry.isTracked(request.getId()));
+
+        registry.discard(request.getId(), firstFrom.plusMinutes(1));
+        assertFalse(registry.isTracked(request.getId()));
+    }
+
+    private ReportResult result(long views, int payments) {
+        ReportResult result = new ReportResult();
+        result.setRequestId(request.getId());
+        result.setViewCount(views);
+        result.setPaymentCount(payments);
+        return result;
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.demo;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.demo.messaging.RabbitMQProducerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.qpid.server.SystemLauncher;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.reportservice.notification.configs.NotificationProperties;
+import org.reportservice.notification.consumers.RabbitMQConsumer;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.BatchingRabbitTemplate;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.adapter.MessageListenerAdapter;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareMessageListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark of the report completion notification path: {@link RabbitMQProducerService}
+ * publishes to {@code report.exchange}, the broker routes to {@code notification.queue}
+ * and the notification service's {@link RabbitMQConsumer} handles each message.
+ * <p>
+ * An embedded Qpid Broker-J speaking AMQP 0-9-1 stands in for RabbitMQ, in the same
+ * JVM and with an in-memory store. For each combination of producer batch size and
+ * consumer prefetch count it prints:
+ * <ul>
+ *   <li>End-to-end throughput, from the first publish to the last message handled</li>
+ *   <li>Percentiles of the latency from publish to handling</li>
+ *   <li>Bytes allocated per message by all threads, the embedded broker's included</li>
+ * </ul>
+ * The consumer notifies without coalescing, so every message is de-duplicated and
+ * notified while it is handled. Messages are published from one thread as fast as possible and handled by one
+ * consumer, so latencies include the time spent queued behind earlier messages
+ * and show how far each setting falls behind under saturation. Both sides print
+ * every message, so standard output is discarded while a run is measured.
+ * Absolute numbers depend on the machine and a real RabbitMQ behaves differently;
+ * the table is meant for comparing settings. The number of messages per run is set
+ * with {@code -Dbenchmark.messages}.
+ *
+ * <p>Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class MessagingThroughputBenchmarkTests {
+
+    private static final int MESSAGES = Integer.getInteger("benchmark.messages", 20_000);
+    private static final int[] PRODUCER_BATCH_SIZES = {1, 100};
+    private static final int[] PREFETCH_COUNTS = {1, 50, 250};
+    private static final String QUEUE = "notification.queue";
+    private static final String ROUTING_KEY = "notification.routing.key";
+
+    private static SystemLauncher broker;
+    private static int port;
+
+    @BeforeAll
+    static void startBroker(@TempDir Path workDirectory) throws Exception {
+        // The broker logs every connection, channel and declaration at INFO
+        for (String name : new String[]{"qpid", "org.apache.qpid", "org.springframework.amqp"}) {
+            ((Logger) LoggerFactory.getLogger(name)).setLevel(Level.WARN);
+        }
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("type", "Memory");
+        attributes.put("initialConfigurationLocation",
+                MessagingThroughputBenchmarkTests.class.getResource("/qpid-benchmark.json").toExternalForm());
+        attributes.put("startupLoggedToSystemOut", false);
+        attributes.put("context", Map.of(
+                "qpid.amqp_port", String.valueOf(port),
+                "qpid.work_dir", workDirectory.toString()));
+        broker = new SystemLauncher();
+        broker.startup(attributes);
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        if (broker != null) {
+            broker.shutdown();
+        }
+    }
+
+    @Test
+    void throughputByBatchAndPrefetch() throws Exception {
+        run(1, 250, MESSAGES / 4);
+
+        System.out.printf("Messages per run: %d, available processors: %d%n",
+                MESSAGES, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%6s %9s %12s %9s %9s %9s %9s %12s%n", "batch", "prefetch", "msg/s",
+                "p50 ms", "p99 ms", "p99.9 ms", "max ms", "bytes/msg");
+        for (int batchSize : PRODUCER_BATCH_SIZES) {
+            for (int prefetch : PREFETCH_COUNTS) {
+                Result result = run(batchSize, prefetch, MESSAGES);
+                Histogram latencies = result.latencies();
+                System.out.printf("%6d %9d %12.0f %9.2f %9.2f %9.2f %9.2f %12d%n", batchSize, prefetch,
+                        result.messagesPerSecond(),
+                        latencies.getValueAtPercentile(50) / 1000.0,
+                        latencies.getValueAtPercentile(99) / 1000.0,
+                        latencies.getValueAtPercentile(99.9) / 1000.0,
+                        latencies.getMaxValue() / 1000.0,
+                        result.bytesPerMessage());
+            }
+        }
+    }
+
+    private Result run(int batchSize, int prefetch, int messages) throws Exception {
+        CachingConnectionFactory connectionFactory = new CachingConnectionFactory("localhost", port);
+        connectionFactory.setUsername("guest");
+        connectionFactory.setPassword("guest");
+        connectionFactory.setVirtualHost("default");
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(connectionFactory);
+        PrintStream out = System.out;
+        try {
+            DirectExchange exchange = new DirectExchange("report.exchange");
+            Queue queue = new Queue(QUEUE, false);
+            RabbitAdmin admin = new RabbitAdmin(connectionFactory);
+            admin.declareExchange(exchange);
+            admin.declareQueue(queue);
+            admin.declareBinding(BindingBuilder.bind(queue).to(exchange).with(ROUTING_KEY));
+            admin.purgeQueue(QUEUE, false);
+
+            RabbitTemplate template = batchSize == 1
+                    ? new RabbitTemplate(connectionFactory)
+                    : new BatchingRabbitTemplate(connectionFactory,
+                    new SimpleBatchingStrategy(batchSize, 64 * 1024, 50), scheduler);
+            RabbitMQProducerService producer = new RabbitMQProducerService(template, exchange, new ObjectMapper());
+
+            Map<String, Long> sentAt = new ConcurrentHashMap<>(2 * messages);
+            Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+            CountDownLatch handled = new CountDownLatch(messages);
+            NotificationProperties notificationProperties = new NotificationProperties();
+            notificationProperties.setCoalesceWindow(Duration.ZERO);
+            MessageListenerAdapter consumer = new MessageListenerAdapter(
+                    new RabbitMQConsumer(notificationProperties, new SimpleMeterRegistry()), "handleReportCompleted");
+            container.setQueueNames(QUEUE);
+            container.setPrefetchCount(prefetch);
+            container.setMessageListener((ChannelAwareMessageListener) (message, channel) -> {
+                consumer.onMessage(message, channel);
+                String body = new String(message.getBody(), StandardCharsets.UTF_8);
+                Long sent = sentAt.remove(body.substring(body.indexOf(':') + 1));
+                if (sent != null) {
+                    latencies.recordValue(Math.min(latencies.getHighestTrackableValue(),
+                            (System.nanoTime() - sent) / 1_000));
+                }
+                handled.countDown();
+            });
+            container.start();
+
+            UUID[] reportIds = new UUID[messages];
+            Arrays.setAll(reportIds, i -> UUID.randomUUID());
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            for (UUID reportId : reportIds) {
+                sentAt.put(reportId + ":1", System.nanoTime());
+                producer.sendReportCompletedNotification(reportId, 1L);
+            }
+            assertTrue(handled.await(5, TimeUnit.MINUTES), "all messages handled");
+            long elapsed = System.nanoTime() - start;
+            long allocated = allocatedBytes() - allocatedBefore;
+            System.setOut(out);
+            return new Result(messages / (elapsed / 1e9), latencies, allocated / messages);
+        } finally {
+            System.setOut(out);
+            container.stop();
+            scheduler.shutdown();
+            connectionFactory.destroy();
+        }
+    }
+
+    /**
+     * Sums the bytes allocated so far by the live threads of this JVM.
+     */
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return Arrays.stream(threads.getThreadAllocatedBytes(threads.getAllThreadIds()))
+                .filter(bytes -> bytes > 0)
+                .sum();
+    }
+
+    private record Result(double messagesPerSecond, Histogram latencies, long bytesPerMessage) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.demo;
+
+import com.example.demo.config.ParallelComputationProperties;
+import com.example.demo.service.AnalyticsService;
+import com.example.demo.service.ParallelRangeCounter;
+import com.example.demo.service.RatioEstimate;
+import com.example.demo.utils.TimeRange;
+import com.example.demo.utils.TimeRanges;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ParallelRangeCounter} and {@link TimeRanges#split}.
+ * <p>
+ * Verifies:
+ * <ul>
+ *   <li>Sub-ranges are aligned, contiguous and cover the whole range</li>
+ *   <li>Partial counts of a split range add up to the count of the whole range</li>
+ *   <li>Sub-ranges are counted on the fork-join pool</li>
+ *   <li>Short ranges are counted in a single query</li>
+ * </ul>
+ */
+public class ParallelRangeCounterTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 13, 45);
+
+    @Test
+    void split_ShouldAlignToGranularityAndCoverRange() {
+        LocalDateTime end = START.plusDays(3).plusHours(2);
+
+        List<TimeRange> ranges = TimeRanges.split(START, end, Duration.ofDays(1));
+
+        assertEquals(4, ranges.size());
+        assertEquals(START, ranges.get(0).start());
+        assertEquals(end, ranges.get(3).end());
+        for (int i = 1; i < ranges.size(); i++) {
+            assertEquals(LocalDateTime.of(2024, 3, 1 + i, 0, 0), ranges.get(i).start());
+            assertEquals(ranges.get(i).start().minus(1, ChronoUnit.MICROS), ranges.get(i - 1).end());
+        }
+    }
+
+    @Test
+    void split_ShouldReturnSingleRangeWithinOneBucket() {
+        List<TimeRange> ranges = TimeRanges.split(START, START.plusHours(1), Duration.ofDays(1));
+
+        assertEquals(List.of(new TimeRange(START, START.plusHours(1))), ranges);
+    }
+
+    @Test
+    void count_ShouldMergePartialCountsOfSplitRange() {
+        HourlyAnalytics analytics = new HourlyAnalytics();
+        ParallelRangeCounter counter = new ParallelRangeCounter(analytics, properties(4), ObservationRegistry.NOOP);
+        LocalDateTime end = START.plusDays(60);
+
+        RatioEstimate estimate = counter.count("product1", "layout1", START, end);
+
+        assertTrue(estimate.exact());
+        assertEquals(60 * 24 * 10, estimate.viewCount());
+        assertEquals(60 * 24, estimate.paymentCount());
+        assertEquals(2 * 16, analytics.queries.get());
+        assertTrue(analytics.threads.stream().allMatch(name -> name.startsWith("report-range-")));
+    }
+
+    @Test
+    void count_ShouldNotSplitShortRange() {
+        HourlyAnalytics analytics = new HourlyAnalytics();
+        ParallelRangeCounter counter = new ParallelRangeCounter(analytics, properties(4), ObservationRegistry.NOOP);
+
+        RatioEstimate estimate = counter.count("product1", "layout1", START, START.plusDays(2));
+
+        assertEquals(48 * 10, estimate.viewCount());
+        assertEquals(2, analytics.queries.get());
+    }
+
+    private static ParallelComputationProperties properties(int maxParallelism) {
+        ParallelComputationProperties properties = new ParallelComputationProperties();
+        properties.setSplitThreshold(Duration.ofDays(14));
+        properties.setSplitGranularity(Duration.ofDays(1));
+        properties.setMaxParallelism(maxParallelism);
+        properties.setMaxSubRanges(16);
+        return properties;
+    }
+
+    /**
+     * Answers counts as if ten views and one payment occurred at every full hour.
+     */
+    private static class HourlyAnalytics extends AnalyticsService {
+        private final AtomicInteger queries = new AtomicInteger();
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        HourlyAnalytics() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public long countViews(String productId, String layoutId, LocalDateTime startDate, LocalDateTime endDate) {
+            return 10 * countHours(startDate, endDate);
+        }
+
+        @Override
+        public long countPayments(String productId, String layoutId, LocalDateTime startDate, LocalDateTime endDate) {
+            return countHours(startDate, endDate);
+        }
+
+        private long countHours(LocalDateTime startDate, LocalDateTime endDate) {
+            queries.incrementAndGet();
+            threads.add(Thread.currentThread().getName());
+            LocalDateTime first = startDate.truncatedTo(ChronoUnit.HOURS);
+            if (first.isBefore(startDate)) {
+                first = first.plusHours(1);
+            }
+            return first.isAfter(endDate) ? 0 : Duration.between(first, endDate).toHours() + 1;
+        }
+    }
+}
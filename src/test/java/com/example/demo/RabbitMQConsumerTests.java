@@ -0,0 +1,96 @@
+package com.example.demo;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reportservice.notification.configs.NotificationProperties;
+import org.reportservice.notification.consumers.RabbitMQConsumer;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test class for the notification service's {@link RabbitMQConsumer}.
+ * <p>
+ * Verifies:
+ * <ul>
+ *   <li>Repeated completions of the same report version are notified once</li>
+ *   <li>A report recomputed at a newer version is notified again</li>
+ *   <li>Messages without a version and malformed messages are handled</li>
+ *   <li>Events within the coalescing window are merged into one notification sent when it closes</li>
+ * </ul>
+ */
+public class RabbitMQConsumerTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PrintStream out = System.out;
+    private RabbitMQConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        NotificationProperties properties = new NotificationProperties();
+        properties.setCoalesceWindow(Duration.ZERO);
+        consumer = new RabbitMQConsumer(properties, registry);
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(out);
+    }
+
+    @Test
+    void handleReportCompleted_ShouldNotifyEachVersionOnce() {
+        UUID reportId = UUID.randomUUID();
+
+        consumer.handleReportCompleted("REPORT_COMPLETED:" + reportId + ":3");
+        consumer.handleReportCompleted("REPORT_COMPLETED:" + reportId + ":3");
+        consumer.handleReportCompleted("REPORT_COMPLETED:" + reportId + ":5");
+
+        assertEquals(2, sent());
+        assertEquals(1, registry.counter("notification.events.dropped", "reason", "duplicate").count());
+    }
+
+    @Test
+    void handleReportCompleted_ShouldAcceptMessagesWithoutVersion() {
+        UUID reportId = UUID.randomUUID();
+
+        consumer.handleReportCompleted("REPORT_COMPLETED:" + reportId);
+        consumer.handleReportCompleted("REPORT_COMPLETED:" + reportId + ":0");
+        consumer.handleReportCompleted("REPORT_COMPLETED:" + reportId + ":x");
+        consumer.handleReportCompleted("REPORT_COMPLETED:not-a-uuid");
+
+        assertEquals(1, sent());
+    }
+
+    @Test
+    void handleReportCompleted_ShouldCoalesceEventsWithinWindow() throws InterruptedException {
+        NotificationProperties properties = new NotificationProperties();
+        properties.setCoalesceWindow(Duration.ofMillis(200));
+        RabbitMQConsumer coalescing = new RabbitMQConsumer(properties, registry);
+        UUID reportId = UUID.randomUUID();
+
+        coalescing.handleReportCompleted("REPORT_COMPLETED:" + reportId + ":1");
+        coalescing.handleReportCompleted("REPORT_COMPLETED:" + reportId + ":1");
+        assertEquals(0, sent());
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (sent() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        coalescing.handleReportCompleted("REPORT_COMPLETED:" + reportId + ":1");
+
+        assertEquals(1, sent());
+        assertEquals(1, registry.counter("notification.events.dropped", "reason", "coalesced").count());
+        assertEquals(1, registry.counter("notification.events.dropped", "reason", "duplicate").count());
+    }
+
+    private double sent() {
+        return registry.counter("notification.sent").count();
+    }
+}
@@ -1,58 +1,71 @@
 package com.example.demo;
 
+import com.example.demo.dto.ReportResultDto;
 import com.example.demo.messaging.RabbitMQProducerService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 
 /**
  * Test class for {@link RabbitMQProducerService}.
  * <p>
- * Contains unit tests that verify the behavior of the Kafka producer service
- * when sending messages to the Kafka topic. Uses Mockito to mock the KafkaTemplate
- * and verify proper interactions.
- *
- * <p>Test scenarios:
+ * Verifies:
  * <ul>
- *   <li>Successful message sending to the configured topic</li>
+ *   <li>Completion notifications carry the report version and use the notification routing key</li>
+ *   <li>Report results are sent as JSON with their callback URL and the webhook routing key</li>
  * </ul>
- *
- * @see ExtendWith
- * @see Mock
- * @see InjectMocks
- * @see Test
  */
 @ExtendWith(MockitoExtension.class)
 public class RabbitMQProducerServiceTests {
 
     @Mock
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private RabbitTemplate rabbitTemplate;
 
-    @InjectMocks
+    private final ObjectMapper objectMapper = new ObjectMapper();
     private RabbitMQProducerService rabbitMQProducerService;
 
-    /**
-     * Tests that the service correctly sends messages to Kafka.
-     * <p>
-     * Verifies that:
-     * <ul>
-     *   <li>The message is sent to the correct topic ("report_requests")</li>
-     *   <li>The message content is preserved</li>
-     *   <li>The KafkaTemplate's send method is invoked exactly once</li>
-     * </ul>
-     */
+    @BeforeEach
+    void setUp() {
+        rabbitMQProducerService = new RabbitMQProducerService(
+                rabbitTemplate, new DirectExchange("report.exchange"), objectMapper);
+    }
+
+    @Test
+    void sendReportCompletedNotification_ShouldSendToNotificationRoutingKey() {
+        UUID reportId = UUID.randomUUID();
+
+        rabbitMQProducerService.sendReportCompletedNotification(reportId, 4L);
+
+        verify(rabbitTemplate).convertAndSend("report.exchange", "notification.routing.key",
+                "REPORT_COMPLETED:" + reportId + ":4");
+    }
+
     @Test
-    void sendMessage_ShouldSendMessageToKafka() {
-        String message = "Test message";
+    void sendReportResult_ShouldSendCallbackUrlAndResult() throws Exception {
+        ReportResultDto result = new ReportResultDto();
+        result.setRequestId(UUID.randomUUID());
+        result.setPaymentCount(3);
 
-        rabbitMQProducerService.sendMessage(message);
+        rabbitMQProducerService.sendReportResult("https://example.com/hook", result);
 
-        verify(kafkaTemplate).send(eq("report_requests"), eq(message));
+        ArgumentCaptor<Object> message = ArgumentCaptor.forClass(Object.class);
+        verify(rabbitTemplate).convertAndSend(eq("report.exchange"), eq("webhook.routing.key"), message.capture());
+        JsonNode json = objectMapper.readTree((String) message.getValue());
+        assertEquals("https://example.com/hook", json.get("callbackUrl").asText());
+        assertEquals(result.getRequestId().toString(), json.get("result").get("requestId").asText());
+        assertEquals(3, json.get("result").get("paymentCount").asLong());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,159 @@
+package com.example.demo;
+
+import com.example.demo.config.EventIndexProperties;
+import com.example.demo.config.ParallelComputationProperties;
+import com.example.demo.repository.LayoutRepository;
+import com.example.demo.repository.PaymentRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.ViewRepository;
+import com.example.demo.service.AnalyticsService;
+import com.example.demo.service.DimensionDictionary;
+import com.example.demo.service.EventIndex;
+import com.example.demo.service.JpaEventStore;
+import com.example.demo.service.ParallelRangeCounter;
+import com.example.demo.service.RatioEstimate;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark of {@link ParallelRangeCounter} against single-query counting.
+ * <p>
+ * Loads two years of synthetic events into an in-memory H2 database and prints
+ * the median latency of sequential and split counting for ranges from one day to
+ * two years. H2's query result cache is disabled so repeated runs really scan.
+ * Absolute numbers depend on the machine and database, and split counting can only
+ * win with several cores available; the table is meant for comparing the two
+ * strategies as the range grows. Results of both strategies are checked to be
+ * identical.
+ *
+ * <p>Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=0",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.hikari.maximum-pool-size=8",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RangeSplittingBenchmarkTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final int DAYS = 730;
+    private static final int VIEWS_PER_DAY = 500;
+    private static final int[] RANGE_DAYS = {1, 7, 30, 90, 365, 730};
+    private static final int REPETITIONS = 5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ViewRepository viewRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private LayoutRepository layoutRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void latencyByRangeLength() {
+        DimensionDictionary dictionary = new DimensionDictionary(productRepository, layoutRepository, transactionManager);
+        loadEvents(dictionary);
+        EventIndex eventIndex = new EventIndex(viewRepository, paymentRepository, new EventIndexProperties(), transactionManager);
+        AnalyticsService analyticsService = new AnalyticsService(viewRepository, paymentRepository, dictionary,
+                new JpaEventStore(viewRepository, paymentRepository, eventIndex, dictionary));
+        ParallelRangeCounter sequential = new ParallelRangeCounter(analyticsService, properties(1), ObservationRegistry.NOOP);
+        ParallelRangeCounter parallel = new ParallelRangeCounter(analyticsService, properties(4), ObservationRegistry.NOOP);
+
+        try {
+            System.out.printf("Available processors: %d%n", Runtime.getRuntime().availableProcessors());
+            System.out.printf("%10s %16s %16s%n", "range", "sequential [ms]", "parallel [ms]");
+            for (int days : RANGE_DAYS) {
+                LocalDateTime end = START.plusDays(days).minusSeconds(1);
+                RatioEstimate expected = sequential.count("product1", "layout1", START, end);
+                RatioEstimate actual = parallel.count("product1", "layout1", START, end);
+                assertEquals(expected, actual);
+                System.out.printf("%9dd %16.1f %16.1f%n", days,
+                        medianMillis(() -> sequential.count("product1", "layout1", START, end)),
+                        medianMillis(() -> parallel.count("product1", "layout1", START, end)));
+            }
+        } finally {
+            jdbcTemplate.update("delete from view");
+            jdbcTemplate.update("delete from payment");
+            jdbcTemplate.update("delete from product");
+            jdbcTemplate.update("delete from layout");
+        }
+    }
+
+    private void loadEvents(DimensionDictionary dictionary) {
+        Random random = new Random(7);
+        List<Object[]> views = new ArrayList<>();
+        List<Object[]> payments = new ArrayList<>();
+        long id = 0;
+        int layoutKey = dictionary.layoutKey("layout1");
+        for (int day = 0; day < DAYS; day++) {
+            for (String productId : new String[]{"product1", "product2"}) {
+                int productKey = dictionary.productKey(productId);
+                for (int i = 0; i < VIEWS_PER_DAY; i++) {
+                    Timestamp timestamp = Timestamp.valueOf(START.plusDays(day).plusSeconds(random.nextInt(86_400)));
+                    views.add(new Object[]{++id, productKey, layoutKey, timestamp});
+                    if (random.nextDouble() < 0.05) {
+                        payments.add(new Object[]{id, productKey, layoutKey, timestamp});
+                    }
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into view (id, product_key, layout_key, timestamp) values (?, ?, ?, ?)", views);
+        jdbcTemplate.batchUpdate("insert into payment (id, product_key, layout_key, timestamp) values (?, ?, ?, ?)", payments);
+        jdbcTemplate.execute("create index if not exists bench_view_idx on view (product_key, layout_key, timestamp)");
+        jdbcTemplate.execute("create index if not exists bench_payment_idx on payment (product_key, layout_key, timestamp)");
+    }
+
+    private static double medianMillis(Runnable action) {
+        action.run();
+        double[] samples = new double[REPETITIONS];
+        for (int i = 0; i < REPETITIONS; i++) {
+            long started = System.nanoTime();
+            action.run();
+            samples[i] = (System.nanoTime() - started) / 1e6;
+        }
+        Arrays.sort(samples);
+        return samples[REPETITIONS / 2];
+    }
+
+    private static ParallelComputationProperties properties(int maxParallelism) {
+        ParallelComputationProperties properties = new ParallelComputationProperties();
+        properties.setSplitThreshold(Duration.ofDays(1));
+        properties.setSplitGranularity(Duration.ofDays(1));
+        properties.setMaxParallelism(maxParallelism);
+        properties.setMaxSubRanges(4 * maxParallelism);
+        return properties;
+    }
+}
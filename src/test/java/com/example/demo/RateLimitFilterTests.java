@@ -0,0 +1,132 @@
+package com.example.demo;
+
+import com.example.demo.config.RateLimitFilter;
+import com.example.demo.config.RateLimitProperties;
+import com.example.demo.controller.ApiExceptionHandler;
+import com.example.demo.service.LocalRateLimiter;
+import com.example.demo.service.RateLimitDecision;
+import com.example.demo.service.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link RateLimitFilter} and {@link LocalRateLimiter}.
+ * <p>
+ * Verifies:
+ * <ul>
+ *   <li>A principal may create up to its burst of reports, then receives 429 with Retry-After</li>
+ *   <li>Buckets are kept per principal</li>
+ *   <li>Requests other than report creation are not limited</li>
+ *   <li>Concurrent acquisitions never exceed the burst</li>
+ *   <li>Admission rejections are translated into 429 with Retry-After</li>
+ * </ul>
+ */
+public class RateLimitFilterTests {
+
+    private RateLimitProperties properties;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setPermitsPerMinute(6);
+        properties.setBurst(3);
+        filter = new RateLimitFilter(new LocalRateLimiter(properties), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ShouldRejectPrincipalAfterBurst() throws Exception {
+        authenticate("alice");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(HttpStatus.OK.value(), createReport().getStatus());
+        }
+
+        MockHttpServletResponse rejected = createReport();
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+        long retryAfter = Long.parseLong(rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(retryAfter >= 9 && retryAfter <= 10, "Retry-After " + retryAfter);
+
+        authenticate("bob");
+        assertEquals(HttpStatus.OK.value(), createReport().getStatus());
+    }
+
+    @Test
+    void doFilter_ShouldNotLimitOtherRequests() throws Exception {
+        authenticate("alice");
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports/" + i);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(request, response, chain);
+            assertNotNull(chain.getRequest());
+        }
+    }
+
+    @Test
+    void tryAcquire_ShouldNotExceedBurstUnderContention() throws InterruptedException {
+        properties.setPermitsPerMinute(1);
+        properties.setBurst(100);
+        LocalRateLimiter limiter = new LocalRateLimiter(properties);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                if (limiter.tryAcquire("user:alice").allowed()) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, allowed.get());
+        RateLimitDecision decision = limiter.tryAcquire("user:alice");
+        assertFalse(decision.allowed());
+        assertTrue(decision.retryAfter().compareTo(Duration.ofSeconds(50)) > 0);
+    }
+
+    @Test
+    void handleTooManyRequests_ShouldSetRetryAfter() {
+        ResponseEntity<Void> response = new ApiExceptionHandler()
+                .handleTooManyRequests(new TooManyRequestsException("busy", Duration.ofMillis(2500)));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    private MockHttpServletResponse createReport() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/reports");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+}
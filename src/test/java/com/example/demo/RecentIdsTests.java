@@ -0,0 +1,100 @@
+package com.example.demo;
+
+import org.junit.jupiter.api.Test;
+import org.reportservice.notification.dedupe.RecentIds;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link RecentIds}.
+ * <p>
+ * Verifies:
+ * <ul>
+ *   <li>Ids are remembered for at least the window and forgotten after two</li>
+ *   <li>Ids stay visible in the previous generation after a rotation</li>
+ *   <li>A full generation rotates early and the oldest ids are forgotten first</li>
+ *   <li>The nil UUID is remembered like any other id</li>
+ * </ul>
+ */
+public class RecentIdsTests {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void contains_ShouldRememberIdsForWindow() {
+        RecentIds ids = new RecentIds(Duration.ofSeconds(10), 4, 0);
+        UUID id = UUID.randomUUID();
+
+        assertTrue(ids.add(id, 0));
+        assertFalse(ids.add(id, 5 * SECOND));
+
+        assertTrue(ids.contains(id, 9 * SECOND));
+        assertFalse(ids.contains(UUID.randomUUID(), 9 * SECOND));
+    }
+
+    @Test
+    void contains_ShouldFindIdsInPreviousGenerationAfterRotate() {
+        RecentIds ids = new RecentIds(Duration.ofSeconds(10), 4, 0);
+        UUID old = UUID.randomUUID();
+        UUID recent = UUID.randomUUID();
+        ids.add(old, 2 * SECOND);
+        ids.add(recent, 9 * SECOND);
+
+        // The generation started at 0 rotates, but its newest id is within the window
+        assertTrue(ids.contains(old, 11 * SECOND));
+        assertTrue(ids.contains(recent, 11 * SECOND));
+        assertTrue(ids.add(UUID.randomUUID(), 12 * SECOND));
+
+        // The next rotation drops the generation that held both
+        assertFalse(ids.contains(old, 22 * SECOND));
+        assertFalse(ids.contains(recent, 22 * SECOND));
+    }
+
+    @Test
+    void contains_ShouldForgetEverythingAfterIdleWindow() {
+        RecentIds ids = new RecentIds(Duration.ofSeconds(10), 4, 0);
+        UUID id = UUID.randomUUID();
+        ids.add(id, SECOND);
+
+        assertFalse(ids.contains(id, 12 * SECOND));
+        assertTrue(ids.add(id, 12 * SECOND));
+    }
+
+    @Test
+    void add_ShouldRotateFullGenerationBeforeWindowEnds() {
+        RecentIds ids = new RecentIds(Duration.ofHours(1), 2, 0);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        UUID fourth = UUID.randomUUID();
+        UUID fifth = UUID.randomUUID();
+
+        ids.add(first, 0);
+        ids.add(second, 1);
+        ids.add(third, 2);
+        assertTrue(ids.contains(first, 3));
+        assertTrue(ids.contains(third, 3));
+
+        ids.add(fourth, 3);
+        ids.add(fifth, 4);
+
+        assertFalse(ids.contains(first, 5));
+        assertFalse(ids.contains(second, 5));
+        assertTrue(ids.contains(third, 5));
+        assertTrue(ids.contains(fourth, 5));
+        assertTrue(ids.contains(fifth, 5));
+    }
+
+    @Test
+    void add_ShouldRememberNilUuid() {
+        RecentIds ids = new RecentIds(Duration.ofSeconds(10), 2, 0);
+        UUID nil = new UUID(0, 0);
+
+        assertTrue(ids.add(nil, 0));
+        assertFalse(ids.add(nil, SECOND));
+        assertTrue(ids.contains(nil, 9 * SECOND));
+    }
+}
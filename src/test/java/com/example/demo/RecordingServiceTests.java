@@ -0,0 +1,115 @@
+package com.example.demo;
+
+import com.example.demo.config.RecordingProperties;
+import com.example.demo.dto.RecordingDto;
+import com.example.demo.dto.RecordingRequestDto;
+import com.example.demo.service.AnalyticsService;
+import com.example.demo.service.EventStore;
+import com.example.demo.service.RecordingService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link RecordingService} with this JVM's Flight Recorder.
+ * <p>
+ * Verifies:
+ * <ul>
+ *   <li>A started recording can be dumped while it runs and captures slow analytics queries</li>
+ *   <li>Stopping a stopped recording and unknown settings are rejected</li>
+ *   <li>Closed recordings are no longer listed</li>
+ * </ul>
+ */
+public class RecordingServiceTests {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final RecordingService recordingService = new RecordingService(new RecordingProperties());
+    private final List<Path> dumps = new ArrayList<>();
+    private RecordingDto recording;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (recording != null) {
+            recordingService.close(recording.getId());
+        }
+        for (Path dump : dumps) {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    @Test
+    void dump_ShouldContainSlowAnalyticsQueries() throws IOException {
+        EventStore eventStore = mock(EventStore.class);
+        when(eventStore.countViews(any(), any(), any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(20);
+            return 42L;
+        });
+        AnalyticsService analyticsService = new AnalyticsService(null, null, null, eventStore);
+        RecordingRequestDto request = new RecordingRequestDto();
+        request.setName("test");
+        request.setSettings("default");
+        recording = recordingService.start(request);
+
+        analyticsService.countViews("product1", "layout1", DAY, DAY.plusDays(2));
+        Path dump = recordingService.dump(recording.getId()).orElseThrow();
+        dumps.add(dump);
+
+        assertEquals("RUNNING", recordingService.get(recording.getId()).orElseThrow().getState());
+        List<RecordedEvent> queries = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals("com.example.demo.AnalyticsQuery"))
+                .toList();
+        assertEquals(1, queries.size());
+        RecordedEvent query = queries.get(0);
+        assertEquals("countViews", query.getString("query"));
+        assertEquals("product1", query.getString("productId"));
+        assertEquals("layout1", query.getString("layoutId"));
+        assertEquals(Duration.ofDays(2), query.getDuration("rangeLength"));
+        assertEquals(42, query.getLong("rows"));
+        assertTrue(query.getDuration().toMillis() >= 20);
+    }
+
+    @Test
+    void stop_ShouldRejectRecordingThatIsNotRunning() {
+        recording = recordingService.start(new RecordingRequestDto());
+
+        assertEquals("STOPPED", recordingService.stop(recording.getId()).orElseThrow().getState());
+        assertThrows(IllegalStateException.class, () -> recordingService.stop(recording.getId()));
+        assertEquals(Optional.empty(), recordingService.stop(Long.MAX_VALUE));
+    }
+
+    @Test
+    void close_ShouldRemoveRecording() {
+        recording = recordingService.start(new RecordingRequestDto());
+
+        assertTrue(recordingService.close(recording.getId()));
+
+        assertEquals(Optional.empty(), recordingService.get(recording.getId()));
+        assertTrue(recordingService.list().stream().noneMatch(listed -> listed.getId() == recording.getId()));
+    }
+
+    @Test
+    void start_ShouldRejectUnknownSettings() {
+        RecordingRequestDto request = new RecordingRequestDto();
+        request.setSettings("verbose");
+
+        assertThrows(IllegalArgumentException.class, () -> recordingService.start(request));
+    }
+}
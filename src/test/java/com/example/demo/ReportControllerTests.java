@@ -1,10 +1,18 @@
 package com.example.demo;
 
 import com.example.demo.controller.ReportController;
+import com.example.demo.dto.EventType;
+import com.example.demo.dto.ExportFormat;
+import com.example.demo.dto.ReportCursor;
+import com.example.demo.dto.ReportListFilter;
+import com.example.demo.dto.ReportPageDto;
+import com.example.demo.dto.ReportSummaryDto;
 import com.example.demo.dto.ReportResultDto;
 import com.example.demo.entity.ReportRequest;
 import com.example.demo.entity.ReportResult;
+import com.example.demo.entity.ReportStatus;
 import com.example.demo.mapper.ReportMapper;
+import com.example.demo.service.EventExportService;
 import com.example.demo.service.ReportService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,14 +21,29 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,13 +59,18 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * <ul>
  *   <li>POST /api/reports - Report creation</li>
  *   <li>GET /api/reports/{id} - Report retrieval</li>
+ *   <li>POST /api/reports/batch - Bulk report retrieval</li>
+ *   <li>GET /api/reports/{id}/events - Raw event export</li>
+ *   <li>GET /api/reports - Keyset-paginated listing</li>
  * </ul>
  *
  * <p>Test scenarios:
  * <ul>
  *   <li>Successful report creation</li>
+ *   <li>Rejection of invalid callback URLs</li>
  *   <li>Successful report retrieval</li>
  *   <li>Report not found case</li>
+ *   <li>ETags and conditional retrieval of completed reports</li>
  * </ul>
  *
  * @see ExtendWith
@@ -59,6 +87,9 @@ public class ReportControllerTests {
     @Mock
     private ReportMapper reportMapper;
 
+    @Mock
+    private EventExportService eventExportService;
+
     @InjectMocks
     private ReportController reportController;
 
@@ -109,6 +140,37 @@ public class ReportControllerTests {
                 .andExpect(jsonPath("$.reportId").value(reportId.toString()));
     }
 
+    /**
+     * Tests that POST /api/reports rejects callback URLs that cannot be delivered to.
+     * <p>
+     * Verifies:
+     * <ul>
+     *   <li>HTTP 400 status code for relative and non-HTTP URLs</li>
+     *   <li>HTTP 400 status code for loopback, link-local and private hosts</li>
+     *   <li>No report is created</li>
+     * </ul>
+     *
+     * @throws Exception if mockMvc.perform fails
+     */
+    @Test
+    void createReport_ShouldRejectInvalidCallbackUrl() throws Exception {
+        for (String callbackUrl : List.of("/hooks/reports", "ftp://example.com/hook", "http://",
+                "http://localhost:8080/hook", "http://127.0.0.1/hook", "http://[::1]/hook",
+                "http://169.254.169.254/latest/meta-data", "http://10.0.0.5/hook", "http://[fd00::1]/hook")) {
+            com.example.demo.dto.ReportRequestDto request = new com.example.demo.dto.ReportRequestDto();
+            request.setProductId("product1");
+            request.setLayoutId("layout1");
+            request.setCallbackUrl(callbackUrl);
+
+            mockMvc.perform(post("/api/reports")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest());
+        }
+
+        verify(reportService, never()).createReport(any());
+    }
+
     /**
      * Tests successful report retrieval via GET /api/reports/{id}.
      * <p>
@@ -135,7 +197,7 @@ public class ReportControllerTests {
         reportResultDto.setConversionRatio(0.5);
         reportResultDto.setPaymentCount(10);
 
-        when(reportService.getReport(reportId)).thenReturn(Optional.of(reportResult));
+        when(reportService.getReport(reportId, null)).thenReturn(Optional.of(reportResult));
         when(reportMapper.toDto(reportResult)).thenReturn(reportResultDto);
 
         mockMvc.perform(get("/api/reports/{id}", reportId))
@@ -161,9 +223,216 @@ public class ReportControllerTests {
     void getReport_ShouldReturnNotFound() throws Exception {
         UUID reportId = UUID.randomUUID();
 
-        when(reportService.getReport(reportId)).thenReturn(Optional.empty());
+        when(reportService.getReport(reportId, null)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/api/reports/{id}", reportId))
                 .andExpect(status().isNotFound());
     }
+
+    /**
+     * Tests that a completed report carries a strong ETag via GET /api/reports/{id}.
+     * <p>
+     * Verifies:
+     * <ul>
+     *   <li>HTTP 200 status code</li>
+     *   <li>ETag derived from the report version</li>
+     *   <li>Cache-Control requiring revalidation</li>
+     * </ul>
+     *
+     * @throws Exception if mockMvc.perform fails
+     */
+    @Test
+    void getReport_ShouldReturnETagForCompletedReport() throws Exception {
+        UUID reportId = UUID.randomUUID();
+        ReportResult reportResult = new ReportResult();
+        reportResult.setRequestId(reportId);
+        ReportResultDto reportResultDto = new ReportResultDto();
+        reportResultDto.setRequestId(reportId);
+
+        when(reportService.getCompletedReportVersion(reportId)).thenReturn(Optional.of(3L));
+        when(reportService.getReport(reportId, 3L)).thenReturn(Optional.of(reportResult));
+        when(reportMapper.toDto(reportResult)).thenReturn(reportResultDto);
+
+        mockMvc.perform(get("/api/reports/{id}", reportId).header(HttpHeaders.IF_NONE_MATCH, "\"v2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v3\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(jsonPath("$.requestId").value(reportId.toString()));
+    }
+
+    /**
+     * Tests conditional retrieval of an unchanged report via GET /api/reports/{id}.
+     * <p>
+     * Verifies:
+     * <ul>
+     *   <li>HTTP 304 status code with an empty body</li>
+     *   <li>The result is never loaded</li>
+     * </ul>
+     *
+     * @throws Exception if mockMvc.perform fails
+     */
+    @Test
+    void getReport_ShouldReturnNotModifiedForMatchingETag() throws Exception {
+        UUID reportId = UUID.randomUUID();
+
+        when(reportService.getCompletedReportVersion(reportId)).thenReturn(Optional.of(3L));
+
+        mockMvc.perform(get("/api/reports/{id}", reportId).header(HttpHeaders.IF_NONE_MATCH, "\"v3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v3\""))
+                .andExpect(content().string(""));
+
+        verify(reportService, never()).getReport(any(), any());
+    }
+
+    /**
+     * Tests bulk retrieval via POST /api/reports/batch.
+     * <p>
+     * Verifies:
+     * <ul>
+     *   <li>HTTP 200 status code</li>
+     *   <li>Found results and missing IDs in one response</li>
+     *   <li>Duplicate IDs reported once</li>
+     * </ul>
+     *
+     * @throws Exception if mockMvc.perform fails
+     */
+    @Test
+    void getReports_ShouldReturnFoundAndMissing() throws Exception {
+        UUID foundId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        ReportResult reportResult = new ReportResult();
+        reportResult.setRequestId(foundId);
+        ReportResultDto reportResultDto = new ReportResultDto();
+        reportResultDto.setRequestId(foundId);
+
+        when(reportService.getReports(List.of(foundId, missingId, missingId)))
+                .thenReturn(Map.of(foundId, reportResult));
+        when(reportMapper.toDto(reportResult)).thenReturn(reportResultDto);
+
+        mockMvc.perform(post("/api/reports/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + foundId + "\",\"" + missingId + "\",\"" + missingId + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found.length()").value(1))
+                .andExpect(jsonPath("$.found[0].requestId").value(foundId.toString()))
+                .andExpect(jsonPath("$.missing.length()").value(1))
+                .andExpect(jsonPath("$.missing[0]").value(missingId.toString()));
+    }
+
+    /**
+     * Tests that an empty ID list is rejected via POST /api/reports/batch.
+     *
+     * @throws Exception if mockMvc.perform fails
+     */
+    @Test
+    void getReports_ShouldRejectEmptyIds() throws Exception {
+        mockMvc.perform(post("/api/reports/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Tests raw event export via GET /api/reports/{id}/events.
+     * <p>
+     * Verifies:
+     * <ul>
+     *   <li>The response is produced asynchronously as a stream</li>
+     *   <li>The body is a gzip file with a {@code .csv.gz} name and no content encoding</li>
+     *   <li>The export service output reaches the client unchanged</li>
+     * </ul>
+     *
+     * @throws Exception if mockMvc.perform fails
+     */
+    @Test
+    void exportEvents_ShouldStreamGzippedCsv() throws Exception {
+        UUID reportId = UUID.randomUUID();
+        ReportRequest reportRequest = new ReportRequest();
+        reportRequest.setId(reportId);
+        String csv = "id,product_id,layout_id,timestamp\n1,product1,layout1,2025-01-01T00:00\n";
+
+        when(eventExportService.isAvailable()).thenReturn(true);
+        when(reportService.getReportRequest(reportId)).thenReturn(Optional.of(reportRequest));
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(3).write(csv.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(eventExportService).export(eq(reportRequest), eq(EventType.VIEWS), eq(ExportFormat.CSV), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/reports/{id}/events", reportId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + reportId + "-views.csv.gz\""))
+                .andExpect(content().contentType("application/gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(csv, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Tests raw event export for an unknown report.
+     *
+     * @throws Exception if mockMvc.perform fails
+     */
+    @Test
+    void exportEvents_ShouldReturnNotFound() throws Exception {
+        UUID reportId = UUID.randomUUID();
+
+        when(reportService.getReportRequest(reportId)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/reports/{id}/events", reportId).param("format", "NDJSON"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Tests report listing via GET /api/reports.
+     * <p>
+     * Verifies:
+     * <ul>
+     *   <li>Query parameters are passed to the service as filter and cursor</li>
+     *   <li>Summaries and the next cursor are returned</li>
+     * </ul>
+     *
+     * @throws Exception if mockMvc.perform fails
+     */
+    @Test
+    void listReports_ShouldReturnPage() throws Exception {
+        UUID reportId = UUID.randomUUID();
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 12, 0);
+        ReportCursor cursor = new ReportCursor(createdAt.plusHours(1), UUID.randomUUID());
+        ReportSummaryDto summary = new ReportSummaryDto(reportId, "product1", "layout1",
+                createdAt.minusDays(7), createdAt, ReportStatus.COMPLETED, createdAt);
+        String nextCursor = new ReportCursor(createdAt, reportId).encode();
+
+        when(reportService.listReports(argThat((ReportListFilter filter) ->
+                        filter.getStatus() == ReportStatus.COMPLETED && "product1".equals(filter.getProductId())),
+                eq(cursor), eq(1)))
+                .thenReturn(new ReportPageDto(List.of(summary), nextCursor));
+
+        mockMvc.perform(get("/api/reports")
+                        .param("status", "COMPLETED")
+                        .param("productId", "product1")
+                        .param("cursor", cursor.encode())
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(reportId.toString()))
+                .andExpect(jsonPath("$.nextCursor").value(nextCursor));
+    }
+
+    /**
+     * Tests that a malformed listing cursor is rejected with HTTP 400.
+     *
+     * @throws Exception if mockMvc.perform fails
+     */
+    @Test
+    void listReports_ShouldRejectMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/reports").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.example.demo;
+
+import com.example.demo.config.ApproximationProperties;
+import com.example.demo.config.ReportLaneProperties;
+import com.example.demo.entity.ReportRequest;
+import com.example.demo.service.AnalyticsService;
+import com.example.demo.service.ReportCostEstimator;
+import com.example.demo.service.ReportLane;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for {@link ReportCostEstimator}.
+ * <p>
+ * Verifies:
+ * <ul>
+ *   <li>Estimates scale with range length and measured density</li>
+ *   <li>Reports are assigned to lanes by the configured threshold</li>
+ *   <li>Approximate reports are costed by their sampled range</li>
+ *   <li>Densities are measured once per key and period while cached</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReportCostEstimatorTests {
+
+    private static final LocalDateTime END = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+    @Mock
+    private AnalyticsService analyticsService;
+
+    private ReportLaneProperties properties;
+    private ReportCostEstimator estimator;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ReportLaneProperties();
+        properties.setFastMaxEvents(100_000);
+        properties.setDensityWindow(Duration.ofDays(7));
+        estimator = new ReportCostEstimator(analyticsService, properties, new ApproximationProperties());
+        when(analyticsService.countViews(eq("product1"), eq("layout1"), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(7_000L);
+    }
+
+    @Test
+    void classify_ShouldSeparateShortAndLongReports() {
+        assertEquals(30_000, estimator.estimateEvents(request(30, false)));
+        assertEquals(ReportLane.FAST, estimator.classify(request(30, false)));
+        assertEquals(ReportLane.BULK, estimator.classify(request(365, false)));
+        verify(analyticsService, times(1)).countViews(any(), any(), any(), any());
+    }
+
+    @Test
+    void estimateEvents_ShouldCapApproximateReportsToSampledBuckets() {
+        long estimate = estimator.estimateEvents(request(365, true));
+
+        assertEquals((long) Math.ceil(7_000.0 / (7 * 24) * 201), estimate);
+        assertEquals(ReportLane.FAST, estimator.classify(request(365, true)));
+    }
+
+    @Test
+    void estimateEvents_ShouldMeasureDensityPerPeriod() {
+        ReportRequest historical = request(30, false);
+        historical.setStartDate(END.minusYears(1).minusDays(30));
+        historical.setEndDate(END.minusYears(1));
+
+        estimator.estimateEvents(request(30, false));
+        estimator.estimateEvents(historical);
+        estimator.estimateEvents(request(60, false));
+
+        verify(analyticsService, times(2)).countViews(any(), any(), any(), any());
+        verify(analyticsService).countViews(eq("product1"), eq("layout1"),
+                any(LocalDateTime.class), eq(LocalDateTime.of(2023, 6, 8, 0, 0)));
+    }
+
+    private static ReportRequest request(int days, boolean approximate) {
+        ReportRequest request = new ReportRequest();
+        request.setProductId("product1");
+        request.setLayoutId("layout1");
+        request.setStartDate(END.minusDays(days));
+        request.setEndDate(END);
+        request.setApproximate(approximate);
+        return request;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo;
+
+import com.example.demo.entity.ReportRequest;
+import com.example.demo.repository.ReportRequestRepository;
+import com.example.demo.service.ReportJobQueue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for {@link ReportJobQueue}.
+ * <p>
+ * Verifies:
+ * <ul>
+ *   <li>Reports with attempts left are leased and returned</li>
+ *   <li>Reports that used up their attempts are marked failed instead of claimed</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReportJobQueueTests {
+
+    @Mock
+    private ReportRequestRepository requestRepository;
+
+    @InjectMocks
+    private ReportJobQueue jobQueue;
+
+    @Test
+    void claim_ShouldLeaseReportsWithAttemptsLeft() {
+        ReportRequest fresh = request(0);
+        when(requestRepository.lockClaimable(any(LocalDateTime.class), anyInt())).thenReturn(List.of(fresh));
+
+        List<ReportRequest> claimed = jobQueue.claim("node-1", 4, Duration.ofMinutes(1), 3);
+
+        assertEquals(List.of(fresh), claimed);
+        verify(requestRepository).lease(eq(List.of(fresh.getId())), eq("node-1"), any(LocalDateTime.class));
+        verify(requestRepository, never()).markFailed(anyList());
+    }
+
+    @Test
+    void claim_ShouldMarkExhaustedReportsFailed() {
+        ReportRequest retried = request(2);
+        ReportRequest exhausted = request(3);
+        when(requestRepository.lockClaimable(any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(exhausted, retried));
+
+        List<ReportRequest> claimed = jobQueue.claim("node-1", 4, Duration.ofMinutes(1), 3);
+
+        assertEquals(List.of(retried), claimed);
+        verify(requestRepository).markFailed(List.of(exhausted.getId()));
+        verify(requestRepository).lease(eq(List.of(retried.getId())), eq("node-1"), any(LocalDateTime.class));
+    }
+
+    private static ReportRequest request(int attempts) {
+        ReportRequest request = new ReportRequest();
+        request.setId(UUID.randomUUID());
+        request.setAttempts(attempts);
+        return request;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.demo;
+
+import com.example.demo.config.PrecomputeProperties;
+import com.example.demo.repository.ReportRequestRepository;
+import com.example.demo.service.ParallelRangeCounter;
+import com.example.demo.service.PrecomputedReportCache;
+import com.example.demo.service.RatioEstimate;
+import com.example.demo.service.ReportPopularityTracker;
+import com.example.demo.service.ReportPrecomputer;
+import com.example.demo.service.WindowShape;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for {@link ReportPrecomputer} together with
+ * {@link ReportPopularityTracker} and {@link PrecomputedReportCache}.
+ * <p>
+ * Verifies:
+ * <ul>
+ *   <li>Requests are grouped by window shape relative to the request day</li>
+ *   <li>Popular elapsed windows are computed and served from the cache</li>
+ *   <li>Windows reaching into today are not pre-computed</li>
+ *   <li>Windows that ended within the settle time are not cached</li>
+ *   <li>Late events invalidate the cached windows they fall into</li>
+ *   <li>Popularity decays between runs</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReportPrecomputerTests {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Mock
+    private ParallelRangeCounter rangeCounter;
+
+    @Mock
+    private ReportRequestRepository requestRepository;
+
+    private ReportPopularityTracker tracker;
+    private PrecomputedReportCache cache;
+    private ReportPrecomputer precomputer;
+
+    @BeforeEach
+    void setUp() {
+        PrecomputeProperties properties = new PrecomputeProperties();
+        properties.setMinRequests(2);
+        tracker = new ReportPopularityTracker();
+        cache = new PrecomputedReportCache(properties);
+        precomputer = new ReportPrecomputer(tracker, cache, rangeCounter, requestRepository, properties);
+    }
+
+    @Test
+    void record_ShouldGroupRequestsByWindowShape() {
+        requestYesterday(TODAY.minusDays(3));
+        requestYesterday(TODAY.minusDays(1));
+        tracker.record("product1", "layout1", TODAY.atTime(9, 30), TODAY.atTime(10, 0), TODAY);
+
+        List<ReportPopularityTracker.PopularWindow> top = tracker.top(10, 1);
+
+        assertEquals(1, top.size());
+        assertEquals(new WindowShape(1, Duration.ofDays(1).minusSeconds(1)), top.get(0).shape());
+    }
+
+    @Test
+    void precompute_ShouldCacheElapsedPopularWindows() {
+        requestYesterday(TODAY);
+        requestYesterday(TODAY);
+        tracker.record("product1", "layout1", TODAY.atStartOfDay(), TODAY.plusDays(1).atStartOfDay(), TODAY);
+        tracker.record("product1", "layout1", TODAY.atStartOfDay(), TODAY.plusDays(1).atStartOfDay(), TODAY);
+        LocalDateTime start = TODAY.minusDays(1).atStartOfDay();
+        LocalDateTime end = TODAY.atStartOfDay().minusSeconds(1);
+        when(rangeCounter.count("product1", "layout1", start, end)).thenReturn(RatioEstimate.exact(200, 10));
+
+        assertEquals(1, precomputer.precompute(TODAY));
+        assertEquals(0, precomputer.precompute(TODAY));
+
+        assertEquals(Optional.of(RatioEstimate.exact(200, 10)), cache.get("product1", "layout1", start, end));
+        verify(rangeCounter, times(1)).count(any(), any(), any(), any());
+    }
+
+    @Test
+    void invalidate_ShouldDropWindowsContainingLateEvent() {
+        LocalDateTime start = TODAY.minusDays(1).atStartOfDay();
+        LocalDateTime end = TODAY.atStartOfDay().minusSeconds(1);
+        cache.put("product1", "layout1", start, end, RatioEstimate.exact(200, 10));
+
+        cache.invalidate("product1", "layout1", LocalDateTime.now());
+        cache.invalidate("product2", "layout1", start.plusHours(3));
+        assertTrue(cache.get("product1", "layout1", start, end).isPresent());
+
+        cache.invalidate("product1", "layout1", start.plusHours(3));
+        assertTrue(cache.get("product1", "layout1", start, end).isEmpty());
+    }
+
+    @Test
+    void put_ShouldRejectWindowsWithinSettleTime() {
+        LocalDateTime end = LocalDateTime.now().minusMinutes(1);
+
+        assertFalse(cache.put("product1", "layout1", end.minusHours(1), end, RatioEstimate.exact(200, 10)));
+        assertTrue(cache.put("product1", "layout1", end.minusHours(2), end.minusMinutes(10),
+                RatioEstimate.exact(200, 10)));
+    }
+
+    @Test
+    void invalidate_ShouldDropWindowsOverlappingRange() {
+        LocalDateTime start = TODAY.minusDays(2).atStartOfDay();
+        LocalDateTime end = TODAY.minusDays(1).atStartOfDay().minusSeconds(1);
+        cache.put("product1", "layout1", start, end, RatioEstimate.exact(200, 10));
+
+        cache.invalidate("product1", "layout1", start.minusDays(3), start.minusSeconds(1));
+        assertTrue(cache.get("product1", "layout1", start, end).isPresent());
+
+        cache.invalidate("product1", "layout1", start.minusDays(3), start.plusHours(1));
+        assertTrue(cache.get("product1", "layout1", start, end).isEmpty());
+    }
+
+    @Test
+    void decay_ShouldForgetWindowsNoLongerRequested() {
+        requestYesterday(TODAY);
+        requestYesterday(TODAY);
+
+        tracker.decay();
+        assertEquals(1, tracker.top(10, 1).size());
+        tracker.decay();
+
+        assertTrue(tracker.top(10, 1).isEmpty());
+        verify(rangeCounter, never()).count(eq("product1"), any(), any(), any());
+    }
+
+    private void requestYesterday(LocalDate day) {
+        tracker.record("product1", "layout1",
+                day.minusDays(1).atStartOfDay(), day.atStartOfDay().minusSeconds(1), day);
+    }
+}
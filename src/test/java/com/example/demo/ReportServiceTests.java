@@ -1,6 +1,12 @@
 package com.example.demo;
 
+import com.example.demo.config.AdmissionProperties;
+import com.example.demo.config.ReportWorkerProperties;
+import com.example.demo.config.ResultCacheProperties;
 import com.example.demo.dto.ReportRequestDto;
+import com.example.demo.dto.ReportResultDto;
+import com.example.demo.dto.ReportUpdateDto;
+import com.example.demo.dto.ReportVersion;
 import com.example.demo.entity.ReportRequest;
 import com.example.demo.entity.ReportResult;
 import com.example.demo.entity.ReportStatus;
@@ -8,23 +14,48 @@ import com.example.demo.mapper.ReportMapper;
 import com.example.demo.messaging.RabbitMQProducerService;
 import com.example.demo.repository.ReportRequestRepository;
 import com.example.demo.repository.ReportResultRepository;
-import com.example.demo.service.AnalyticsService;
+import com.example.demo.service.AdaptiveLimiter;
+import com.example.demo.service.ComputationAdmission;
+import com.example.demo.service.LiveReportRegistry;
+import com.example.demo.service.ParallelRangeCounter;
+import com.example.demo.service.PrecomputedReportCache;
+import com.example.demo.service.ReportCostEstimator;
+import com.example.demo.service.ReportLane;
+import com.example.demo.service.ReportLaneLimiters;
+import com.example.demo.service.ReportPopularityTracker;
+import com.example.demo.service.ReportQueuedEvent;
+import com.example.demo.service.ReportResultCache;
+import com.example.demo.service.RatioEstimate;
 import com.example.demo.service.ReportService;
+import io.micrometer.observation.ObservationRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,11 +71,41 @@ public class ReportServiceTests {
     private RabbitMQProducerService rabbitMQProducerService;
 
     @Mock
-    private AnalyticsService analyticsService;
+    private ParallelRangeCounter parallelRangeCounter;
 
     @Mock
     private ReportMapper reportMapper;
 
+    @Mock
+    private ReportCostEstimator costEstimator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ReportPopularityTracker popularityTracker;
+
+    @Mock
+    private PrecomputedReportCache precomputedCache;
+
+    @Spy
+    private ReportWorkerProperties workerProperties = new ReportWorkerProperties();
+
+    @Spy
+    private ComputationAdmission admission = new ComputationAdmission(new AdmissionProperties());
+
+    @Mock
+    private LiveReportRegistry liveReports;
+
+    @Spy
+    private ReportResultCache resultCache = new ReportResultCache(new ResultCacheProperties());
+
+    @Spy
+    private ObservationRegistry observationRegistry = ObservationRegistry.create();
+
+    @Mock
+    private ReportLaneLimiters laneLimiters;
+
     @InjectMocks
     private ReportService reportService;
 
@@ -66,19 +127,38 @@ public class ReportServiceTests {
         reportRequest.setStartDate(reportRequestDto.getStartDate());
         reportRequest.setEndDate(reportRequestDto.getEndDate());
         reportRequest.setStatus(ReportStatus.PENDING);
+        reportRequest.setVersion(0L);
     }
 
     @Test
-    void createReport_ShouldSaveRequestAndSendMessage() {
+    void createReport_ShouldSaveRequestAndQueueBulkReport() {
         when(reportMapper.toEntity(reportRequestDto)).thenReturn(reportRequest);
-        when(requestRepository.save(any(ReportRequest.class))).thenReturn(reportRequest);
+        when(costEstimator.estimateEvents(reportRequest)).thenReturn(5_000_000L);
+        when(costEstimator.classify(5_000_000L)).thenReturn(ReportLane.BULK);
 
         UUID result = reportService.createReport(reportRequestDto);
 
         assertEquals(reportRequest.getId(), result);
         verify(reportMapper).toEntity(reportRequestDto);
         verify(requestRepository).save(reportRequest);
-        verify(rabbitMQProducerService).sendMessage("Report ID: " + reportRequest.getId());
+        verify(eventPublisher).publishEvent(new ReportQueuedEvent(reportRequest.getId(), ReportLane.BULK, 5_000_000L));
+        verify(parallelRangeCounter, never()).count(any(), any(), any(), any());
+    }
+
+    @Test
+    void createReport_ShouldQueueFastReportWhenFastLaneIsFull() {
+        AdaptiveLimiter fastLimiter = mock(AdaptiveLimiter.class);
+        when(reportMapper.toEntity(reportRequestDto)).thenReturn(reportRequest);
+        when(costEstimator.estimateEvents(reportRequest)).thenReturn(1_000L);
+        when(costEstimator.classify(1_000L)).thenReturn(ReportLane.FAST);
+        when(laneLimiters.get(ReportLane.FAST)).thenReturn(fastLimiter);
+        when(fastLimiter.tryExecute(any(), eq(1_000L))).thenReturn(Optional.empty());
+
+        UUID result = reportService.createReport(reportRequestDto);
+
+        assertEquals(reportRequest.getId(), result);
+        verify(eventPublisher).publishEvent(new ReportQueuedEvent(reportRequest.getId(), ReportLane.FAST, 1_000L));
+        assertEquals(0, admission.inFlight());
     }
 
     @Test
@@ -98,12 +178,116 @@ public class ReportServiceTests {
     }
 
     @Test
-    void calculateAndSaveReportResult_ShouldSaveResultAndUpdateStatus() {
-        when(requestRepository.findById(reportRequest.getId())).thenReturn(Optional.of(reportRequest));
-        when(analyticsService.getViews(anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+    void getReports_ShouldServeCachedResultsAndLoadTheRestInChunks() {
+        ReportResult cached = new ReportResult();
+        cached.setRequestId(UUID.randomUUID());
+        resultCache.put(cached, 1L);
+        List<UUID> ids = new ArrayList<>(List.of(cached.getRequestId()));
+        for (int i = 0; i < 150; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        ReportResult loaded = new ReportResult();
+        loaded.setRequestId(ids.get(1));
+        when(requestRepository.findCompletedVersions(anyCollection()))
+                .thenReturn(List.of(new ReportVersion(cached.getRequestId(), 1L), new ReportVersion(loaded.getRequestId(), 4L)))
                 .thenReturn(List.of());
-        when(analyticsService.getPayments(anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+        when(resultRepository.findByRequestIdIn(anyCollection()))
+                .thenReturn(List.of(loaded))
                 .thenReturn(List.of());
+        when(requestRepository.findVersionByIdAndStatus(loaded.getRequestId(), ReportStatus.COMPLETED))
+                .thenReturn(Optional.of(4L));
+
+        Map<UUID, ReportResult> results = reportService.getReports(ids);
+
+        assertEquals(List.of(cached.getRequestId(), loaded.getRequestId()), List.copyOf(results.keySet()));
+        verify(resultRepository, times(2)).findByRequestIdIn(anyCollection());
+        assertSame(loaded, reportService.getReport(loaded.getRequestId()).orElseThrow());
+        verify(resultRepository, never()).findByRequestId(any());
+    }
+
+    @Test
+    void getReport_ShouldNotServeResultCachedAtAnOlderVersion() {
+        UUID reportId = UUID.randomUUID();
+        ReportResult stale = new ReportResult();
+        stale.setRequestId(reportId);
+        stale.setPaymentCount(1);
+        resultCache.put(stale, 1L);
+        ReportResult updated = new ReportResult();
+        updated.setRequestId(reportId);
+        updated.setPaymentCount(2);
+        when(requestRepository.findVersionByIdAndStatus(reportId, ReportStatus.COMPLETED)).thenReturn(Optional.of(2L));
+        when(resultRepository.findByRequestId(reportId)).thenReturn(Optional.of(updated));
+
+        assertSame(updated, reportService.getReport(reportId).orElseThrow());
+        assertSame(updated, reportService.getReport(reportId).orElseThrow());
+        verify(resultRepository, times(1)).findByRequestId(reportId);
+    }
+
+    @Test
+    void updateReport_ShouldCountOnlyTheChangedSubRanges() {
+        LocalDateTime day = LocalDateTime.of(2025, 1, 1, 0, 0);
+        reportRequest.setStartDate(day);
+        reportRequest.setEndDate(day.plusDays(10));
+        reportRequest.setStatus(ReportStatus.COMPLETED);
+        ReportResult previous = new ReportResult();
+        previous.setRequestId(reportRequest.getId());
+        previous.setViewCount(1000L);
+        previous.setPaymentCount(100);
+        previous.setApproximate(false);
+        when(requestRepository.findById(reportRequest.getId())).thenReturn(Optional.of(reportRequest));
+        when(resultRepository.findByRequestId(reportRequest.getId())).thenReturn(Optional.of(previous));
+        when(parallelRangeCounter.count("product1", "layout1", day.plusDays(10).plusNanos(1000), day.plusDays(11)))
+                .thenReturn(RatioEstimate.exact(150, 30));
+        when(parallelRangeCounter.count("product1", "layout1", day, day.plusDays(1).minusNanos(1000)))
+                .thenReturn(RatioEstimate.exact(50, 10));
+
+        ReportUpdateDto updateDto = new ReportUpdateDto();
+        updateDto.setProductId("product1");
+        updateDto.setLayoutId("layout1");
+        updateDto.setStartDate(day.plusDays(1));
+        updateDto.setEndDate(day.plusDays(11));
+        reportService.updateReport(reportRequest.getId(), updateDto);
+
+        assertEquals(1100L, previous.getViewCount());
+        assertEquals(120, previous.getPaymentCount());
+        assertEquals(120.0 / 1100, previous.getConversionRatio(), 1e-12);
+        assertEquals(ReportStatus.COMPLETED, reportRequest.getStatus());
+        verify(resultRepository).save(previous);
+        verify(parallelRangeCounter, times(2)).count(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void updateReport_ShouldRequeueCompletedReportWithoutOverlap() {
+        LocalDateTime day = LocalDateTime.of(2025, 1, 1, 0, 0);
+        reportRequest.setStartDate(day);
+        reportRequest.setEndDate(day.plusDays(10));
+        reportRequest.setStatus(ReportStatus.COMPLETED);
+        ReportResult previous = new ReportResult();
+        previous.setRequestId(reportRequest.getId());
+        previous.setViewCount(1000L);
+        previous.setPaymentCount(100);
+        when(requestRepository.findById(reportRequest.getId())).thenReturn(Optional.of(reportRequest));
+        when(resultRepository.findByRequestId(reportRequest.getId())).thenReturn(Optional.of(previous));
+        when(costEstimator.classify(0L)).thenReturn(ReportLane.BULK);
+
+        ReportUpdateDto updateDto = new ReportUpdateDto();
+        updateDto.setProductId("product1");
+        updateDto.setLayoutId("layout1");
+        updateDto.setStartDate(day.plusDays(20));
+        updateDto.setEndDate(day.plusDays(30));
+        reportService.updateReport(reportRequest.getId(), updateDto);
+
+        assertEquals(ReportStatus.PENDING, reportRequest.getStatus());
+        verify(resultRepository).delete(previous);
+        verify(eventPublisher).publishEvent(new ReportQueuedEvent(reportRequest.getId(), ReportLane.BULK, 0L));
+        verifyNoInteractions(parallelRangeCounter);
+    }
+
+    @Test
+    void calculateAndSaveReportResult_ShouldSaveResultAndUpdateStatus() {
+        when(requestRepository.findById(reportRequest.getId())).thenReturn(Optional.of(reportRequest));
+        when(parallelRangeCounter.count(anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(RatioEstimate.exact(0, 0));
 
         reportService.calculateAndSaveReportResult(reportRequest.getId());
 
@@ -111,4 +295,47 @@ public class ReportServiceTests {
         verify(requestRepository).save(reportRequest);
         assertEquals(ReportStatus.COMPLETED, reportRequest.getStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    void calculateAndSaveReportResult_ShouldSendResultToCallbackUrl() {
+        reportRequest.setCallbackUrl("https://example.com/hooks/reports");
+        ReportResultDto resultDto = new ReportResultDto();
+        when(requestRepository.findById(reportRequest.getId())).thenReturn(Optional.of(reportRequest));
+        when(parallelRangeCounter.count(anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(RatioEstimate.exact(0, 0));
+        when(reportMapper.toDto(any(ReportResult.class))).thenReturn(resultDto);
+
+        reportService.calculateAndSaveReportResult(reportRequest.getId());
+
+        verify(rabbitMQProducerService).sendReportCompletedNotification(reportRequest.getId(), 0L);
+        verify(rabbitMQProducerService).sendReportResult("https://example.com/hooks/reports", resultDto);
+    }
+
+    @Test
+    void calculateAndSaveReportResult_ShouldRecordFlightRecorderEvent() throws IOException {
+        when(requestRepository.findById(reportRequest.getId())).thenReturn(Optional.of(reportRequest));
+        when(parallelRangeCounter.count(anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(RatioEstimate.exact(40, 2));
+        Path dump = Files.createTempFile("report-computation", ".jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("com.example.demo.ReportComputation");
+            recording.start();
+            reportService.calculateAndSaveReportResult(reportRequest.getId());
+            recording.stop();
+            recording.dump(dump);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+            assertEquals(1, events.size());
+            RecordedEvent event = events.get(0);
+            assertEquals(reportRequest.getId().toString(), event.getString("reportId"));
+            assertEquals("product1", event.getString("productId"));
+            assertEquals(Duration.ofDays(1), event.getDuration("rangeLength"));
+            assertEquals(40, event.getLong("viewCount"));
+            assertEquals(2, event.getLong("paymentCount"));
+            assertTrue(event.getDuration("countDuration").compareTo(event.getDuration()) <= 0);
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.demo;
+
+import com.example.demo.config.ReportWorkerProperties;
+import com.example.demo.entity.ReportRequest;
+import com.example.demo.service.ReportJobQueue;
+import com.example.demo.service.ReportLaneDispatcher;
+import com.example.demo.service.ReportWorker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for {@link ReportWorker}.
+ * <p>
+ * Verifies:
+ * <ul>
+ *   <li>Claimed reports are handed to the report lanes</li>
+ *   <li>Claims never exceed the free slots of the node</li>
+ *   <li>Heartbeats renew the leases of reports in progress</li>
+ *   <li>A failing report does not stop the worker</li>
+ *   <li>Shutdown waits for reports in progress and releases only the unfinished ones</li>
+ * </ul>
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReportWorkerTests {
+
+    @Mock
+    private ReportJobQueue jobQueue;
+
+    @Mock
+    private ReportLaneDispatcher dispatcher;
+
+    private ReportWorkerProperties properties;
+    private ReportWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ReportWorkerProperties();
+        properties.setNodeId("node-1");
+        properties.setPoolSize(2);
+        properties.setBatchSize(10);
+        properties.setLease(Duration.ofMinutes(1));
+        properties.setShutdownGracePeriod(Duration.ofMillis(200));
+        worker = new ReportWorker(jobQueue, dispatcher, properties);
+    }
+
+    @Test
+    void poll_ShouldDispatchClaimedReports() {
+        ReportRequest first = request();
+        ReportRequest second = request();
+        when(jobQueue.claim("node-1", 2, Duration.ofMinutes(1), 3)).thenReturn(List.of(first, second));
+        when(dispatcher.submit(any(ReportRequest.class)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.<ReportRequest>getArgument(0).getId()));
+
+        worker.poll();
+
+        verify(dispatcher).submit(first);
+        verify(dispatcher).submit(second);
+    }
+
+    @Test
+    void poll_ShouldNotClaimWhileSlotsAreBusy() {
+        ReportRequest first = request();
+        ReportRequest second = request();
+        CompletableFuture<UUID> running = new CompletableFuture<>();
+        when(jobQueue.claim(anyString(), anyInt(), any(Duration.class), anyInt())).thenReturn(List.of(first, second));
+        when(dispatcher.submit(any(ReportRequest.class))).thenReturn(running);
+
+        worker.poll();
+        worker.poll();
+        worker.heartbeat();
+        running.complete(first.getId());
+        worker.poll();
+
+        verify(jobQueue, times(2)).claim(anyString(), anyInt(), any(Duration.class), anyInt());
+        verify(jobQueue).renew(Set.of(first.getId(), second.getId()), "node-1", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void poll_ShouldContinueAfterFailedReport() {
+        ReportRequest failing = request();
+        ReportRequest next = request();
+        when(jobQueue.claim(anyString(), anyInt(), any(Duration.class), anyInt()))
+                .thenReturn(List.of(failing))
+                .thenReturn(List.of(next));
+        when(dispatcher.submit(failing)).thenReturn(CompletableFuture.failedFuture(new RuntimeException("boom")));
+        when(dispatcher.submit(next)).thenReturn(CompletableFuture.completedFuture(next.getId()));
+
+        worker.poll();
+        worker.poll();
+
+        verify(dispatcher).submit(next);
+        verify(jobQueue, never()).release(any(), anyString());
+    }
+
+    @Test
+    void shutdown_ShouldWaitForReportsInProgress() {
+        ReportRequest request = request();
+        CompletableFuture<UUID> running = new CompletableFuture<>();
+        when(jobQueue.claim(anyString(), anyInt(), any(Duration.class), anyInt())).thenReturn(List.of(request));
+        when(dispatcher.submit(request)).thenReturn(running);
+        worker.poll();
+
+        CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS).execute(() -> running.complete(request.getId()));
+        worker.shutdown();
+        worker.poll();
+
+        verify(jobQueue).claim(anyString(), anyInt(), any(Duration.class), anyInt());
+        verify(jobQueue).renew(Set.of(request.getId()), "node-1", Duration.ofMinutes(1));
+        verify(jobQueue, never()).release(any(), anyString());
+    }
+
+    @Test
+    void shutdown_ShouldReleaseOnlyUnfinishedReports() {
+        ReportRequest finished = request();
+        ReportRequest stuck = request();
+        CompletableFuture<UUID> finishing = new CompletableFuture<>();
+        when(jobQueue.claim(anyString(), anyInt(), any(Duration.class), anyInt())).thenReturn(List.of(finished, stuck));
+        when(dispatcher.submit(finished)).thenReturn(finishing);
+        when(dispatcher.submit(stuck)).thenReturn(new CompletableFuture<>());
+        worker.poll();
+
+        CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS).execute(() -> finishing.complete(finished.getId()));
+        worker.shutdown();
+
+        verify(jobQueue).release(Set.of(stuck.getId()), "node-1");
+    }
+
+    private static ReportRequest request() {
+        ReportRequest request = new ReportRequest();
+        request.setId(UUID.randomUUID());
+        return request;
+    }
+}
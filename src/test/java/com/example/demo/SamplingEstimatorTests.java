@@ -0,0 +1,170 @@
+package com.example.demo;
+
+import com.example.demo.config.ApproximationProperties;
+import com.example.demo.service.AnalyticsService;
+import com.example.demo.service.RatioEstimate;
+import com.example.demo.service.SamplingEstimator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link SamplingEstimator}.
+ * <p>
+ * Runs the estimator repeatedly against a synthetic two-year population of hourly
+ * buckets with diurnal traffic and a drifting conversion rate, and checks that:
+ * <ul>
+ *   <li>The stated confidence interval covers the true ratio at close to its nominal rate</li>
+ *   <li>The interval is narrow enough to be useful</li>
+ *   <li>Only the sampled buckets are counted</li>
+ *   <li>Short ranges are computed exactly</li>
+ *   <li>A configured sample of fewer than two buckets is rejected at startup</li>
+ * </ul>
+ */
+public class SamplingEstimatorTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final int BUCKETS = 2 * 365 * 24;
+
+    private static long[] viewPrefix;
+    private static long[] paymentPrefix;
+    private static double trueRatio;
+
+    /**
+     * Generates the synthetic population once for all tests.
+     * <p>
+     * Views per hour follow a daily cycle; each view converts with a probability
+     * that drifts slowly between 3% and 7% over the two years.
+     */
+    @BeforeAll
+    static void generatePopulation() {
+        Random random = new Random(42);
+        viewPrefix = new long[BUCKETS + 1];
+        paymentPrefix = new long[BUCKETS + 1];
+        for (int hour = 0; hour < BUCKETS; hour++) {
+            double intensity = 60 * (1 + 0.8 * Math.sin(2 * Math.PI * hour / 24));
+            int views = (int) Math.max(0, Math.round(intensity + random.nextGaussian() * Math.sqrt(intensity + 1)));
+            double conversion = 0.05 + 0.02 * Math.sin(2 * Math.PI * hour / BUCKETS);
+            int payments = 0;
+            for (int i = 0; i < views; i++) {
+                if (random.nextDouble() < conversion) {
+                    payments++;
+                }
+            }
+            viewPrefix[hour + 1] = viewPrefix[hour] + views;
+            paymentPrefix[hour + 1] = paymentPrefix[hour] + payments;
+        }
+        trueRatio = (double) paymentPrefix[BUCKETS] / viewPrefix[BUCKETS];
+    }
+
+    @Test
+    void estimate_ShouldCoverTrueRatioAtNominalRate() {
+        AtomicInteger queries = new AtomicInteger();
+        SamplingEstimator estimator = new SamplingEstimator(new SyntheticAnalytics(queries), properties(200, 0.95));
+        LocalDateTime end = START.plusHours(BUCKETS);
+
+        int trials = 300;
+        int covered = 0;
+        double widest = 0;
+        for (int trial = 0; trial < trials; trial++) {
+            RatioEstimate estimate = estimator.estimate("product1", "layout1", START, end);
+            assertFalse(estimate.exact());
+            if (estimate.lowerBound() <= trueRatio && trueRatio <= estimate.upperBound()) {
+                covered++;
+            }
+            widest = Math.max(widest, estimate.upperBound() - estimate.lowerBound());
+        }
+
+        assertTrue(covered >= trials * 0.9, "coverage " + covered + "/" + trials);
+        assertTrue(widest < trueRatio * 0.3, "interval width " + widest);
+        assertEquals(trials * 2 * (200 + 1), queries.get());
+    }
+
+    @Test
+    void estimate_ShouldBeExactForShortRanges() {
+        SamplingEstimator estimator = new SamplingEstimator(new SyntheticAnalytics(new AtomicInteger()), properties(200, 0.95));
+
+        RatioEstimate estimate = estimator.estimate("product1", "layout1", START, START.plusDays(3));
+
+        assertTrue(estimate.exact());
+        assertEquals(viewPrefix[72], estimate.viewCount());
+        assertEquals(paymentPrefix[72], estimate.paymentCount());
+        assertEquals(estimate.conversionRatio(), estimate.lowerBound());
+    }
+
+    @Test
+    void fromSample_ShouldRejectSingleBucket() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SamplingEstimator.fromSample(new long[]{1}, new long[]{1}, 10, 0, 0, 0.95));
+    }
+
+    @Test
+    void properties_ShouldRejectSampleSizeBelowTwo() {
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withUserConfiguration(ApproximationConfiguration.class);
+
+        runner.withPropertyValues("report.approximate.sample-size=1")
+                .run(context -> assertNotNull(context.getStartupFailure()));
+        runner.withPropertyValues("report.approximate.sample-size=2")
+                .run(context -> assertEquals(2, context.getBean(ApproximationProperties.class).getSampleSize()));
+    }
+
+    @EnableConfigurationProperties(ApproximationProperties.class)
+    static class ApproximationConfiguration {
+    }
+
+    private static ApproximationProperties properties(int sampleSize, double confidenceLevel) {
+        ApproximationProperties properties = new ApproximationProperties();
+        properties.setBucket(Duration.ofHours(1));
+        properties.setSampleSize(sampleSize);
+        properties.setConfidenceLevel(confidenceLevel);
+        return properties;
+    }
+
+    /**
+     * Answers counts from the synthetic population.
+     * <p>
+     * All events of an hourly bucket are placed at half past the hour, so a range
+     * counts every bucket whose midpoint it contains.
+     */
+    private static class SyntheticAnalytics extends AnalyticsService {
+        private final AtomicInteger queries;
+
+        SyntheticAnalytics(AtomicInteger queries) {
+            super(null, null, null, null);
+            this.queries = queries;
+        }
+
+        @Override
+        public long countViews(String productId, String layoutId, LocalDateTime startDate, LocalDateTime endDate) {
+            queries.incrementAndGet();
+            return sum(viewPrefix, startDate, endDate);
+        }
+
+        @Override
+        public long countPayments(String productId, String layoutId, LocalDateTime startDate, LocalDateTime endDate) {
+            queries.incrementAndGet();
+            return sum(paymentPrefix, startDate, endDate);
+        }
+
+        private static long sum(long[] prefix, LocalDateTime startDate, LocalDateTime endDate) {
+            int from = firstBucketAtOrAfter(startDate);
+            int to = firstBucketAtOrAfter(endDate.plusNanos(1));
+            return to <= from ? 0 : prefix[to] - prefix[from];
+        }
+
+        private static int firstBucketAtOrAfter(LocalDateTime time) {
+            long nanos = Duration.between(START.plusMinutes(30), time).toNanos();
+            long bucket = -Math.floorDiv(-nanos, Duration.ofHours(1).toNanos());
+            return (int) Math.max(0, Math.min(BUCKETS, bucket));
+        }
+    }
+}
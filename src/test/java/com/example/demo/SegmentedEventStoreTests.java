@@ -0,0 +1,132 @@
+package com.example.demo;
+
+import com.example.demo.config.EventStoreProperties;
+import com.example.demo.service.DimensionDictionary;
+import com.example.demo.service.EventStore;
+import com.example.demo.service.SegmentedEventStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the {@link EventStoreConformanceTests} against {@link SegmentedEventStore}
+ * with a small index interval, so that ranges cut through many blocks.
+ * <p>
+ * Also verifies that segments are read back after a restart, that a record
+ * cut short by a crash is discarded and that the least recently used segments
+ * are closed beyond the limit and reopened from their files.
+ */
+public class SegmentedEventStoreTests extends EventStoreConformanceTests {
+
+    @TempDir
+    private Path directory;
+
+    private DimensionDictionary dictionary;
+    private SegmentedEventStore store;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Integer> products = new ConcurrentHashMap<>();
+        Map<String, Integer> layouts = new ConcurrentHashMap<>();
+        dictionary = mock(DimensionDictionary.class);
+        when(dictionary.productKey(any())).thenAnswer(invocation ->
+                products.computeIfAbsent(invocation.getArgument(0), name -> products.size() + 1));
+        when(dictionary.layoutKey(any())).thenAnswer(invocation ->
+                layouts.computeIfAbsent(invocation.getArgument(0), name -> layouts.size() + 1));
+        when(dictionary.findKeys(any(), any())).thenAnswer(invocation -> {
+            Integer product = products.get(invocation.<String>getArgument(0));
+            Integer layout = layouts.get(invocation.<String>getArgument(1));
+            return product == null || layout == null
+                    ? Optional.empty()
+                    : Optional.of(new DimensionDictionary.Keys(product, layout));
+        });
+        store = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Override
+    protected EventStore store() {
+        return store;
+    }
+
+    @Test
+    void count_ShouldReadSegmentsWrittenBeforeRestart() {
+        for (int i = 0; i < 100; i++) {
+            store.recordView("product1", "layout1", DAY.plusMinutes(i));
+        }
+        store.close();
+
+        store = open();
+        store.recordView("product1", "layout1", DAY.plusMinutes(100));
+
+        assertEquals(101, store.countViews("product1", "layout1", DAY, DAY.plusDays(1)));
+        assertEquals(11, store.countViews("product1", "layout1", DAY.plusMinutes(90), DAY.plusMinutes(100)));
+    }
+
+    @Test
+    void count_ShouldDiscardIncompleteRecord() throws IOException {
+        for (int i = 0; i < 10; i++) {
+            store.recordView("product1", "layout1", DAY.plusHours(i));
+        }
+        store.close();
+        Path segment = directory.resolve("views").resolve(DAY.toLocalDate().toString()).resolve("1-1.seg");
+        Files.write(segment, new byte[]{(byte) 0x80}, StandardOpenOption.APPEND);
+
+        store = open();
+        store.recordView("product1", "layout1", DAY.plusHours(10));
+
+        assertEquals(11, store.countViews("product1", "layout1", DAY, DAY.plusDays(1)));
+        assertEquals(2, store.countViews("product1", "layout1", DAY.plusHours(9), DAY.plusHours(10)));
+    }
+
+    @Test
+    void count_ShouldReopenEvictedSegments() {
+        store.close();
+        store = open(2);
+        for (int i = 0; i < 20; i++) {
+            store.recordView("product1", "layout1", DAY.plusMinutes(i));
+        }
+        store.recordView("product2", "layout1", DAY);
+        store.recordView("product3", "layout1", DAY);
+
+        assertEquals(2, store.openSegments());
+        store.recordView("product1", "layout1", DAY.plusMinutes(20));
+        assertEquals(2, store.openSegments());
+
+        assertEquals(21, store.countViews("product1", "layout1", DAY, DAY.plusDays(1)));
+        assertEquals(11, store.countViews("product1", "layout1", DAY.plusMinutes(10), DAY.plusMinutes(20)));
+        assertEquals(1, store.countViews("product2", "layout1", DAY, DAY.plusDays(1)));
+        assertEquals(1, store.countViews("product3", "layout1", DAY, DAY.plusDays(1)));
+        assertEquals(2, store.openSegments());
+    }
+
+    private SegmentedEventStore open() {
+        return open(new EventStoreProperties().getMaxOpenSegments());
+    }
+
+    private SegmentedEventStore open(int maxOpenSegments) {
+        EventStoreProperties properties = new EventStoreProperties();
+        properties.setDirectory(directory);
+        properties.setIndexInterval(8);
+        properties.setMaxOpenSegments(maxOpenSegments);
+        return new SegmentedEventStore(dictionary, properties);
+    }
+}
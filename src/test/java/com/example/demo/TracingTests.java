@@ -0,0 +1,132 @@
+package com.example.demo;
+
+import com.example.demo.config.FileSpanExporter;
+import com.example.demo.config.ParallelComputationProperties;
+import com.example.demo.service.AnalyticsService;
+import com.example.demo.service.ParallelRangeCounter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of trace export and propagation with the OpenTelemetry bridge.
+ * <p>
+ * Verifies:
+ * <ul>
+ *   <li>Finished spans are written to the file as JSON lines with their parent and attributes</li>
+ *   <li>Sub-ranges counted on the fork-join pool join the caller's trace</li>
+ * </ul>
+ */
+public class TracingTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Path file;
+    private SdkTracerProvider tracerProvider;
+    private OtelTracer tracer;
+    private ObservationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("spans.jsonl");
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(new FileSpanExporter(file, objectMapper)))
+                .build();
+        tracer = new OtelTracer(tracerProvider.get("test"), new OtelCurrentTraceContext(), event -> {
+        });
+        registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new DefaultTracingObservationHandler(tracer));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void export_ShouldWriteSpansWithParentAndAttributes() throws IOException {
+        Observation.createNotStarted("report.service", registry).observe(() -> {
+            registry.getCurrentObservation().highCardinalityKeyValue("report.id", "r1");
+            Observation.createNotStarted("report.result.save", registry).observe(() -> {
+            });
+        });
+
+        List<JsonNode> spans = readSpans();
+        assertEquals(2, spans.size());
+        JsonNode save = spans.get(0);
+        JsonNode report = spans.get(1);
+        assertEquals("report.result.save", save.get("name").asText());
+        assertEquals(report.get("traceId").asText(), save.get("traceId").asText());
+        assertEquals(report.get("spanId").asText(), save.get("parentSpanId").asText());
+        assertFalse(report.has("parentSpanId"));
+        assertEquals("r1", report.get("attributes").get("report.id").asText());
+        assertTrue(report.get("endEpochNanos").asLong() >= report.get("startEpochNanos").asLong());
+    }
+
+    @Test
+    void count_ShouldCountSubRangesInCallersTrace() throws IOException {
+        Set<String> traceIds = ConcurrentHashMap.newKeySet();
+        AnalyticsService analytics = new AnalyticsService(null, null, null, null) {
+            @Override
+            public long countViews(String productId, String layoutId, LocalDateTime startDate, LocalDateTime endDate) {
+                Span span = tracer.currentSpan();
+                traceIds.add(span == null ? "none" : span.context().traceId());
+                return 1;
+            }
+
+            @Override
+            public long countPayments(String productId, String layoutId, LocalDateTime startDate, LocalDateTime endDate) {
+                return 0;
+            }
+        };
+        ParallelComputationProperties properties = new ParallelComputationProperties();
+        properties.setSplitThreshold(Duration.ofDays(14));
+        properties.setSplitGranularity(Duration.ofDays(1));
+        properties.setMaxParallelism(4);
+        properties.setMaxSubRanges(16);
+        ParallelRangeCounter counter = new ParallelRangeCounter(analytics, properties, registry);
+
+        long views = Observation.createNotStarted("report.service", registry)
+                .observe(() -> counter.count("product1", "layout1", START, START.plusDays(60)).viewCount());
+
+        assertEquals(16, views);
+        assertEquals(Set.of(readSpans().get(0).get("traceId").asText()), traceIds);
+    }
+
+    private List<JsonNode> readSpans() throws IOException {
+        List<JsonNode> spans = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            spans.add(objectMapper.readTree(line));
+        }
+        return spans;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo;
+
+import org.junit.jupiter.api.Test;
+import org.reportservice.notification.dedupe.UuidSet;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link UuidSet}.
+ * <p>
+ * Verifies:
+ * <ul>
+ *   <li>Added ids are found and duplicates are not added twice</li>
+ *   <li>The nil UUID, which marks empty slots, is stored apart and counts towards the capacity</li>
+ *   <li>A full set rejects new ids but still accepts ids it holds</li>
+ *   <li>Colliding ids are all found through linear probing</li>
+ * </ul>
+ */
+public class UuidSetTests {
+
+    @Test
+    void add_ShouldStoreEachIdOnce() {
+        UuidSet set = new UuidSet(4);
+        UUID id = UUID.randomUUID();
+
+        assertTrue(set.add(id));
+        assertFalse(set.add(id));
+
+        assertTrue(set.contains(id));
+        assertFalse(set.contains(UUID.randomUUID()));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void add_ShouldStoreNilUuid() {
+        UuidSet set = new UuidSet(2);
+        UUID nil = new UUID(0, 0);
+
+        assertFalse(set.contains(nil));
+        assertTrue(set.add(nil));
+        assertFalse(set.add(nil));
+
+        assertTrue(set.contains(nil));
+        assertEquals(1, set.size());
+        set.add(UUID.randomUUID());
+        assertTrue(set.isFull());
+    }
+
+    @Test
+    void add_ShouldRejectNewIdsWhenFull() {
+        UuidSet set = new UuidSet(3);
+        UUID first = UUID.randomUUID();
+        set.add(first);
+        set.add(UUID.randomUUID());
+        set.add(new UUID(0, 0));
+
+        assertTrue(set.isFull());
+        assertFalse(set.add(first));
+        assertThrows(IllegalStateException.class, () -> set.add(UUID.randomUUID()));
+    }
+
+    @Test
+    void contains_ShouldFindIdsThatCollide() {
+        UuidSet set = new UuidSet(8);
+        // Ids whose high and low halves xor to the same value share a home slot
+        UUID[] ids = {new UUID(1, 2), new UUID(2, 1), new UUID(3, 0), new UUID(0, 3)};
+
+        for (UUID id : ids) {
+            assertTrue(set.add(id));
+        }
+
+        for (UUID id : ids) {
+            assertTrue(set.contains(id));
+        }
+        assertFalse(set.contains(new UUID(4, 7)));
+        assertEquals(4, set.size());
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new UuidSet(0));
+        assertThrows(IllegalArgumentException.class, () -> new UuidSet((1 << 28) + 1));
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.reportservice.notification.configs.WebhookProperties;
+import org.reportservice.notification.webhook.DeadLetter;
+import org.reportservice.notification.webhook.FileDeadLetterStore;
+import org.reportservice.notification.webhook.WebhookDispatcher;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Unit tests for the notification service's {@link WebhookDispatcher} against a
+ * stub receiver.
+ * <p>
+ * Verifies:
+ * <ul>
+ *   <li>The payload is POSTed as JSON with a delivery identifier</li>
+ *   <li>Server errors are retried with the same identifier until delivered</li>
+ *   <li>Client errors are dead-lettered without a retry, and exhausted retries are dead-lettered</li>
+ *   <li>No more requests than allowed are in flight to one host</li>
+ *   <li>Loopback receivers and hosts outside the allowlist are refused without a request</li>
+ *   <li>Payloads are signed with the configured secret</li>
+ * </ul>
+ */
+class WebhookDispatcherTests {
+
+    private static final String PAYLOAD = "{\"requestId\":\"d3d94468-2d6a-4d2a-95a3-6ad246b8c5a0\",\"paymentCount\":3}";
+
+    @TempDir
+    private Path directory;
+
+    private HttpServer server;
+    private final Queue<Received> received = new ConcurrentLinkedQueue<>();
+    private volatile IntSupplier status = () -> 200;
+    private volatile long delayMillis;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private SimpleMeterRegistry registry;
+    private FileDeadLetterStore deadLetters;
+    private WebhookDispatcher dispatcher;
+
+    private record Received(String body, String contentType, String id, String attempt,
+                            String timestamp, String signature) {
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/hook", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void submit_ShouldPostPayload() {
+        open(4, 3);
+
+        dispatcher.submit(url(), PAYLOAD);
+
+        awaitOutcome("delivered", 1);
+        Received request = received.peek();
+        assertEquals(PAYLOAD, request.body());
+        assertEquals("application/json", request.contentType());
+        assertEquals("1", request.attempt());
+    }
+
+    @Test
+    void submit_ShouldRetryServerErrorsUntilDelivered() {
+        AtomicInteger calls = new AtomicInteger();
+        status = () -> calls.incrementAndGet() <= 2 ? 503 : 200;
+        open(4, 5);
+
+        dispatcher.submit(url(), PAYLOAD);
+
+        awaitOutcome("delivered", 1);
+        List<Received> requests = List.copyOf(received);
+        assertEquals(3, requests.size());
+        assertEquals(List.of("1", "2", "3"), requests.stream().map(Received::attempt).toList());
+        assertEquals(1, requests.stream().map(Received::id).distinct().count());
+        assertEquals(2, count("retried"));
+        assertEquals(List.of(), deadLetters.list());
+    }
+
+    @Test
+    void submit_ShouldDeadLetterClientErrorsAndExhaustedRetries() {
+        status = () -> 400;
+        open(4, 3);
+
+        dispatcher.submit(url(), PAYLOAD);
+        awaitOutcome("dead_lettered", 1);
+        status = () -> 500;
+        dispatcher.submit(url(), PAYLOAD);
+        awaitOutcome("dead_lettered", 2);
+
+        List<DeadLetter> stored = deadLetters.list();
+        assertEquals(2, stored.size());
+        assertEquals(1, stored.get(0).attempts());
+        assertEquals("HTTP 400", stored.get(0).reason());
+        assertEquals(3, stored.get(1).attempts());
+        assertEquals("HTTP 500", stored.get(1).reason());
+        assertEquals(PAYLOAD, stored.get(1).payload());
+        assertEquals(url().toString(), stored.get(1).url());
+        assertEquals(4, received.size());
+    }
+
+    @Test
+    void submit_ShouldBoundRequestsInFlightPerHost() {
+        delayMillis = 100;
+        open(2, 3);
+
+        for (int i = 0; i < 8; i++) {
+            dispatcher.submit(url(), PAYLOAD);
+        }
+
+        awaitOutcome("delivered", 8);
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    void submit_ShouldRefuseLoopbackAndUnlistedHosts() {
+        WebhookProperties properties = properties(4, 3);
+        properties.setAllowPrivateAddresses(false);
+        open(properties);
+
+        dispatcher.submit(url(), PAYLOAD);
+        awaitOutcome("dead_lettered", 1);
+        properties.setAllowPrivateAddresses(true);
+        properties.setAllowedHosts(List.of(".example.com"));
+        dispatcher.submit(url(), PAYLOAD);
+        awaitOutcome("dead_lettered", 2);
+
+        List<DeadLetter> stored = deadLetters.list();
+        assertEquals("host resolves to a non-public address", stored.get(0).reason());
+        assertEquals("host not allowed", stored.get(1).reason());
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void submit_ShouldSignPayload() throws Exception {
+        WebhookProperties properties = properties(4, 3);
+        properties.setSigningSecret("secret");
+        open(properties);
+
+        dispatcher.submit(url(), PAYLOAD);
+
+        awaitOutcome("delivered", 1);
+        Received request = received.peek();
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec("secret".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String expected = HexFormat.of().formatHex(
+                mac.doFinal((request.timestamp() + "." + PAYLOAD).getBytes(StandardCharsets.UTF_8)));
+        assertEquals("sha256=" + expected, request.signature());
+    }
+
+    private void open(int maxConcurrencyPerHost, int maxAttempts) {
+        open(properties(maxConcurrencyPerHost, maxAttempts));
+    }
+
+    private void open(WebhookProperties properties) {
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+        registry = new SimpleMeterRegistry();
+        deadLetters = new FileDeadLetterStore(properties, objectMapper);
+        dispatcher = new WebhookDispatcher(properties, deadLetters, registry);
+    }
+
+    private WebhookProperties properties(int maxConcurrencyPerHost, int maxAttempts) {
+        WebhookProperties properties = new WebhookProperties();
+        properties.setMaxConcurrencyPerHost(maxConcurrencyPerHost);
+        properties.setMaxAttempts(maxAttempts);
+        properties.setInitialBackoff(Duration.ofMillis(10));
+        properties.setMaxBackoff(Duration.ofMillis(50));
+        properties.setDeadLetterFile(directory.resolve("dead-letters.jsonl"));
+        // The stub receiver listens on loopback
+        properties.setAllowPrivateAddresses(true);
+        return properties;
+    }
+
+    private URI url() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/hook");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            received.add(new Received(
+                    new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8),
+                    exchange.getRequestHeaders().getFirst("Content-Type"),
+                    exchange.getRequestHeaders().getFirst("X-Webhook-Id"),
+                    exchange.getRequestHeaders().getFirst("X-Webhook-Attempt"),
+                    exchange.getRequestHeaders().getFirst("X-Webhook-Timestamp"),
+                    exchange.getRequestHeaders().getFirst("X-Webhook-Signature")));
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        exchange.sendResponseHeaders(status.getAsInt(), -1);
+        exchange.close();
+    }
+
+    private double count(String outcome) {
+        return registry.get("notification.webhook.deliveries").tag("outcome", outcome).counter().count();
+    }
+
+    private void awaitOutcome(String outcome, double expected) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (count(outcome) < expected) {
+            if (System.nanoTime() > deadline) {
+                fail("Expected " + expected + " " + outcome + " deliveries, got " + count(outcome));
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted");
+            }
+        }
+    }
+}